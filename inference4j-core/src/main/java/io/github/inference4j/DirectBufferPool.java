@@ -22,44 +22,76 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * A simple pool of direct {@link ByteBuffer}s keyed by capacity.
+ * A thread-safe pool of direct {@link ByteBuffer}s keyed by capacity.
  *
- * <p>Buffers are indexed in a {@link TreeMap} so that {@code lease(n)} returns
- * the smallest pooled buffer with capacity &ge; {@code n} in O(log n) time.
- * When the pool reaches {@link #MAX_POOLED_BUFFERS}, the smallest buffer is
- * evicted (it serves the fewest future requests).
+ * <p>The pool is split into stripes, and each thread leases from and returns to
+ * the stripe selected by its thread id. Concurrent {@link InferenceSession#run}
+ * calls on different threads therefore rarely touch the same stripe, and a
+ * stripe's lock is only held for a single map operation.
  *
- * <p>Not thread-safe &mdash; intended for use within a single-threaded
- * {@link InferenceSession}.
+ * <p>Within a stripe, buffers are indexed in a {@link TreeMap} so that
+ * {@code lease(n)} returns the smallest pooled buffer with capacity &ge; {@code n}
+ * in O(log n) time. The pool is capped by the total capacity it retains
+ * (across all stripes) rather than by buffer count: when returning a buffer
+ * would exceed the budget, the smallest buffers of the stripe are evicted
+ * (they serve the fewest future requests), and a buffer larger than the whole
+ * budget is never retained. Bytes are reserved against the budget atomically
+ * before a buffer is added, so concurrent returns to different stripes never
+ * take the pool past it.
  */
 class DirectBufferPool {
 
-    static final int MAX_POOLED_BUFFERS = 32;
+    static final long DEFAULT_MAX_POOLED_BYTES = 256L * 1024 * 1024;
 
-    private final TreeMap<Integer, Deque<ByteBuffer>> pool = new TreeMap<>();
-    private int totalBuffers;
+    private final Stripe[] stripes;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicInteger totalBuffers = new AtomicInteger();
+
+    DirectBufferPool() {
+        this(DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    DirectBufferPool(long maxPooledBytes) {
+        this(maxPooledBytes, Runtime.getRuntime().availableProcessors());
+    }
+
+    DirectBufferPool(long maxPooledBytes, int concurrency) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("maxPooledBytes must be >= 0, got " + maxPooledBytes);
+        }
+        int count = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxPooledBytes = maxPooledBytes;
+    }
 
     /**
      * Returns a direct {@link ByteBuffer} with at least {@code requiredBytes}
      * capacity, in native byte order, with position at 0.
      *
-     * <p>If the pool contains a buffer with capacity &ge; {@code requiredBytes},
-     * the smallest such buffer is removed from the pool and returned.
-     * Otherwise a fresh direct buffer is allocated.
+     * <p>If the calling thread's stripe contains a buffer with capacity &ge;
+     * {@code requiredBytes}, the smallest such buffer is removed from the pool and
+     * returned. Otherwise a fresh direct buffer is allocated.
      *
      * @param requiredBytes minimum capacity in bytes
      * @return a direct ByteBuffer in native byte order with position 0
      */
     ByteBuffer lease(int requiredBytes) {
-        Map.Entry<Integer, Deque<ByteBuffer>> entry = pool.ceilingEntry(requiredBytes);
-        if (entry != null && !entry.getValue().isEmpty()) {
-            ByteBuffer buffer = entry.getValue().poll();
-            if (entry.getValue().isEmpty()) {
-                pool.remove(entry.getKey());
-            }
-            totalBuffers--;
+        Stripe stripe = currentStripe();
+        ByteBuffer buffer;
+        synchronized (stripe) {
+            buffer = stripe.pollCeiling(requiredBytes);
+        }
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            totalBuffers.decrementAndGet();
             buffer.clear();
             return buffer;
         }
@@ -70,7 +102,9 @@ class DirectBufferPool {
      * Returns a buffer to the pool for future reuse. Ignores null and
      * non-direct buffers.
      *
-     * <p>If the pool is at capacity, the smallest buffer is evicted.
+     * <p>If retaining the buffer would exceed the byte budget, the smallest
+     * buffers in the stripe are evicted first; if that is not enough, the
+     * buffer is dropped instead.
      *
      * @param buffer the buffer to return (may be null)
      */
@@ -78,37 +112,100 @@ class DirectBufferPool {
         if (buffer == null || !buffer.isDirect()) {
             return;
         }
-        if (totalBuffers >= MAX_POOLED_BUFFERS) {
-            evictSmallest();
+        int capacity = buffer.capacity();
+        if (capacity > maxPooledBytes) {
+            return;
+        }
+        Stripe stripe = currentStripe();
+        synchronized (stripe) {
+            while (!reserve(capacity)) {
+                ByteBuffer evicted = stripe.pollSmallest();
+                if (evicted == null) {
+                    return;
+                }
+                pooledBytes.addAndGet(-evicted.capacity());
+                totalBuffers.decrementAndGet();
+            }
+            stripe.add(buffer);
+            totalBuffers.incrementAndGet();
+        }
+    }
+
+    // Other stripes return buffers concurrently, so the budget is checked and taken
+    // in one step; bytes are released only after their buffer has left its stripe
+    private boolean reserve(int capacity) {
+        while (true) {
+            long current = pooledBytes.get();
+            if (current + capacity > maxPooledBytes) {
+                return false;
+            }
+            if (pooledBytes.compareAndSet(current, current + capacity)) {
+                return true;
+            }
         }
-        pool.computeIfAbsent(buffer.capacity(), k -> new ArrayDeque<>()).add(buffer);
-        totalBuffers++;
     }
 
     /**
      * Removes all pooled buffers.
      */
     void clear() {
-        pool.clear();
-        totalBuffers = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                ByteBuffer buffer;
+                while ((buffer = stripe.pollSmallest()) != null) {
+                    pooledBytes.addAndGet(-buffer.capacity());
+                    totalBuffers.decrementAndGet();
+                }
+            }
+        }
     }
 
     /**
      * Returns the number of buffers currently held in the pool.
      */
     int size() {
-        return totalBuffers;
+        return totalBuffers.get();
     }
 
-    private void evictSmallest() {
-        Map.Entry<Integer, Deque<ByteBuffer>> first = pool.firstEntry();
-        if (first == null) {
-            return;
+    /**
+     * Returns the total capacity, in bytes, of the buffers currently held in the pool.
+     */
+    long pooledBytes() {
+        return pooledBytes.get();
+    }
+
+    private Stripe currentStripe() {
+        long id = Thread.currentThread().getId();
+        int hash = Long.hashCode(id * 0x9E3779B97F4A7C15L);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /** A capacity-indexed set of buffers; callers synchronize on the stripe. */
+    private static final class Stripe {
+
+        private final TreeMap<Integer, Deque<ByteBuffer>> buffers = new TreeMap<>();
+
+        ByteBuffer pollCeiling(int requiredBytes) {
+            return poll(buffers.ceilingEntry(requiredBytes));
         }
-        first.getValue().poll();
-        if (first.getValue().isEmpty()) {
-            pool.remove(first.getKey());
+
+        ByteBuffer pollSmallest() {
+            return poll(buffers.firstEntry());
+        }
+
+        void add(ByteBuffer buffer) {
+            buffers.computeIfAbsent(buffer.capacity(), k -> new ArrayDeque<>()).add(buffer);
+        }
+
+        private ByteBuffer poll(Map.Entry<Integer, Deque<ByteBuffer>> entry) {
+            if (entry == null) {
+                return null;
+            }
+            ByteBuffer buffer = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) {
+                buffers.remove(entry.getKey());
+            }
+            return buffer;
         }
-        totalBuffers--;
     }
 }
@@ -28,20 +28,28 @@ import ai.onnxruntime.TensorInfo;
 import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelLoadException;
 import io.github.inference4j.exception.TensorConversionException;
+import io.github.inference4j.session.GlobalThreadPools;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.session.SessionOptions;
+import io.github.inference4j.session.ThreadTopology;
 
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * Manages an ONNX Runtime session for running model inference.
@@ -53,6 +61,10 @@ import java.util.Set;
  * <p>Sessions are expensive to create (they load and optimize the model graph)
  * but cheap to call repeatedly. Create one session and reuse it across requests.
  *
+ * <p>{@link #run(Map)} is safe to call concurrently from multiple threads. Each
+ * call tracks its own leased input buffers, and the shared buffer pool is
+ * striped by thread so that concurrent calls rarely contend.
+ *
  * <p>Example usage:
  * <pre>{@code
  * try (InferenceSession session = InferenceSession.create(Path.of("model.onnx"))) {
@@ -67,15 +79,24 @@ import java.util.Set;
  */
 public class InferenceSession implements AutoCloseable {
 
+    // Weakly held, so a session dropped without close() does not stay reachable through
+    // the registry; callers synchronize on the set to iterate it
+    private static final Set<InferenceSession> OPEN_SESSIONS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     private final OrtEnvironment environment;
     private final OrtSession session;
     private final DirectBufferPool bufferPool;
+    private final ThreadTopology.SessionThreads threads;
     private volatile ModelMetadata metadata;
 
-    private InferenceSession(OrtEnvironment environment, OrtSession session) {
+    private InferenceSession(OrtEnvironment environment, OrtSession session,
+                             ThreadTopology.SessionThreads threads) {
         this.environment = environment;
         this.session = session;
         this.bufferPool = new DirectBufferPool();
+        this.threads = threads;
+        OPEN_SESSIONS.add(this);
     }
 
     /**
@@ -102,16 +123,18 @@ public class InferenceSession implements AutoCloseable {
      * @see SessionConfigurer
      */
     public static InferenceSession create(Path modelPath, SessionConfigurer configurer) {
+        if (configurer instanceof SessionOptions options) {
+            return create(modelPath, options);
+        }
         try {
             OrtEnvironment env = OrtEnvironment.getEnvironment();
             try (OrtSession.SessionOptions opts = new OrtSession.SessionOptions()) {
-                int cpus = Runtime.getRuntime().availableProcessors();
-                opts.setIntraOpNumThreads(cpus);
-                opts.setInterOpNumThreads(cpus);
-                opts.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+                SessionOptions defaults = SessionOptions.defaults();
+                defaults.configure(opts);
                 configurer.configure(opts);
                 OrtSession session = env.createSession(modelPath.toString(), opts);
-                return new InferenceSession(env, session);
+                return new InferenceSession(env, session,
+                        ThreadTopology.SessionThreads.of(modelPath.toString(), configurer));
             }
         } catch (OrtException e) {
             throw new ModelLoadException(
@@ -122,24 +145,54 @@ public class InferenceSession implements AutoCloseable {
     /**
      * Creates a session from an ONNX model file with custom options.
      *
+     * <p>When {@link SessionOptions.Builder#optimizedModelCache(Path) an optimized-model
+     * cache} is configured, the optimized graph is saved on first load and reused,
+     * with optimizations disabled, on later loads.
+     *
      * @param modelPath path to the {@code .onnx} model file
-     * @param options   session configuration (thread counts, optimization level)
+     * @param options   session configuration (thread counts, optimization level,
+     *                  memory and execution settings)
      * @return a new session ready for inference
      * @throws io.github.inference4j.exception.ModelLoadException if the model cannot be loaded
      */
     public static InferenceSession create(Path modelPath, SessionOptions options) {
         try {
             OrtEnvironment env = OrtEnvironment.getEnvironment();
+            if (options.optimizedModelCacheDir() != null) {
+                OrtSession session = OptimizedModelCache.createSession(env, modelPath, options);
+                return new InferenceSession(env, session,
+                        ThreadTopology.SessionThreads.of(modelPath.toString(), options));
+            }
             try (OrtSession.SessionOptions ortOptions = options.toOrtOptions()) {
                 OrtSession session = env.createSession(modelPath.toString(), ortOptions);
-                return new InferenceSession(env, session);
+                return new InferenceSession(env, session,
+                        ThreadTopology.SessionThreads.of(modelPath.toString(), options));
             }
-        } catch (OrtException e) {
+        } catch (OrtException | UncheckedIOException e) {
             throw new ModelLoadException(
                     "Failed to load model from " + modelPath + ": " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Reports the ONNX Runtime threads configured across all open sessions and the
+     * {@link GlobalThreadPools}, to check a multi-model deployment for core
+     * oversubscription. Sessions that were dropped without being closed are left out
+     * once garbage collected.
+     *
+     * @return a snapshot of the current thread topology
+     */
+    public static ThreadTopology threadTopology() {
+        List<ThreadTopology.SessionThreads> sessions = new ArrayList<>();
+        synchronized (OPEN_SESSIONS) {
+            for (InferenceSession open : OPEN_SESSIONS) {
+                sessions.add(open.threads);
+            }
+        }
+        return new ThreadTopology(Runtime.getRuntime().availableProcessors(),
+                GlobalThreadPools.current().orElse(null), sessions);
+    }
+
     /**
      * Returns the names of all input tensors expected by the model.
      *
@@ -159,15 +212,7 @@ public class InferenceSession implements AutoCloseable {
      * @throws InferenceException if the input name is not found
      */
     public long[] inputShape(String name) {
-        try {
-            NodeInfo info = session.getInputInfo().get(name);
-            if (info == null) {
-                throw new InferenceException("Unknown input: " + name);
-            }
-            return ((TensorInfo) info.getInfo()).getShape();
-        } catch (OrtException e) {
-            throw new InferenceException("Failed to get input shape: " + e.getMessage(), e);
-        }
+        return tensorInfo(true, name).getShape();
     }
 
     /**
@@ -178,26 +223,89 @@ public class InferenceSession implements AutoCloseable {
      * @throws InferenceException if the input name is not found
      */
     public TensorType inputType(String name) {
-        try {
-            NodeInfo info = session.getInputInfo().get(name);
-            if (info == null) {
-                throw new InferenceException("Unknown input: " + name);
+        return tensorType(tensorInfo(true, name).type, "input", name);
+    }
+
+    /**
+     * Returns the names of all output tensors produced by the model.
+     *
+     * @return set of output tensor names
+     */
+    public Set<String> outputNames() {
+        return session.getOutputNames();
+    }
+
+    /**
+     * Returns the shape of the named output tensor as defined in the model.
+     *
+     * <p>Dynamic dimensions are represented as {@code -1}.
+     *
+     * @param name the output tensor name
+     * @return the tensor shape
+     * @throws InferenceException if the output name is not found
+     */
+    public long[] outputShape(String name) {
+        return tensorInfo(false, name).getShape();
+    }
+
+    /**
+     * Returns the element type of the named output tensor as defined in the model.
+     *
+     * @param name the output tensor name
+     * @return the tensor type
+     * @throws InferenceException if the output name is not found
+     */
+    public TensorType outputType(String name) {
+        return tensorType(tensorInfo(false, name).type, "output", name);
+    }
+
+    /**
+     * Prepares a reusable run for fixed input shapes, binding every model output
+     * at the shape declared in the model.
+     *
+     * @param inputShapes map of input name to the shape it will always be fed with
+     * @return a prepared run; close it before closing this session
+     * @throws InferenceException if an output has a dynamic shape, in which case
+     *                            use {@link #prepare(Map, Map)}
+     * @see PreparedRun
+     */
+    public PreparedRun prepare(Map<String, long[]> inputShapes) {
+        Map<String, long[]> outputShapes = new LinkedHashMap<>();
+        for (var entry : nodeInfo(false).entrySet()) {
+            long[] shape = ((TensorInfo) entry.getValue().getInfo()).getShape();
+            for (long dim : shape) {
+                if (dim < 0) {
+                    throw new InferenceException("Output '" + entry.getKey()
+                            + "' has a dynamic shape " + Arrays.toString(shape)
+                            + "; pass output shapes to prepare(inputShapes, outputShapes)");
+                }
             }
-            OnnxJavaType javaType = ((TensorInfo) info.getInfo()).type;
-            return switch (javaType) {
-                case FLOAT -> TensorType.FLOAT;
-                case FLOAT16, BFLOAT16 -> TensorType.FLOAT16;
-                case INT64 -> TensorType.LONG;
-                case INT32 -> TensorType.INT;
-                case INT8, UINT8, BOOL -> TensorType.BYTE;
-                case DOUBLE -> TensorType.DOUBLE;
-                case STRING -> TensorType.STRING;
-                default -> throw new InferenceException(
-                        "Unsupported input type for '" + name + "': " + javaType);
-            };
-        } catch (OrtException e) {
-            throw new InferenceException("Failed to get input type: " + e.getMessage(), e);
+            outputShapes.put(entry.getKey(), shape);
         }
+        return prepare(inputShapes, outputShapes);
+    }
+
+    /**
+     * Prepares a reusable run that binds the given inputs and outputs once.
+     *
+     * <p>Input buffers are filled in place through {@link PreparedRun#inputFloats(String)}
+     * and outputs are pinned, so repeated calls to {@link PreparedRun#run()} allocate
+     * no native tensors or Java arrays. Only outputs listed in {@code outputShapes}
+     * are computed. Supported element types are {@code FLOAT}, {@code FLOAT16} and
+     * {@code INT64}.
+     *
+     * @param inputShapes  map of input name to the shape it will always be fed with
+     * @param outputShapes map of output name to the shape the model produces for those inputs
+     * @return a prepared run; close it before closing this session
+     * @throws InferenceException if a name is unknown or the tensors cannot be bound
+     * @throws io.github.inference4j.exception.TensorConversionException if a shape is
+     *         dynamic or an element type is unsupported
+     * @see PreparedRun
+     */
+    public PreparedRun prepare(Map<String, long[]> inputShapes, Map<String, long[]> outputShapes) {
+        return PreparedRun.create(environment, session,
+                inputShapes, javaTypes(nodeInfo(true)),
+                outputShapes, javaTypes(nodeInfo(false)));
     }
 
     /**
@@ -230,6 +338,8 @@ public class InferenceSession implements AutoCloseable {
     /**
      * Runs inference with the given input tensors and returns the model outputs.
      *
+     * <p>This method is thread-safe; a single session can serve concurrent requests.
+     *
      * @param inputs map of input name to tensor (must match the model's expected inputs)
      * @return map of output name to tensor, in model-defined order
      * @throws InferenceException if inference fails
@@ -262,8 +372,118 @@ public class InferenceSession implements AutoCloseable {
         }
     }
 
+    /**
+     * Runs inference and leaves the outputs in native memory instead of copying
+     * them to the heap.
+     *
+     * <p>Intended for autoregressive decoding, where most outputs (e.g., the
+     * {@code present.*} key/value cache) are only fed back into the next step.
+     * Outputs of an earlier call are passed back through {@code nativeInputs} without
+     * leaving native memory. Outputs in {@code pinnedOutputs} are written by ONNX
+     * Runtime straight into the direct buffer backing the given tensor, so the caller
+     * can read small outputs such as logits without an intermediate copy.
+     *
+     * <pre>{@code
+     * try (NativeOutputs step = session.runNative(inputs, cache, Map.of("logits", logits))) {
+     *     float next = logits.floatBuffer().get(0);
+     *     NativeTensor present = step.get("present.0.key");
+     *     // ... feed present back as past_key_values.0.key before closing step
+     * }
+     * }</pre>
+     *
+     * @param inputs        map of input name to heap or buffer-backed tensor
+     * @param nativeInputs  map of input name to an output of an earlier native run;
+     *                      the outputs it came from must still be open
+     * @param pinnedOutputs map of output name to a tensor backed by a direct buffer
+     *                      of exactly the output's size; these outputs are not part of
+     *                      the returned {@link NativeOutputs}
+     * @return the remaining outputs; close them once they are no longer needed
+     * @throws InferenceException if inference fails
+     * @throws io.github.inference4j.exception.TensorConversionException if a pinned
+     *         output is not backed by a direct buffer or a tensor type is unsupported
+     * @see NativeOutputs
+     */
+    public NativeOutputs runNative(Map<String, Tensor> inputs, Map<String, NativeTensor> nativeInputs,
+                                   Map<String, Tensor> pinnedOutputs) {
+        Map<String, OnnxTensor> onnxInputs = new HashMap<>();
+        Map<String, OnnxTensor> onnxPinned = new HashMap<>();
+        List<ByteBuffer> leasedBuffers = new ArrayList<>();
+        try {
+            for (var entry : inputs.entrySet()) {
+                onnxInputs.put(entry.getKey(), toOnnxTensor(entry.getValue(), leasedBuffers));
+            }
+            for (var entry : pinnedOutputs.entrySet()) {
+                ByteBuffer target = entry.getValue().rawBuffer();
+                if (target == null || !target.isDirect()) {
+                    throw new TensorConversionException("Pinned output '" + entry.getKey()
+                            + "' must be backed by a direct buffer");
+                }
+                onnxPinned.put(entry.getKey(),
+                        bufferToOnnxTensor(entry.getValue(), target, leasedBuffers));
+            }
+
+            Map<String, OnnxTensor> allInputs = new HashMap<>(onnxInputs);
+            nativeInputs.forEach((name, tensor) -> allInputs.put(name, tensor.onnxTensor()));
+            Set<String> requested = new LinkedHashSet<>(session.getOutputNames());
+            requested.removeAll(pinnedOutputs.keySet());
+            return new NativeOutputs(session.run(allInputs, requested, onnxPinned));
+        } catch (OrtException e) {
+            throw new InferenceException("Inference failed: " + e.getMessage(), e);
+        } finally {
+            onnxInputs.values().forEach(OnnxTensor::close);
+            onnxPinned.values().forEach(OnnxTensor::close);
+            for (ByteBuffer bb : leasedBuffers) {
+                bufferPool.returnBuffer(bb);
+            }
+        }
+    }
+
+    private TensorInfo tensorInfo(boolean input, String name) {
+        NodeInfo info = nodeInfo(input).get(name);
+        if (info == null) {
+            throw new InferenceException("Unknown " + (input ? "input" : "output") + ": " + name);
+        }
+        return (TensorInfo) info.getInfo();
+    }
+
+    static TensorType tensorType(OnnxJavaType javaType, String kind, String name) {
+        return switch (javaType) {
+            case FLOAT -> TensorType.FLOAT;
+            case FLOAT16, BFLOAT16 -> TensorType.FLOAT16;
+            case INT64 -> TensorType.LONG;
+            case INT32 -> TensorType.INT;
+            case INT8, UINT8, BOOL -> TensorType.BYTE;
+            case DOUBLE -> TensorType.DOUBLE;
+            case STRING -> TensorType.STRING;
+            default -> throw new InferenceException(
+                    "Unsupported " + kind + " type for '" + name + "': " + javaType);
+        };
+    }
+
+    private Map<String, NodeInfo> nodeInfo(boolean inputs) {
+        try {
+            return inputs ? session.getInputInfo() : session.getOutputInfo();
+        } catch (OrtException e) {
+            throw new InferenceException("Failed to read model signature: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, OnnxJavaType> javaTypes(Map<String, NodeInfo> nodes) {
+        Map<String, OnnxJavaType> types = new HashMap<>();
+        nodes.forEach((name, node) -> {
+            if (node.getInfo() instanceof TensorInfo tensorInfo) {
+                types.put(name, tensorInfo.type);
+            }
+        });
+        return types;
+    }
+
     private OnnxTensor toOnnxTensor(Tensor tensor, List<ByteBuffer> leasedBuffers)
             throws OrtException {
+        ByteBuffer source = tensor.rawBuffer();
+        if (source != null) {
+            return bufferToOnnxTensor(tensor, source, leasedBuffers);
+        }
         return switch (tensor.type()) {
             case FLOAT -> {
                 float[] data = (float[]) tensor.rawData();
@@ -300,29 +520,39 @@ public class InferenceSession implements AutoCloseable {
         };
     }
 
-    private Tensor fromOnnxTensor(OnnxTensor onnxTensor) {
+    private OnnxTensor bufferToOnnxTensor(Tensor tensor, ByteBuffer source,
+                                          List<ByteBuffer> leasedBuffers) throws OrtException {
+        // Direct buffers are passed through as-is; heap buffers are staged in a
+        // pooled direct buffer, as ONNX Runtime would otherwise copy them itself
+        ByteBuffer bb = source;
+        if (!source.isDirect()) {
+            bb = bufferPool.lease(source.remaining());
+            leasedBuffers.add(bb);
+            bb.put(source);
+            bb.flip();
+        }
+        return switch (tensor.type()) {
+            case FLOAT -> OnnxTensor.createTensor(environment, bb.asFloatBuffer(), tensor.shape());
+            case FLOAT16 -> OnnxTensor.createTensor(environment, bb.asShortBuffer(), tensor.shape(),
+                    OnnxJavaType.FLOAT16);
+            case LONG -> OnnxTensor.createTensor(environment, bb.asLongBuffer(), tensor.shape());
+            default -> throw new TensorConversionException(
+                    "Unsupported tensor type for ONNX conversion: " + tensor.type());
+        };
+    }
+
+    static Tensor fromOnnxTensor(OnnxTensor onnxTensor) {
         TensorInfo info = onnxTensor.getInfo();
         long[] shape = info.getShape();
 
+        // Numeric outputs are copied out of native memory once: getByteBuffer() returns
+        // a heap buffer, which backs the tensor as-is. Off-heap outputs go through
+        // pinned outputs in runNative instead; heap arrays are created lazily on request
         return switch (info.type) {
-            case FLOAT -> {
-                FloatBuffer buffer = onnxTensor.getFloatBuffer();
-                float[] data = new float[buffer.remaining()];
-                buffer.get(data);
-                yield Tensor.fromFloats(data, shape);
-            }
-            case FLOAT16, BFLOAT16 -> {
-                ShortBuffer buffer = onnxTensor.getShortBuffer();
-                short[] data = new short[buffer.remaining()];
-                buffer.get(data);
-                yield Tensor.fromFloat16(data, shape);
-            }
-            case INT64 -> {
-                LongBuffer buffer = onnxTensor.getLongBuffer();
-                long[] data = new long[buffer.remaining()];
-                buffer.get(data);
-                yield Tensor.fromLongs(data, shape);
-            }
+            case FLOAT -> Tensor.fromBuffer(nativeBytes(onnxTensor), shape, TensorType.FLOAT);
+            case FLOAT16, BFLOAT16 -> Tensor.fromBuffer(nativeBytes(onnxTensor), shape,
+                    TensorType.FLOAT16);
+            case INT64 -> Tensor.fromBuffer(nativeBytes(onnxTensor), shape, TensorType.LONG);
             case STRING -> {
                 try {
                     String[] data = (String[]) onnxTensor.getValue();
@@ -337,6 +567,10 @@ public class InferenceSession implements AutoCloseable {
         };
     }
 
+    private static ByteBuffer nativeBytes(OnnxTensor onnxTensor) {
+        return onnxTensor.getByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
     @Override
     public void close() {
         try {
@@ -345,5 +579,6 @@ public class InferenceSession implements AutoCloseable {
             // Silently ignore close errors
         }
         bufferPool.clear();
+        OPEN_SESSIONS.remove(this);
     }
 }
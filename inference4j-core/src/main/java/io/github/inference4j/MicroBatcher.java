@@ -0,0 +1,405 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import io.github.inference4j.exception.InferenceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dynamic micro-batching for any {@link AbstractInferenceTask}.
+ *
+ * <p>Concurrent callers of {@link #run(Object)} preprocess their own input, then
+ * hand the tensors to a single dispatcher thread. The dispatcher collects requests
+ * until {@code maxBatchSize} rows are queued or {@code maxWait} has elapsed since
+ * the first one arrived, stacks compatible inputs along axis 0, runs the session
+ * once, and splits every output back along axis 0. Each caller then runs the
+ * task's postprocessor on its own slice, so results are identical to calling the
+ * task directly.
+ *
+ * <pre>{@code
+ * MicroBatcher<String, List<TextClassification>> batcher = MicroBatcher
+ *         .builder(DistilBertTextClassifier.builder().build())
+ *         .maxBatchSize(16)
+ *         .maxWait(Duration.ofMillis(5))
+ *         .padSequences("input_ids", "attention_mask")
+ *         .build();
+ *
+ * List<TextClassification> result = batcher.run("great movie");   // from any thread
+ * }</pre>
+ *
+ * <p>Requests are compatible when they have the same input names, types and shapes
+ * apart from axis 0. Axis 1 of the inputs named in {@link Builder#padSequences(String...)}
+ * may also differ: shorter inputs are right-padded with zeros (the padding token and
+ * mask value of BERT-style encoders). Outputs named in
+ * {@link Builder#trimSequences(String...)} are trimmed back to each request's own
+ * length on axis 1; all other outputs are only split along axis 0. Incompatible
+ * requests in the same window run as separate batches.
+ *
+ * <p>Closing the batcher fails queued requests and closes the wrapped task.
+ *
+ * @param <I> the task input type
+ * @param <O> the task output type
+ */
+public final class MicroBatcher<I, O> implements InferenceTask<I, O> {
+
+    private final AbstractInferenceTask<I, O> task;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Set<String> paddedInputs;
+    private final Set<String> trimmedOutputs;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private MicroBatcher(Builder<I, O> builder) {
+        this.task = builder.task;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.paddedInputs = builder.paddedInputs;
+        this.trimmedOutputs = builder.trimmedOutputs;
+        this.dispatcher = new Thread(this::dispatchLoop, "inference4j-micro-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public static <I, O> Builder<I, O> builder(AbstractInferenceTask<I, O> task) {
+        return new Builder<>(task);
+    }
+
+    /**
+     * Runs the wrapped task on {@code input} as part of a batch, blocking until the
+     * batch containing it has completed.
+     *
+     * @throws InferenceException if the batch fails, the batcher is closed, or the
+     *                            calling thread is interrupted while waiting
+     */
+    @Override
+    public O run(I input) {
+        if (closed) {
+            throw new InferenceException("MicroBatcher is closed");
+        }
+        Map<String, Tensor> inputs = task.preprocessor.process(input);
+        Request request = new Request(inputs);
+        queue.add(request);
+        if (closed && queue.remove(request)) {
+            throw new InferenceException("MicroBatcher is closed");
+        }
+        Map<String, Tensor> outputs = request.await();
+        return task.postprocessor.process(new InferenceContext<>(input, inputs, outputs));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Request pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new InferenceException("MicroBatcher is closed"));
+        }
+        task.close();
+    }
+
+    private void dispatchLoop() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        Request carry = null;
+        while (!closed) {
+            try {
+                Request first = carry != null ? carry : queue.take();
+                carry = null;
+                batch.add(first);
+                int rows = first.rows;
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (rows < maxBatchSize) {
+                    Request next = queue.poll(Math.max(0, deadline - System.nanoTime()),
+                            TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (rows + next.rows > maxBatchSize) {
+                        carry = next;
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.rows;
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(request -> request.result.completeExceptionally(
+                        new InferenceException("MicroBatcher is closed")));
+                if (carry != null) {
+                    carry.result.completeExceptionally(new InferenceException("MicroBatcher is closed"));
+                }
+                return;
+            }
+            for (List<Request> group : groupCompatible(batch)) {
+                execute(group);
+            }
+            batch.clear();
+        }
+        if (carry != null) {
+            carry.result.completeExceptionally(new InferenceException("MicroBatcher is closed"));
+        }
+    }
+
+    private List<List<Request>> groupCompatible(List<Request> batch) {
+        Map<String, List<Request>> groups = new LinkedHashMap<>();
+        for (Request request : batch) {
+            groups.computeIfAbsent(signature(request.inputs), k -> new ArrayList<>()).add(request);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private String signature(Map<String, Tensor> inputs) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Tensor> entry : new TreeMap<>(inputs).entrySet()) {
+            long[] shape = entry.getValue().shape();
+            sb.append(entry.getKey()).append(':').append(entry.getValue().type()).append('[');
+            for (int i = 1; i < shape.length; i++) {
+                boolean padded = i == 1 && paddedInputs.contains(entry.getKey());
+                sb.append(padded ? "*" : Long.toString(shape[i])).append(',');
+            }
+            sb.append("];");
+        }
+        return sb.toString();
+    }
+
+    private void execute(List<Request> group) {
+        try {
+            if (group.size() == 1) {
+                Request only = group.get(0);
+                only.result.complete(task.session.run(only.inputs));
+                return;
+            }
+            int paddedLength = 0;
+            for (Request request : group) {
+                paddedLength = Math.max(paddedLength, request.length);
+            }
+            Map<String, Tensor> batched = new LinkedHashMap<>();
+            for (String name : group.get(0).inputs.keySet()) {
+                List<Tensor> parts = new ArrayList<>(group.size());
+                for (Request request : group) {
+                    parts.add(request.inputs.get(name));
+                }
+                batched.put(name, paddedInputs.contains(name)
+                        ? padAndConcat(parts, paddedLength)
+                        : Tensor.concat(parts));
+            }
+            Map<String, Tensor> outputs = task.session.run(batched);
+            split(group, outputs, paddedLength);
+        } catch (RuntimeException e) {
+            group.forEach(request -> request.result.completeExceptionally(e));
+        }
+    }
+
+    private void split(List<Request> group, Map<String, Tensor> outputs, int paddedLength) {
+        int totalRows = group.stream().mapToInt(request -> request.rows).sum();
+        for (Map.Entry<String, Tensor> entry : outputs.entrySet()) {
+            long[] shape = entry.getValue().shape();
+            if (shape.length == 0 || shape[0] != totalRows) {
+                throw new InferenceException("Output '" + entry.getKey() + "' with shape "
+                        + Arrays.toString(shape) + " has no batch dimension of size " + totalRows
+                        + "; this model cannot be micro-batched");
+            }
+            if (trimmedOutputs.contains(entry.getKey()) && (shape.length < 2 || shape[1] != paddedLength)) {
+                throw new InferenceException("Output '" + entry.getKey() + "' with shape "
+                        + Arrays.toString(shape) + " has no sequence axis of length " + paddedLength
+                        + " to trim");
+            }
+        }
+        int offset = 0;
+        for (Request request : group) {
+            Map<String, Tensor> own = new LinkedHashMap<>();
+            for (Map.Entry<String, Tensor> entry : outputs.entrySet()) {
+                Tensor part = entry.getValue().narrow(0, offset, request.rows);
+                if (trimmedOutputs.contains(entry.getKey()) && request.length < paddedLength) {
+                    part = part.narrow(1, 0, request.length);
+                }
+                own.put(entry.getKey(), part);
+            }
+            offset += request.rows;
+            request.result.complete(own);
+        }
+    }
+
+    private static Tensor padAndConcat(List<Tensor> parts, int paddedLength) {
+        Tensor first = parts.get(0);
+        if (first.shape().length < 2) {
+            return Tensor.concat(parts);
+        }
+        int rows = 0;
+        int inner = 1;
+        long[] firstShape = first.shape();
+        for (int i = 2; i < firstShape.length; i++) {
+            inner *= (int) firstShape[i];
+        }
+        for (Tensor part : parts) {
+            rows += (int) part.shape()[0];
+        }
+        long[] shape = firstShape.clone();
+        shape[0] = rows;
+        shape[1] = paddedLength;
+        int rowStride = paddedLength * inner;
+        return switch (first.type()) {
+            case LONG -> {
+                long[] dst = new long[rows * rowStride];
+                int row = 0;
+                for (Tensor part : parts) {
+                    long[] src = part.toLongs();
+                    int rowSize = (int) part.shape()[1] * inner;
+                    for (int r = 0; r < part.shape()[0]; r++, row++) {
+                        System.arraycopy(src, r * rowSize, dst, row * rowStride, rowSize);
+                    }
+                }
+                yield Tensor.fromLongs(dst, shape);
+            }
+            case FLOAT -> {
+                float[] dst = new float[rows * rowStride];
+                int row = 0;
+                for (Tensor part : parts) {
+                    float[] src = part.toFloats();
+                    int rowSize = (int) part.shape()[1] * inner;
+                    for (int r = 0; r < part.shape()[0]; r++, row++) {
+                        System.arraycopy(src, r * rowSize, dst, row * rowStride, rowSize);
+                    }
+                }
+                yield Tensor.fromFloats(dst, shape);
+            }
+            default -> throw new InferenceException(
+                    "Sequence padding is not supported for " + first.type() + " inputs");
+        };
+    }
+
+    private final class Request {
+
+        final Map<String, Tensor> inputs;
+        final int rows;
+        final int length;
+        final CompletableFuture<Map<String, Tensor>> result = new CompletableFuture<>();
+
+        Request(Map<String, Tensor> inputs) {
+            if (inputs.isEmpty()) {
+                throw new InferenceException("Cannot batch a request without inputs");
+            }
+            this.inputs = inputs;
+            long[] shape = inputs.values().iterator().next().shape();
+            this.rows = shape.length > 0 ? (int) shape[0] : 1;
+            int maxLength = 0;
+            for (Map.Entry<String, Tensor> entry : inputs.entrySet()) {
+                long[] s = entry.getValue().shape();
+                if (paddedInputs.contains(entry.getKey()) && s.length >= 2) {
+                    maxLength = Math.max(maxLength, (int) s[1]);
+                }
+            }
+            this.length = maxLength;
+        }
+
+        Map<String, Tensor> await() {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InferenceException("Interrupted while waiting for batch", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new InferenceException("Batched inference failed: " + e.getCause().getMessage(),
+                        e.getCause());
+            }
+        }
+    }
+
+    public static final class Builder<I, O> {
+
+        private final AbstractInferenceTask<I, O> task;
+        private int maxBatchSize = 8;
+        private Duration maxWait = Duration.ofMillis(2);
+        private Set<String> paddedInputs = Set.of();
+        private Set<String> trimmedOutputs = Set.of();
+
+        private Builder(AbstractInferenceTask<I, O> task) {
+            if (task == null) {
+                throw new IllegalArgumentException("task must not be null");
+            }
+            this.task = task;
+        }
+
+        /** Maximum number of rows (summed axis 0) run together. Defaults to 8. */
+        public Builder<I, O> maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1, got " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Longest time the first request of a batch waits for others. Defaults to 2 ms;
+         * this bounds the latency added to a request that arrives alone.
+         */
+        public Builder<I, O> maxWait(Duration maxWait) {
+            if (maxWait == null || maxWait.isNegative()) {
+                throw new IllegalArgumentException("maxWait must be non-negative");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Inputs whose axis 1 is a sequence length: they are right-padded with zeros so
+         * variable-length sequences can share a batch. None by default.
+         */
+        public Builder<I, O> padSequences(String... inputNames) {
+            this.paddedInputs = Set.of(inputNames);
+            return this;
+        }
+
+        /**
+         * Outputs whose axis 1 follows the padded sequence length, e.g., per-token
+         * hidden states; each request's slice is trimmed back to its own length.
+         * None by default.
+         */
+        public Builder<I, O> trimSequences(String... outputNames) {
+            this.trimmedOutputs = Set.of(outputNames);
+            return this;
+        }
+
+        public MicroBatcher<I, O> build() {
+            if (!trimmedOutputs.isEmpty() && paddedInputs.isEmpty()) {
+                throw new IllegalStateException("trimSequences requires padSequences");
+            }
+            return new MicroBatcher<>(this);
+        }
+    }
+}
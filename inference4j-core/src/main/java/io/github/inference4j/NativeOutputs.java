@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.exception.InferenceException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The outputs of a {@linkplain InferenceSession#runNative(Map, Map, Map) native run},
+ * left in ONNX Runtime native memory.
+ *
+ * <p>Nothing is copied to the heap unless {@link NativeTensor#toTensor()} is called.
+ * The native memory is released by {@link #close()}; every {@link NativeTensor}
+ * obtained from these outputs is invalid afterwards, so close them only once the
+ * run that consumes them has completed.
+ *
+ * <p>Not thread-safe.
+ *
+ * @see InferenceSession#runNative(Map, Map, Map)
+ */
+public class NativeOutputs implements AutoCloseable {
+
+    private final OrtSession.Result result;
+    private final Map<String, NativeTensor> tensors;
+    private boolean closed;
+
+    NativeOutputs(OrtSession.Result result) {
+        this.result = result;
+        Map<String, NativeTensor> tensors = new LinkedHashMap<>();
+        for (Map.Entry<String, OnnxValue> entry : result) {
+            if (entry.getValue() instanceof OnnxTensor onnxTensor) {
+                tensors.put(entry.getKey(), new NativeTensor(onnxTensor));
+            }
+        }
+        this.tensors = Collections.unmodifiableMap(tensors);
+    }
+
+    /**
+     * Returns the names of the outputs, in model-defined order.
+     *
+     * @return the output names
+     */
+    public Set<String> names() {
+        return tensors.keySet();
+    }
+
+    /**
+     * Returns the named output.
+     *
+     * @param name the output name
+     * @return the output, still in native memory
+     * @throws InferenceException if there is no such output or the outputs are closed
+     */
+    public NativeTensor get(String name) {
+        if (closed) {
+            throw new InferenceException("NativeOutputs have been closed");
+        }
+        NativeTensor tensor = tensors.get(name);
+        if (tensor == null) {
+            throw new InferenceException("Unknown output: " + name);
+        }
+        return tensor;
+    }
+
+    /**
+     * Releases the native memory held by these outputs.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        result.close();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.TensorInfo;
+
+/**
+ * A model output that stays in ONNX Runtime native memory.
+ *
+ * <p>Returned by {@link NativeOutputs#get(String)}. It can be fed back as an input
+ * of a later {@link InferenceSession#runNative(java.util.Map, java.util.Map, java.util.Map)
+ * native run} without being copied, or copied to the heap on demand with
+ * {@link #toTensor()}. It is only valid until the {@link NativeOutputs} it belongs
+ * to is closed.
+ *
+ * @see NativeOutputs
+ */
+public class NativeTensor {
+
+    private final OnnxTensor onnxTensor;
+
+    NativeTensor(OnnxTensor onnxTensor) {
+        this.onnxTensor = onnxTensor;
+    }
+
+    /**
+     * Returns the shape of this tensor.
+     *
+     * @return the tensor shape
+     */
+    public long[] shape() {
+        return onnxTensor.getInfo().getShape();
+    }
+
+    /**
+     * Returns the element type of this tensor.
+     *
+     * @return the tensor type
+     */
+    public TensorType type() {
+        TensorInfo info = onnxTensor.getInfo();
+        return InferenceSession.tensorType(info.type, "output", "native tensor");
+    }
+
+    /**
+     * Copies this tensor out of native memory.
+     *
+     * @return a buffer-backed tensor holding a copy of the data
+     */
+    public Tensor toTensor() {
+        return InferenceSession.fromOnnxTensor(onnxTensor);
+    }
+
+    OnnxTensor onnxTensor() {
+        return onnxTensor;
+    }
+}
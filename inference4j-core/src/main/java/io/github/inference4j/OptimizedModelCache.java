@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.session.SessionOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of ONNX Runtime optimized graphs.
+ *
+ * <p>Each entry is a directory named by a key derived from the source model, the
+ * ONNX Runtime version, the platform and {@link SessionOptions#graphFingerprint()}.
+ * A miss creates the session with {@code optimized_model_file_path} pointing into a
+ * temporary directory, which is atomically renamed into place once ONNX Runtime has
+ * written it; concurrent writers (e.g., pods sharing a volume) simply race to the
+ * rename. A hit loads the saved graph with optimizations disabled.
+ *
+ * <p>Hashing a multi-gigabyte model would cost as much as the optimization it
+ * avoids, so the model is identified by its canonical path, size, modification
+ * time and a digest of its first and last megabyte. External data files next to
+ * it, named after the model file (e.g., {@code model.onnx_data}), are identified
+ * the same way, since replacing only the weights leaves the graph file unchanged.
+ */
+class OptimizedModelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimizedModelCache.class);
+
+    static final String MODEL_FILE = "model.onnx";
+    static final String DATA_FILE = "model.onnx.data";
+
+    private static final int SAMPLE_BYTES = 1024 * 1024;
+
+    private OptimizedModelCache() {
+    }
+
+    /**
+     * Creates a session for {@code modelPath}, loading or populating the cache in
+     * {@code options.optimizedModelCacheDir()}.
+     */
+    static OrtSession createSession(OrtEnvironment env, Path modelPath, SessionOptions options)
+            throws OrtException {
+        Path cacheDir = options.optimizedModelCacheDir();
+        Path entry = cacheDir.resolve(key(modelPath, env.getVersion(), options));
+        Path cached = entry.resolve(MODEL_FILE);
+
+        if (Files.exists(cached)) {
+            try (OrtSession.SessionOptions opts = options.toOrtOptions()) {
+                opts.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.NO_OPT);
+                OrtSession session = env.createSession(cached.toString(), opts);
+                logger.debug("Loaded optimized graph for {} from {}", modelPath, entry);
+                return session;
+            } catch (OrtException e) {
+                logger.warn("Discarding unreadable optimized graph {}: {}", entry, e.getMessage());
+                deleteRecursively(entry);
+            }
+        }
+
+        Path staging = cacheDir.resolve(entry.getFileName() + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(staging);
+            try (OrtSession.SessionOptions opts = options.toOrtOptions()) {
+                opts.setOptimizedModelFilePath(staging.resolve(MODEL_FILE).toString());
+                // Initializers go to a side file so models over the 2 GB protobuf limit can be saved
+                opts.addConfigEntry("session.optimized_model_external_initializers_file_name", DATA_FILE);
+                opts.addConfigEntry("session.optimized_model_external_initializers_min_size_in_bytes", "1024");
+                OrtSession session = env.createSession(modelPath.toString(), opts);
+                publish(staging, entry);
+                return session;
+            }
+        } catch (IOException | OrtException e) {
+            logger.warn("Could not cache optimized graph for {}: {}", modelPath, e.getMessage());
+            deleteRecursively(staging);
+        }
+        try (OrtSession.SessionOptions opts = options.toOrtOptions()) {
+            return env.createSession(modelPath.toString(), opts);
+        }
+    }
+
+    static String key(Path modelPath, String ortVersion, SessionOptions options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Path real = modelPath.toRealPath();
+            update(digest, real.toString());
+            fingerprint(digest, real);
+            for (Path data : externalDataFiles(real)) {
+                update(digest, data.getFileName().toString());
+                fingerprint(digest, data);
+            }
+            update(digest, ortVersion);
+            update(digest, System.getProperty("os.name") + "/" + System.getProperty("os.arch"));
+            update(digest, options.graphFingerprint());
+            String name = real.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+            return name + "-" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fingerprint " + modelPath, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void fingerprint(MessageDigest digest, Path file) throws IOException {
+        update(digest, Long.toString(Files.size(file)));
+        update(digest, Files.getLastModifiedTime(file).toString());
+        sample(digest, file);
+    }
+
+    // Sibling files whose name extends the model's, e.g., model.onnx_data or
+    // model.onnx.data, sorted so the key does not depend on listing order
+    private static List<Path> externalDataFiles(Path model) throws IOException {
+        String name = model.getFileName().toString();
+        Path dir = model.getParent();
+        if (dir == null) {
+            return List.of();
+        }
+        try (Stream<Path> siblings = Files.list(dir)) {
+            return siblings
+                    .filter(path -> {
+                        String sibling = path.getFileName().toString();
+                        return sibling.length() > name.length() && sibling.startsWith(name)
+                                && !sibling.endsWith(".onnx");
+                    })
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void sample(MessageDigest digest, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, SAMPLE_BYTES));
+            read(channel, buffer, 0);
+            digest.update(buffer.flip());
+            if (size > SAMPLE_BYTES) {
+                buffer.clear();
+                read(channel, buffer, Math.max(SAMPLE_BYTES, size - SAMPLE_BYTES));
+                digest.update(buffer.flip());
+            }
+        }
+    }
+
+    // A single positional read may return fewer bytes than requested
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return;
+            }
+            position += read;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static void publish(Path staging, Path entry) {
+        try {
+            Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved optimized graph to {}", entry);
+        } catch (IOException e) {
+            // Typically another process published the same entry first
+            if (!Files.isDirectory(entry)) {
+                logger.warn("Could not publish optimized graph to {}: {}", entry, e.getMessage());
+            }
+            deleteRecursively(staging);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Best effort; a stale staging directory is harmless
+                }
+            });
+        } catch (IOException ignored) {
+            // Best effort
+        }
+    }
+}
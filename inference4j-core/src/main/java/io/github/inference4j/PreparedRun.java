@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.exception.InferenceException;
+import io.github.inference4j.exception.TensorConversionException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A reusable inference call with input and output buffers bound once up front.
+ *
+ * <p>Intended for fixed-shape models (e.g., ResNet at 224&times;224, YOLO at
+ * 640&times;640) called at a steady rate. All native tensors are created when the
+ * run is prepared: inputs are backed by direct buffers that the caller fills in
+ * place, and outputs are pinned so ONNX Runtime writes into preallocated direct
+ * buffers instead of allocating new ones. After preparation, {@link #run()}
+ * allocates no tensors and no arrays.
+ *
+ * <pre>{@code
+ * try (PreparedRun run = session.prepare(Map.of("images", new long[]{1, 3, 640, 640}))) {
+ *     for (Frame frame : frames) {
+ *         FloatBuffer input = run.inputFloats("images");
+ *         fillPixels(frame, input);
+ *         FloatBuffer output = run.run().get("output0").floatBuffer();
+ *         // ... consume output before the next run()
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>The output tensors returned by {@link #run()} are views over the bound
+ * buffers and are overwritten by the next call; copy them (e.g., via
+ * {@link Tensor#toFloats()}) if they must outlive it.
+ *
+ * <p>A prepared run is not thread-safe. Threads sharing an {@link InferenceSession}
+ * should each prepare their own run; different runs can execute concurrently.
+ *
+ * @see InferenceSession#prepare(Map, Map)
+ */
+public class PreparedRun implements AutoCloseable {
+
+    private final OrtSession session;
+    private final Map<String, Binding> inputs;
+    private final Map<String, OnnxTensor> onnxInputs;
+    private final Map<String, OnnxTensor> onnxOutputs;
+    private final Map<String, Tensor> outputs;
+    private boolean closed;
+
+    private PreparedRun(OrtSession session, Map<String, Binding> inputs,
+                        Map<String, Binding> outputs) {
+        this.session = session;
+        this.inputs = inputs;
+        this.onnxInputs = new LinkedHashMap<>();
+        inputs.forEach((name, binding) -> onnxInputs.put(name, binding.onnxTensor));
+        this.onnxOutputs = new LinkedHashMap<>();
+        Map<String, Tensor> outputTensors = new LinkedHashMap<>();
+        outputs.forEach((name, binding) -> {
+            onnxOutputs.put(name, binding.onnxTensor);
+            outputTensors.put(name, Tensor.fromBuffer(binding.buffer, binding.shape, binding.type));
+        });
+        this.outputs = Collections.unmodifiableMap(outputTensors);
+    }
+
+    static PreparedRun create(OrtEnvironment environment, OrtSession session,
+                              Map<String, long[]> inputShapes, Map<String, OnnxJavaType> inputTypes,
+                              Map<String, long[]> outputShapes, Map<String, OnnxJavaType> outputTypes) {
+        Map<String, Binding> inputs = new LinkedHashMap<>();
+        Map<String, Binding> outputs = new LinkedHashMap<>();
+        try {
+            for (var entry : inputShapes.entrySet()) {
+                inputs.put(entry.getKey(), Binding.create(environment, entry.getKey(),
+                        entry.getValue(), inputTypes.get(entry.getKey())));
+            }
+            for (var entry : outputShapes.entrySet()) {
+                outputs.put(entry.getKey(), Binding.create(environment, entry.getKey(),
+                        entry.getValue(), outputTypes.get(entry.getKey())));
+            }
+            return new PreparedRun(session, inputs, outputs);
+        } catch (OrtException e) {
+            inputs.values().forEach(binding -> binding.onnxTensor.close());
+            outputs.values().forEach(binding -> binding.onnxTensor.close());
+            throw new InferenceException("Failed to bind tensors: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            inputs.values().forEach(binding -> binding.onnxTensor.close());
+            outputs.values().forEach(binding -> binding.onnxTensor.close());
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a writable view of the named {@code FLOAT} input buffer, positioned at 0.
+     *
+     * <p>Writes to the view are seen by the next {@link #run()} without any copy.
+     *
+     * @param name the input tensor name
+     * @return a direct float view over the bound input
+     * @throws InferenceException if the input is not bound
+     * @throws TensorConversionException if the input is not {@code FLOAT}
+     */
+    public FloatBuffer inputFloats(String name) {
+        Binding binding = input(name, TensorType.FLOAT);
+        return binding.buffer.duplicate().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * Returns a writable view of the named {@code LONG} input buffer, positioned at 0.
+     *
+     * @param name the input tensor name
+     * @return a direct long view over the bound input
+     * @throws InferenceException if the input is not bound
+     * @throws TensorConversionException if the input is not {@code LONG}
+     */
+    public LongBuffer inputLongs(String name) {
+        Binding binding = input(name, TensorType.LONG);
+        return binding.buffer.duplicate().order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Copies {@code data} into the named {@code FLOAT} input.
+     *
+     * @param name the input tensor name
+     * @param data values in row-major order; the length must match the bound shape
+     * @throws TensorConversionException if the length or type does not match
+     */
+    public void setInput(String name, float[] data) {
+        FloatBuffer target = inputFloats(name);
+        checkLength(name, data.length, target.capacity());
+        target.put(data);
+    }
+
+    /**
+     * Copies {@code data} into the named {@code LONG} input.
+     *
+     * @param name the input tensor name
+     * @param data values in row-major order; the length must match the bound shape
+     * @throws TensorConversionException if the length or type does not match
+     */
+    public void setInput(String name, long[] data) {
+        LongBuffer target = inputLongs(name);
+        checkLength(name, data.length, target.capacity());
+        target.put(data);
+    }
+
+    /**
+     * Runs inference on the current contents of the input buffers.
+     *
+     * @return the bound output tensors, keyed by name; the same instances are
+     *         returned on every call and their contents are replaced by the next run
+     * @throws InferenceException if inference fails or the run has been closed
+     */
+    public Map<String, Tensor> run() {
+        if (closed) {
+            throw new InferenceException("PreparedRun has been closed");
+        }
+        try (OrtSession.Result ignored = session.run(onnxInputs, onnxOutputs)) {
+            return outputs;
+        } catch (OrtException e) {
+            throw new InferenceException("Inference failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Releases the native tensors bound to this run. Does not close the session.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onnxInputs.values().forEach(OnnxTensor::close);
+        onnxOutputs.values().forEach(OnnxTensor::close);
+    }
+
+    private Binding input(String name, TensorType expected) {
+        Binding binding = inputs.get(name);
+        if (binding == null) {
+            throw new InferenceException("Input not bound: " + name + " (bound: " + inputs.keySet() + ")");
+        }
+        if (binding.type != expected) {
+            throw new TensorConversionException(
+                    "Input '" + name + "' is " + binding.type + ", not " + expected);
+        }
+        return binding;
+    }
+
+    private static void checkLength(String name, int length, int expected) {
+        if (length != expected) {
+            throw new TensorConversionException(
+                    "Input '" + name + "' expects " + expected + " elements, got " + length);
+        }
+    }
+
+    private static final class Binding {
+
+        final ByteBuffer buffer;
+        final long[] shape;
+        final TensorType type;
+        final OnnxTensor onnxTensor;
+
+        private Binding(ByteBuffer buffer, long[] shape, TensorType type, OnnxTensor onnxTensor) {
+            this.buffer = buffer;
+            this.shape = shape;
+            this.type = type;
+            this.onnxTensor = onnxTensor;
+        }
+
+        static Binding create(OrtEnvironment environment, String name, long[] shape,
+                              OnnxJavaType javaType) throws OrtException {
+            if (javaType == null) {
+                throw new InferenceException("Unknown tensor: " + name);
+            }
+            TensorType type = switch (javaType) {
+                case FLOAT -> TensorType.FLOAT;
+                case FLOAT16, BFLOAT16 -> TensorType.FLOAT16;
+                case INT64 -> TensorType.LONG;
+                default -> throw new TensorConversionException(
+                        "Unsupported type for bound tensor '" + name + "': " + javaType);
+            };
+            long elements = 1;
+            for (long dim : shape) {
+                if (dim < 0) {
+                    throw new TensorConversionException(
+                            "Bound tensor '" + name + "' needs a fixed shape, got "
+                                    + Arrays.toString(shape));
+                }
+                elements *= dim;
+            }
+            int elementSize = type == TensorType.FLOAT16 ? Short.BYTES
+                    : type == TensorType.FLOAT ? Float.BYTES : Long.BYTES;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(elements * elementSize))
+                    .order(ByteOrder.nativeOrder());
+            OnnxTensor onnxTensor = OnnxTensor.createTensor(environment, buffer, shape, javaType);
+            return new Binding(buffer, shape.clone(), type, onnxTensor);
+        }
+    }
+}
@@ -17,14 +17,35 @@
 package io.github.inference4j;
 
 import io.github.inference4j.exception.TensorConversionException;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * An immutable, typed multi-dimensional array of numeric data.
  *
  * <p>Tensors are the data exchange format between Java code and ONNX Runtime.
- * They hold a flat data array and a shape that defines the logical dimensions.
- * Data is defensively copied on creation and retrieval.
+ * They hold flat data and a shape that defines the logical dimensions.
+ * Array-backed tensors defensively copy their data on creation and retrieval.
+ *
+ * <p>Numeric tensors can also be backed by a native-order {@link ByteBuffer}
+ * (see {@link #fromBuffer(ByteBuffer, long[], TensorType)}). Session outputs use
+ * this storage so that a model output is copied out of ONNX Runtime exactly once,
+ * into a heap {@code ByteBuffer}; outputs that must stay off-heap are pinned to
+ * direct buffers through {@link InferenceSession#runNative}. Heap arrays are only
+ * created when a caller asks for one via {@link #toFloats()}
+ * or {@link #toLongs()}. Reductions that only need to read the data can use the
+ * zero-copy {@link #floatBuffer()} and {@link #longBuffer()} views instead. When the
+ * backing buffer is direct, the tensor is passed to ONNX Runtime without a copy.
+ * A buffer-backed tensor aliases its buffer rather than copying it: writes to the
+ * buffer after creation, such as ONNX Runtime filling a pinned output, show through
+ * the tensor and its views, so it is only immutable while the buffer is left alone.
  *
  * <p>Create tensors via the static factory methods:
  * <pre>{@code
@@ -41,11 +62,20 @@ import java.util.Arrays;
 public class Tensor {
 
     private final Object data;
+    private final ByteBuffer buffer;
     private final long[] shape;
     private final TensorType type;
 
     private Tensor(Object data, long[] shape, TensorType type) {
         this.data = data;
+        this.buffer = null;
+        this.shape = shape.clone();
+        this.type = type;
+    }
+
+    private Tensor(ByteBuffer buffer, long[] shape, TensorType type) {
+        this.data = null;
+        this.buffer = buffer;
         this.shape = shape.clone();
         this.type = type;
     }
@@ -106,6 +136,35 @@ public class Tensor {
         return new Tensor(data.clone(), shape, TensorType.LONG);
     }
 
+    /**
+     * Creates a tensor backed by the given buffer, without copying its contents.
+     *
+     * <p>The bytes between the buffer's position and limit are interpreted in native
+     * byte order. Only {@link TensorType#FLOAT}, {@link TensorType#FLOAT16} and
+     * {@link TensorType#LONG} are supported. The tensor wraps the buffer without
+     * copying it, so later writes to the buffer change the tensor's contents; callers
+     * that reuse a buffer must finish reading tensors over it first. Direct buffers
+     * are handed to ONNX Runtime as-is, which makes them suitable for large, reused
+     * inputs.
+     *
+     * @param buffer the buffer holding the raw element data
+     * @param shape  the tensor dimensions
+     * @param type   the element type
+     * @return a new buffer-backed tensor
+     * @throws TensorConversionException if the type is unsupported or the buffer size
+     *                                   does not match the shape
+     */
+    public static Tensor fromBuffer(ByteBuffer buffer, long[] shape, TensorType type) {
+        int elementSize = elementSize(type);
+        if (buffer.remaining() % elementSize != 0) {
+            throw new TensorConversionException(
+                    "Buffer size " + buffer.remaining() + " is not a multiple of the "
+                            + type + " element size (" + elementSize + " bytes)");
+        }
+        validateShape(buffer.remaining() / elementSize, shape);
+        return new Tensor(buffer.slice().order(ByteOrder.nativeOrder()), shape, type);
+    }
+
     /** Returns a copy of this tensor's shape. */
     public long[] shape() {
         return shape.clone();
@@ -126,10 +185,16 @@ public class Tensor {
      */
     public float[] toFloats() {
         if (type == TensorType.FLOAT) {
+            if (buffer != null) {
+                FloatBuffer view = floatView();
+                float[] result = new float[view.remaining()];
+                view.get(result);
+                return result;
+            }
             return ((float[]) data).clone();
         }
         if (type == TensorType.FLOAT16) {
-            short[] fp16 = (short[]) data;
+            short[] fp16 = toFloat16Array();
             float[] result = new float[fp16.length];
             for (int i = 0; i < fp16.length; i++) {
                 result[i] = fp16ToFloat32(fp16[i]);
@@ -151,9 +216,72 @@ public class Tensor {
             throw new TensorConversionException(
                     "Cannot convert " + type + " tensor to LONG");
         }
+        if (buffer != null) {
+            LongBuffer view = longView();
+            long[] result = new long[view.remaining()];
+            view.get(result);
+            return result;
+        }
         return ((long[]) data).clone();
     }
 
+    /**
+     * Returns a read-only view of this tensor's float data without copying it.
+     *
+     * <p>Use absolute {@code get(int)} calls on the returned buffer to reduce large
+     * outputs (pooling, argmax) without materializing a {@code float[]}.
+     *
+     * @return a read-only float view positioned at the first element
+     * @throws TensorConversionException if this is not a {@link TensorType#FLOAT} tensor
+     */
+    public FloatBuffer floatBuffer() {
+        if (type != TensorType.FLOAT) {
+            throw new TensorConversionException(
+                    "Cannot view " + type + " tensor as FLOAT");
+        }
+        FloatBuffer view = buffer != null ? floatView() : FloatBuffer.wrap((float[]) data);
+        return view.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read-only view of this tensor's long data without copying it.
+     *
+     * @return a read-only long view positioned at the first element
+     * @throws TensorConversionException if this is not a {@link TensorType#LONG} tensor
+     */
+    public LongBuffer longBuffer() {
+        if (type != TensorType.LONG) {
+            throw new TensorConversionException(
+                    "Cannot view " + type + " tensor as LONG");
+        }
+        LongBuffer view = buffer != null ? longView() : LongBuffer.wrap((long[]) data);
+        return view.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read-only view of this tensor's raw float16 bits without copying them.
+     *
+     * @return a read-only short view positioned at the first element
+     * @throws TensorConversionException if this is not a {@link TensorType#FLOAT16} tensor
+     */
+    public ShortBuffer float16Buffer() {
+        if (type != TensorType.FLOAT16) {
+            throw new TensorConversionException(
+                    "Cannot view " + type + " tensor as FLOAT16");
+        }
+        ShortBuffer view = buffer != null
+                ? buffer.duplicate().order(ByteOrder.nativeOrder()).asShortBuffer()
+                : ShortBuffer.wrap((short[]) data);
+        return view.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns whether this tensor is backed by off-heap (direct) memory.
+     */
+    public boolean isDirect() {
+        return buffer != null && buffer.isDirect();
+    }
+
     /**
      * Returns this tensor's data as a 2D float array, reshaped according to the tensor's shape.
      *
@@ -170,12 +298,12 @@ public class Tensor {
             throw new TensorConversionException(
                     "Cannot reshape to 2D: tensor has " + shape.length + " dimensions, expected 2D shape");
         }
-        float[] flat = (float[]) data;
+        FloatBuffer flat = buffer != null ? floatView() : FloatBuffer.wrap((float[]) data);
         int rows = (int) shape[0];
         int cols = (int) shape[1];
         float[][] result = new float[rows][cols];
         for (int i = 0; i < rows; i++) {
-            System.arraycopy(flat, i * cols, result[i], 0, cols);
+            flat.get(i * cols, result[i]);
         }
         return result;
     }
@@ -257,6 +385,157 @@ public class Tensor {
         return sliceCopy(outerSize, axisSize, innerSize, index, newShape);
     }
 
+    /**
+     * Returns the sub-range {@code [start, start + length)} along the given axis,
+     * keeping the tensor's rank.
+     *
+     * <p>Used to split a batched output back into per-request parts:
+     * <pre>{@code
+     * // logits [8, 2] → rows 3..4 → shape [2, 2]
+     * Tensor part = logits.narrow(0, 3, 2);
+     * }</pre>
+     *
+     * <p>When the range is contiguous in memory (e.g., along axis 0), a buffer-backed
+     * tensor shares its storage with the result instead of copying.
+     *
+     * @param axis   the dimension to narrow (0-indexed)
+     * @param start  the first index to keep
+     * @param length the number of indices to keep
+     * @return a tensor with {@code shape[axis] == length}
+     * @throws TensorConversionException if the axis or range is out of bounds
+     */
+    public Tensor narrow(int axis, int start, int length) {
+        if (axis < 0 || axis >= shape.length) {
+            throw new TensorConversionException(
+                    "Axis " + axis + " out of range for " + shape.length + "D tensor");
+        }
+        int axisSize = (int) shape[axis];
+        if (start < 0 || length < 0 || start + length > axisSize) {
+            throw new TensorConversionException("Range [" + start + ", " + (start + length)
+                    + ") out of bounds for axis " + axis + " with size " + axisSize);
+        }
+        if (start == 0 && length == axisSize) {
+            return this;
+        }
+        long[] newShape = shape.clone();
+        newShape[axis] = length;
+
+        int innerSize = 1;
+        for (int i = axis + 1; i < shape.length; i++) {
+            innerSize *= (int) shape[i];
+        }
+        int outerSize = 1;
+        for (int i = 0; i < axis; i++) {
+            outerSize *= (int) shape[i];
+        }
+        int blockSize = length * innerSize;
+
+        if (buffer != null) {
+            int elementSize = elementSize(type);
+            if (outerSize == 1) {
+                ByteBuffer view = buffer.slice(start * innerSize * elementSize, blockSize * elementSize)
+                        .order(ByteOrder.nativeOrder());
+                return new Tensor(view, newShape, type);
+            }
+            ByteBuffer dst = buffer.isDirect()
+                    ? ByteBuffer.allocateDirect(outerSize * blockSize * elementSize)
+                    : ByteBuffer.allocate(outerSize * blockSize * elementSize);
+            dst.order(ByteOrder.nativeOrder());
+            for (int outer = 0; outer < outerSize; outer++) {
+                int offset = (outer * axisSize + start) * innerSize * elementSize;
+                dst.put(buffer.slice(offset, blockSize * elementSize));
+            }
+            dst.flip();
+            return new Tensor(dst, newShape, type);
+        }
+
+        // System.arraycopy works on any array type, so one loop covers all element types
+        Object dst = Array.newInstance(data.getClass().getComponentType(),
+                outerSize * blockSize);
+        for (int outer = 0; outer < outerSize; outer++) {
+            System.arraycopy(data, (outer * axisSize + start) * innerSize,
+                    dst, outer * blockSize, blockSize);
+        }
+        return new Tensor(dst, newShape, type);
+    }
+
+    /**
+     * Concatenates tensors along axis 0.
+     *
+     * <p>All tensors must have the same type and the same shape apart from axis 0.
+     * This is how per-request inputs are stacked into one batched input:
+     * <pre>{@code
+     * // three [1, 3, 224, 224] images → [3, 3, 224, 224]
+     * Tensor batch = Tensor.concat(List.of(a, b, c));
+     * }</pre>
+     *
+     * @param tensors the tensors to concatenate, in order
+     * @return a new tensor whose axis 0 is the sum of the inputs' axis 0
+     * @throws TensorConversionException if the list is empty, the types or trailing
+     *                                   shapes differ, or the type is unsupported
+     */
+    public static Tensor concat(List<Tensor> tensors) {
+        if (tensors.isEmpty()) {
+            throw new TensorConversionException("Cannot concatenate an empty list of tensors");
+        }
+        Tensor first = tensors.get(0);
+        if (tensors.size() == 1) {
+            return first;
+        }
+        TensorType type = first.type;
+        int elementSize = elementSize(type);
+        long rows = 0;
+        for (Tensor tensor : tensors) {
+            if (tensor.type != type || tensor.shape.length != first.shape.length
+                    || !Arrays.equals(tensor.shape, 1, tensor.shape.length,
+                            first.shape, 1, first.shape.length)) {
+                throw new TensorConversionException("Cannot concatenate " + tensor.type
+                        + Arrays.toString(tensor.shape) + " with " + type + Arrays.toString(first.shape));
+            }
+            rows += tensor.shape[0];
+        }
+        long[] shape = first.shape.clone();
+        shape[0] = rows;
+        long elements = 1;
+        for (long dim : shape) {
+            elements *= dim;
+        }
+        ByteBuffer dst = ByteBuffer.allocate(Math.toIntExact(elements * elementSize))
+                .order(ByteOrder.nativeOrder());
+        for (Tensor tensor : tensors) {
+            tensor.copyTo(dst);
+        }
+        dst.flip();
+        return new Tensor(dst, shape, type);
+    }
+
+    private void copyTo(ByteBuffer dst) {
+        if (buffer != null) {
+            dst.put(buffer.duplicate());
+            return;
+        }
+        int count = switch (type) {
+            case FLOAT -> {
+                float[] values = (float[]) data;
+                dst.asFloatBuffer().put(values);
+                yield values.length;
+            }
+            case FLOAT16 -> {
+                short[] values = (short[]) data;
+                dst.asShortBuffer().put(values);
+                yield values.length;
+            }
+            case LONG -> {
+                long[] values = (long[]) data;
+                dst.asLongBuffer().put(values);
+                yield values.length;
+            }
+            default -> throw new TensorConversionException(
+                    "Unsupported tensor type for concatenation: " + type);
+        };
+        dst.position(dst.position() + count * elementSize(type));
+    }
+
     /**
      * Removes all dimensions of size 1.
      *
@@ -273,7 +552,7 @@ public class Tensor {
         if (newShape.length == 0) {
             newShape = new long[]{1};
         }
-        return new Tensor(data, newShape, type);
+        return withShape(newShape);
     }
 
     /**
@@ -301,11 +580,20 @@ public class Tensor {
                 newShape[j++] = shape[i];
             }
         }
-        return new Tensor(data, newShape, type);
+        return withShape(newShape);
+    }
+
+    private Tensor withShape(long[] newShape) {
+        return buffer != null
+                ? new Tensor(buffer, newShape, type)
+                : new Tensor(data, newShape, type);
     }
 
     private Tensor sliceCopy(int outerSize, int axisSize, int innerSize,
                              int index, long[] newShape) {
+        if (buffer != null) {
+            return sliceBuffer(outerSize, axisSize, innerSize, index, newShape);
+        }
         // For each outer block, copy innerSize elements from the selected index
         // Source layout: [outer][axisIndex][inner] — contiguous in memory
         // We pick one axisIndex and flatten the rest
@@ -359,11 +647,67 @@ public class Tensor {
         };
     }
 
-    // Package-private: used by InferenceSession for zero-copy tensor creation
+    private Tensor sliceBuffer(int outerSize, int axisSize, int innerSize,
+                               int index, long[] newShape) {
+        int elementSize = elementSize(type);
+        int blockBytes = innerSize * elementSize;
+        if (outerSize == 1) {
+            // A single selected block is contiguous — share the storage
+            ByteBuffer view = buffer.slice(index * blockBytes, blockBytes)
+                    .order(ByteOrder.nativeOrder());
+            return new Tensor(view, newShape, type);
+        }
+        ByteBuffer dst = buffer.isDirect()
+                ? ByteBuffer.allocateDirect(outerSize * blockBytes)
+                : ByteBuffer.allocate(outerSize * blockBytes);
+        dst.order(ByteOrder.nativeOrder());
+        for (int outer = 0; outer < outerSize; outer++) {
+            int offset = (outer * axisSize + index) * blockBytes;
+            dst.put(buffer.slice(offset, blockBytes));
+        }
+        dst.flip();
+        return new Tensor(dst, newShape, type);
+    }
+
+    // Package-private: used by InferenceSession for zero-copy tensor creation.
+    // Returns null for buffer-backed tensors (see rawBuffer()).
     Object rawData() {
         return data;
     }
 
+    // Package-private: native-order backing buffer, or null for array-backed tensors
+    ByteBuffer rawBuffer() {
+        return buffer != null ? buffer.duplicate().order(ByteOrder.nativeOrder()) : null;
+    }
+
+    private FloatBuffer floatView() {
+        return buffer.duplicate().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private LongBuffer longView() {
+        return buffer.duplicate().order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    private short[] toFloat16Array() {
+        if (buffer == null) {
+            return (short[]) data;
+        }
+        ShortBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder()).asShortBuffer();
+        short[] result = new short[view.remaining()];
+        view.get(result);
+        return result;
+    }
+
+    private static int elementSize(TensorType type) {
+        return switch (type) {
+            case FLOAT -> Float.BYTES;
+            case FLOAT16 -> Short.BYTES;
+            case LONG -> Long.BYTES;
+            default -> throw new TensorConversionException(
+                    "Unsupported tensor type for buffer storage: " + type);
+        };
+    }
+
     private static void validateShape(int dataLength, long[] shape) {
         long expected = 1;
         for (long dim : shape) {
@@ -393,10 +737,10 @@ public class Tensor {
             throw new TensorConversionException(
                     "Cannot cast " + type + " tensor to FLOAT16");
         }
-        float[] src = (float[]) data;
-        short[] dst = new short[src.length];
-        for (int i = 0; i < src.length; i++) {
-            dst[i] = float32ToFp16(src[i]);
+        FloatBuffer src = floatBuffer();
+        short[] dst = new short[src.remaining()];
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = float32ToFp16(src.get(i));
         }
         return new Tensor(dst, shape.clone(), TensorType.FLOAT16);
     }
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Self-attention cache of a batch of beams in {@link EncoderDecoderSession}'s beam mode,
+ * or of the sequences {@link OnnxGenerativeSession#fork(int, int) forked} from a
+ * decoder-only session's cache.
+ *
+ * <p>Each layer's keys and values live in two direct buffers sized for
+ * {@code [beams, heads, capacity, headDim]} and allocated once: the decoder reads its
+ * {@code past_key_values.*} from one and ONNX Runtime writes the pinned
+ * {@code present.*} outputs into the other. Before each step, every beam's block is
+ * copied from the present buffer of its parent beam into the past buffer, so
+ * reordering beams is a native memory copy and never passes through the Java heap.
+ * When every beam continues itself, the present buffers already hold the next past
+ * in its layout, and the two buffers swap roles instead.
+ */
+final class BeamKvCache {
+
+    private final int numBeams;
+    private final int numHeads;
+    private final int headDim;
+    private final int capacity;
+    private final TensorType type;
+    private final int elementSize;
+    private final ByteBuffer[] past;
+    private final ByteBuffer[] present;
+    private final String layerInfix;
+    private int length;
+    // Whether the latest positions are in the past buffers rather than the present ones
+    private boolean swapped;
+
+    BeamKvCache(int numLayers, int numBeams, int numHeads, int headDim, int capacity, TensorType type) {
+        this(numLayers, numBeams, numHeads, headDim, capacity, type, ".decoder");
+    }
+
+    /**
+     * Creates a cache whose tensor names put {@code layerInfix} between the layer index
+     * and {@code .key}/{@code .value}: {@code ".decoder"} for an encoder-decoder's
+     * self-attention cache, {@code ""} for a decoder-only model.
+     */
+    BeamKvCache(int numLayers, int numBeams, int numHeads, int headDim, int capacity, TensorType type,
+                String layerInfix) {
+        this.layerInfix = layerInfix;
+        this.numBeams = numBeams;
+        this.numHeads = numHeads;
+        this.headDim = headDim;
+        this.capacity = capacity;
+        this.type = type;
+        this.elementSize = type == TensorType.FLOAT16 ? Short.BYTES : Float.BYTES;
+        this.past = new ByteBuffer[numLayers * 2];
+        this.present = new ByteBuffer[numLayers * 2];
+        int bytes = Math.toIntExact((long) numBeams * numHeads * capacity * headDim * elementSize);
+        for (int i = 0; i < past.length; i++) {
+            past[i] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+            present[i] = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    int numBeams() {
+        return numBeams;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Fills the cache from tensors keyed by {@code prefix} followed by the layer name
+     * (e.g., {@code present.0.decoder.key}). A batch of one sequence starts every beam
+     * from it; a batch of {@code numBeams} sequences gives each beam its own.
+     */
+    void start(Map<String, Tensor> tensors, String prefix) {
+        long[] shape = tensors.get(prefix + name(0)).shape();
+        if (shape[0] != 1 && shape[0] != numBeams) {
+            throw new IllegalArgumentException(
+                    "Expected a batch of 1 or " + numBeams + " sequences, got " + shape[0]);
+        }
+        int startLength = (int) shape[2];
+        checkRoom(startLength);
+        for (int i = 0; i < present.length; i++) {
+            fill(present[i], tensors.get(prefix + name(i)), numBeams / (int) shape[0]);
+        }
+        this.length = startLength;
+        this.swapped = false;
+    }
+
+    /**
+     * Copies each beam's cache from the beam it continues into the past buffers and
+     * returns them keyed by input name.
+     *
+     * @param beamIndices for every beam, the beam of the previous step it extends
+     */
+    Map<String, Tensor> reorder(int[] beamIndices) {
+        if (beamIndices.length != numBeams) {
+            throw new IllegalArgumentException(
+                    "Expected " + numBeams + " beam indices, got " + beamIndices.length);
+        }
+        int block = numHeads * length * headDim * elementSize;
+        if (isIdentity(beamIndices)) {
+            if (!swapped) {
+                swap();
+            }
+        } else {
+            if (swapped) {
+                swap();
+            }
+            for (int i = 0; i < past.length; i++) {
+                for (int beam = 0; beam < numBeams; beam++) {
+                    past[i].put(beam * block, present[i], beamIndices[beam] * block, block);
+                }
+            }
+        }
+        Map<String, Tensor> inputs = new LinkedHashMap<>();
+        long[] shape = {numBeams, numHeads, length, headDim};
+        for (int i = 0; i < past.length; i++) {
+            inputs.put("past_key_values." + name(i), Tensor.fromBuffer(
+                    past[i].slice(0, numBeams * block), shape, type));
+        }
+        return inputs;
+    }
+
+    /**
+     * Tensors to pin the {@code present.*} outputs of the next step to, keyed by output name.
+     */
+    Map<String, Tensor> presentOutputs() {
+        checkRoom(1);
+        long[] shape = {numBeams, numHeads, length + 1, headDim};
+        int bytes = numBeams * numHeads * (length + 1) * headDim * elementSize;
+        Map<String, Tensor> outputs = new LinkedHashMap<>();
+        for (int i = 0; i < present.length; i++) {
+            outputs.put("present." + name(i), Tensor.fromBuffer(present[i].slice(0, bytes), shape, type));
+        }
+        return outputs;
+    }
+
+    /**
+     * Records that a step wrote one more position into the {@link #presentOutputs() present buffers}.
+     */
+    void advance() {
+        checkRoom(1);
+        length++;
+        swapped = false;
+    }
+
+    /**
+     * Returns a direct copy of a tensor with a leading batch dimension of 1, repeated
+     * {@code numBeams} times along that dimension.
+     */
+    static Tensor expand(Tensor tensor, int numBeams) {
+        long[] shape = tensor.shape();
+        int elementSize = switch (tensor.type()) {
+            case FLOAT -> Float.BYTES;
+            case FLOAT16 -> Short.BYTES;
+            case LONG -> Long.BYTES;
+            default -> throw new IllegalArgumentException("Cannot expand a " + tensor.type() + " tensor");
+        };
+        long elements = 1;
+        for (long dim : shape) {
+            elements *= dim;
+        }
+        ByteBuffer bytes = ByteBuffer.allocateDirect(Math.toIntExact(elements * elementSize * numBeams))
+                .order(ByteOrder.nativeOrder());
+        fill(bytes, tensor, numBeams);
+        shape[0] = numBeams;
+        return Tensor.fromBuffer(bytes, shape, tensor.type());
+    }
+
+    // Writes `copies` back-to-back copies of the source tensor's elements
+    private static void fill(ByteBuffer target, Tensor source, int copies) {
+        ByteBuffer out = target.duplicate().order(ByteOrder.nativeOrder());
+        for (int i = 0; i < copies; i++) {
+            switch (source.type()) {
+                case FLOAT -> {
+                    var view = source.floatBuffer();
+                    int bytes = view.remaining() * Float.BYTES;
+                    out.asFloatBuffer().put(view);
+                    out.position(out.position() + bytes);
+                }
+                case FLOAT16 -> {
+                    var view = source.float16Buffer();
+                    int bytes = view.remaining() * Short.BYTES;
+                    out.asShortBuffer().put(view);
+                    out.position(out.position() + bytes);
+                }
+                case LONG -> {
+                    var view = source.longBuffer();
+                    int bytes = view.remaining() * Long.BYTES;
+                    out.asLongBuffer().put(view);
+                    out.position(out.position() + bytes);
+                }
+                default -> throw new IllegalArgumentException("Cannot copy a " + source.type() + " tensor");
+            }
+        }
+    }
+
+    private void swap() {
+        for (int i = 0; i < past.length; i++) {
+            ByteBuffer previous = past[i];
+            past[i] = present[i];
+            present[i] = previous;
+        }
+        swapped = !swapped;
+    }
+
+    private static boolean isIdentity(int[] beamIndices) {
+        for (int beam = 0; beam < beamIndices.length; beam++) {
+            if (beamIndices[beam] != beam) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkRoom(int newTokens) {
+        if (length + newTokens > capacity) {
+            throw new IllegalStateException("Beam KV cache is full: holds " + length
+                    + " of " + capacity + " positions, cannot add " + newTokens);
+        }
+    }
+
+    private String name(int index) {
+        return (index / 2) + layerInfix + (index % 2 == 0 ? ".key" : ".value");
+    }
+}
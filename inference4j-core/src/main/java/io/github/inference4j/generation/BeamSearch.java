@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.processing.MathOps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Beam search over an {@link EncoderDecoderSession}, decoding all beams as one batch.
+ *
+ * <p>Each step scores every continuation of every live beam by its cumulative log
+ * probability and keeps the best {@code numBeams}. A beam that ends with an EOS token
+ * becomes a finished hypothesis, ranked by {@code score / length^lengthPenalty}, where
+ * the length counts the decoder start token and excludes the EOS token. A
+ * {@code lengthPenalty} above 1 favours longer outputs and one below 1 favours
+ * shorter ones. Search stops when {@code numBeams} hypotheses are finished and either
+ * {@code earlyStopping} is set or no live beam can still beat the worst of them.
+ */
+final class BeamSearch {
+
+    private final int numBeams;
+    private final float lengthPenalty;
+    private final boolean earlyStopping;
+    private final Set<Integer> eosTokenIds;
+    private final int maxNewTokens;
+
+    BeamSearch(int numBeams, float lengthPenalty, boolean earlyStopping,
+               Set<Integer> eosTokenIds, int maxNewTokens) {
+        this.numBeams = numBeams;
+        this.lengthPenalty = lengthPenalty;
+        this.earlyStopping = earlyStopping;
+        this.eosTokenIds = eosTokenIds;
+        this.maxNewTokens = maxNewTokens;
+    }
+
+    /**
+     * Runs the search and returns the tokens of the best hypothesis, without the EOS token.
+     */
+    int[] search(EncoderDecoderSession session, long[] inputIds) {
+        float[] firstLogits = session.prefillBeams(inputIds, numBeams, maxNewTokens).logits();
+        float[][] logits = new float[numBeams][];
+        Arrays.fill(logits, firstLogits);
+        // All beams start identical, so only the first one is expanded at the first step
+        float[] scores = new float[numBeams];
+        Arrays.fill(scores, Float.NEGATIVE_INFINITY);
+        scores[0] = 0f;
+        int[][] beams = new int[numBeams][0];
+        List<Hypothesis> finished = new ArrayList<>();
+        boolean done = false;
+
+        for (int step = 0; step < maxNewTokens; step++) {
+            Candidates candidates = topCandidates(logits, scores, 2 * numBeams);
+            int[][] nextBeams = new int[numBeams][];
+            float[] nextScores = new float[numBeams];
+            long[] nextTokens = new long[numBeams];
+            int[] parents = new int[numBeams];
+            int count = 0;
+            for (int rank = 0; rank < candidates.size && count < numBeams; rank++) {
+                int beam = candidates.beams[rank];
+                int token = candidates.tokens[rank];
+                if (eosTokenIds.contains(token)) {
+                    // EOS beyond the top numBeams candidates cannot displace a live beam
+                    if (rank < numBeams) {
+                        addFinished(finished, beams[beam], candidates.scores[rank]);
+                    }
+                    continue;
+                }
+                int[] extended = Arrays.copyOf(beams[beam], beams[beam].length + 1);
+                extended[beams[beam].length] = token;
+                nextBeams[count] = extended;
+                nextScores[count] = candidates.scores[rank];
+                nextTokens[count] = token;
+                parents[count] = beam;
+                count++;
+            }
+            if (count < numBeams) {
+                // Fewer continuations than beams, only with tiny vocabularies
+                beams = Arrays.copyOf(nextBeams, count);
+                scores = Arrays.copyOf(nextScores, count);
+                break;
+            }
+            if (isDone(finished, nextScores[0], step + 1)) {
+                done = true;
+                break;
+            }
+            beams = nextBeams;
+            scores = nextScores;
+            if (step < maxNewTokens - 1) {
+                logits = session.decodeBeams(nextTokens, parents);
+            }
+        }
+
+        // Beams still running at the length limit compete with the finished ones
+        if (!done) {
+            for (int beam = 0; beam < beams.length; beam++) {
+                addFinished(finished, beams[beam], scores[beam]);
+            }
+        }
+        return finished.isEmpty() ? new int[0] : finished.get(0).tokens();
+    }
+
+    private boolean isDone(List<Hypothesis> finished, float bestLiveScore, int generated) {
+        if (finished.size() < numBeams) {
+            return false;
+        }
+        if (earlyStopping) {
+            return true;
+        }
+        float bestAttainable = bestLiveScore / (float) Math.pow(generated + 1, lengthPenalty);
+        return finished.get(finished.size() - 1).score() >= bestAttainable;
+    }
+
+    // Keeps the best numBeams hypotheses, best first
+    private void addFinished(List<Hypothesis> finished, int[] tokens, float logProbability) {
+        float score = logProbability / (float) Math.pow(tokens.length + 1, lengthPenalty);
+        if (finished.size() == numBeams && score <= finished.get(numBeams - 1).score()) {
+            return;
+        }
+        finished.add(new Hypothesis(tokens, score));
+        finished.sort(Comparator.comparingDouble(Hypothesis::score).reversed());
+        if (finished.size() > numBeams) {
+            finished.remove(numBeams);
+        }
+    }
+
+    // The `limit` best (beam, token) continuations by cumulative log probability, best first
+    private static Candidates topCandidates(float[][] logits, float[] scores, int limit) {
+        Candidates candidates = new Candidates(limit);
+        for (int beam = 0; beam < scores.length; beam++) {
+            if (scores[beam] == Float.NEGATIVE_INFINITY) {
+                continue;
+            }
+            float[] logProbabilities = MathOps.logSoftmax(logits[beam]);
+            for (int token = 0; token < logProbabilities.length; token++) {
+                candidates.offer(beam, token, scores[beam] + logProbabilities[token]);
+            }
+        }
+        return candidates;
+    }
+
+    private record Hypothesis(int[] tokens, float score) {
+    }
+
+    private static final class Candidates {
+
+        final int[] beams;
+        final int[] tokens;
+        final float[] scores;
+        int size;
+
+        Candidates(int limit) {
+            this.beams = new int[limit];
+            this.tokens = new int[limit];
+            this.scores = new float[limit];
+        }
+
+        void offer(int beam, int token, float score) {
+            if (size == scores.length && score <= scores[size - 1]) {
+                return;
+            }
+            int i = size == scores.length ? size - 1 : size++;
+            while (i > 0 && scores[i - 1] < score) {
+                beams[i] = beams[i - 1];
+                tokens[i] = tokens[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            beams[i] = beam;
+            tokens[i] = token;
+            scores[i] = score;
+        }
+    }
+}
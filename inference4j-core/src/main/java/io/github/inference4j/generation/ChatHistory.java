@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import java.util.Arrays;
+
+/**
+ * The tokens of a {@link ChatSession} conversation, split into turns.
+ *
+ * <p>A turn is a formatted user message followed by the model's reply. The last turn
+ * of a history handed to a {@link ContextPolicy} is the new user message, without a
+ * reply yet.
+ *
+ * @param tokens     the conversation tokens, in order
+ * @param turnStarts the offset in {@code tokens} at which each turn begins, ascending,
+ *                   starting at 0
+ */
+public record ChatHistory(long[] tokens, int[] turnStarts) {
+
+    public ChatHistory {
+        if (turnStarts.length > 0 && turnStarts[0] != 0) {
+            throw new IllegalArgumentException("The first turn must start at 0, got " + turnStarts[0]);
+        }
+        for (int i = 1; i < turnStarts.length; i++) {
+            if (turnStarts[i] < turnStarts[i - 1] || turnStarts[i] > tokens.length) {
+                throw new IllegalArgumentException("Turn " + i + " starts at " + turnStarts[i]
+                        + ", outside [" + turnStarts[i - 1] + ", " + tokens.length + "]");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens in the conversation.
+     */
+    public int length() {
+        return tokens.length;
+    }
+
+    /**
+     * Returns the number of turns.
+     */
+    public int turnCount() {
+        return turnStarts.length;
+    }
+
+    /**
+     * Returns the offset just past the last token of turn {@code turn}.
+     */
+    public int turnEnd(int turn) {
+        return turn + 1 < turnStarts.length ? turnStarts[turn + 1] : tokens.length;
+    }
+
+    /**
+     * Returns a history without turns {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param from the first turn to drop
+     * @param to   the turn after the last one to drop
+     * @return the shortened history
+     * @throws IllegalArgumentException if the range is out of bounds
+     */
+    public ChatHistory withoutTurns(int from, int to) {
+        if (from < 0 || to > turnStarts.length || from > to) {
+            throw new IllegalArgumentException("Turn range [" + from + ", " + to
+                    + ") out of bounds for " + turnStarts.length + " turns");
+        }
+        if (from == to) {
+            return this;
+        }
+        int start = turnStarts[from];
+        int removed = (to < turnStarts.length ? turnStarts[to] : tokens.length) - start;
+        long[] kept = new long[tokens.length - removed];
+        System.arraycopy(tokens, 0, kept, 0, start);
+        System.arraycopy(tokens, start + removed, kept, start, kept.length - start);
+        int[] starts = new int[turnStarts.length - (to - from)];
+        System.arraycopy(turnStarts, 0, starts, 0, from);
+        for (int i = to; i < turnStarts.length; i++) {
+            starts[from + i - to] = turnStarts[i] - removed;
+        }
+        return new ChatHistory(kept, starts);
+    }
+
+    /**
+     * Returns a history without tokens {@code from} (inclusive) to {@code to}
+     * (exclusive), which may cut through turns. A turn that began inside the range
+     * now begins at {@code from}.
+     *
+     * @param from the first token to drop
+     * @param to   the token after the last one to drop
+     * @return the shortened history
+     * @throws IllegalArgumentException if the range is out of bounds
+     */
+    public ChatHistory withoutTokens(int from, int to) {
+        return replaceTokens(from, to, new long[0]);
+    }
+
+    /**
+     * Returns a history with tokens {@code from} (inclusive) to {@code to} (exclusive)
+     * replaced by {@code replacement}, e.g., a summary of them. A non-empty replacement
+     * begins a turn of its own; a turn that began inside the range now begins after it.
+     *
+     * @param from        the first token to replace
+     * @param to          the token after the last one to replace
+     * @param replacement the tokens to put in their place
+     * @return the new history
+     * @throws IllegalArgumentException if the range is out of bounds
+     */
+    public ChatHistory replaceTokens(int from, int to, long[] replacement) {
+        if (from < 0 || to > tokens.length || from > to) {
+            throw new IllegalArgumentException("Token range [" + from + ", " + to
+                    + ") out of bounds for " + tokens.length + " tokens");
+        }
+        if (from == to && replacement.length == 0) {
+            return this;
+        }
+        int end = from + replacement.length;
+        long[] spliced = new long[tokens.length - (to - from) + replacement.length];
+        System.arraycopy(tokens, 0, spliced, 0, from);
+        System.arraycopy(replacement, 0, spliced, from, replacement.length);
+        System.arraycopy(tokens, to, spliced, end, tokens.length - to);
+        int[] starts = new int[turnStarts.length + 1];
+        int count = 0;
+        for (int start : turnStarts) {
+            if (start >= from && replacement.length > 0 && (count == 0 || starts[count - 1] < from)) {
+                starts[count++] = from;
+            }
+            int moved = start < from ? start : Math.max(start - to, 0) + end;
+            if (count == 0 || starts[count - 1] < moved) {
+                starts[count++] = moved;
+            }
+        }
+        if (replacement.length > 0 && (count == 0 || starts[count - 1] < from)) {
+            starts[count++] = from;
+        }
+        return new ChatHistory(spliced, Arrays.copyOf(starts, count));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ChatHistory other
+                && Arrays.equals(tokens, other.tokens)
+                && Arrays.equals(turnStarts, other.turnStarts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(tokens) + Arrays.hashCode(turnStarts);
+    }
+
+    @Override
+    public String toString() {
+        return "ChatHistory[length=" + tokens.length + ", turns=" + turnStarts.length + "]";
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A multi-turn conversation over a {@link GenerationEngine} that keeps the KV cache
+ * between turns.
+ *
+ * <p>A plain {@link GenerationEngine#generate(String)} call formats, tokenizes and
+ * prefills the whole prompt every time, so a conversation replayed through it costs
+ * prefill over the entire history on each turn. A chat session instead leaves the
+ * previous turns and the model's replies in the cache and only prefills the new user
+ * message, formatted with {@link ChatTemplate#formatFollowUp(String)}; per-turn latency
+ * then depends on the new message rather than on the history.
+ *
+ * <pre>{@code
+ * ChatSession chat = engine.chat()
+ *         .contextWindow(4096)
+ *         .build();
+ * chat.send("Who wrote Dune?", System.out::print);
+ * chat.send("What else did they write?", System.out::print);
+ * }</pre>
+ *
+ * <p>With a {@linkplain Builder#contextWindow(int) context window}, a turn whose
+ * history plus {@code maxNewTokens} would not fit is first shrunk by the
+ * {@linkplain Builder#contextPolicy(ContextPolicy) context policy}, by default
+ * {@link ContextPolicy#dropOldestTurns()}. A policy that
+ * {@linkplain ContextPolicy#evictsFromCache() evicts from the cache}, such as
+ * {@link ContextPolicy#slidingWindow(int)}, cuts the dropped tokens out of the cache
+ * instead of prefilling what follows them again.
+ *
+ * <p>The engine's session holds one cache, so one chat is active at a time; a chat
+ * whose cache was taken over by another call prefills its history again on its next
+ * turn, or restores it from a {@linkplain Builder#cacheStore(KvCacheStore) cache store}
+ * where it was saved when it was taken over. Many idle conversations can then share
+ * one engine while their caches wait in the store, compressed or spilled to disk. The
+ * engine stays owned by its creator, and chat sessions are not thread-safe.
+ */
+public class ChatSession {
+
+    private final GenerationEngine engine;
+    private final int contextWindow;
+    private final ContextPolicy contextPolicy;
+    private final KvCacheStore cacheStore;
+    private final String id = UUID.randomUUID().toString();
+    private ChatHistory history = new ChatHistory(new long[0], new int[0]);
+
+    private ChatSession(Builder builder) {
+        this.engine = builder.engine;
+        this.contextWindow = builder.contextWindow;
+        this.contextPolicy = builder.contextPolicy;
+        this.cacheStore = builder.cacheStore;
+    }
+
+    /**
+     * Sends the next user message and generates the reply.
+     *
+     * @param message the raw user message
+     * @return the reply
+     */
+    public GenerationResult send(String message) {
+        return send(message, token -> {});
+    }
+
+    /**
+     * Sends the next user message and generates the reply, streaming it to the listener.
+     *
+     * @param message       the raw user message
+     * @param tokenListener receives each decoded text fragment as it is generated
+     * @return the reply; its prompt token count covers the whole conversation so far
+     * @throws IllegalStateException if the conversation does not fit the context window
+     */
+    public GenerationResult send(String message, Consumer<String> tokenListener) {
+        long startTime = System.nanoTime();
+
+        ChatTemplate template = engine.chatTemplate();
+        String prompt = template == null ? message
+                : history.turnCount() == 0 ? template.format(message) : template.formatFollowUp(message);
+        long[] turn = engine.tokenizer().encode(prompt).inputIds();
+        if (turn.length == 0) {
+            throw new IllegalArgumentException("message must not encode to zero tokens");
+        }
+        ChatHistory context = append(history, turn);
+        if (contextWindow > 0 && context.length() + engine.maxNewTokens() > contextWindow) {
+            context = contextPolicy.fit(context, contextWindow - engine.maxNewTokens());
+        }
+
+        ForwardResult result = forward(context.tokens());
+        return engine.generateFrom(context, result, tokenListener, cached -> history = cached, startTime);
+    }
+
+    /**
+     * Returns the conversation as it is held in the cache.
+     */
+    public ChatHistory history() {
+        return history;
+    }
+
+    /**
+     * Forgets the conversation. The next message starts a new one.
+     */
+    public void reset() {
+        history = new ChatHistory(new long[0], new int[0]);
+        if (cacheStore != null) {
+            cacheStore.delete(id);
+        }
+        if (engine.ownsCache(this)) {
+            engine.session().resetCache();
+            engine.claimCache(null);
+        }
+    }
+
+    // Called by the engine when another caller takes over the session's cache
+    void suspend() {
+        GenerativeSession session = engine.session();
+        if (cacheStore != null && history.length() > 0
+                && session.cacheSequenceLength() == history.length()) {
+            cacheStore.put(id, session.snapshot());
+        }
+    }
+
+    // Brings the cache to hold contextIds minus its last token, reusing what it shares
+    // with what is cached or stored, and runs the rest
+    private ForwardResult forward(long[] contextIds) {
+        GenerativeSession session = engine.session();
+        boolean owned = engine.ownsCache(this);
+        engine.claimCache(this);
+        if (!owned && cacheStore != null) {
+            Optional<KvCacheSnapshot> saved = cacheStore.remove(id);
+            if (saved.isPresent() && saved.get().length() == history.length()) {
+                session.restore(saved.get());
+                owned = true;
+            }
+        }
+        if (!owned) {
+            return engine.prefill(contextIds);
+        }
+        return engine.continueTo(history.tokens(), contextIds, contextPolicy.evictsFromCache(), contextWindow);
+    }
+
+    private static ChatHistory append(ChatHistory history, long[] turn) {
+        long[] tokens = Arrays.copyOf(history.tokens(), history.length() + turn.length);
+        System.arraycopy(turn, 0, tokens, history.length(), turn.length);
+        int[] starts = Arrays.copyOf(history.turnStarts(), history.turnCount() + 1);
+        starts[history.turnCount()] = history.length();
+        return new ChatHistory(tokens, starts);
+    }
+
+    public static class Builder {
+
+        private final GenerationEngine engine;
+        private int contextWindow;
+        private ContextPolicy contextPolicy = ContextPolicy.dropOldestTurns();
+        private KvCacheStore cacheStore;
+
+        Builder(GenerationEngine engine) {
+            this.engine = engine;
+        }
+
+        /**
+         * Maximum number of tokens the conversation plus a reply may occupy, usually
+         * the model's context length, and no more than the session's
+         * {@linkplain GenerativeSession#maxPositions() position limit}. Unbounded by
+         * default.
+         */
+        public Builder contextWindow(int contextWindow) {
+            if (contextWindow < 1) {
+                throw new IllegalArgumentException("contextWindow must be >= 1, got " + contextWindow);
+            }
+            this.contextWindow = contextWindow;
+            return this;
+        }
+
+        /**
+         * How to shrink the conversation when it outgrows the context window. Defaults
+         * to {@link ContextPolicy#dropOldestTurns()}.
+         */
+        public Builder contextPolicy(ContextPolicy contextPolicy) {
+            this.contextPolicy = Objects.requireNonNull(contextPolicy, "contextPolicy is required");
+            return this;
+        }
+
+        /**
+         * Saves the chat's KV cache in {@code cacheStore} when another caller takes
+         * over the engine's session, and restores it when the chat resumes, instead of
+         * prefilling the history again. The session must support
+         * {@link GenerativeSession#snapshot() snapshots}.
+         */
+        public Builder cacheStore(KvCacheStore cacheStore) {
+            this.cacheStore = cacheStore;
+            return this;
+        }
+
+        public ChatSession build() {
+            if (engine.isBeamSearch() || engine.session() instanceof EncoderDecoderSession) {
+                throw new IllegalStateException("Chat sessions require a decoder-only session without beam search");
+            }
+            if (contextWindow > 0 && contextWindow <= engine.maxNewTokens()) {
+                throw new IllegalStateException("contextWindow (" + contextWindow
+                        + ") must exceed maxNewTokens (" + engine.maxNewTokens() + ")");
+            }
+            int maxPositions = engine.session().maxPositions();
+            if (contextWindow > 0 && maxPositions > 0 && contextWindow > maxPositions) {
+                throw new IllegalStateException("contextWindow (" + contextWindow
+                        + ") exceeds the " + maxPositions + " positions the model can encode");
+            }
+            return new ChatSession(this);
+        }
+    }
+}
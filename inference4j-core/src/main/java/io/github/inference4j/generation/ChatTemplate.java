@@ -16,6 +16,8 @@
 
 package io.github.inference4j.generation;
 
+import java.util.function.UnaryOperator;
+
 /**
  * Formats a user message into the model's expected prompt format.
  *
@@ -24,6 +26,10 @@ package io.github.inference4j.generation;
  * This interface abstracts the formatting so text generators can work with
  * any model.
  *
+ * <p>A {@link ChatSession} formats the first user message with {@link #format(String)}
+ * and later ones with {@link #formatFollowUp(String)}, which continues right after the
+ * model's previous reply.
+ *
  * @see GenerativeModel
  */
 @FunctionalInterface
@@ -36,4 +42,40 @@ public interface ChatTemplate {
      * @return the formatted prompt ready for tokenization
      */
     String format(String userMessage);
+
+    /**
+     * Formats a user message that continues a conversation. The result is appended
+     * directly after the model's previous reply, without its end-of-turn token, so it
+     * should close that reply before opening the new user turn.
+     *
+     * <p>The default implementation delegates to {@link #format(String)}.
+     *
+     * @param userMessage the raw user message
+     * @return the formatted continuation ready for tokenization
+     */
+    default String formatFollowUp(String userMessage) {
+        return format(userMessage);
+    }
+
+    /**
+     * Creates a template that formats the first message with {@code first} and the
+     * following ones with {@code followUp}.
+     *
+     * @param first    formats the opening user message
+     * @param followUp formats each later user message
+     * @return the multi-turn template
+     */
+    static ChatTemplate of(UnaryOperator<String> first, UnaryOperator<String> followUp) {
+        return new ChatTemplate() {
+            @Override
+            public String format(String userMessage) {
+                return first.apply(userMessage);
+            }
+
+            @Override
+            public String formatFollowUp(String userMessage) {
+                return followUp.apply(userMessage);
+            }
+        };
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.tokenizer.TokenDecoder;
+import io.github.inference4j.tokenizer.Tokenizer;
+
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decides what a {@link ChatSession} or a {@link GenerationEngine} keeps when the
+ * sequence outgrows its context window.
+ *
+ * <p>A chat session calls the policy before a turn whose prompt plus
+ * {@code maxNewTokens} would not fit; an engine with a
+ * {@linkplain GenerationEngine.Builder#contextWindow(int) context window} calls it
+ * whenever the cache is full in the middle of generation, so a stream can run past the
+ * model's context length. Whatever the policy returns is the sequence from then on: the
+ * KV cache is kept up to the first token that differs and the rest is prefilled again,
+ * so policies that only drop recent tokens are cheapest. Policies that
+ * {@linkplain #evictsFromCache() evict from the cache} instead have a removed range cut
+ * out of the cache in place, and nothing is prefilled again.
+ */
+@FunctionalInterface
+public interface ContextPolicy {
+
+    /**
+     * Shrinks {@code history} to at most {@code budget} tokens.
+     *
+     * @param history the conversation, ending with the new user turn
+     * @param budget  the number of tokens the result may hold
+     * @return the conversation to continue from, ending with the new user turn
+     * @throws IllegalStateException if the conversation cannot be made to fit
+     */
+    ChatHistory fit(ChatHistory history, int budget);
+
+    /**
+     * Returns whether a single range of tokens this policy removes is
+     * {@linkplain GenerativeSession#evict(int, int) evicted} from the KV cache, keeping
+     * the cache of the tokens after it, rather than prefilled again from the first
+     * removed token.
+     *
+     * <p>Eviction keeps the cost of fitting independent of the context length, but the
+     * tokens after the range keep keys and values computed while the removed tokens
+     * were visible. Defaults to {@code false}.
+     */
+    default boolean evictsFromCache() {
+        return false;
+    }
+
+    /**
+     * Drops whole turns, oldest first, until the conversation fits. The first turn,
+     * which carries the system prompt and any beginning-of-sequence token, and the new
+     * user turn are always kept.
+     *
+     * @return the policy
+     */
+    static ContextPolicy dropOldestTurns() {
+        return (history, budget) -> {
+            int last = history.turnCount() - 1;
+            int drop = 1;
+            ChatHistory fitted = history;
+            while (fitted.length() > budget && drop < last) {
+                drop++;
+                fitted = history.withoutTurns(1, drop);
+            }
+            if (fitted.length() > budget) {
+                throw new IllegalStateException("Conversation of " + fitted.length()
+                        + " tokens does not fit a budget of " + budget
+                        + " even with only its first and latest turns");
+            }
+            return fitted;
+        };
+    }
+
+    /**
+     * Keeps the first {@code sinkTokens} tokens and as many of the most recent ones as
+     * fit, evicting the tokens in between from the KV cache in place, as in
+     * StreamingLLM. The first tokens act as attention sinks that most heads attend to
+     * regardless of content, so keeping them preserves output quality long after the
+     * rest of the beginning is gone; 4 is a common choice.
+     *
+     * <p>Nothing is prefilled again, but evicting from a growing cache copies the
+     * retained positions, so a {@link GenerationEngine} fits to an eighth below its
+     * window to spread that copy over the following steps. The cut ignores turn
+     * boundaries.
+     *
+     * @param sinkTokens the number of leading tokens always kept
+     * @return the policy
+     * @throws IllegalArgumentException if {@code sinkTokens} is negative
+     */
+    static ContextPolicy slidingWindow(int sinkTokens) {
+        if (sinkTokens < 0) {
+            throw new IllegalArgumentException("sinkTokens must be >= 0, got " + sinkTokens);
+        }
+        return new ContextPolicy() {
+            @Override
+            public ChatHistory fit(ChatHistory history, int budget) {
+                if (history.length() <= budget) {
+                    return history;
+                }
+                if (budget <= sinkTokens) {
+                    throw new IllegalStateException("A budget of " + budget
+                            + " tokens leaves no room after " + sinkTokens + " sink tokens");
+                }
+                return history.withoutTokens(sinkTokens, history.length() - (budget - sinkTokens));
+            }
+
+            @Override
+            public boolean evictsFromCache() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Replaces everything between the first turn and the most recent
+     * {@code recentTokens} tokens with a summary, which then begins a turn of its own.
+     * The first turn carries the system prompt and any beginning-of-sequence token.
+     *
+     * <p>The dropped tokens are decoded to text and passed to {@code summarizer}, and
+     * its result is encoded as is, so it should read the way the model expects
+     * context, e.g., {@code "Earlier: " + summary + "\n"} or a formatted message.
+     * The summarizer must not use the engine being fitted, whose cache is in use.
+     * The summary and the recent tokens are prefilled again, so set
+     * {@code recentTokens} well below the budget: the space that frees up is what
+     * lets generation continue before the next summary is needed.
+     *
+     * @param recentTokens the number of most recent tokens kept verbatim
+     * @param tokenizer    encodes the summary
+     * @param decoder      decodes the tokens to summarize
+     * @param summarizer   turns the dropped text into the text that replaces it
+     * @return the policy
+     * @throws IllegalArgumentException if {@code recentTokens} is negative
+     */
+    static ContextPolicy summarizeAndTruncate(int recentTokens, Tokenizer tokenizer, TokenDecoder decoder,
+                                              UnaryOperator<String> summarizer) {
+        if (recentTokens < 0) {
+            throw new IllegalArgumentException("recentTokens must be >= 0, got " + recentTokens);
+        }
+        Objects.requireNonNull(tokenizer, "tokenizer is required");
+        Objects.requireNonNull(decoder, "decoder is required");
+        Objects.requireNonNull(summarizer, "summarizer is required");
+        return (history, budget) -> {
+            if (history.length() <= budget) {
+                return history;
+            }
+            int from = history.turnEnd(0);
+            int to = Math.max(from, history.length() - recentTokens);
+            ChatHistory fitted = history;
+            if (from < to) {
+                int[] dropped = new int[to - from];
+                for (int i = 0; i < dropped.length; i++) {
+                    dropped[i] = (int) history.tokens()[from + i];
+                }
+                String summary = summarizer.apply(decoder.decode(dropped));
+                fitted = history.replaceTokens(from, to, tokenizer.encode(summary).inputIds());
+            }
+            if (fitted.length() > budget) {
+                throw new IllegalStateException("Sequence of " + fitted.length()
+                        + " tokens does not fit a budget of " + budget
+                        + " even with its first turn, a summary and the last "
+                        + recentTokens + " tokens");
+            }
+            return fitted;
+        };
+    }
+}
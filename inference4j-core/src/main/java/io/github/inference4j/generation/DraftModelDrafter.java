@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.processing.MathOps;
+import io.github.inference4j.sampling.LogitsProcessor;
+
+/**
+ * {@link SpeculativeDecoder.Drafter} that proposes tokens with a smaller model
+ * sharing the target's vocabulary.
+ *
+ * <p>The draft session follows the committed sequence: proposals it got wrong are
+ * truncated away, and when all proposals are accepted the last one, which it never
+ * ran, is fed together with the next pending token.
+ */
+final class DraftModelDrafter implements SpeculativeDecoder.Drafter {
+
+    private final GenerativeSession draft;
+    private final LogitsProcessor processor;
+    private final boolean greedy;
+    private long[] backlog = new long[0];
+    private int lengthBeforeProposals;
+
+    DraftModelDrafter(GenerativeSession draft, LogitsProcessor processor, boolean greedy) {
+        this.draft = draft;
+        this.processor = processor;
+        this.greedy = greedy;
+    }
+
+    @Override
+    public void start(long[] promptIds) {
+        draft.resetCache();
+        draft.prefill(promptIds);
+        backlog = new long[0];
+    }
+
+    @Override
+    public SpeculativeDecoder.Draft propose(long pending, int maxTokens) {
+        long[] feed = new long[backlog.length + 1];
+        System.arraycopy(backlog, 0, feed, 0, backlog.length);
+        feed[backlog.length] = pending;
+        ForwardResult result = draft.extend(feed);
+        lengthBeforeProposals = draft.cacheSequenceLength();
+
+        long[] tokens = new long[maxTokens];
+        float[][] probabilities = greedy ? null : new float[maxTokens][];
+        for (int i = 0; i < maxTokens; i++) {
+            float[] processed = result.logits();
+            processor.processInPlace(processed);
+            if (greedy) {
+                tokens[i] = SpeculativeDecoder.argmax(processed);
+            } else {
+                probabilities[i] = MathOps.softmax(processed);
+                tokens[i] = SpeculativeDecoder.sample(probabilities[i]);
+            }
+            if (i < maxTokens - 1) {
+                result = draft.decode(tokens[i]);
+            }
+        }
+        return new SpeculativeDecoder.Draft(tokens, probabilities);
+    }
+
+    @Override
+    public void commit(long pending, SpeculativeDecoder.Draft proposal, int accepted) {
+        long[] tokens = proposal.tokens();
+        if (accepted == tokens.length) {
+            backlog = new long[]{tokens[tokens.length - 1]};
+        } else {
+            draft.truncate(lengthBeforeProposals + accepted);
+            backlog = new long[0];
+        }
+    }
+}
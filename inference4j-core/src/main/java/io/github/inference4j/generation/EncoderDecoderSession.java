@@ -17,10 +17,13 @@
 package io.github.inference4j.generation;
 
 import io.github.inference4j.InferenceSession;
+import io.github.inference4j.NativeOutputs;
 import io.github.inference4j.Tensor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -40,6 +43,14 @@ import java.util.Map;
  *   <li><b>Cross-attention cache</b> ({@code past_key_values.N.encoder.key/value}) —
  *       frozen after the first decode step, since encoder hidden states don't change.</li>
  * </ul>
+ *
+ * <p>For beam search, {@link #prefillBeams(long[], int, int)} runs the encoder and the
+ * first decoder step once and {@link #decodeBeams(long[], int[])} then advances all
+ * beams as one {@code [beams, 1]} batch. The beams share one copy of the encoder
+ * output's cross-attention cache, and their self-attention caches stay in native
+ * memory, where they are reordered by beam index before each step. {@link #fork(int, int)}
+ * and {@link #decodeBatch(long[])} run the same batch without reordering, e.g., to
+ * sample several outputs for one input.
  */
 public class EncoderDecoderSession implements GenerativeSession {
 
@@ -48,12 +59,18 @@ public class EncoderDecoderSession implements GenerativeSession {
     private final InferenceSession decoderWithPastSession;
     private final int decoderStartTokenId;
     private final int numLayers;
+    private final boolean multiTokenDecode;
 
     private Map<String, Tensor> decoderSelfAttentionCache;
     private Map<String, Tensor> crossAttentionCache;
     private Tensor encoderAttentionMask;
     private int sequenceLength;
 
+    private BeamKvCache beamCache;
+    private Map<String, Tensor> beamCrossAttentionCache;
+    private Tensor beamEncoderAttentionMask;
+    private int[] beamOrder;
+
     /**
      * Creates a new encoder-decoder session.
      *
@@ -74,12 +91,16 @@ public class EncoderDecoderSession implements GenerativeSession {
         this.numLayers = (int) decoderWithPastSession.inputNames().stream()
                 .filter(n -> n.startsWith("past_key_values.") && n.endsWith(".decoder.key"))
                 .count();
+        long[] inputIdsShape = decoderWithPastSession.inputShape("input_ids");
+        this.multiTokenDecode = inputIdsShape == null || inputIdsShape.length < 2
+                || inputIdsShape[1] != 1;
         this.decoderSelfAttentionCache = new LinkedHashMap<>();
         this.crossAttentionCache = new LinkedHashMap<>();
     }
 
     @Override
     public ForwardResult prefill(long[] tokenIds) {
+        releaseBeams();
         int srcLen = tokenIds.length;
 
         long[] attentionMask = ones(srcLen);
@@ -124,8 +145,48 @@ public class EncoderDecoderSession implements GenerativeSession {
 
     @Override
     public ForwardResult decode(long tokenId) {
+        return decodeWithPast(new long[]{tokenId}, false).get(0);
+    }
+
+    /**
+     * Runs all {@code tokenIds} through {@code decoder_with_past_model.onnx} in one pass
+     * when the model accepts more than one decoder token per step.
+     */
+    @Override
+    public List<ForwardResult> extendAll(long[] tokenIds) {
+        if (!multiTokenDecode || tokenIds.length == 1) {
+            return GenerativeSession.super.extendAll(tokenIds);
+        }
+        return decodeWithPast(tokenIds, true);
+    }
+
+    /**
+     * Drops decoder positions from {@code length} on. The cross-attention cache is
+     * kept, so generation can continue without re-running the encoder.
+     */
+    @Override
+    public void truncate(int length) {
+        if (length < 0 || length > sequenceLength) {
+            throw new IllegalArgumentException(
+                    "length must be in [0, " + sequenceLength + "], got " + length);
+        }
+        if (length == sequenceLength) {
+            return;
+        }
+        if (length == 0) {
+            resetCache();
+            return;
+        }
+        decoderSelfAttentionCache.replaceAll((name, tensor) -> tensor.narrow(2, 0, length));
+        this.sequenceLength = length;
+    }
+
+    private List<ForwardResult> decodeWithPast(long[] tokenIds, boolean allPositions) {
+        if (tokenIds.length == 0) {
+            throw new IllegalArgumentException("tokenIds must not be empty");
+        }
         Map<String, Tensor> inputs = new LinkedHashMap<>();
-        inputs.put("input_ids", Tensor.fromLongs(new long[]{tokenId}, new long[]{1, 1}));
+        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{1, tokenIds.length}));
 
         inputs.put("encoder_attention_mask", this.encoderAttentionMask);
 
@@ -135,7 +196,15 @@ public class EncoderDecoderSession implements GenerativeSession {
 
         Map<String, Tensor> outputs = decoderWithPastSession.run(inputs);
 
-        float[] logits = outputs.get("logits").slice(0, 0).slice(0, -1).toFloats();
+        Tensor logits = outputs.get("logits").slice(0, 0);
+        List<ForwardResult> results = new ArrayList<>(tokenIds.length);
+        if (allPositions) {
+            for (int i = 0; i < tokenIds.length; i++) {
+                results.add(new ForwardResult(logits.slice(0, i).toFloats()));
+            }
+        } else {
+            results.add(new ForwardResult(logits.slice(0, -1).toFloats()));
+        }
 
         for (int i = 0; i < numLayers; i++) {
             decoderSelfAttentionCache.put("past_key_values." + i + ".decoder.key",
@@ -144,9 +213,104 @@ public class EncoderDecoderSession implements GenerativeSession {
                     outputs.get("present." + i + ".decoder.value"));
         }
 
-        this.sequenceLength++;
+        this.sequenceLength += tokenIds.length;
 
-        return new ForwardResult(logits);
+        return results;
+    }
+
+    /**
+     * Encodes {@code tokenIds} and runs the first decoder step once, then prepares
+     * {@code numBeams} beams that all start from it.
+     *
+     * @param tokenIds the source token IDs
+     * @param numBeams the number of beams to decode in one batch
+     * @param maxSteps the maximum number of {@link #decodeBeams(long[], int[])} calls
+     * @return the logits of the first step, the same for every beam
+     */
+    public ForwardResult prefillBeams(long[] tokenIds, int numBeams, int maxSteps) {
+        if (numBeams < 1) {
+            throw new IllegalArgumentException("numBeams must be >= 1, got " + numBeams);
+        }
+        ForwardResult result = prefill(tokenIds);
+        fork(numBeams, maxSteps);
+        return result;
+    }
+
+    /**
+     * Prepares {@code count} beams that all continue the current decoder state, sharing
+     * one copy of the cross-attention cache.
+     */
+    @Override
+    public void fork(int count, int maxSteps) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be >= 1, got " + count);
+        }
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("maxSteps must be >= 1, got " + maxSteps);
+        }
+        if (decoderSelfAttentionCache.isEmpty()) {
+            throw new IllegalStateException("prefill must be called before fork");
+        }
+        long[] selfShape = decoderSelfAttentionCache.get("past_key_values.0.decoder.key").shape();
+        this.beamCache = new BeamKvCache(numLayers, count, (int) selfShape[1], (int) selfShape[3],
+                sequenceLength + maxSteps,
+                decoderSelfAttentionCache.get("past_key_values.0.decoder.key").type());
+        beamCache.start(decoderSelfAttentionCache, "past_key_values.");
+        this.beamCrossAttentionCache = new LinkedHashMap<>();
+        crossAttentionCache.forEach((name, tensor) ->
+                beamCrossAttentionCache.put(name, BeamKvCache.expand(tensor, count)));
+        this.beamEncoderAttentionMask = BeamKvCache.expand(encoderAttentionMask, count);
+        this.beamOrder = new int[count];
+        Arrays.setAll(beamOrder, beam -> beam);
+    }
+
+    /**
+     * Advances every beam along its own sequence, as {@link #decodeBeams(long[], int[])}
+     * does when no beam is reordered.
+     */
+    @Override
+    public float[][] decodeBatch(long[] tokenIds) {
+        return decodeBeams(tokenIds, beamOrder);
+    }
+
+    /**
+     * Advances every beam by one token in a single batched decoder pass.
+     *
+     * @param tokenIds    the next token of each beam
+     * @param beamIndices for each beam, the beam of the previous step it continues
+     * @return the logits of each beam
+     * @throws IllegalStateException if {@link #prefillBeams(long[], int, int)} was not called
+     */
+    public float[][] decodeBeams(long[] tokenIds, int[] beamIndices) {
+        if (beamCache == null) {
+            throw new IllegalStateException("prefillBeams or fork must be called before decoding a batch");
+        }
+        int numBeams = beamCache.numBeams();
+        if (tokenIds.length != numBeams) {
+            throw new IllegalArgumentException(
+                    "Expected " + numBeams + " token IDs, got " + tokenIds.length);
+        }
+        Map<String, Tensor> inputs = new LinkedHashMap<>();
+        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{numBeams, 1}));
+
+        inputs.put("encoder_attention_mask", this.beamEncoderAttentionMask);
+
+        inputs.putAll(beamCache.reorder(beamIndices));
+
+        inputs.putAll(beamCrossAttentionCache);
+
+        float[][] logits = new float[numBeams][];
+        try (NativeOutputs outputs = decoderWithPastSession.runNative(
+                inputs, Map.of(), beamCache.presentOutputs())) {
+            Tensor beamLogits = outputs.get("logits").toTensor();
+            for (int beam = 0; beam < numBeams; beam++) {
+                logits[beam] = beamLogits.slice(0, beam).slice(0, -1).toFloats();
+            }
+        }
+        // The beams' length lives in beamCache; the session's own sequence stays as forked
+        beamCache.advance();
+
+        return logits;
     }
 
     @Override
@@ -160,6 +324,12 @@ public class EncoderDecoderSession implements GenerativeSession {
         crossAttentionCache.clear();
         encoderAttentionMask = null;
         sequenceLength = 0;
+        releaseBeams();
+    }
+
+    @Override
+    public void releaseBatch() {
+        releaseBeams();
     }
 
     @Override
@@ -169,6 +339,13 @@ public class EncoderDecoderSession implements GenerativeSession {
         decoderWithPastSession.close();
     }
 
+    private void releaseBeams() {
+        beamCache = null;
+        beamCrossAttentionCache = null;
+        beamEncoderAttentionMask = null;
+        beamOrder = null;
+    }
+
     private long[] ones(int length) {
         long[] result = new long[length];
         Arrays.fill(result, 1L);
@@ -27,9 +27,12 @@ import io.github.inference4j.tokenizer.Tokenizer;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 
 /**
  * Text-in, text-out convenience class that owns the autoregressive generation loop.
@@ -52,6 +55,40 @@ import java.util.function.Consumer;
  *     engine.generate("Hello world", token -> System.out.print(token));
  * }
  * }</pre>
+ *
+ * <p>With a {@link Builder#prefixCache(PrefixCache) prefix cache}, the cache computed
+ * for each prompt is kept, and a later prompt sharing a token prefix with it (e.g.,
+ * the same system prompt) restores that prefix and prefills only the rest. The
+ * session must support {@link GenerativeSession#snapshot() snapshots}.
+ *
+ * <p>With a {@link Builder#draftSession(GenerativeSession) draft session}, generation
+ * uses speculative decoding: the small draft model proposes
+ * {@link Builder#draftTokens(int) several tokens}, the target model checks them all in
+ * one forward pass, and the accepted ones are committed at once. Greedy output is
+ * identical to plain decoding, and sampled output follows the same distribution. The
+ * target session must support {@link GenerativeSession#extendAll(long[]) multi-token
+ * passes} and {@link GenerativeSession#truncate(int) truncation}.
+ *
+ * <p>{@link Builder#promptLookup(int) Prompt lookup} is a speculative mode that needs
+ * no draft model: tokens are proposed by copying what followed the latest n-gram in
+ * the prompt. It suits tasks whose output repeats much of the input, such as grammar
+ * correction or summarization, and works with {@link EncoderDecoderSession} as well.
+ *
+ * <p>With {@link Builder#numBeams(int) numBeams} above 1 and an
+ * {@link EncoderDecoderSession}, the engine runs beam search
+ * instead of sampling. All beams decode as one batch per step, and the result is
+ * streamed to the listener once the search ends.
+ *
+ * <p>{@link #generate(String, int)} draws several samples of one prompt: the prompt is
+ * prefilled once, its cache is forked, and the samples decode together as one batch.
+ *
+ * <p>With a {@link Builder#contextWindow(int) context window}, generation does not
+ * stop at the model's context length: whenever the cache is full, the
+ * {@link Builder#contextPolicy(ContextPolicy) context policy} shrinks the sequence
+ * to an eighth below the window, by default with a
+ * {@link ContextPolicy#slidingWindow(int) sliding window} behind four attention sink
+ * tokens, and decoding continues. Shrinking in chunks keeps the policy off most decode
+ * steps. Prompts longer than the window are fitted the same way before prefill.
  */
 public class GenerationEngine implements GenerativeTask<String, GenerationResult> {
 
@@ -65,6 +102,13 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
     private final int maxNewTokens;
     private final Set<String> stopSequences;
     private final boolean appendEosToInput;
+    private final PrefixCache prefixCache;
+    private final GenerativeSession draftSession;
+    private final SpeculativeDecoder speculativeDecoder;
+    private final BeamSearch beamSearch;
+    private final int contextWindow;
+    private final ContextPolicy contextPolicy;
+    private ChatSession cacheOwner;
 
     private GenerationEngine(Builder builder) {
         this.session = builder.session;
@@ -75,8 +119,17 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
         this.maxNewTokens = builder.maxNewTokens;
         this.stopSequences = Set.copyOf(builder.stopSequences);
         this.appendEosToInput = builder.appendEosToInput;
+        this.prefixCache = builder.prefixCache;
         this.logitsProcessor = builder.buildLogitsProcessor();
         this.sampler = builder.buildSampler();
+        this.draftSession = builder.draftSession;
+        this.speculativeDecoder = builder.buildSpeculativeDecoder(logitsProcessor, sampler);
+        this.beamSearch = builder.numBeams > 1
+                ? new BeamSearch(builder.numBeams, builder.lengthPenalty, builder.earlyStopping,
+                        eosTokenIds, maxNewTokens)
+                : null;
+        this.contextWindow = builder.contextWindow;
+        this.contextPolicy = builder.contextPolicy;
     }
 
     public static Builder builder() {
@@ -91,7 +144,210 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
     @Override
     public GenerationResult generate(String input, Consumer<String> tokenListener) {
         long startTime = System.nanoTime();
+        long[] inputIds = encode(input);
+
+        if (beamSearch != null) {
+            TokenStreamer streamer = new TokenStreamer(stopSequences, tokenListener);
+            int generatedTokens = generateWithBeams(inputIds, streamer);
+            return result(streamer, inputIds.length, generatedTokens, startTime);
+        }
+        claimCache(null);
+        ChatHistory context = fitPrompt(inputIds);
+        ForwardResult result = prefill(context.tokens());
+        return generateFrom(context, result, tokenListener, cached -> {}, startTime);
+    }
 
+    /**
+     * Samples {@code n} continuations of one prompt, prefilling it only once.
+     *
+     * <p>The prompt's cache is {@linkplain GenerativeSession#fork(int, int) forked}
+     * {@code n} ways, and the samples decode as one batch, one forward pass per step for
+     * all of them, instead of {@code n} prefills followed by {@code n} sequential decodes.
+     * Use it to draw candidates for self-consistency voting or reranking. The samples
+     * differ only with sampling enabled; greedy decoding yields {@code n} identical
+     * results. Speculative decoding is not used, and a
+     * {@link Builder#contextWindow(int) context window} only applies to the prompt.
+     *
+     * @param input the prompt
+     * @param n     the number of samples
+     * @return one result per sample; each duration runs until that sample finished
+     * @throws IllegalArgumentException if {@code n} is below 1
+     * @throws IllegalStateException if the engine runs beam search
+     * @throws UnsupportedOperationException if the session cannot decode a batch
+     */
+    public List<GenerationResult> generate(String input, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be >= 1, got " + n);
+        }
+        if (beamSearch != null) {
+            throw new IllegalStateException("Sampling several sequences cannot be combined with beam search");
+        }
+        long startTime = System.nanoTime();
+        claimCache(null);
+        ChatHistory context = fitPrompt(encode(input));
+        float[] first = prefill(context.tokens()).logits();
+        session.fork(n, maxNewTokens);
+        try {
+            return sampleBatch(context, first, n, startTime);
+        } finally {
+            // The forked caches hold maxNewTokens positions per sample
+            session.releaseBatch();
+        }
+    }
+
+    private List<GenerationResult> sampleBatch(ChatHistory context, float[] first, int n, long startTime) {
+        TokenStreamer[] streamers = new TokenStreamer[n];
+        GenerationResult[] results = new GenerationResult[n];
+        int[] generated = new int[n];
+        long[] tokenIds = new long[n];
+        float[][] logits = new float[n][];
+        for (int i = 0; i < n; i++) {
+            streamers[i] = new TokenStreamer(stopSequences, token -> {});
+            // Logits are processed in place, so each sample needs its own copy of the first step's
+            logits[i] = i == n - 1 ? first : first.clone();
+        }
+        int running = n;
+        for (int step = 0; step < maxNewTokens && running > 0; step++) {
+            for (int i = 0; i < n; i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                logitsProcessor.processInPlace(logits[i]);
+                int tokenId = sampler.sample(logits[i]);
+                // A finished sample keeps feeding its last token; its logits are ignored
+                tokenIds[i] = tokenId;
+                if (!eosTokenIds.contains(tokenId)) {
+                    streamers[i].accept(decoder.decode(tokenId));
+                    generated[i]++;
+                }
+                if (eosTokenIds.contains(tokenId) || streamers[i].isStopped() || generated[i] == maxNewTokens) {
+                    results[i] = result(streamers[i], context.length(), generated[i], startTime);
+                    running--;
+                }
+            }
+            if (running > 0) {
+                logits = session.decodeBatch(tokenIds);
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Starts configuring a multi-turn {@link ChatSession} that keeps this engine's KV
+     * cache between turns. A plain {@code generate} call or another chat in between
+     * takes the cache over; the chat then prefills its history again on its next turn.
+     *
+     * @return a chat session builder
+     */
+    public ChatSession.Builder chat() {
+        return new ChatSession.Builder(this);
+    }
+
+    /**
+     * Samples the continuation of {@code context}, whose forward pass produced
+     * {@code result}, and hands {@code cached} the sequence the cache holds at the end:
+     * the context, fitted again whenever the cache filled up, and the generated tokens
+     * fed back so far.
+     */
+    GenerationResult generateFrom(ChatHistory context, ForwardResult result, Consumer<String> tokenListener,
+                                  Consumer<ChatHistory> cached, long startTime) {
+        TokenStreamer streamer = new TokenStreamer(stopSequences, tokenListener);
+        int generatedTokens = 0;
+        Sequence sequence = new Sequence(context);
+
+        if (speculativeDecoder != null) {
+            generatedTokens = generateSpeculatively(context.tokens(), result, streamer, sequence::add);
+        } else {
+            for (int i = 0; i < maxNewTokens; i++) {
+                // Each forward pass hands back fresh logits, so they are processed in place
+                float[] logits = result.logits();
+                logitsProcessor.processInPlace(logits);
+                int tokenId = sampler.sample(logits);
+
+                if (eosTokenIds.contains(tokenId)) {
+                    break;
+                }
+
+                String fragment = decoder.decode(tokenId);
+                streamer.accept(fragment);
+                sequence.add(tokenId);
+                generatedTokens++;
+
+                if (streamer.isStopped()) {
+                    break;
+                }
+
+                if (contextWindow > 0 && session.cacheSequenceLength() >= contextWindow) {
+                    long[] held = sequence.prefix(session.cacheSequenceLength());
+                    ChatHistory fitted = contextPolicy.fit(sequence.history(), fitBudget());
+                    result = continueTo(held, fitted.tokens(), contextPolicy.evictsFromCache(), contextWindow);
+                    sequence = new Sequence(fitted);
+                } else {
+                    result = session.decode(tokenId);
+                }
+            }
+        }
+        cached.accept(sequence.cached(session.cacheSequenceLength()));
+        return result(streamer, context.length(), generatedTokens, startTime);
+    }
+
+    /**
+     * Brings the cache, which holds {@code cached}, to hold {@code target} minus its last
+     * token and runs the rest. The longest common prefix is kept; with {@code evict},
+     * a single range of {@code cached} that {@code target} leaves out is
+     * {@linkplain GenerativeSession#evict(int, int) evicted} so the tokens after it are
+     * kept too, unless the cache filling up to {@code window} positions after it would
+     * pass the session's {@linkplain GenerativeSession#maxPositions() position limit}, in
+     * which case nothing is kept and positions start over from 0. Whatever is not kept
+     * is prefilled again.
+     */
+    ForwardResult continueTo(long[] cached, long[] target, boolean evict, int window) {
+        int held = Math.min(cached.length, session.cacheSequenceLength());
+        int limit = Math.min(held, target.length - 1);
+        int reusable = 0;
+        while (reusable < limit && cached[reusable] == target[reusable]) {
+            reusable++;
+        }
+        if (evict && reusable < held) {
+            // Find the longest tail of the cache that target continues with
+            for (int resume = reusable + 1; resume < held; resume++) {
+                int tail = held - resume;
+                if (reusable + tail < target.length
+                        && Arrays.equals(cached, resume, held, target, reusable, reusable + tail)) {
+                    if (!positionsFit(resume - reusable, window)) {
+                        return prefill(target);
+                    }
+                    session.evict(reusable, resume - reusable);
+                    reusable += tail;
+                    break;
+                }
+            }
+        }
+        if (reusable == 0) {
+            return prefill(target);
+        }
+        if (reusable < session.cacheSequenceLength()) {
+            session.truncate(reusable);
+        }
+        return session.extend(Arrays.copyOfRange(target, reusable, target.length));
+    }
+
+    // Evicted positions are not reused, so the cache fills up again at positions up to
+    // the grown offset plus the window before the next fit; without a window the
+    // positions cannot be bounded
+    private boolean positionsFit(int evicted, int window) {
+        int maxPositions = session.maxPositions();
+        if (maxPositions == 0) {
+            return true;
+        }
+        return window > 0 && session.positionOffset() + evicted + window <= maxPositions;
+    }
+
+    GenerativeSession session() {
+        return session;
+    }
+
+    private long[] encode(String input) {
         String prompt = chatTemplate != null ? chatTemplate.format(input) : input;
         long[] inputIds = tokenizer.encode(prompt).inputIds();
         if (appendEosToInput) {
@@ -99,33 +355,55 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
             inputIds = Arrays.copyOf(inputIds, inputIds.length + 1);
             inputIds[inputIds.length - 1] = eosId;
         }
-        int promptTokens = inputIds.length;
+        return inputIds;
+    }
 
-        session.resetCache();
-        ForwardResult result = session.prefill(inputIds);
+    // The prompt is the first turn and the output the second, so context policies that
+    // keep the first turn keep the prompt
+    private ChatHistory fitPrompt(long[] inputIds) {
+        ChatHistory context = new ChatHistory(inputIds, new int[]{0, inputIds.length});
+        if (contextWindow > 0 && context.length() > contextWindow) {
+            context = contextPolicy.fit(context, fitBudget());
+        }
+        return context;
+    }
 
-        TokenStreamer streamer = new TokenStreamer(stopSequences, tokenListener);
-        int generatedTokens = 0;
+    // Fitting below the window leaves room for the next tokens, so the cache is
+    // shrunk once every few steps in chunks rather than by one position per step
+    private int fitBudget() {
+        return contextWindow - Math.max(1, contextWindow / 8);
+    }
+
+    Tokenizer tokenizer() {
+        return tokenizer;
+    }
 
-        for (int i = 0; i < maxNewTokens; i++) {
-            float[] processed = logitsProcessor.process(result.logits());
-            int tokenId = sampler.sample(processed);
+    ChatTemplate chatTemplate() {
+        return chatTemplate;
+    }
 
-            if (eosTokenIds.contains(tokenId)) {
-                break;
-            }
+    int maxNewTokens() {
+        return maxNewTokens;
+    }
 
-            String fragment = decoder.decode(tokenId);
-            streamer.accept(fragment);
-            generatedTokens++;
+    boolean isBeamSearch() {
+        return beamSearch != null;
+    }
 
-            if (streamer.isStopped()) {
-                break;
-            }
+    boolean ownsCache(ChatSession owner) {
+        return cacheOwner == owner;
+    }
 
-            result = session.decode(tokenId);
+    // Hands the session's cache to `owner`, letting the chat that held it save it first
+    void claimCache(ChatSession owner) {
+        if (cacheOwner != null && cacheOwner != owner) {
+            cacheOwner.suspend();
         }
+        cacheOwner = owner;
+    }
 
+    private GenerationResult result(TokenStreamer streamer, int promptTokens, int generatedTokens,
+                                    long startTime) {
         if (!streamer.isStopped()) {
             streamer.flush();
         }
@@ -134,9 +412,99 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
         return new GenerationResult(streamer.getText(), promptTokens, generatedTokens, duration);
     }
 
+    private int generateWithBeams(long[] inputIds, TokenStreamer streamer) {
+        int[] tokens = beamSearch.search((EncoderDecoderSession) session, inputIds);
+        int generated = 0;
+        for (int tokenId : tokens) {
+            streamer.accept(decoder.decode(tokenId));
+            generated++;
+            if (streamer.isStopped()) {
+                break;
+            }
+        }
+        return generated;
+    }
+
+    private int generateSpeculatively(long[] inputIds, ForwardResult prefill, TokenStreamer streamer,
+                                      IntConsumer emitted) {
+        int[] generated = new int[1];
+        IntPredicate sink = tokenId -> {
+            if (generated[0] >= maxNewTokens || eosTokenIds.contains(tokenId)) {
+                return false;
+            }
+            streamer.accept(decoder.decode(tokenId));
+            emitted.accept(tokenId);
+            generated[0]++;
+            return !streamer.isStopped() && generated[0] < maxNewTokens;
+        };
+        speculativeDecoder.generate(inputIds, prefill, sink);
+        return generated[0];
+    }
+
     @Override
     public void close() throws Exception {
         session.close();
+        if (draftSession != null) {
+            draftSession.close();
+        }
+    }
+
+    ForwardResult prefill(long[] inputIds) {
+        session.resetCache();
+        if (prefixCache == null) {
+            return session.prefill(inputIds);
+        }
+        ForwardResult result;
+        var shared = prefixCache.lookup(inputIds);
+        if (shared.isPresent()) {
+            session.restore(shared.get());
+            result = session.extend(Arrays.copyOfRange(inputIds, shared.get().length(), inputIds.length));
+        } else {
+            result = session.prefill(inputIds);
+        }
+        if (!prefixCache.contains(inputIds)) {
+            prefixCache.put(inputIds, session.snapshot());
+        }
+        return result;
+    }
+
+    // The tokens of a sequence being generated, growing as tokens are emitted
+    private static final class Sequence {
+
+        private final int[] turnStarts;
+        private long[] tokens;
+        private int length;
+
+        Sequence(ChatHistory history) {
+            this.turnStarts = history.turnStarts();
+            this.tokens = Arrays.copyOf(history.tokens(), history.length() + 16);
+            this.length = history.length();
+        }
+
+        void add(int tokenId) {
+            if (length == tokens.length) {
+                tokens = Arrays.copyOf(tokens, length * 2);
+            }
+            tokens[length++] = tokenId;
+        }
+
+        long[] prefix(int count) {
+            return Arrays.copyOf(tokens, Math.min(count, length));
+        }
+
+        ChatHistory history() {
+            return new ChatHistory(Arrays.copyOf(tokens, length), turnStarts);
+        }
+
+        // The sequence cut to what the cache holds: a last token that was never fed is dropped
+        ChatHistory cached(int cacheLength) {
+            int kept = Math.min(length, cacheLength);
+            int turns = 0;
+            while (turns < turnStarts.length && turnStarts[turns] <= kept) {
+                turns++;
+            }
+            return new ChatHistory(Arrays.copyOf(tokens, kept), Arrays.copyOf(turnStarts, turns));
+        }
     }
 
     public static class Builder {
@@ -153,6 +521,15 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
         private float temperature = 0f;
         private int topK = 0;
         private float topP = 0f;
+        private PrefixCache prefixCache;
+        private GenerativeSession draftSession;
+        private int draftTokens = 4;
+        private int promptLookupNgramSize;
+        private int numBeams = 1;
+        private float lengthPenalty = 1f;
+        private boolean earlyStopping = false;
+        private int contextWindow;
+        private ContextPolicy contextPolicy = ContextPolicy.slidingWindow(4);
 
         public Builder session(GenerativeSession session) {
             this.session = session;
@@ -209,6 +586,107 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
             return this;
         }
 
+        /**
+         * Reuses the prompt caches stored in {@code prefixCache} across calls. The
+         * session must support {@link GenerativeSession#snapshot() snapshots}.
+         */
+        public Builder prefixCache(PrefixCache prefixCache) {
+            this.prefixCache = prefixCache;
+            return this;
+        }
+
+        /**
+         * Enables speculative decoding with {@code draftSession}, a smaller model sharing
+         * the target's tokenizer. The engine closes it together with the target.
+         */
+        public Builder draftSession(GenerativeSession draftSession) {
+            this.draftSession = draftSession;
+            return this;
+        }
+
+        /**
+         * Enables speculative decoding by prompt lookup: the last tokens of the sequence,
+         * up to {@code maxNgramSize} of them, are matched against the prompt and the
+         * output so far, and the tokens that followed the match are proposed.
+         */
+        public Builder promptLookup(int maxNgramSize) {
+            if (maxNgramSize < 1) {
+                throw new IllegalArgumentException("maxNgramSize must be >= 1, got " + maxNgramSize);
+            }
+            this.promptLookupNgramSize = maxNgramSize;
+            return this;
+        }
+
+        /**
+         * Number of tokens proposed per verification pass when speculative decoding is
+         * enabled. Defaults to 4.
+         */
+        public Builder draftTokens(int draftTokens) {
+            if (draftTokens < 1) {
+                throw new IllegalArgumentException("draftTokens must be >= 1, got " + draftTokens);
+            }
+            this.draftTokens = draftTokens;
+            return this;
+        }
+
+        /**
+         * Number of beams for beam search. Defaults to 1, which disables it. Beam search
+         * needs an {@link EncoderDecoderSession} and does not combine with sampling or
+         * speculative decoding.
+         */
+        public Builder numBeams(int numBeams) {
+            if (numBeams < 1) {
+                throw new IllegalArgumentException("numBeams must be >= 1, got " + numBeams);
+            }
+            this.numBeams = numBeams;
+            return this;
+        }
+
+        /**
+         * Exponent applied to the length of finished beam hypotheses when ranking them.
+         * Values above 1 favour longer outputs, values below 1 shorter ones. Defaults to 1.
+         */
+        public Builder lengthPenalty(float lengthPenalty) {
+            this.lengthPenalty = lengthPenalty;
+            return this;
+        }
+
+        /**
+         * Stops beam search as soon as {@code numBeams} hypotheses are finished, instead
+         * of when no running beam can beat them. Defaults to {@code false}.
+         */
+        public Builder earlyStopping(boolean earlyStopping) {
+            this.earlyStopping = earlyStopping;
+            return this;
+        }
+
+        /**
+         * Maximum number of positions the KV cache may hold, usually the model's
+         * context length. When the cache is full mid-generation, the
+         * {@link #contextPolicy(ContextPolicy) context policy} shrinks the sequence to
+         * an eighth below the window and generation continues. Unbounded by default.
+         *
+         * <p>Must not exceed the session's {@linkplain GenerativeSession#maxPositions()
+         * position limit}. Policies that evict from the cache keep positions growing, so
+         * once they would pass that limit the fitted sequence is prefilled again instead.
+         */
+        public Builder contextWindow(int contextWindow) {
+            if (contextWindow < 1) {
+                throw new IllegalArgumentException("contextWindow must be >= 1, got " + contextWindow);
+            }
+            this.contextWindow = contextWindow;
+            return this;
+        }
+
+        /**
+         * How to shrink the sequence when it fills the context window. Defaults to
+         * {@link ContextPolicy#slidingWindow(int) a sliding window} behind 4 sink tokens.
+         */
+        public Builder contextPolicy(ContextPolicy contextPolicy) {
+            this.contextPolicy = Objects.requireNonNull(contextPolicy, "contextPolicy is required");
+            return this;
+        }
+
         public GenerationEngine build() {
             Objects.requireNonNull(session, "session is required");
             Objects.requireNonNull(tokenizer, "tokenizer is required");
@@ -216,6 +694,26 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
             if (eosTokenIds.isEmpty()) {
                 throw new IllegalStateException("At least one eosTokenId is required");
             }
+            if (draftSession != null && promptLookupNgramSize > 0) {
+                throw new IllegalStateException("draftSession and promptLookup cannot be combined");
+            }
+            if (numBeams > 1) {
+                if (!(session instanceof EncoderDecoderSession)) {
+                    throw new IllegalStateException("Beam search requires an EncoderDecoderSession");
+                }
+                if (!isGreedy() || draftSession != null || promptLookupNgramSize > 0) {
+                    throw new IllegalStateException(
+                            "Beam search cannot be combined with sampling or speculative decoding");
+                }
+            }
+            if (contextWindow > 0 && (numBeams > 1 || draftSession != null || promptLookupNgramSize > 0)) {
+                throw new IllegalStateException(
+                        "contextWindow cannot be combined with beam search or speculative decoding");
+            }
+            if (contextWindow > 0 && session.maxPositions() > 0 && contextWindow > session.maxPositions()) {
+                throw new IllegalStateException("contextWindow (" + contextWindow
+                        + ") exceeds the " + session.maxPositions() + " positions the model can encode");
+            }
             return new GenerationEngine(this);
         }
 
@@ -234,10 +732,23 @@ public class GenerationEngine implements GenerativeTask<String, GenerationResult
         }
 
         LogitsSampler buildSampler() {
-            if (temperature > 0 || topK > 0 || topP > 0) {
-                return new CategoricalSampler();
+            return isGreedy() ? new GreedySampler() : new CategoricalSampler();
+        }
+
+        SpeculativeDecoder buildSpeculativeDecoder(LogitsProcessor processor, LogitsSampler sampler) {
+            SpeculativeDecoder.Drafter drafter;
+            if (draftSession != null) {
+                drafter = new DraftModelDrafter(draftSession, processor, isGreedy());
+            } else if (promptLookupNgramSize > 0) {
+                drafter = new PromptLookupDrafter(promptLookupNgramSize);
+            } else {
+                return null;
             }
-            return new GreedySampler();
+            return new SpeculativeDecoder(session, drafter, processor, sampler, isGreedy(), draftTokens);
+        }
+
+        boolean isGreedy() {
+            return !(temperature > 0 || topK > 0 || topP > 0);
         }
     }
 }
@@ -16,6 +16,9 @@
 
 package io.github.inference4j.generation;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface GenerativeSession extends AutoCloseable {
 
     ForwardResult prefill(long[] tokenIds);
@@ -25,4 +28,174 @@ public interface GenerativeSession extends AutoCloseable {
     int cacheSequenceLength();
 
     void resetCache();
+
+    /**
+     * Runs {@code tokenIds} on top of the current cache, as a prefill that continues
+     * where the cache ends.
+     *
+     * <p>The default implementation decodes the tokens one at a time.
+     *
+     * @param tokenIds the tokens to append, at least one
+     * @return the logits for the last appended position
+     */
+    default ForwardResult extend(long[] tokenIds) {
+        if (tokenIds.length == 0) {
+            throw new IllegalArgumentException("tokenIds must not be empty");
+        }
+        ForwardResult result = null;
+        for (long tokenId : tokenIds) {
+            result = decode(tokenId);
+        }
+        return result;
+    }
+
+    /**
+     * Runs {@code tokenIds} on top of the current cache and returns the logits of
+     * every appended position, e.g., to verify several drafted tokens in one pass.
+     *
+     * <p>The default implementation decodes the tokens one at a time.
+     *
+     * @param tokenIds the tokens to append, at least one
+     * @return one result per token; result {@code i} predicts the token after {@code tokenIds[i]}
+     */
+    default List<ForwardResult> extendAll(long[] tokenIds) {
+        if (tokenIds.length == 0) {
+            throw new IllegalArgumentException("tokenIds must not be empty");
+        }
+        List<ForwardResult> results = new ArrayList<>(tokenIds.length);
+        for (long tokenId : tokenIds) {
+            results.add(decode(tokenId));
+        }
+        return results;
+    }
+
+    /**
+     * Drops cached positions from {@code length} on, e.g., to roll back rejected
+     * speculative tokens.
+     *
+     * <p>The default implementation restores a prefix of a {@link #snapshot()}.
+     *
+     * @param length the number of positions to keep
+     * @throws IllegalArgumentException if {@code length} is negative or exceeds
+     *                                  {@link #cacheSequenceLength()}
+     * @throws UnsupportedOperationException if the session cannot snapshot its cache
+     */
+    default void truncate(int length) {
+        if (length < 0 || length > cacheSequenceLength()) {
+            throw new IllegalArgumentException("length must be in [0, "
+                    + cacheSequenceLength() + "], got " + length);
+        }
+        if (length < cacheSequenceLength()) {
+            restore(snapshot().prefix(length));
+        }
+    }
+
+    /**
+     * Removes cached positions {@code [from, from + count)}, e.g., to slide a window
+     * over a stream that outgrows the context while keeping its first tokens as
+     * attention sinks. Later positions move down in the cache but keep the positions
+     * they were encoded at, so implementations keep feeding new tokens at the position
+     * after the last one fed rather than at the shortened cache length.
+     *
+     * <p>The default implementation restores a {@link KvCacheSnapshot#without(int, int)
+     * copy without the range} of a {@link #snapshot()}, after which a session that
+     * derives positions from its cache length feeds them too low; sessions over models
+     * with position-dependent keys should override it.
+     *
+     * @param from  the first position to remove
+     * @param count the number of positions to remove
+     * @throws IllegalArgumentException if the range is out of bounds
+     * @throws UnsupportedOperationException if the session cannot snapshot its cache
+     */
+    default void evict(int from, int count) {
+        if (from < 0 || count < 0 || from + count > cacheSequenceLength()) {
+            throw new IllegalArgumentException("Range [" + from + ", " + (from + count)
+                    + ") out of bounds for " + cacheSequenceLength() + " cached positions");
+        }
+        if (count > 0) {
+            restore(snapshot().without(from, count));
+        }
+    }
+
+    /**
+     * Returns how far past the cache length the next token's position lies: the number
+     * of positions {@linkplain #evict(int, int) evicted} since the cache was last empty.
+     * The default implementation returns 0, for sessions that feed positions at the
+     * cache length.
+     */
+    default int positionOffset() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of positions the model can encode, such as the 1024 learned
+     * position embeddings of GPT-2, or 0 if positions are not bounded. Evicting keeps
+     * positions growing, so a stream that slides past the limit must be prefilled again
+     * to start over from position 0.
+     */
+    default int maxPositions() {
+        return 0;
+    }
+
+    /**
+     * Forks the current cache into {@code count} sequences that
+     * {@link #decodeBatch(long[])} then advances together, one batched forward pass per
+     * step, e.g., to draw several samples after a single prefill. The batch is
+     * discarded by {@link #releaseBatch()}, the next {@link #prefill(long[])} or
+     * {@link #resetCache()}.
+     *
+     * @param count    the number of sequences
+     * @param maxSteps the maximum number of {@link #decodeBatch(long[])} calls
+     * @throws IllegalArgumentException if {@code count} or {@code maxSteps} is below 1
+     * @throws IllegalStateException if the cache is empty
+     * @throws UnsupportedOperationException if the session cannot decode a batch
+     */
+    default void fork(int count, int maxSteps) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support batched decoding");
+    }
+
+    /**
+     * Advances every {@linkplain #fork(int, int) forked} sequence by one token in a single
+     * batched forward pass.
+     *
+     * @param tokenIds the next token of each sequence
+     * @return the logits of each sequence
+     * @throws IllegalStateException if {@link #fork(int, int)} was not called
+     * @throws UnsupportedOperationException if the session cannot decode a batch
+     */
+    default float[][] decodeBatch(long[] tokenIds) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support batched decoding");
+    }
+
+    /**
+     * Discards the {@linkplain #fork(int, int) forked} sequences and frees their cache.
+     * The session's own cache is left as it was when forked. Does nothing if no batch
+     * is held.
+     */
+    default void releaseBatch() {
+    }
+
+    /**
+     * Copies the current key/value cache out of the session.
+     *
+     * @return a snapshot that {@link #restore(KvCacheSnapshot)} can reinstate later
+     * @throws UnsupportedOperationException if the session cannot snapshot its cache
+     */
+    default KvCacheSnapshot snapshot() {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support cache snapshots");
+    }
+
+    /**
+     * Replaces the current cache with a snapshot taken from a session of the same model.
+     *
+     * @param snapshot the cache to reinstate
+     * @throws UnsupportedOperationException if the session cannot restore a snapshot
+     */
+    default void restore(KvCacheSnapshot snapshot) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support cache snapshots");
+    }
 }
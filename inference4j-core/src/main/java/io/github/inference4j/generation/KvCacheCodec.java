@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serializes {@link KvCacheSnapshot}s to a compact binary form and back.
+ *
+ * <p>The format is little-endian and self-describing: a header with the compression
+ * and the cached length, then per tensor its name, original type, shape and values.
+ * A serialized snapshot deserializes to tensors of the original type and shape, so it
+ * can be {@linkplain GenerativeSession#restore(KvCacheSnapshot) restored} into any
+ * session over the same model; with {@link KvCacheCompression#FLOAT16} or
+ * {@link KvCacheCompression#INT8} the values are approximate.
+ *
+ * <pre>{@code
+ * ByteBuffer bytes = KvCacheCodec.encode(session.snapshot(), KvCacheCompression.INT8);
+ * // ... later, possibly after writing the bytes to disk
+ * session.restore(KvCacheCodec.decode(bytes));
+ * }</pre>
+ *
+ * @see KvCacheStore
+ */
+public final class KvCacheCodec {
+
+    private static final int MAGIC = 0x564B3449; // "I4KV"
+    private static final byte VERSION = 1;
+
+    private KvCacheCodec() {
+    }
+
+    /**
+     * Serializes a snapshot.
+     *
+     * @param snapshot    the cache to serialize
+     * @param compression how to store the values
+     * @return a heap buffer positioned at 0 and limited to the serialized bytes
+     * @throws IllegalArgumentException if a tensor is not {@code FLOAT} or {@code FLOAT16}
+     */
+    public static ByteBuffer encode(KvCacheSnapshot snapshot, KvCacheCompression compression) {
+        ByteBuffer out = ByteBuffer.allocate(Math.toIntExact(encodedSize(snapshot, compression)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put((byte) compression.ordinal());
+        out.putInt(snapshot.length());
+        out.putInt(snapshot.tensors().size());
+        for (var entry : snapshot.tensors().entrySet()) {
+            Tensor tensor = entry.getValue();
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length);
+            out.put(name);
+            out.put((byte) (tensor.type() == TensorType.FLOAT16 ? 1 : 0));
+            long[] shape = tensor.shape();
+            out.put((byte) shape.length);
+            for (long dim : shape) {
+                out.putLong(dim);
+            }
+            switch (compression) {
+                case NONE -> writeRaw(out, tensor);
+                case FLOAT16 -> writeFloat16(out, tensor);
+                case INT8 -> writeInt8(out, tensor, rowLength(shape));
+            }
+        }
+        return out.flip();
+    }
+
+    /**
+     * Deserializes a snapshot written by {@link #encode(KvCacheSnapshot, KvCacheCompression)}.
+     *
+     * <p>The buffer is read from its position; it may be a memory-mapped file.
+     *
+     * @param buffer the serialized bytes
+     * @return the snapshot, with heap tensors of the original types and shapes
+     * @throws IllegalArgumentException if the bytes are not a serialized snapshot
+     */
+    public static KvCacheSnapshot decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 14 || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a serialized KV cache snapshot");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported KV cache snapshot version " + version);
+        }
+        byte ordinal = in.get();
+        if (ordinal < 0 || ordinal >= KvCacheCompression.values().length) {
+            throw new IllegalArgumentException("Unknown KV cache compression " + ordinal);
+        }
+        KvCacheCompression compression = KvCacheCompression.values()[ordinal];
+        int length = in.getInt();
+        int count = in.getInt();
+        Map<String, Tensor> tensors = new LinkedHashMap<>();
+        for (int t = 0; t < count; t++) {
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            TensorType type = in.get() == 1 ? TensorType.FLOAT16 : TensorType.FLOAT;
+            long[] shape = new long[in.get()];
+            for (int i = 0; i < shape.length; i++) {
+                shape[i] = in.getLong();
+            }
+            Tensor tensor = switch (compression) {
+                case NONE -> readRaw(in, type, shape);
+                case FLOAT16 -> readFloat16(in, type, shape);
+                case INT8 -> readInt8(in, type, shape);
+            };
+            tensors.put(new String(name, StandardCharsets.UTF_8), tensor);
+        }
+        return new KvCacheSnapshot(length, tensors);
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(KvCacheSnapshot, KvCacheCompression)}
+     * produces for {@code snapshot}.
+     */
+    public static long encodedSize(KvCacheSnapshot snapshot, KvCacheCompression compression) {
+        long size = 14;
+        for (var entry : snapshot.tensors().entrySet()) {
+            Tensor tensor = entry.getValue();
+            if (tensor.type() != TensorType.FLOAT && tensor.type() != TensorType.FLOAT16) {
+                throw new IllegalArgumentException("Cannot serialize " + tensor.type()
+                        + " cache tensor '" + entry.getKey() + "'");
+            }
+            long[] shape = tensor.shape();
+            long elements = elements(shape);
+            size += 2 + entry.getKey().getBytes(StandardCharsets.UTF_8).length + 2 + 8L * shape.length;
+            size += switch (compression) {
+                case NONE -> elements * (tensor.type() == TensorType.FLOAT16 ? Short.BYTES : Float.BYTES);
+                case FLOAT16 -> elements * Short.BYTES;
+                case INT8 -> elements + (elements / Math.max(1, rowLength(shape))) * Float.BYTES;
+            };
+        }
+        return size;
+    }
+
+    private static void writeRaw(ByteBuffer out, Tensor tensor) {
+        if (tensor.type() == TensorType.FLOAT16) {
+            writeFloat16(out, tensor);
+            return;
+        }
+        FloatBuffer values = tensor.floatBuffer();
+        FloatBuffer target = out.asFloatBuffer();
+        target.put(values);
+        out.position(out.position() + target.position() * Float.BYTES);
+    }
+
+    private static void writeFloat16(ByteBuffer out, Tensor tensor) {
+        Tensor half = tensor.type() == TensorType.FLOAT16 ? tensor : tensor.castToFloat16();
+        ShortBuffer values = half.float16Buffer();
+        ShortBuffer target = out.asShortBuffer();
+        target.put(values);
+        out.position(out.position() + target.position() * Short.BYTES);
+    }
+
+    // Symmetric per-row quantization: each row of `rowLength` values is stored as a
+    // float scale followed by round(value / scale) in [-127, 127]
+    private static void writeInt8(ByteBuffer out, Tensor tensor, int rowLength) {
+        float[] values = tensor.toFloats();
+        for (int row = 0; row < values.length; row += rowLength) {
+            float max = 0f;
+            for (int i = row; i < row + rowLength; i++) {
+                max = Math.max(max, Math.abs(values[i]));
+            }
+            float scale = max / 127f;
+            out.putFloat(scale);
+            for (int i = row; i < row + rowLength; i++) {
+                out.put(scale == 0f ? 0 : (byte) Math.round(values[i] / scale));
+            }
+        }
+    }
+
+    private static Tensor readRaw(ByteBuffer in, TensorType type, long[] shape) {
+        if (type == TensorType.FLOAT16) {
+            return readFloat16(in, type, shape);
+        }
+        float[] values = new float[Math.toIntExact(elements(shape))];
+        in.asFloatBuffer().get(values);
+        in.position(in.position() + values.length * Float.BYTES);
+        return Tensor.fromFloats(values, shape);
+    }
+
+    private static Tensor readFloat16(ByteBuffer in, TensorType type, long[] shape) {
+        short[] values = new short[Math.toIntExact(elements(shape))];
+        in.asShortBuffer().get(values);
+        in.position(in.position() + values.length * Short.BYTES);
+        Tensor half = Tensor.fromFloat16(values, shape);
+        return type == TensorType.FLOAT16 ? half : Tensor.fromFloats(half.toFloats(), shape);
+    }
+
+    private static Tensor readInt8(ByteBuffer in, TensorType type, long[] shape) {
+        float[] values = new float[Math.toIntExact(elements(shape))];
+        int rowLength = rowLength(shape);
+        for (int row = 0; row < values.length; row += rowLength) {
+            float scale = in.getFloat();
+            for (int i = row; i < row + rowLength; i++) {
+                values[i] = in.get() * scale;
+            }
+        }
+        Tensor tensor = Tensor.fromFloats(values, shape);
+        return type == TensorType.FLOAT16 ? tensor.castToFloat16() : tensor;
+    }
+
+    private static int rowLength(long[] shape) {
+        return shape.length == 0 ? 1 : (int) Math.max(1, shape[shape.length - 1]);
+    }
+
+    private static long elements(long[] shape) {
+        long elements = 1;
+        for (long dim : shape) {
+            elements *= dim;
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+/**
+ * How {@link KvCacheCodec} stores key/value cache values.
+ */
+public enum KvCacheCompression {
+
+    /**
+     * Values are stored in the cache's own type, bit for bit.
+     */
+    NONE,
+
+    /**
+     * Values are stored as IEEE half-precision floats: half the size of a
+     * {@code FLOAT} cache, lossless for a {@code FLOAT16} one.
+     */
+    FLOAT16,
+
+    /**
+     * Values are quantized to signed bytes, with one scale per head-dimension vector
+     * of each position: about a quarter of the size of a {@code FLOAT} cache.
+     */
+    INT8
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A copy of a {@link GenerativeSession}'s key/value cache, taken on the heap.
+ *
+ * <p>Holds one tensor per cache input (e.g., {@code past_key_values.0.key}), each of
+ * shape {@code [1, heads, length, headDim]}. Snapshots are immutable and can be
+ * restored into any session over the same model, any number of times.
+ *
+ * @see GenerativeSession#snapshot()
+ * @see PrefixCache
+ */
+public final class KvCacheSnapshot {
+
+    private static final int SEQUENCE_AXIS = 2;
+
+    private final int length;
+    private final Map<String, Tensor> tensors;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param length  the number of cached positions
+     * @param tensors the cache tensors keyed by input name, each with {@code length}
+     *                positions along axis 2
+     * @throws IllegalArgumentException if a tensor's sequence axis does not match {@code length}
+     */
+    public KvCacheSnapshot(int length, Map<String, Tensor> tensors) {
+        for (var entry : tensors.entrySet()) {
+            long[] shape = entry.getValue().shape();
+            if (shape.length <= SEQUENCE_AXIS || shape[SEQUENCE_AXIS] != length) {
+                throw new IllegalArgumentException("Cache tensor '" + entry.getKey()
+                        + "' does not hold " + length + " positions");
+            }
+        }
+        this.length = length;
+        this.tensors = Collections.unmodifiableMap(new LinkedHashMap<>(tensors));
+    }
+
+    /**
+     * Returns the number of cached positions.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the cache tensors keyed by input name, in layer order.
+     */
+    public Map<String, Tensor> tensors() {
+        return tensors;
+    }
+
+    /**
+     * Returns the memory held by the cache tensors, in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Tensor tensor : tensors.values()) {
+            long elements = 1;
+            for (long dim : tensor.shape()) {
+                elements *= dim;
+            }
+            bytes += elements * switch (tensor.type()) {
+                case FLOAT16 -> Short.BYTES;
+                case LONG, DOUBLE -> Long.BYTES;
+                case BYTE -> Byte.BYTES;
+                default -> Float.BYTES;
+            };
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns a snapshot of the first {@code length} positions.
+     *
+     * <p>Attention is causal, so the cache for a token sequence's prefix is exactly the
+     * first positions of the cache for the whole sequence.
+     *
+     * @param length the number of positions to keep
+     * @return this snapshot when {@code length} equals {@link #length()}, otherwise a copy
+     * @throws IllegalArgumentException if {@code length} is negative or exceeds {@link #length()}
+     */
+    public KvCacheSnapshot prefix(int length) {
+        if (length < 0 || length > this.length) {
+            throw new IllegalArgumentException(
+                    "prefix length must be in [0, " + this.length + "], got " + length);
+        }
+        if (length == this.length) {
+            return this;
+        }
+        Map<String, Tensor> narrowed = new LinkedHashMap<>();
+        tensors.forEach((name, tensor) -> narrowed.put(name, tensor.narrow(SEQUENCE_AXIS, 0, length)));
+        return new KvCacheSnapshot(length, narrowed);
+    }
+
+    /**
+     * Returns a snapshot without positions {@code [from, from + count)}; the positions
+     * after the range move down by {@code count}.
+     *
+     * <p>Unlike a {@link #prefix(int) prefix}, the result is not the cache the remaining
+     * tokens would produce on their own: the positions after the range were computed
+     * while the removed ones were visible, and keep the positions they were encoded at.
+     *
+     * @param from  the first position to remove
+     * @param count the number of positions to remove
+     * @return this snapshot when {@code count} is 0, otherwise a copy
+     * @throws IllegalArgumentException if the range is out of bounds
+     */
+    public KvCacheSnapshot without(int from, int count) {
+        if (from < 0 || count < 0 || from + count > this.length) {
+            throw new IllegalArgumentException("Range [" + from + ", " + (from + count)
+                    + ") out of bounds for " + this.length + " positions");
+        }
+        if (count == 0) {
+            return this;
+        }
+        Map<String, Tensor> kept = new LinkedHashMap<>();
+        tensors.forEach((name, tensor) -> kept.put(name, without(tensor, from, count)));
+        return new KvCacheSnapshot(this.length - count, kept);
+    }
+
+    // Copies the positions before and after the range of each [1, heads, length, headDim] head
+    private Tensor without(Tensor tensor, int from, int count) {
+        long[] shape = tensor.shape().clone();
+        int heads = (int) shape[1];
+        int inner = (int) shape[3];
+        int before = from * inner;
+        int after = (this.length - from - count) * inner;
+        int skip = count * inner;
+        int stride = this.length * inner;
+        shape[SEQUENCE_AXIS] = this.length - count;
+        if (tensor.type() == TensorType.FLOAT16) {
+            ShortBuffer source = tensor.float16Buffer();
+            short[] data = new short[heads * (before + after)];
+            for (int head = 0; head < heads; head++) {
+                int dst = head * (before + after);
+                source.get(head * stride, data, dst, before);
+                source.get(head * stride + before + skip, data, dst + before, after);
+            }
+            return Tensor.fromFloat16(data, shape);
+        }
+        FloatBuffer source = tensor.floatBuffer();
+        float[] data = new float[heads * (before + after)];
+        for (int head = 0; head < heads; head++) {
+            int dst = head * (before + after);
+            source.get(head * stride, data, dst, before);
+            source.get(head * stride + before + skip, data, dst + before, after);
+        }
+        return Tensor.fromFloats(data, shape);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps {@link KvCacheSnapshot}s of idle conversations under a memory budget.
+ *
+ * <p>Snapshots are stored {@linkplain KvCacheCodec serialized}, optionally compressed.
+ * When the serialized snapshots held in memory exceed {@code memoryBudget} bytes, the
+ * least recently used ones are spilled to files in the spill directory and read back
+ * through a memory map when requested, so resuming a conversation costs a disk read
+ * rather than a full prefill. Without a spill directory they are dropped instead.
+ *
+ * <pre>{@code
+ * try (var store = new KvCacheStore(256L * 1024 * 1024, KvCacheCompression.INT8,
+ *         Path.of("/var/cache/kv"))) {
+ *     store.put(conversationId, session.snapshot());
+ *     // ... later
+ *     store.remove(conversationId).ifPresent(session::restore);
+ * }
+ * }</pre>
+ *
+ * <p>The store is thread-safe. Closing it deletes its spill files.
+ *
+ * @see ChatSession.Builder#cacheStore(KvCacheStore)
+ */
+public class KvCacheStore implements AutoCloseable {
+
+    private final long memoryBudget;
+    private final KvCacheCompression compression;
+    private final Path spillDirectory;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    /**
+     * Creates a store that drops the least recently used snapshots beyond the budget.
+     *
+     * @param memoryBudget the bytes of serialized snapshots kept in memory
+     * @param compression  how snapshots are stored
+     * @throws IllegalArgumentException if {@code memoryBudget} is not positive
+     */
+    public KvCacheStore(long memoryBudget, KvCacheCompression compression) {
+        this(memoryBudget, compression, null);
+    }
+
+    /**
+     * Creates a store that spills the least recently used snapshots beyond the budget
+     * to {@code spillDirectory}, which is created if needed.
+     *
+     * @param memoryBudget   the bytes of serialized snapshots kept in memory
+     * @param compression    how snapshots are stored, in memory and on disk
+     * @param spillDirectory where spilled snapshots are written, or {@code null} to drop them
+     * @throws IllegalArgumentException if {@code memoryBudget} is not positive
+     * @throws UncheckedIOException     if the directory cannot be created
+     */
+    public KvCacheStore(long memoryBudget, KvCacheCompression compression, Path spillDirectory) {
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("memoryBudget must be >= 1, got " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.compression = compression;
+        this.spillDirectory = spillDirectory;
+        if (spillDirectory != null) {
+            try {
+                Files.createDirectories(spillDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create spill directory " + spillDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Stores the snapshot under {@code key}, replacing any previous one, and spills or
+     * drops the least recently used snapshots if the memory budget is exceeded.
+     *
+     * @param key      the conversation key
+     * @param snapshot the cache to store
+     */
+    public synchronized void put(String key, KvCacheSnapshot snapshot) {
+        ByteBuffer bytes = KvCacheCodec.encode(snapshot, compression);
+        discard(entries.remove(key));
+        entries.put(key, new Entry(bytes, null, bytes.remaining()));
+        memoryBytes += bytes.remaining();
+        enforceBudget();
+    }
+
+    /**
+     * Returns the snapshot stored under {@code key}, reading it from disk if it was
+     * spilled. The snapshot stays stored.
+     *
+     * @param key the conversation key
+     * @return the snapshot, or empty if none is stored
+     */
+    public synchronized Optional<KvCacheSnapshot> get(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? Optional.empty() : Optional.of(read(entry));
+    }
+
+    /**
+     * Removes and returns the snapshot stored under {@code key}, e.g., when the
+     * conversation resumes and its cache is restored into a session.
+     *
+     * @param key the conversation key
+     * @return the snapshot, or empty if none is stored
+     */
+    public synchronized Optional<KvCacheSnapshot> remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        KvCacheSnapshot snapshot = read(entry);
+        discard(entry);
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Deletes the snapshot stored under {@code key} without reading it.
+     *
+     * @param key the conversation key
+     * @return {@code true} if a snapshot was stored
+     */
+    public synchronized boolean delete(String key) {
+        Entry entry = entries.remove(key);
+        discard(entry);
+        return entry != null;
+    }
+
+    /**
+     * Returns whether a snapshot is stored under {@code key}, in memory or on disk.
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Returns the number of stored snapshots, in memory or on disk.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the bytes of serialized snapshots held in memory.
+     */
+    public synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Returns the bytes of serialized snapshots spilled to disk.
+     */
+    public synchronized long diskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * Removes all snapshots and deletes their spill files.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(this::discard);
+        entries.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private void enforceBudget() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (memoryBytes > memoryBudget && eldest.hasNext()) {
+            Map.Entry<String, Entry> next = eldest.next();
+            Entry entry = next.getValue();
+            if (entry.bytes == null) {
+                continue;
+            }
+            if (spillDirectory == null) {
+                eldest.remove();
+            } else {
+                // A failed spill leaves the entry in memory and counted against the budget
+                next.setValue(spill(entry));
+            }
+            memoryBytes -= entry.size;
+        }
+    }
+
+    private Entry spill(Entry entry) {
+        // Unique names keep stores sharing a directory, or files left by an earlier
+        // process, from colliding
+        Path file;
+        try {
+            file = Files.createTempFile(spillDirectory, "kv-", ".bin");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a spill file in " + spillDirectory, e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = entry.bytes.duplicate();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            delete(file);
+            throw new UncheckedIOException("Cannot spill KV cache snapshot to " + file, e);
+        }
+        diskBytes += entry.size;
+        return new Entry(null, file, entry.size);
+    }
+
+    private KvCacheSnapshot read(Entry entry) {
+        if (entry.bytes != null) {
+            return KvCacheCodec.decode(entry.bytes.duplicate());
+        }
+        try (FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, entry.size);
+            return KvCacheCodec.decode(mapped);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spilled KV cache snapshot " + entry.file, e);
+        }
+    }
+
+    private void discard(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (entry.bytes != null) {
+            memoryBytes -= entry.size;
+            return;
+        }
+        diskBytes -= entry.size;
+        delete(entry.file);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A leftover spill file only wastes disk space
+        }
+    }
+
+    // Either bytes (in memory) or file (spilled) is set
+    private record Entry(ByteBuffer bytes, Path file, long size) {
+    }
+}
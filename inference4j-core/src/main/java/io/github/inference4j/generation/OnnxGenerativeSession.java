@@ -17,27 +17,114 @@
 package io.github.inference4j.generation;
 
 import io.github.inference4j.InferenceSession;
+import io.github.inference4j.NativeOutputs;
+import io.github.inference4j.NativeTensor;
 import io.github.inference4j.Tensor;
 import io.github.inference4j.TensorType;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * {@link GenerativeSession} over a decoder-only ONNX model with
+ * {@code past_key_values.*} inputs and {@code present.*} outputs.
+ *
+ * <p>The key/value cache stays in ONNX Runtime native memory between steps: each
+ * step's {@code present.*} outputs are fed straight back as the next step's
+ * {@code past_key_values.*} inputs. During decode the {@code logits} output is
+ * pinned to a reused direct buffer, so only the last position's logits are copied
+ * to the heap. Models whose {@code present.*} outputs are {@code FLOAT} while the
+ * cache inputs are {@code FLOAT16} fall back to casting the cache on the heap.
+ *
+ * <p>With a {@linkplain #OnnxGenerativeSession(InferenceSession, int) maximum cache
+ * length}, or for models whose cache inputs declare a fixed length, the session runs
+ * in static mode instead: each layer's cache is a {@code [1, heads, maxLength, dim]}
+ * buffer allocated once, new positions are written into it in place, and the
+ * attention mask tracks which positions are valid. Memory use is then fixed up front,
+ * and a prompt plus generated tokens beyond {@code maxLength} fails with an
+ * {@link IllegalStateException}.
+ *
+ * <p>Prompts longer than the {@linkplain #setPrefillChunkSize(int) prefill chunk size}
+ * are pushed through in chunks that extend the cache one after another, so activations
+ * and the {@code logits} output are bounded by the chunk rather than the prompt. When
+ * the vocabulary size is static, chunk logits are written into a reused direct buffer
+ * and only the final position is copied to the heap.
+ *
+ * <p>The remaining keys keep the positions they were encoded at when positions are
+ * {@link #evict(int, int) evicted}, since rotary embeddings are applied before the
+ * cache. New tokens are therefore fed at the position after the last one fed, not at
+ * the cache length, and distances between cached keys and new queries stay exact.
+ * The positions keep growing with the stream, so only the distance to retained
+ * tokens, not the absolute position, is bounded by the window; with a
+ * {@linkplain #setMaxPositions(int) position limit}, feeding a position past it fails
+ * and the stream has to be prefilled again. In static mode,
+ * eviction moves the later positions down in place. A snapshot does not record
+ * evicted positions: restoring one feeds the next token at its length.
+ *
+ * <p>{@link #fork(int, int)} copies the cache into a batch of sequences held in direct
+ * buffers, and {@link #decodeBatch(long[])} then advances them all in one
+ * {@code [count, 1]} forward pass per step, so several samples of one prompt share its
+ * prefill and decode together.
+ */
 public class OnnxGenerativeSession implements GenerativeSession {
 
+    /**
+     * Default number of prompt positions per prefill forward pass.
+     */
+    public static final int DEFAULT_PREFILL_CHUNK_SIZE = 256;
+
     private final InferenceSession session;
-    private Map<String, Tensor> cache;
+    private final Map<String, NativeTensor> nativeCache;
+    private final Map<String, Tensor> heapCache;
     private final int numLayers;
     private final int numHeads;
     private final int headDim;
     private final TensorType kvCacheType;
+    private final boolean castCache;
     private final boolean hasPositionIds;
+    private final Tensor decodeLogits;
+    private final StaticKvCache staticCache;
+    private final boolean fixedCacheLength;
+    private BeamKvCache batchCache;
+    private int[] batchOrder;
+    private NativeOutputs retained;
+    private ByteBuffer chunkLogits;
+    private int prefillChunkSize = DEFAULT_PREFILL_CHUNK_SIZE;
     private int sequenceLength;
+    private int evictedPositions;
+    private int maxPositions;
 
     public OnnxGenerativeSession(InferenceSession session) {
+        this(session, 0, false);
+    }
+
+    /**
+     * Creates a session with a preallocated static cache of {@code maxCacheLength}
+     * positions.
+     *
+     * @param session        the decoder session
+     * @param maxCacheLength the prompt plus generated tokens the cache can hold
+     * @throws IllegalArgumentException if {@code maxCacheLength} is below 1, differs
+     *                                  from a fixed cache length declared by the model,
+     *                                  or the model's {@code present.*} outputs do not
+     *                                  match its cache input type
+     */
+    public OnnxGenerativeSession(InferenceSession session, int maxCacheLength) {
+        this(session, maxCacheLength, true);
+    }
+
+    private OnnxGenerativeSession(InferenceSession session, int maxCacheLength, boolean requested) {
+        if (requested && maxCacheLength < 1) {
+            throw new IllegalArgumentException("maxCacheLength must be >= 1, got " + maxCacheLength);
+        }
         this.session = session;
-        this.cache = new LinkedHashMap<>();
+        this.nativeCache = new LinkedHashMap<>();
+        this.heapCache = new LinkedHashMap<>();
         long[] cacheShape = this.session.inputShape("past_key_values.0.key");
         this.numHeads = (int) cacheShape[1];
         this.headDim = (int) cacheShape[3];
@@ -45,79 +132,436 @@ public class OnnxGenerativeSession implements GenerativeSession {
             .filter(n -> n.startsWith("past_key_values") && n.endsWith(".key"))
             .count();
         this.kvCacheType = session.inputType("past_key_values.0.key");
+        this.castCache = kvCacheType == TensorType.FLOAT16
+                && session.outputType("present.0.key") == TensorType.FLOAT;
         this.hasPositionIds = session.inputNames().contains("position_ids");
+        this.decodeLogits = decodeLogitsBuffer(session);
+        this.staticCache = staticCache(cacheShape, maxCacheLength);
+        this.fixedCacheLength = cacheShape[2] > 0;
     }
 
     @Override
     public ForwardResult prefill(long[] tokenIds) {
-        this.sequenceLength = tokenIds.length;
+        resetCache();
+        return extend(tokenIds);
+    }
+
+    @Override
+    public ForwardResult decode(long tokenId) {
+        return extend(new long[]{tokenId});
+    }
+
+    @Override
+    public ForwardResult extend(long[] tokenIds) {
+        try {
+            if (tokenIds.length <= prefillChunkSize) {
+                return forward(tokenIds, false).get(0);
+            }
+            ForwardResult result = null;
+            for (int start = 0; start < tokenIds.length; start += prefillChunkSize) {
+                int end = Math.min(tokenIds.length, start + prefillChunkSize);
+                result = forward(Arrays.copyOfRange(tokenIds, start, end), false).get(0);
+            }
+            return result;
+        } finally {
+            // A chunk's logits span the whole vocabulary for every position, too much to
+            // hold between prompts; decode steps write to their own buffer
+            chunkLogits = null;
+        }
+    }
+
+    /**
+     * Sets how many positions {@link #prefill(long[])} and {@link #extend(long[])} feed
+     * per forward pass. Smaller chunks bound peak memory at the cost of more passes;
+     * {@link #extendAll(long[])} always runs in one pass.
+     *
+     * @param prefillChunkSize the positions per forward pass
+     * @throws IllegalArgumentException if {@code prefillChunkSize} is below 1
+     */
+    public void setPrefillChunkSize(int prefillChunkSize) {
+        if (prefillChunkSize < 1) {
+            throw new IllegalArgumentException(
+                    "prefillChunkSize must be >= 1, got " + prefillChunkSize);
+        }
+        this.prefillChunkSize = prefillChunkSize;
+    }
+
+    /**
+     * Sets the number of positions the model can encode, usually
+     * {@code max_position_embeddings} or {@code n_positions} from its config. Models
+     * with learned position embeddings cannot encode positions past it, and
+     * {@link #evict(int, int) evicting} keeps positions growing, so a
+     * {@link GenerationEngine} prefills again rather than evicting once they would
+     * pass it. Unbounded by default.
+     *
+     * @param maxPositions the number of positions the model can encode
+     * @throws IllegalArgumentException if {@code maxPositions} is below 1
+     */
+    public void setMaxPositions(int maxPositions) {
+        if (maxPositions < 1) {
+            throw new IllegalArgumentException("maxPositions must be >= 1, got " + maxPositions);
+        }
+        this.maxPositions = maxPositions;
+    }
+
+    @Override
+    public int maxPositions() {
+        return maxPositions;
+    }
+
+    @Override
+    public int positionOffset() {
+        return evictedPositions;
+    }
+
+    @Override
+    public List<ForwardResult> extendAll(long[] tokenIds) {
+        return forward(tokenIds, true);
+    }
+
+    @Override
+    public void truncate(int length) {
+        int current = cacheSequenceLength();
+        if (length < 0 || length > current) {
+            throw new IllegalArgumentException(
+                    "length must be in [0, " + current + "], got " + length);
+        }
+        if (length == current) {
+            return;
+        }
+        if (length == 0) {
+            resetCache();
+            return;
+        }
+        if (staticCache != null) {
+            staticCache.truncate(length);
+            return;
+        }
+        // The dynamic cache is cut down on the heap and returns to native memory
+        // with the next step's present.* outputs
+        Map<String, Tensor> truncated = new LinkedHashMap<>();
+        this.heapCache.forEach((name, tensor) -> truncated.put(name, tensor.narrow(2, 0, length)));
+        this.nativeCache.forEach((name, tensor) -> truncated.put(name, tensor.toTensor().narrow(2, 0, length)));
+        releaseCache();
+        this.heapCache.putAll(truncated);
+        this.sequenceLength = length;
+    }
+
+    @Override
+    public void evict(int from, int count) {
+        int current = cacheSequenceLength();
+        if (from < 0 || count < 0 || from + count > current) {
+            throw new IllegalArgumentException("Range [" + from + ", " + (from + count)
+                    + ") out of bounds for " + current + " cached positions");
+        }
+        if (count == 0) {
+            return;
+        }
+        if (from + count == current) {
+            truncate(from);
+            return;
+        }
+        this.evictedPositions += count;
+        if (staticCache != null) {
+            staticCache.evict(from, count);
+            return;
+        }
+        // Like truncation, the dynamic cache is rebuilt on the heap and returns to
+        // native memory with the next step's present.* outputs
+        KvCacheSnapshot kept = snapshot().without(from, count);
+        releaseCache();
+        this.heapCache.putAll(kept.tensors());
+        this.sequenceLength = kept.length();
+    }
+
+    private List<ForwardResult> forward(long[] tokenIds, boolean allPositions) {
+        if (tokenIds.length == 0) {
+            throw new IllegalArgumentException("tokenIds must not be empty");
+        }
+        if (staticCache != null) {
+            return staticForward(tokenIds, allPositions);
+        }
+        int count = tokenIds.length;
+        int total = sequenceLength + count;
         Map<String, Tensor> inputs = new LinkedHashMap<>();
-        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{1, tokenIds.length}));
-        inputs.put("attention_mask", Tensor.fromLongs(ones(tokenIds.length), new long[]{1, tokenIds.length}));
+        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{1, count}));
+        inputs.put("attention_mask", Tensor.fromLongs(ones(total), new long[]{1, total}));
         if (hasPositionIds) {
-            long[] positionIds = new long[tokenIds.length];
-            for (int i = 0; i < tokenIds.length; i++) {
-                positionIds[i] = i;
+            checkPositions(evictedPositions + total);
+            long[] positionIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                positionIds[i] = evictedPositions + sequenceLength + i;
             }
-            inputs.put("position_ids", Tensor.fromLongs(positionIds, new long[]{1, tokenIds.length}));
+            inputs.put("position_ids", Tensor.fromLongs(positionIds, new long[]{1, count}));
         }
-        preFillCache(inputs);
-        Map<String, Tensor> outputs = session.run(inputs);
-        var logitsOutput = outputs.get("logits").slice(0, 0).slice(0, -1).toFloats();
+        if (sequenceLength == 0) {
+            preFillCache(inputs);
+        } else {
+            inputs.putAll(this.heapCache);
+        }
+        // With a static vocabulary the [1, count, vocab] logits output is written
+        // straight into a pinned buffer
+        Tensor pinnedLogits = pinnedLogits(count);
+        Map<String, Tensor> pinned = pinnedLogits != null ? Map.of("logits", pinnedLogits) : Map.of();
+        NativeOutputs outputs = session.runNative(inputs,
+                sequenceLength == 0 ? Map.of() : this.nativeCache, pinned);
+        List<ForwardResult> results = logits(outputs, pinnedLogits, allPositions);
         updateCache(outputs);
-        return new ForwardResult(logitsOutput);
+        this.sequenceLength = total;
+        return results;
     }
 
+    /**
+     * Copies the current cache into every sequence of a batch, held in direct buffers
+     * sized for {@code maxSteps} more positions. The single-sequence cache is left as it
+     * is.
+     *
+     * @throws UnsupportedOperationException if the model declares a fixed cache length
+     *                                       or its {@code present.*} outputs do not match
+     *                                       its cache input type
+     */
     @Override
-    public ForwardResult decode(long tokenId) {
+    public void fork(int count, int maxSteps) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be >= 1, got " + count);
+        }
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("maxSteps must be >= 1, got " + maxSteps);
+        }
+        if (fixedCacheLength || castCache) {
+            throw new UnsupportedOperationException(
+                    "Batched decoding requires a dynamic cache length and present.* outputs of type "
+                    + kvCacheType);
+        }
+        if (cacheSequenceLength() == 0) {
+            throw new IllegalStateException("prefill must be called before fork");
+        }
+        KvCacheSnapshot shared = snapshot();
+        TensorType type = kvCacheType == TensorType.FLOAT16 ? TensorType.FLOAT16 : TensorType.FLOAT;
+        this.batchCache = new BeamKvCache(numLayers, count, numHeads, headDim,
+                shared.length() + maxSteps, type, "");
+        batchCache.start(shared.tensors(), "past_key_values.");
+        this.batchOrder = new int[count];
+        Arrays.setAll(batchOrder, sequence -> sequence);
+    }
+
+    @Override
+    public float[][] decodeBatch(long[] tokenIds) {
+        if (batchCache == null) {
+            throw new IllegalStateException("fork must be called before decodeBatch");
+        }
+        int count = batchCache.numBeams();
+        if (tokenIds.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " token IDs, got " + tokenIds.length);
+        }
+        int length = batchCache.length();
         Map<String, Tensor> inputs = new LinkedHashMap<>();
-        inputs.put("input_ids", Tensor.fromLongs(new long[]{tokenId}, new long[]{1, 1}));
-        inputs.put("attention_mask", Tensor.fromLongs(ones(sequenceLength + 1), new long[]{1, sequenceLength + 1}));
+        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{count, 1}));
+        inputs.put("attention_mask", Tensor.fromLongs(ones(count * (length + 1)), new long[]{count, length + 1}));
         if (hasPositionIds) {
-            inputs.put("position_ids", Tensor.fromLongs(new long[]{sequenceLength}, new long[]{1, 1}));
+            checkPositions(evictedPositions + length + 1);
+            long[] positionIds = new long[count];
+            Arrays.fill(positionIds, evictedPositions + length);
+            inputs.put("position_ids", Tensor.fromLongs(positionIds, new long[]{count, 1}));
         }
-        inputs.putAll(this.cache);
-        Map<String, Tensor> outputs = session.run(inputs);
-        var logitsOutput = outputs.get("logits").slice(0, 0).slice(0, -1).toFloats();
-        updateCache(outputs);
-        this.sequenceLength++;
-        return new ForwardResult(logitsOutput);
+        // Every sequence continues itself, so the cache swaps its past and present
+        // buffers rather than copying the batch
+        inputs.putAll(batchCache.reorder(batchOrder));
+
+        float[][] logits = new float[count][];
+        try (NativeOutputs outputs = session.runNative(inputs, Map.of(), batchCache.presentOutputs())) {
+            Tensor batchLogits = outputs.get("logits").toTensor();
+            for (int sequence = 0; sequence < count; sequence++) {
+                logits[sequence] = batchLogits.narrow(0, sequence, 1).toFloats();
+            }
+        }
+        batchCache.advance();
+        return logits;
+    }
+
+    @Override
+    public void releaseBatch() {
+        this.batchCache = null;
+        this.batchOrder = null;
+    }
+
+    @Override
+    public KvCacheSnapshot snapshot() {
+        if (staticCache != null) {
+            return new KvCacheSnapshot(staticCache.length(), staticCache.snapshot());
+        }
+        Map<String, Tensor> tensors = new LinkedHashMap<>(this.heapCache);
+        this.nativeCache.forEach((name, tensor) -> tensors.put(name, tensor.toTensor()));
+        return new KvCacheSnapshot(this.sequenceLength, tensors);
+    }
+
+    @Override
+    public void restore(KvCacheSnapshot snapshot) {
+        resetCache();
+        if (snapshot.length() == 0) {
+            return;
+        }
+        if (staticCache != null) {
+            staticCache.append(snapshot.tensors(), "past_key_values.", snapshot.length());
+            return;
+        }
+        // Restored tensors are staged on the heap for one step; the next run's
+        // present.* outputs bring the cache back into native memory
+        this.heapCache.putAll(snapshot.tensors());
+        this.sequenceLength = snapshot.length();
     }
 
     @Override
     public int cacheSequenceLength() {
-        return this.sequenceLength;
+        return staticCache != null ? staticCache.length() : this.sequenceLength;
     }
 
     @Override
     public void resetCache() {
-        this.cache.clear();
+        releaseCache();
+        if (staticCache != null) {
+            staticCache.reset();
+        }
         this.sequenceLength = 0;
+        this.evictedPositions = 0;
     }
 
     @Override
     public void close() throws Exception {
+        releaseCache();
         this.session.close();
     }
 
+    // Positions past the limit would index beyond the model's position embeddings
+    private void checkPositions(int end) {
+        if (maxPositions > 0 && end > maxPositions) {
+            throw new IllegalStateException("Position " + (end - 1) + " is beyond the "
+                    + maxPositions + " positions the model can encode; prefill again to start over");
+        }
+    }
+
     private long[] ones(int length) {
         long[] ones = new long[length];
         Arrays.fill(ones, 1L);
         return ones;
     }
 
-    private void updateCache(Map<String, Tensor> outputs) {
+    private List<ForwardResult> staticForward(long[] tokenIds, boolean allPositions) {
+        int start = staticCache.length();
+        int count = tokenIds.length;
+        Map<String, Tensor> inputs = new LinkedHashMap<>();
+        inputs.put("input_ids", Tensor.fromLongs(tokenIds, new long[]{1, count}));
+        inputs.put("attention_mask", staticCache.attentionMask(count));
+        if (hasPositionIds) {
+            checkPositions(evictedPositions + start + count);
+            long[] positionIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                positionIds[i] = evictedPositions + start + i;
+            }
+            inputs.put("position_ids", Tensor.fromLongs(positionIds, new long[]{1, count}));
+        }
+        inputs.putAll(staticCache.pastInputs());
+
+        // A single new position is written straight into the scratch buffers; longer
+        // passes copy their presents out of native memory once
+        boolean decoding = count == 1;
+        Map<String, Tensor> pinned = new LinkedHashMap<>();
+        if (decoding) {
+            pinned.putAll(staticCache.decodeOutputs());
+        }
+        Tensor pinnedLogits = pinnedLogits(count);
+        if (pinnedLogits != null) {
+            pinned.put("logits", pinnedLogits);
+        }
+        try (NativeOutputs outputs = session.runNative(inputs, Map.of(), pinned)) {
+            List<ForwardResult> results = logits(outputs, pinnedLogits, allPositions);
+            if (decoding) {
+                staticCache.appendDecoded();
+            } else {
+                Map<String, Tensor> presents = new LinkedHashMap<>();
+                for (int i = 0; i < this.numLayers; i++) {
+                    presents.put("present." + i + ".key", outputs.get("present." + i + ".key").toTensor());
+                    presents.put("present." + i + ".value", outputs.get("present." + i + ".value").toTensor());
+                }
+                staticCache.append(presents, "present.", count);
+            }
+            return results;
+        }
+    }
+
+    private List<ForwardResult> logits(NativeOutputs outputs, Tensor pinned, boolean allPositions) {
+        Tensor logits = pinned != null ? pinned : outputs.get("logits").toTensor();
+        // Rows are narrowed out of the [1, count, vocab] buffer so only the positions
+        // returned are copied to the heap
+        int count = (int) logits.shape()[1];
+        if (!allPositions) {
+            return List.of(new ForwardResult(logits.narrow(1, count - 1, 1).toFloats()));
+        }
+        List<ForwardResult> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(new ForwardResult(logits.narrow(1, i, 1).toFloats()));
+        }
+        return results;
+    }
+
+    private void updateCache(NativeOutputs outputs) {
+        NativeOutputs previous = this.retained;
         for (int i = 0; i < this.numLayers; i++) {
-            cache.put("past_key_values." + i + ".key",   castToKvType(outputs.get("present." + i + ".key")));
-            cache.put("past_key_values." + i + ".value", castToKvType(outputs.get("present." + i + ".value")));
+            String past = "past_key_values." + i;
+            String present = "present." + i;
+            if (castCache) {
+                heapCache.put(past + ".key", outputs.get(present + ".key").toTensor().castToFloat16());
+                heapCache.put(past + ".value", outputs.get(present + ".value").toTensor().castToFloat16());
+            } else {
+                nativeCache.put(past + ".key", outputs.get(present + ".key"));
+                nativeCache.put(past + ".value", outputs.get(present + ".value"));
+            }
+        }
+        if (!castCache) {
+            heapCache.clear();
+        }
+        // The previous step's outputs were consumed by this run and can be released now
+        if (previous != null) {
+            previous.close();
+        }
+        if (castCache) {
+            outputs.close();
+            this.retained = null;
+        } else {
+            this.retained = outputs;
         }
     }
 
-    private Tensor castToKvType(Tensor tensor) {
-        if (kvCacheType == TensorType.FLOAT16 && tensor.type() == TensorType.FLOAT) {
-            return tensor.castToFloat16();
+    private void releaseCache() {
+        this.batchCache = null;
+        this.batchOrder = null;
+        this.nativeCache.clear();
+        this.heapCache.clear();
+        if (this.retained != null) {
+            this.retained.close();
+            this.retained = null;
         }
-        return tensor;
+    }
+
+    // The buffer a pass over `count` positions writes its logits into: the decode
+    // buffer for one position, otherwise a view of a direct buffer that grows to the
+    // largest pass seen, up to a prefill chunk. Null when the vocabulary size is not
+    // static or the pass is longer than a chunk, leaving the output to the runtime.
+    private Tensor pinnedLogits(int count) {
+        if (decodeLogits == null || count > prefillChunkSize) {
+            return null;
+        }
+        if (count == 1) {
+            return decodeLogits;
+        }
+        long vocabSize = decodeLogits.shape()[2];
+        int elementSize = decodeLogits.type() == TensorType.FLOAT16 ? Short.BYTES : Float.BYTES;
+        int bytes = Math.toIntExact(count * vocabSize * elementSize);
+        if (chunkLogits == null || chunkLogits.capacity() < bytes) {
+            chunkLogits = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer view = chunkLogits.slice(0, bytes).order(ByteOrder.nativeOrder());
+        return Tensor.fromBuffer(view, new long[]{1, count, vocabSize}, decodeLogits.type());
     }
 
     private void preFillCache(Map<String, Tensor> inputs) {
@@ -130,4 +574,39 @@ public class OnnxGenerativeSession implements GenerativeSession {
             inputs.put("past_key_values." + i + ".value", empty);
         }
     }
+
+    private StaticKvCache staticCache(long[] cacheShape, int maxCacheLength) {
+        int declared = (int) cacheShape[2];
+        if (declared > 0 && maxCacheLength > 0 && declared != maxCacheLength) {
+            throw new IllegalArgumentException("Model declares a fixed cache length of "
+                    + declared + ", got maxCacheLength " + maxCacheLength);
+        }
+        int capacity = declared > 0 ? declared : maxCacheLength;
+        if (capacity == 0) {
+            return null;
+        }
+        if (castCache) {
+            throw new IllegalArgumentException(
+                    "Static KV cache requires present.* outputs of the cache input type " + kvCacheType);
+        }
+        TensorType type = kvCacheType == TensorType.FLOAT16 ? TensorType.FLOAT16 : TensorType.FLOAT;
+        return new StaticKvCache(numLayers, numHeads, headDim, capacity, type);
+    }
+
+    // A [1, 1, vocab] direct buffer that decode steps write their logits into, or
+    // null when the model does not declare a static vocabulary size
+    private static Tensor decodeLogitsBuffer(InferenceSession session) {
+        long[] shape = session.outputShape("logits");
+        if (shape == null || shape.length != 3 || shape[2] <= 0) {
+            return null;
+        }
+        TensorType type = session.outputType("logits");
+        if (type != TensorType.FLOAT && type != TensorType.FLOAT16) {
+            return null;
+        }
+        int elementSize = type == TensorType.FLOAT16 ? Short.BYTES : Float.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) shape[2] * elementSize)
+                .order(ByteOrder.nativeOrder());
+        return Tensor.fromBuffer(buffer, new long[]{1, 1, shape[2]}, type);
+    }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reuses key/value caches across prompts that share a token prefix, such as a common
+ * system prompt.
+ *
+ * <p>Snapshots are keyed by the token ids they were computed for, in a radix tree.
+ * {@link #lookup(long[])} finds the longest prefix of a new prompt shared with any
+ * stored sequence and returns that stored cache cut down to the shared length, so
+ * only the remaining suffix has to be prefilled. Since attention is causal, the cache
+ * of a sequence's prefix is exactly the first positions of the sequence's cache.
+ *
+ * <p>The cache holds at most {@code maxBytes} of snapshots and evicts the least
+ * recently used ones beyond that. It is thread-safe and can be shared by several
+ * {@link GenerationEngine}s running the same model.
+ *
+ * <pre>{@code
+ * PrefixCache prefixCache = new PrefixCache(512L * 1024 * 1024);
+ * GenerationEngine engine = GenerationEngine.builder()
+ *         .session(session)
+ *         .prefixCache(prefixCache)
+ *         // ...
+ *         .build();
+ * }</pre>
+ *
+ * @see GenerationEngine.Builder#prefixCache(PrefixCache)
+ */
+public class PrefixCache {
+
+    private final long maxBytes;
+    private final Node root = new Node(null, new long[0]);
+    private final LinkedHashMap<Node, KvCacheSnapshot> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;
+
+    /**
+     * Creates an empty prefix cache.
+     *
+     * @param maxBytes the memory budget for stored snapshots
+     * @throws IllegalArgumentException if {@code maxBytes} is not positive
+     */
+    public PrefixCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be >= 1, got " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Finds the cache for the longest stored prefix of {@code tokenIds}.
+     *
+     * <p>At most {@code tokenIds.length - 1} positions are matched, so at least one
+     * token is left to run through the model for the next-token logits.
+     *
+     * @param tokenIds the prompt tokens
+     * @return the cache of the shared prefix, or empty if no prefix is shared
+     */
+    public synchronized Optional<KvCacheSnapshot> lookup(long[] tokenIds) {
+        int limit = tokenIds.length - 1;
+        Node node = root;
+        int matched = 0;
+        while (matched < limit) {
+            Node child = node.children.get(tokenIds[matched]);
+            if (child == null) {
+                break;
+            }
+            int common = commonPrefix(child.edge, tokenIds, matched, limit);
+            matched += common;
+            node = child;
+            if (common < child.edge.length) {
+                break;
+            }
+        }
+        if (matched == 0) {
+            return Optional.empty();
+        }
+        KvCacheSnapshot snapshot = entries.get(holder(node));
+        return Optional.of(snapshot.prefix(matched));
+    }
+
+    /**
+     * Returns whether a snapshot is stored for exactly {@code tokenIds}.
+     *
+     * @param tokenIds the token sequence
+     * @return {@code true} if {@link #put(long[], KvCacheSnapshot)} was called for it
+     *         and it has not been evicted
+     */
+    public synchronized boolean contains(long[] tokenIds) {
+        Node node = root;
+        int position = 0;
+        while (position < tokenIds.length) {
+            Node child = node.children.get(tokenIds[position]);
+            if (child == null
+                    || commonPrefix(child.edge, tokenIds, position, tokenIds.length) < child.edge.length) {
+                return false;
+            }
+            position += child.edge.length;
+            node = child;
+        }
+        return entries.containsKey(node);
+    }
+
+    /**
+     * Stores the cache computed for {@code tokenIds}, evicting the least recently
+     * used snapshots if the memory budget is exceeded.
+     *
+     * <p>A snapshot larger than the whole budget is not stored.
+     *
+     * @param tokenIds the tokens the cache was computed for
+     * @param snapshot the cache, holding one position per token
+     * @throws IllegalArgumentException if the lengths differ or {@code tokenIds} is empty
+     */
+    public synchronized void put(long[] tokenIds, KvCacheSnapshot snapshot) {
+        if (tokenIds.length == 0 || snapshot.length() != tokenIds.length) {
+            throw new IllegalArgumentException("Snapshot holds " + snapshot.length()
+                    + " positions for " + tokenIds.length + " tokens");
+        }
+        long size = snapshot.sizeInBytes();
+        if (size > maxBytes) {
+            return;
+        }
+        Node node = root;
+        int position = 0;
+        while (position < tokenIds.length) {
+            Node child = node.children.get(tokenIds[position]);
+            if (child == null) {
+                child = new Node(node, Arrays.copyOfRange(tokenIds, position, tokenIds.length));
+                node.children.put(tokenIds[position], child);
+            } else {
+                int common = commonPrefix(child.edge, tokenIds, position, tokenIds.length);
+                if (common < child.edge.length) {
+                    child = split(child, common);
+                }
+            }
+            position += child.edge.length;
+            node = child;
+        }
+        KvCacheSnapshot previous = entries.put(node, snapshot);
+        if (previous != null) {
+            sizeInBytes -= previous.sizeInBytes();
+        }
+        sizeInBytes += size;
+        evict();
+    }
+
+    /**
+     * Returns the number of stored snapshots.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the memory held by stored snapshots, in bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Removes all stored snapshots.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        root.children.clear();
+        sizeInBytes = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Node, KvCacheSnapshot>> eldest = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Node, KvCacheSnapshot> entry = eldest.next();
+            eldest.remove();
+            sizeInBytes -= entry.getValue().sizeInBytes();
+            prune(entry.getKey());
+            eldest = entries.entrySet().iterator();
+        }
+    }
+
+    // Removes nodes left without a snapshot or children, then merges a remaining
+    // snapshot-less node with its only child to keep the tree compressed
+    private void prune(Node node) {
+        while (node != root && !entries.containsKey(node) && node.children.isEmpty()) {
+            node.parent.children.remove(node.edge[0]);
+            node = node.parent;
+        }
+        if (node != root && !entries.containsKey(node) && node.children.size() == 1) {
+            Node child = node.children.values().iterator().next();
+            long[] merged = Arrays.copyOf(node.edge, node.edge.length + child.edge.length);
+            System.arraycopy(child.edge, 0, merged, node.edge.length, child.edge.length);
+            child.edge = merged;
+            child.parent = node.parent;
+            node.parent.children.put(merged[0], child);
+        }
+    }
+
+    // Splits `node`'s edge after `length` tokens and returns the new upper node
+    private Node split(Node node, int length) {
+        Node upper = new Node(node.parent, Arrays.copyOf(node.edge, length));
+        node.parent.children.put(upper.edge[0], upper);
+        node.edge = Arrays.copyOfRange(node.edge, length, node.edge.length);
+        node.parent = upper;
+        upper.children.put(node.edge[0], node);
+        return upper;
+    }
+
+    // Every node without a snapshot has descendants with one, as prune() removes the rest
+    private Node holder(Node node) {
+        while (!entries.containsKey(node)) {
+            node = node.children.values().iterator().next();
+        }
+        return node;
+    }
+
+    private static int commonPrefix(long[] edge, long[] tokenIds, int offset, int limit) {
+        int common = 0;
+        while (common < edge.length && offset + common < limit
+                && edge[common] == tokenIds[offset + common]) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+
+        private Node parent;
+        private long[] edge;
+        private final Map<Long, Node> children = new HashMap<>();
+
+        private Node(Node parent, long[] edge) {
+            this.parent = parent;
+            this.edge = edge;
+        }
+    }
+}
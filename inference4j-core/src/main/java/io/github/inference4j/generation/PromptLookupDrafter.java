@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import java.util.Arrays;
+
+/**
+ * {@link SpeculativeDecoder.Drafter} that proposes tokens by copying from the prompt,
+ * without a draft model ("prompt lookup decoding").
+ *
+ * <p>The last {@code n} tokens of the sequence are searched for in the prompt and the
+ * tokens generated so far, trying the longest n-gram first. The tokens that followed the
+ * most recent earlier occurrence are proposed. This pays off when the output copies
+ * long spans of the input, as in grammar correction, summarization or code editing.
+ * When nothing matches, no tokens are proposed and the round is a plain decode step.
+ */
+final class PromptLookupDrafter implements SpeculativeDecoder.Drafter {
+
+    private final int maxNgramSize;
+    private long[] history = new long[0];
+    private int length;
+
+    PromptLookupDrafter(int maxNgramSize) {
+        this.maxNgramSize = maxNgramSize;
+    }
+
+    @Override
+    public void start(long[] promptIds) {
+        history = Arrays.copyOf(promptIds, Math.max(16, promptIds.length * 2));
+        length = promptIds.length;
+    }
+
+    @Override
+    public SpeculativeDecoder.Draft propose(long pending, int maxTokens) {
+        append(pending);
+        try {
+            for (int n = Math.min(maxNgramSize, length - 1); n >= 1; n--) {
+                int match = lastOccurrence(n);
+                if (match >= 0) {
+                    int from = match + n;
+                    int count = Math.min(maxTokens, length - from);
+                    return new SpeculativeDecoder.Draft(
+                            Arrays.copyOfRange(history, from, from + count), null);
+                }
+            }
+            return SpeculativeDecoder.Draft.EMPTY;
+        } finally {
+            length--;
+        }
+    }
+
+    @Override
+    public void commit(long pending, SpeculativeDecoder.Draft draft, int accepted) {
+        append(pending);
+        for (int i = 0; i < accepted; i++) {
+            append(draft.tokens()[i]);
+        }
+    }
+
+    // Start of the most recent earlier occurrence of the trailing n-gram, or -1
+    private int lastOccurrence(int n) {
+        int suffix = length - n;
+        for (int start = suffix - 1; start >= 0; start--) {
+            int i = 0;
+            while (i < n && history[start + i] == history[suffix + i]) {
+                i++;
+            }
+            if (i == n) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private void append(long token) {
+        if (length == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[length++] = token;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.processing.MathOps;
+import io.github.inference4j.sampling.LogitsProcessor;
+import io.github.inference4j.sampling.LogitsSampler;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * Speculative decoding loop used by {@link GenerationEngine}.
+ *
+ * <p>Each round a {@link Drafter} proposes up to {@code k} tokens. The target session
+ * runs the pending token plus all proposals in one {@link GenerativeSession#extendAll
+ * multi-token pass}, which yields the target's distribution at every proposed position.
+ * In greedy mode a proposal is accepted while it equals the target's argmax, so the
+ * output is identical to plain greedy decoding. When sampling, proposal {@code d} is
+ * accepted with probability {@code min(1, p(d) / q(d))} and a rejection is resampled
+ * from {@code max(0, p - q)}, which leaves the output distribution unchanged. The
+ * first rejected position is replaced by the target's own token, or, when all
+ * proposals are accepted, one extra token is sampled from the last position. The
+ * target's cache is then {@linkplain GenerativeSession#truncate(int) cut back} to the
+ * accepted length.
+ */
+final class SpeculativeDecoder {
+
+    /**
+     * Proposes tokens to verify.
+     */
+    interface Drafter {
+
+        /**
+         * Called once per generation, after the target has prefilled {@code promptIds}.
+         */
+        void start(long[] promptIds);
+
+        /**
+         * Proposes up to {@code maxTokens} tokens following the committed sequence and
+         * {@code pending}, the last chosen token, which the target has not run yet.
+         */
+        Draft propose(long pending, int maxTokens);
+
+        /**
+         * Records that {@code pending} and the first {@code accepted} tokens of
+         * {@code draft} were committed.
+         */
+        void commit(long pending, Draft draft, int accepted);
+    }
+
+    /**
+     * Proposed tokens and, for sampled proposals, the drafter's probability
+     * distribution at each of them; {@code null} for deterministic proposals.
+     */
+    record Draft(long[] tokens, float[][] probabilities) {
+
+        static final Draft EMPTY = new Draft(new long[0], null);
+    }
+
+    private final GenerativeSession target;
+    private final Drafter drafter;
+    private final LogitsProcessor processor;
+    private final LogitsSampler sampler;
+    private final boolean greedy;
+    private final int maxDraftTokens;
+
+    SpeculativeDecoder(GenerativeSession target, Drafter drafter, LogitsProcessor processor,
+                       LogitsSampler sampler, boolean greedy, int maxDraftTokens) {
+        this.target = target;
+        this.drafter = drafter;
+        this.processor = processor;
+        this.sampler = sampler;
+        this.greedy = greedy;
+        this.maxDraftTokens = maxDraftTokens;
+    }
+
+    /**
+     * Generates tokens after a prefilled prompt, handing each one to {@code sink}
+     * until it returns {@code false}.
+     */
+    void generate(long[] promptIds, ForwardResult prefill, IntPredicate sink) {
+        int first = choose(prefill.logits());
+        if (!sink.test(first)) {
+            return;
+        }
+        drafter.start(promptIds);
+        long pending = first;
+        while (true) {
+            int base = target.cacheSequenceLength();
+            Draft draft = drafter.propose(pending, maxDraftTokens);
+            long[] proposed = draft.tokens();
+
+            long[] verify = new long[proposed.length + 1];
+            verify[0] = pending;
+            System.arraycopy(proposed, 0, verify, 1, proposed.length);
+            List<ForwardResult> results = proposed.length == 0
+                    ? List.of(target.decode(pending))
+                    : target.extendAll(verify);
+
+            int accepted = 0;
+            int next = -1;
+            for (int i = 0; i < proposed.length && next < 0; i++) {
+                float[] logits = results.get(i).logits();
+                processor.processInPlace(logits);
+                int token = (int) proposed[i];
+                if (greedy) {
+                    int best = argmax(logits);
+                    if (best == token) {
+                        accepted++;
+                    } else {
+                        next = best;
+                    }
+                } else {
+                    float[] p = MathOps.softmax(logits);
+                    float q = draft.probabilities() != null ? draft.probabilities()[i][token] : 1f;
+                    if (ThreadLocalRandom.current().nextFloat() * q < p[token]) {
+                        accepted++;
+                    } else {
+                        next = residual(p, draft.probabilities() != null
+                                ? draft.probabilities()[i] : null, token);
+                    }
+                }
+            }
+            if (next < 0) {
+                next = choose(results.get(proposed.length).logits());
+            }
+
+            target.truncate(base + 1 + accepted);
+            for (int i = 0; i < accepted; i++) {
+                if (!sink.test((int) proposed[i])) {
+                    return;
+                }
+            }
+            if (!sink.test(next)) {
+                return;
+            }
+            drafter.commit(pending, draft, accepted);
+            pending = next;
+        }
+    }
+
+    private int choose(float[] logits) {
+        processor.processInPlace(logits);
+        return sampler.sample(logits);
+    }
+
+    // Samples from max(0, p - q); q == null stands for a one-hot draft at `token`
+    private static int residual(float[] p, float[] q, int token) {
+        float[] residual = new float[p.length];
+        float total = 0f;
+        for (int i = 0; i < p.length; i++) {
+            float draft = q != null ? q[i] : (i == token ? 1f : 0f);
+            residual[i] = Math.max(0f, p[i] - draft);
+            total += residual[i];
+        }
+        if (total <= 0f) {
+            return sample(p);
+        }
+        for (int i = 0; i < residual.length; i++) {
+            residual[i] /= total;
+        }
+        return sample(residual);
+    }
+
+    static int sample(float[] probabilities) {
+        float random = ThreadLocalRandom.current().nextFloat();
+        float sum = 0f;
+        for (int i = 0; i < probabilities.length; i++) {
+            sum += probabilities[i];
+            if (sum >= random) {
+                return i;
+            }
+        }
+        return probabilities.length - 1;
+    }
+
+    static int argmax(float[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
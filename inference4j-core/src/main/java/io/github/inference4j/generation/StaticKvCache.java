@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-capacity key/value cache backing {@link OnnxGenerativeSession}'s static mode.
+ *
+ * <p>Each layer's keys and values live in a {@code [1, heads, capacity, headDim]}
+ * direct buffer allocated once. Every forward pass is fed the full buffers as
+ * {@code past_key_values.*}, with the attention mask zeroing the slots that hold no
+ * position yet. The model's {@code present.*} outputs then carry the new positions
+ * after the {@code capacity} past slots, and only those are copied into the next
+ * free slots. Decode steps write {@code present.*} into preallocated scratch
+ * buffers, so a step allocates nothing in proportion to the context length.
+ */
+final class StaticKvCache {
+
+    private final int numHeads;
+    private final int headDim;
+    private final int capacity;
+    private final TensorType type;
+    private final Buffer[] cache;
+    private final Buffer[] scratch;
+    private final Map<String, Tensor> pastInputs;
+    private final Map<String, Tensor> decodeOutputs;
+    private final LongBuffer decodeMask;
+    private final Tensor decodeMaskTensor;
+    private int length;
+
+    StaticKvCache(int numLayers, int numHeads, int headDim, int capacity, TensorType type) {
+        this.numHeads = numHeads;
+        this.headDim = headDim;
+        this.capacity = capacity;
+        this.type = type;
+        this.cache = new Buffer[numLayers * 2];
+        this.scratch = new Buffer[numLayers * 2];
+        this.pastInputs = new LinkedHashMap<>();
+        this.decodeOutputs = new LinkedHashMap<>();
+        long[] pastShape = {1, numHeads, capacity, headDim};
+        long[] presentShape = {1, numHeads, capacity + 1, headDim};
+        for (int i = 0; i < cache.length; i++) {
+            ByteBuffer cacheBytes = allocate(pastShape);
+            ByteBuffer scratchBytes = allocate(presentShape);
+            cache[i] = view(cacheBytes);
+            scratch[i] = view(scratchBytes);
+            pastInputs.put("past_key_values." + name(i), Tensor.fromBuffer(cacheBytes, pastShape, type));
+            decodeOutputs.put("present." + name(i), Tensor.fromBuffer(scratchBytes, presentShape, type));
+        }
+        ByteBuffer maskBytes = ByteBuffer.allocateDirect((capacity + 1) * Long.BYTES)
+                .order(ByteOrder.nativeOrder());
+        this.decodeMask = maskBytes.asLongBuffer();
+        this.decodeMaskTensor = Tensor.fromBuffer(maskBytes, new long[]{1, capacity + 1}, TensorType.LONG);
+        reset();
+    }
+
+    int length() {
+        return length;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void reset() {
+        for (int i = 0; i < capacity; i++) {
+            decodeMask.put(i, 0L);
+        }
+        decodeMask.put(capacity, 1L);
+        length = 0;
+    }
+
+    /**
+     * Drops every position from {@code length} on. The slots are masked out again
+     * and overwritten by later appends, so nothing is copied.
+     */
+    void truncate(int length) {
+        for (int i = length; i < this.length; i++) {
+            decodeMask.put(i, 0L);
+        }
+        this.length = length;
+    }
+
+    /**
+     * Removes positions {@code [from, from + count)} by moving every later position
+     * down within its head's slots; nothing is allocated.
+     */
+    void evict(int from, int count) {
+        int moved = length - from - count;
+        int run = moved * headDim;
+        for (int i = 0; i < cache.length; i++) {
+            for (int head = 0; head < numHeads; head++) {
+                int dst = (head * capacity + from) * headDim;
+                int src = dst + count * headDim;
+                // Moving down, so an overlapping copy never reads a slot it already wrote
+                if (cache[i] instanceof FloatBuffer floats) {
+                    floats.put(dst, floats.duplicate(), src, run);
+                } else {
+                    ShortBuffer shorts = (ShortBuffer) cache[i];
+                    shorts.put(dst, shorts.duplicate(), src, run);
+                }
+            }
+        }
+        truncate(length - count);
+    }
+
+    /**
+     * The cache buffers keyed by input name. The same tensors are returned on every
+     * call; their contents change as positions are appended.
+     */
+    Map<String, Tensor> pastInputs() {
+        return pastInputs;
+    }
+
+    /**
+     * Scratch tensors to pin the {@code present.*} outputs of a single-token decode
+     * step to, keyed by output name.
+     */
+    Map<String, Tensor> decodeOutputs() {
+        return decodeOutputs;
+    }
+
+    /**
+     * Attention mask for a pass adding {@code newTokens} positions: the filled past
+     * slots, the empty past slots masked out, then the new positions.
+     */
+    Tensor attentionMask(int newTokens) {
+        checkRoom(newTokens);
+        if (newTokens == 1) {
+            return decodeMaskTensor;
+        }
+        long[] mask = new long[capacity + newTokens];
+        for (int i = 0; i < length; i++) {
+            mask[i] = 1L;
+        }
+        for (int i = capacity; i < mask.length; i++) {
+            mask[i] = 1L;
+        }
+        return Tensor.fromLongs(mask, new long[]{1, mask.length});
+    }
+
+    /**
+     * Appends the position a decode step wrote into the {@link #decodeOutputs() scratch buffers}.
+     */
+    void appendDecoded() {
+        checkRoom(1);
+        for (int i = 0; i < cache.length; i++) {
+            copyPositions(i, scratch[i], capacity + 1, capacity, 1);
+        }
+        advance(1);
+    }
+
+    /**
+     * Appends the last {@code newTokens} positions of each layer's tensors, keyed by
+     * {@code prefix} followed by the layer name (e.g., {@code present.} or
+     * {@code past_key_values.}).
+     */
+    void append(Map<String, Tensor> tensors, String prefix, int newTokens) {
+        checkRoom(newTokens);
+        for (int i = 0; i < cache.length; i++) {
+            Tensor present = tensors.get(prefix + name(i));
+            int presentLength = (int) present.shape()[2];
+            Buffer source = type == TensorType.FLOAT16 ? present.float16Buffer() : present.floatBuffer();
+            copyPositions(i, source, presentLength, presentLength - newTokens, newTokens);
+        }
+        advance(newTokens);
+    }
+
+    /**
+     * Copies the filled positions out to heap tensors keyed by input name.
+     */
+    Map<String, Tensor> snapshot() {
+        Map<String, Tensor> tensors = new LinkedHashMap<>();
+        long[] shape = {1, numHeads, length, headDim};
+        int run = length * headDim;
+        for (int i = 0; i < cache.length; i++) {
+            Tensor tensor;
+            if (cache[i] instanceof FloatBuffer floats) {
+                float[] data = new float[numHeads * run];
+                for (int head = 0; head < numHeads; head++) {
+                    floats.get(head * capacity * headDim, data, head * run, run);
+                }
+                tensor = Tensor.fromFloats(data, shape);
+            } else {
+                short[] data = new short[numHeads * run];
+                for (int head = 0; head < numHeads; head++) {
+                    ((ShortBuffer) cache[i]).get(head * capacity * headDim, data, head * run, run);
+                }
+                tensor = Tensor.fromFloat16(data, shape);
+            }
+            tensors.put("past_key_values." + name(i), tensor);
+        }
+        return tensors;
+    }
+
+    // Copies `count` positions from `from` of every head of `source`, laid out as
+    // [1, heads, sourceLength, headDim], into the next free slots of cache `index`
+    private void copyPositions(int index, Buffer source, int sourceLength, int from, int count) {
+        int run = count * headDim;
+        for (int head = 0; head < numHeads; head++) {
+            int src = (head * sourceLength + from) * headDim;
+            int dst = (head * capacity + length) * headDim;
+            if (cache[index] instanceof FloatBuffer floats) {
+                floats.put(dst, (FloatBuffer) source, src, run);
+            } else {
+                ((ShortBuffer) cache[index]).put(dst, (ShortBuffer) source, src, run);
+            }
+        }
+    }
+
+    private void advance(int newTokens) {
+        for (int i = length; i < length + newTokens; i++) {
+            decodeMask.put(i, 1L);
+        }
+        length += newTokens;
+    }
+
+    private void checkRoom(int newTokens) {
+        if (length + newTokens > capacity) {
+            throw new IllegalStateException("Static KV cache is full: holds " + length
+                    + " of " + capacity + " positions, cannot add " + newTokens);
+        }
+    }
+
+    private ByteBuffer allocate(long[] shape) {
+        long elements = shape[1] * shape[2] * shape[3];
+        int elementSize = type == TensorType.FLOAT16 ? Short.BYTES : Float.BYTES;
+        return ByteBuffer.allocateDirect(Math.toIntExact(elements * elementSize))
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private Buffer view(ByteBuffer bytes) {
+        ByteBuffer duplicate = bytes.duplicate().order(ByteOrder.nativeOrder());
+        return type == TensorType.FLOAT16 ? duplicate.asShortBuffer() : duplicate.asFloatBuffer();
+    }
+
+    private static String name(int index) {
+        return (index / 2) + (index % 2 == 0 ? ".key" : ".value");
+    }
+}
@@ -95,6 +95,13 @@ public class HuggingFaceModelSource implements ModelSource {
                 .build();
     }
 
+    /**
+     * Returns the directory where downloaded models are cached.
+     */
+    public Path cacheDir() {
+        return cacheDir;
+    }
+
     /**
      * Returns a shared default instance using the default cache directory.
      */
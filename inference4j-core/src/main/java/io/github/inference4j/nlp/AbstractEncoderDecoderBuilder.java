@@ -60,6 +60,10 @@ abstract class AbstractEncoderDecoderBuilder<T, B extends AbstractEncoderDecoder
     float temperature = 0f;
     int topK = 0;
     float topP = 0f;
+    int promptLookupNgramSize;
+    int numBeams = 1;
+    float lengthPenalty = 1f;
+    boolean earlyStopping = false;
     final Set<Integer> eosTokenIds = new LinkedHashSet<>();
     final List<String> addedTokens = new ArrayList<>();
     final List<String> extraFiles = new ArrayList<>();
@@ -113,6 +117,26 @@ abstract class AbstractEncoderDecoderBuilder<T, B extends AbstractEncoderDecoder
         return self();
     }
 
+    public B promptLookup(int maxNgramSize) {
+        this.promptLookupNgramSize = maxNgramSize;
+        return self();
+    }
+
+    public B numBeams(int numBeams) {
+        this.numBeams = numBeams;
+        return self();
+    }
+
+    public B lengthPenalty(float lengthPenalty) {
+        this.lengthPenalty = lengthPenalty;
+        return self();
+    }
+
+    public B earlyStopping(boolean earlyStopping) {
+        this.earlyStopping = earlyStopping;
+        return self();
+    }
+
     public B eosTokenId(int eosTokenId) {
         this.eosTokenIds.add(eosTokenId);
         return self();
@@ -207,11 +231,17 @@ abstract class AbstractEncoderDecoderBuilder<T, B extends AbstractEncoderDecoder
                     .maxNewTokens(this.maxNewTokens)
                     .temperature(this.temperature)
                     .topK(this.topK)
-                    .topP(this.topP);
+                    .topP(this.topP)
+                    .numBeams(this.numBeams)
+                    .lengthPenalty(this.lengthPenalty)
+                    .earlyStopping(this.earlyStopping);
 
             for (int eosId : eos) {
                 engineBuilder.eosTokenId(eosId);
             }
+            if (this.promptLookupNgramSize > 0) {
+                engineBuilder.promptLookup(this.promptLookupNgramSize);
+            }
 
             return createWrapper(engineBuilder.build());
         } catch (Exception e) {
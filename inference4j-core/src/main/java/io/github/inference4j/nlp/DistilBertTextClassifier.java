@@ -24,6 +24,7 @@ import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.processing.OutputOperator;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.preprocessing.text.ModelConfig;
 import io.github.inference4j.tokenizer.EncodedInput;
@@ -33,6 +34,7 @@ import io.github.inference4j.tokenizer.WordPieceTokenizer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -88,10 +90,11 @@ public class DistilBertTextClassifier
     private final ModelConfig config;
     private final OutputOperator outputOperator;
     private final int maxLength;
+    private final LengthBucketedBatcher batcher;
 
     private DistilBertTextClassifier(InferenceSession session, Tokenizer tokenizer,
                                      ModelConfig config, OutputOperator outputOperator,
-                                     int maxLength) {
+                                     int maxLength, int maxBatchSize, int[] lengthBuckets) {
         super(session,
                 createPreprocessor(tokenizer, maxLength, session.inputNames()),
                 ctx -> {
@@ -103,6 +106,8 @@ public class DistilBertTextClassifier
         this.config = config;
         this.outputOperator = outputOperator;
         this.maxLength = maxLength;
+        this.batcher = new LengthBucketedBatcher(lengthBuckets, maxLength, maxBatchSize,
+                session.inputNames().contains("token_type_ids"));
     }
 
     public static Builder builder() {
@@ -123,6 +128,37 @@ public class DistilBertTextClassifier
         return postProcess(logits, config, topK, outputOperator);
     }
 
+    /**
+     * Classifies texts in padded batches of at most {@code maxBatchSize}, grouped by
+     * token length, with one forward pass per batch. The output operator and top-k
+     * selection are applied to each row's logits independently.
+     */
+    @Override
+    public List<List<TextClassification>> classifyBatch(List<String> texts, int topK) {
+        List<EncodedInput> encoded = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            encoded.add(tokenizer.encode(text, maxLength));
+        }
+        return batcher.run(encoded, batch -> classifyRows(batch, topK));
+    }
+
+    private List<List<TextClassification>> classifyRows(LengthBucketedBatcher.Batch batch, int topK) {
+        Tensor output = session.run(batch.inputs()).values().iterator().next();
+        long[] shape = output.shape();
+        if (shape.length != 2 || shape[0] != batch.size()) {
+            throw new InferenceException("Expected logits of shape [" + batch.size()
+                    + ", numLabels], got " + Arrays.toString(shape));
+        }
+        float[] logits = output.toFloats();
+        int numLabels = (int) shape[1];
+        List<List<TextClassification>> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            float[] row = Arrays.copyOfRange(logits, i * numLabels, (i + 1) * numLabels);
+            results.add(postProcess(row, config, topK, outputOperator));
+        }
+        return results;
+    }
+
     static List<TextClassification> postProcess(float[] logits, ModelConfig config,
                                                  int topK, OutputOperator outputOperator) {
         float[] probabilities = outputOperator.apply(logits);
@@ -159,6 +195,8 @@ public class DistilBertTextClassifier
         private ModelConfig config;
         private OutputOperator outputOperator;
         private int maxLength = DEFAULT_MAX_LENGTH;
+        private int maxBatchSize = 32;
+        private int[] lengthBuckets = LengthBucketedBatcher.DEFAULT_BUCKETS;
 
         Builder session(InferenceSession session) {
             this.session = session;
@@ -200,6 +238,28 @@ public class DistilBertTextClassifier
             return this;
         }
 
+        /**
+         * Sets the largest number of texts {@link DistilBertTextClassifier#classifyBatch(List, int)}
+         * feeds to the model in one run. Defaults to 32.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1, got " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the sequence lengths batched texts are padded to. Each text goes into the
+         * smallest bucket that fits it; pass no lengths to pad each batch to its longest
+         * text instead. Defaults to 32, 64, 128, 256 and 512 tokens.
+         */
+        public Builder lengthBuckets(int... lengthBuckets) {
+            this.lengthBuckets = LengthBucketedBatcher.validateBuckets(lengthBuckets);
+            return this;
+        }
+
         public DistilBertTextClassifier build() {
             if (session == null) {
                 ModelSource source = modelSource != null
@@ -219,7 +279,8 @@ public class DistilBertTextClassifier
                         ? OutputOperator.sigmoid()
                         : OutputOperator.softmax();
             }
-            return new DistilBertTextClassifier(session, tokenizer, config, outputOperator, maxLength);
+            return new DistilBertTextClassifier(session, tokenizer, config, outputOperator, maxLength,
+                    maxBatchSize, lengthBuckets);
         }
 
         private void loadFromDirectory(Path dir) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.nlp;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.tokenizer.EncodedInput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedules tokenized inputs into padded batches grouped by sequence length.
+ *
+ * <p>Each input is assigned to the smallest bucket length that fits it. Batches are
+ * formed within a bucket and padded to the bucket length, so a 10-token text is never
+ * padded to 500 tokens because it shares a batch with a long document. A small fixed
+ * set of lengths also keeps the number of distinct input shapes low, which lets ONNX
+ * Runtime reuse its memory patterns across runs. Buckets longer than the encoder's
+ * {@code maxLength} are clipped to it.
+ *
+ * <p>Without buckets, inputs are sorted by length and each batch is padded to its
+ * longest sequence. In both modes results are returned in the original input order.
+ */
+final class LengthBucketedBatcher {
+
+    static final int[] DEFAULT_BUCKETS = {32, 64, 128, 256, 512};
+
+    private static final int UNBUCKETED = Integer.MAX_VALUE;
+
+    private final int[] buckets;
+    private final int maxBatchSize;
+    private final boolean tokenTypeIds;
+
+    LengthBucketedBatcher(int[] buckets, int maxLength, int maxBatchSize, boolean tokenTypeIds) {
+        this.buckets = clip(buckets, maxLength);
+        this.maxBatchSize = maxBatchSize;
+        this.tokenTypeIds = tokenTypeIds;
+    }
+
+    /**
+     * One padded batch of {@code size} rows of {@code seqLen} tokens each.
+     *
+     * @param inputs        {@code input_ids}, {@code attention_mask} and, when the model
+     *                      takes it, {@code token_type_ids}, each of shape {@code [size, seqLen]}
+     * @param attentionMask the flattened attention mask, for per-row pooling
+     */
+    record Batch(Map<String, Tensor> inputs, int size, int seqLen, long[] attentionMask) {
+    }
+
+    @FunctionalInterface
+    interface BatchRunner<R> {
+
+        /**
+         * Runs one batch and returns exactly {@code batch.size()} results, in row order.
+         */
+        List<R> run(Batch batch);
+    }
+
+    <R> List<R> run(List<EncodedInput> encoded, BatchRunner<R> runner) {
+        int count = encoded.size();
+        Integer[] order = new Integer[count];
+        int[] lengths = new int[count];
+        int[] bucketOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            lengths[i] = encoded.get(i).inputIds().length;
+            bucketOf[i] = bucketFor(lengths[i]);
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> bucketOf[i])
+                .thenComparingInt(i -> lengths[i]));
+
+        Object[] results = new Object[count];
+        int start = 0;
+        while (start < count) {
+            int bucket = bucketOf[order[start]];
+            int end = start + 1;
+            while (end < count && end - start < maxBatchSize && bucketOf[order[end]] == bucket) {
+                end++;
+            }
+            int seqLen = bucket == UNBUCKETED ? lengths[order[end - 1]] : bucket;
+            Batch batch = pad(encoded, order, start, end, seqLen);
+            List<R> batchResults = runner.run(batch);
+            for (int row = 0; row < batch.size(); row++) {
+                results[order[start + row]] = batchResults.get(row);
+            }
+            start = end;
+        }
+
+        List<R> ordered = new ArrayList<>(count);
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            R typed = (R) result;
+            ordered.add(typed);
+        }
+        return ordered;
+    }
+
+    int bucketFor(int length) {
+        for (int bucket : buckets) {
+            if (length <= bucket) {
+                return bucket;
+            }
+        }
+        return UNBUCKETED;
+    }
+
+    private Batch pad(List<EncodedInput> encoded, Integer[] order, int start, int end, int seqLen) {
+        int size = end - start;
+        long[] inputIds = new long[size * seqLen];
+        long[] attentionMask = new long[size * seqLen];
+        long[] typeIds = tokenTypeIds ? new long[size * seqLen] : null;
+        for (int row = 0; row < size; row++) {
+            EncodedInput input = encoded.get(order[start + row]);
+            int length = input.inputIds().length;
+            System.arraycopy(input.inputIds(), 0, inputIds, row * seqLen, length);
+            System.arraycopy(input.attentionMask(), 0, attentionMask, row * seqLen, length);
+            if (typeIds != null) {
+                System.arraycopy(input.tokenTypeIds(), 0, typeIds, row * seqLen, length);
+            }
+        }
+
+        long[] shape = {size, seqLen};
+        Map<String, Tensor> inputs = new LinkedHashMap<>();
+        inputs.put("input_ids", Tensor.fromLongs(inputIds, shape));
+        inputs.put("attention_mask", Tensor.fromLongs(attentionMask, shape));
+        if (typeIds != null) {
+            inputs.put("token_type_ids", Tensor.fromLongs(typeIds, shape));
+        }
+        return new Batch(inputs, size, seqLen, attentionMask);
+    }
+
+    private static int[] clip(int[] buckets, int maxLength) {
+        if (buckets.length == 0) {
+            return buckets;
+        }
+        int[] clipped = Arrays.stream(buckets).filter(b -> b < maxLength).toArray();
+        clipped = Arrays.copyOf(clipped, clipped.length + 1);
+        clipped[clipped.length - 1] = maxLength;
+        return clipped;
+    }
+
+    static int[] validateBuckets(int[] buckets) {
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] < 1 || (i > 0 && buckets[i] <= buckets[i - 1])) {
+                throw new IllegalArgumentException(
+                        "Bucket lengths must be positive and strictly increasing: " + Arrays.toString(buckets));
+            }
+        }
+        return buckets.clone();
+    }
+}
@@ -20,9 +20,11 @@ import io.github.inference4j.AbstractInferenceTask;
 import io.github.inference4j.model.HuggingFaceModelSource;
 import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
+import io.github.inference4j.processing.MathOps;
 import io.github.inference4j.processing.Preprocessor;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.tokenizer.EncodedInput;
 import io.github.inference4j.tokenizer.Tokenizer;
@@ -30,6 +32,8 @@ import io.github.inference4j.tokenizer.WordPieceTokenizer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -60,6 +64,9 @@ import java.util.Set;
  *         "Python is a programming language.",
  *         "The weather is nice today."
  *     ));
+ *
+ *     // Keep only the two most relevant, best first
+ *     List<RankedDocument> top = reranker.rerank("What is Java?", candidates, 2);
  * }
  * }</pre>
  *
@@ -73,7 +80,12 @@ public class MiniLMSearchReranker
 
     private static final int DEFAULT_MAX_LENGTH = 512;
 
-    private MiniLMSearchReranker(InferenceSession session, Tokenizer tokenizer, int maxLength) {
+    private final Tokenizer tokenizer;
+    private final int maxLength;
+    private final LengthBucketedBatcher batcher;
+
+    private MiniLMSearchReranker(InferenceSession session, Tokenizer tokenizer, int maxLength,
+                                 int maxBatchSize, int[] lengthBuckets) {
         super(session,
                 createPreprocessor(tokenizer, maxLength, session.inputNames()),
                 ctx -> {
@@ -81,12 +93,53 @@ public class MiniLMSearchReranker
                     float[] logits = outputTensor.toFloats();
                     return toScore(logits[0]);
                 });
+        this.tokenizer = tokenizer;
+        this.maxLength = maxLength;
+        this.batcher = new LengthBucketedBatcher(lengthBuckets, maxLength, maxBatchSize,
+                session.inputNames().contains("token_type_ids"));
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Scores every document against {@code query} in padded batches grouped by pair
+     * length, instead of one forward pass per document. The query is tokenized once,
+     * and the sigmoid is applied to all logits in one pass after the last batch.
+     * Scores are returned in the order of {@code documents}.
+     */
+    @Override
+    public float[] scoreBatch(String query, List<String> documents) {
+        List<EncodedInput> encoded = tokenizer.encodePairs(query, documents, maxLength);
+        List<Float> logits = batcher.run(encoded, this::logits);
+        float[] values = new float[logits.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = logits.get(i);
+        }
+        return MathOps.sigmoid(values);
+    }
+
+    private List<Float> logits(LengthBucketedBatcher.Batch batch) {
+        Tensor output = session.run(batch.inputs()).values().iterator().next();
+        long[] shape = output.shape();
+        if (shape.length == 0 || shape[0] != batch.size()) {
+            throw new InferenceException("Expected logits with a batch dimension of size "
+                    + batch.size() + ", got " + Arrays.toString(shape));
+        }
+        // Each row starts with the relevance logit, whether the output is [batch] or [batch, n]
+        float[] logits = output.toFloats();
+        int stride = 1;
+        for (int axis = 1; axis < shape.length; axis++) {
+            stride *= (int) shape[axis];
+        }
+        List<Float> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            rows.add(logits[i * stride]);
+        }
+        return rows;
+    }
+
     static float toScore(float logit) {
         return (float) (1.0 / (1.0 + Math.exp(-logit)));
     }
@@ -114,6 +167,8 @@ public class MiniLMSearchReranker
         private SessionConfigurer sessionConfigurer;
         private Tokenizer tokenizer;
         private int maxLength = DEFAULT_MAX_LENGTH;
+        private int maxBatchSize = 32;
+        private int[] lengthBuckets = LengthBucketedBatcher.DEFAULT_BUCKETS;
 
         Builder session(InferenceSession session) {
             this.session = session;
@@ -145,6 +200,27 @@ public class MiniLMSearchReranker
             return this;
         }
 
+        /**
+         * Sets the largest number of query-document pairs scored in one run. Defaults to 32.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1, got " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the sequence lengths batched pairs are padded to. Each pair goes into the
+         * smallest bucket that fits it; pass no lengths to pad each batch to its longest
+         * pair instead. Defaults to 32, 64, 128, 256 and 512 tokens.
+         */
+        public Builder lengthBuckets(int... lengthBuckets) {
+            this.lengthBuckets = LengthBucketedBatcher.validateBuckets(lengthBuckets);
+            return this;
+        }
+
         public MiniLMSearchReranker build() {
             if (session == null) {
                 ModelSource source = modelSource != null
@@ -156,7 +232,7 @@ public class MiniLMSearchReranker
             if (tokenizer == null) {
                 throw new IllegalStateException("Tokenizer is required");
             }
-            return new MiniLMSearchReranker(session, tokenizer, maxLength);
+            return new MiniLMSearchReranker(session, tokenizer, maxLength, maxBatchSize, lengthBuckets);
         }
 
         private void loadFromDirectory(Path dir) {
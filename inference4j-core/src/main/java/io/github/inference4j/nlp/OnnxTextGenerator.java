@@ -21,10 +21,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.inference4j.InferenceSession;
 import io.github.inference4j.exception.ModelLoadException;
 import io.github.inference4j.exception.ModelSourceException;
+import io.github.inference4j.generation.ChatSession;
 import io.github.inference4j.generation.ChatTemplate;
+import io.github.inference4j.generation.ContextPolicy;
 import io.github.inference4j.generation.GenerationEngine;
 import io.github.inference4j.generation.GenerationResult;
 import io.github.inference4j.generation.OnnxGenerativeSession;
+import io.github.inference4j.generation.PrefixCache;
 import io.github.inference4j.model.HuggingFaceModelSource;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.session.SessionConfigurer;
@@ -129,8 +132,10 @@ public class OnnxTextGenerator implements TextGenerator {
                 .addedToken("<|im_end|>")
                 .addedToken("<|endoftext|>")
                 .stopSequence("<|im_end|>")
-                .chatTemplate(msg ->
-                        "<|im_start|>user\n" + msg + "<|im_end|>\n<|im_start|>assistant\n");
+                .chatTemplate(ChatTemplate.of(
+                        msg -> "<|im_start|>user\n" + msg + "<|im_end|>\n<|im_start|>assistant\n",
+                        msg -> "<|im_end|>\n<|im_start|>user\n" + msg
+                                + "<|im_end|>\n<|im_start|>assistant\n"));
     }
 
     /**
@@ -147,8 +152,10 @@ public class OnnxTextGenerator implements TextGenerator {
                 .addedToken("<|im_end|>")
                 .addedToken("<|endoftext|>")
                 .stopSequence("<|im_end|>")
-                .chatTemplate(msg ->
-                        "<|im_start|>user\n" + msg + "<|im_end|>\n<|im_start|>assistant\n");
+                .chatTemplate(ChatTemplate.of(
+                        msg -> "<|im_start|>user\n" + msg + "<|im_end|>\n<|im_start|>assistant\n",
+                        msg -> "<|im_end|>\n<|im_start|>user\n" + msg
+                                + "<|im_end|>\n<|im_start|>assistant\n"));
     }
 
     /**
@@ -166,10 +173,12 @@ public class OnnxTextGenerator implements TextGenerator {
                 .addedToken("<|endoftext|>")
                 .stopSequence("<|im_end|>")
                 .tokenizerProvider(DecodingBpeTokenizer.provider(QWEN2_PATTERN))
-                .chatTemplate(msg ->
-                        "<|im_start|>system\nYou are a helpful assistant.<|im_end|>\n"
+                .chatTemplate(ChatTemplate.of(
+                        msg -> "<|im_start|>system\nYou are a helpful assistant.<|im_end|>\n"
                                 + "<|im_start|>user\n" + msg + "<|im_end|>\n"
-                                + "<|im_start|>assistant\n");
+                                + "<|im_start|>assistant\n",
+                        msg -> "<|im_end|>\n<|im_start|>user\n" + msg + "<|im_end|>\n"
+                                + "<|im_start|>assistant\n"));
     }
 
     /**
@@ -188,8 +197,9 @@ public class OnnxTextGenerator implements TextGenerator {
                 .addedToken("<|system|>")
                 .eosTokenId(2)          // </s>
                 .stopSequence("</s>")
-                .chatTemplate(msg ->
-                        "<|user|>\n" + msg + "</s>\n<|assistant|>\n");
+                .chatTemplate(ChatTemplate.of(
+                        msg -> "<|user|>\n" + msg + "</s>\n<|assistant|>\n",
+                        msg -> "</s>\n<|user|>\n" + msg + "</s>\n<|assistant|>\n"));
     }
 
     /**
@@ -223,9 +233,11 @@ public class OnnxTextGenerator implements TextGenerator {
                 .eosTokenId(1)
                 .eosTokenId(107)
                 .stopSequence("<end_of_turn>")
-                .chatTemplate(msg ->
-                        "<bos><start_of_turn>user\n" + msg
-                                + "<end_of_turn>\n<start_of_turn>model\n");
+                .chatTemplate(ChatTemplate.of(
+                        msg -> "<bos><start_of_turn>user\n" + msg
+                                + "<end_of_turn>\n<start_of_turn>model\n",
+                        msg -> "<end_of_turn>\n<start_of_turn>user\n" + msg
+                                + "<end_of_turn>\n<start_of_turn>model\n"));
     }
 
     /**
@@ -245,6 +257,29 @@ public class OnnxTextGenerator implements TextGenerator {
         return engine.generate(input);
     }
 
+    /**
+     * Samples {@code n} continuations of the prompt, prefilling it once and decoding the
+     * samples as one batch.
+     *
+     * @param input the prompt
+     * @param n     the number of samples
+     * @return one result per sample
+     * @see GenerationEngine#generate(String, int)
+     */
+    public List<GenerationResult> generate(String input, int n) {
+        return engine.generate(input, n);
+    }
+
+    /**
+     * Starts configuring a multi-turn chat that keeps the KV cache between turns.
+     *
+     * @return a chat session builder
+     * @see ChatSession
+     */
+    public ChatSession.Builder chat() {
+        return engine.chat();
+    }
+
     @Override
     public GenerationResult generate(String input, Consumer<String> tokenListener) {
         return engine.generate(input, tokenListener);
@@ -268,6 +303,12 @@ public class OnnxTextGenerator implements TextGenerator {
         private float temperature = 0f;
         private int topK = 0;
         private float topP = 0f;
+        private int maxCacheLength;
+        private int prefillChunkSize;
+        private PrefixCache prefixCache;
+        private int promptLookupNgramSize;
+        private int contextWindow;
+        private ContextPolicy contextPolicy;
         private final Set<Integer> eosTokenIds = new LinkedHashSet<>();
         private final Set<String> stopSequences = new LinkedHashSet<>();
         private final List<String> addedTokens = new ArrayList<>();
@@ -328,6 +369,36 @@ public class OnnxTextGenerator implements TextGenerator {
             return this;
         }
 
+        public Builder staticCache(int maxCacheLength) {
+            this.maxCacheLength = maxCacheLength;
+            return this;
+        }
+
+        public Builder prefillChunkSize(int prefillChunkSize) {
+            this.prefillChunkSize = prefillChunkSize;
+            return this;
+        }
+
+        public Builder prefixCache(PrefixCache prefixCache) {
+            this.prefixCache = prefixCache;
+            return this;
+        }
+
+        public Builder promptLookup(int maxNgramSize) {
+            this.promptLookupNgramSize = maxNgramSize;
+            return this;
+        }
+
+        public Builder contextWindow(int contextWindow) {
+            this.contextWindow = contextWindow;
+            return this;
+        }
+
+        public Builder contextPolicy(ContextPolicy contextPolicy) {
+            this.contextPolicy = contextPolicy;
+            return this;
+        }
+
         public Builder eosTokenId(int eosTokenId) {
             this.eosTokenIds.add(eosTokenId);
             return this;
@@ -386,7 +457,16 @@ public class OnnxTextGenerator implements TextGenerator {
                     : InferenceSession.create(modelPath);
 
             try {
-                OnnxGenerativeSession generativeSession = new OnnxGenerativeSession(session);
+                OnnxGenerativeSession generativeSession = maxCacheLength > 0
+                        ? new OnnxGenerativeSession(session, maxCacheLength)
+                        : new OnnxGenerativeSession(session);
+                if (prefillChunkSize > 0) {
+                    generativeSession.setPrefillChunkSize(prefillChunkSize);
+                }
+                int maxPositions = readMaxPositions(configPath);
+                if (maxPositions > 0) {
+                    generativeSession.setMaxPositions(maxPositions);
+                }
 
                 if (this.tokenizer == null || this.decoder == null) {
                     TokenizerProvider.TokenizerAndDecoder td =
@@ -410,11 +490,21 @@ public class OnnxTextGenerator implements TextGenerator {
                         .maxNewTokens(this.maxNewTokens)
                         .temperature(this.temperature)
                         .topK(this.topK)
-                        .topP(this.topP);
+                        .topP(this.topP)
+                        .prefixCache(this.prefixCache);
 
                 for (int eosId : eos) {
                     engineBuilder.eosTokenId(eosId);
                 }
+                if (this.promptLookupNgramSize > 0) {
+                    engineBuilder.promptLookup(this.promptLookupNgramSize);
+                }
+                if (this.contextWindow > 0) {
+                    engineBuilder.contextWindow(this.contextWindow);
+                }
+                if (this.contextPolicy != null) {
+                    engineBuilder.contextPolicy(this.contextPolicy);
+                }
                 if (this.chatTemplate != null) {
                     engineBuilder.chatTemplate(this.chatTemplate);
                 }
@@ -433,6 +523,24 @@ public class OnnxTextGenerator implements TextGenerator {
             }
         }
 
+        // GPT-2 style configs name the limit n_positions, most others max_position_embeddings
+        private static int readMaxPositions(Path configPath) {
+            try {
+                ObjectMapper mapper = new ObjectMapper();
+                JsonNode root = mapper.readTree(Files.newInputStream(configPath));
+                for (String field : new String[]{"max_position_embeddings", "n_positions"}) {
+                    JsonNode node = root.get(field);
+                    if (node != null && node.isInt() && node.intValue() > 0) {
+                        return node.intValue();
+                    }
+                }
+                return 0;
+            } catch (IOException e) {
+                throw new ModelLoadException(
+                        "Failed to read config.json: " + e.getMessage(), e);
+            }
+        }
+
         private static Set<Integer> readEosTokenIds(Path configPath) {
             try {
                 ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.nlp;
+
+/**
+ * A document returned by {@link SearchReranker#rerank(String, java.util.List, int)}.
+ *
+ * @param index    the position of the document in the list passed to {@code rerank}
+ * @param document the document text
+ * @param score    the relevance score in [0, 1]
+ */
+public record RankedDocument(int index, String document, float score) {
+}
@@ -19,6 +19,7 @@ package io.github.inference4j.nlp;
 import io.github.inference4j.InferenceTask;
 
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Scores the relevance of text pairs using a cross-encoder architecture.
@@ -47,4 +48,36 @@ public interface SearchReranker extends InferenceTask<QueryDocumentPair, Float>
         }
         return scores;
     }
+
+    /**
+     * Scores every document against {@code query} and returns the {@code topK} most
+     * relevant, highest score first.
+     *
+     * <p>Selection keeps a min-heap of size {@code topK}, so only the winners are ever
+     * sorted. Ties keep the document that appears first in {@code documents}.
+     */
+    default List<RankedDocument> rerank(String query, List<String> documents, int topK) {
+        float[] scores = scoreBatch(query, documents);
+        int k = Math.min(topK, scores.length);
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k, (a, b) -> scores[a] != scores[b]
+                ? Float.compare(scores[a], scores[b])
+                : Integer.compare(b, a));
+        for (int i = 0; i < scores.length; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (scores[i] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        RankedDocument[] ranked = new RankedDocument[k];
+        for (int i = k - 1; i >= 0; i--) {
+            int index = heap.poll();
+            ranked[i] = new RankedDocument(index, documents.get(index), scores[index]);
+        }
+        return List.of(ranked);
+    }
 }
@@ -22,11 +22,13 @@ import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.tokenizer.EncodedInput;
 import io.github.inference4j.tokenizer.Tokenizer;
 import io.github.inference4j.tokenizer.WordPieceTokenizer;
 
+import java.nio.FloatBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -43,21 +45,25 @@ public class SentenceTransformerEmbedder
     private final Tokenizer tokenizer;
     private final PoolingStrategy poolingStrategy;
     private final int maxLength;
+    private final LengthBucketedBatcher batcher;
 
     private SentenceTransformerEmbedder(InferenceSession session, Tokenizer tokenizer,
-                                        PoolingStrategy poolingStrategy, int maxLength) {
+                                        PoolingStrategy poolingStrategy, int maxLength,
+                                        int maxBatchSize, int[] lengthBuckets) {
         super(session,
                 createPreprocessor(tokenizer, maxLength, session.inputNames()),
                 ctx -> {
                     Tensor outputTensor = ctx.outputs().values().iterator().next();
                     Tensor attentionMaskTensor = ctx.preprocessed().get("attention_mask");
                     long[] attentionMask = attentionMaskTensor.toLongs();
-                    return applyPooling(outputTensor.toFloats(), outputTensor.shape(),
+                    return applyPooling(hiddenStates(outputTensor), outputTensor.shape(),
                             attentionMask, poolingStrategy);
                 });
         this.tokenizer = tokenizer;
         this.poolingStrategy = poolingStrategy;
         this.maxLength = maxLength;
+        this.batcher = new LengthBucketedBatcher(lengthBuckets, maxLength, maxBatchSize,
+                session.inputNames().contains("token_type_ids"));
     }
 
     public static Builder builder() {
@@ -69,24 +75,59 @@ public class SentenceTransformerEmbedder
         return run(text);
     }
 
+    /**
+     * Encodes texts in batches of at most {@code maxBatchSize}, running the model once
+     * per batch.
+     *
+     * <p>Texts are grouped by token length (see {@link Builder#lengthBuckets(int...)})
+     * and each batch is right-padded and fed as a single {@code [N, L]} input; pooling
+     * reads each row with its own attention mask, so padding never contributes to an
+     * embedding. Embeddings are returned in the order of {@code texts}.
+     */
     @Override
     public List<float[]> encodeBatch(List<String> texts) {
-        List<float[]> results = new ArrayList<>(texts.size());
+        List<EncodedInput> encoded = new ArrayList<>(texts.size());
         for (String text : texts) {
-            results.add(encode(text));
+            encoded.add(tokenizer.encode(text, maxLength));
+        }
+        return batcher.run(encoded, this::embedBatch);
+    }
+
+    private List<float[]> embedBatch(LengthBucketedBatcher.Batch batch) {
+        Tensor outputTensor = session.run(batch.inputs()).values().iterator().next();
+        FloatBuffer hidden = hiddenStates(outputTensor);
+        int seqLen = batch.seqLen();
+        int hiddenSize = (int) outputTensor.shape()[2];
+        int rowSize = seqLen * hiddenSize;
+        long[] rowShape = {1, seqLen, hiddenSize};
+
+        List<float[]> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            long[] rowMask = Arrays.copyOfRange(batch.attentionMask(), i * seqLen, (i + 1) * seqLen);
+            results.add(applyPooling(hidden.slice(i * rowSize, rowSize), rowShape,
+                    rowMask, poolingStrategy));
         }
         return results;
     }
 
     static float[] applyPooling(float[] flatOutput, long[] shape,
                                 long[] attentionMask, PoolingStrategy strategy) {
+        return applyPooling(FloatBuffer.wrap(flatOutput), shape, attentionMask, strategy);
+    }
+
+    /**
+     * Pools hidden states read through a buffer view, so that buffer-backed session
+     * outputs are reduced in place without materializing a {@code float[]}.
+     */
+    static float[] applyPooling(FloatBuffer flatOutput, long[] shape,
+                                long[] attentionMask, PoolingStrategy strategy) {
         int seqLen = (int) shape[1];
         int hiddenSize = (int) shape[2];
 
         return switch (strategy) {
             case CLS -> {
                 float[] result = new float[hiddenSize];
-                System.arraycopy(flatOutput, 0, result, 0, hiddenSize);
+                flatOutput.get(0, result);
                 yield result;
             }
             case MEAN -> {
@@ -95,7 +136,7 @@ public class SentenceTransformerEmbedder
                 for (int t = 0; t < seqLen; t++) {
                     if (attentionMask[t] == 1) {
                         for (int h = 0; h < hiddenSize; h++) {
-                            result[h] += flatOutput[t * hiddenSize + h];
+                            result[h] += flatOutput.get(t * hiddenSize + h);
                         }
                         count++;
                     }
@@ -115,7 +156,7 @@ public class SentenceTransformerEmbedder
                     if (attentionMask[t] == 1) {
                         anyValid = true;
                         for (int h = 0; h < hiddenSize; h++) {
-                            result[h] = Math.max(result[h], flatOutput[t * hiddenSize + h]);
+                            result[h] = Math.max(result[h], flatOutput.get(t * hiddenSize + h));
                         }
                     }
                 }
@@ -127,6 +168,12 @@ public class SentenceTransformerEmbedder
         };
     }
 
+    private static FloatBuffer hiddenStates(Tensor outputTensor) {
+        return outputTensor.type() == TensorType.FLOAT
+                ? outputTensor.floatBuffer()
+                : FloatBuffer.wrap(outputTensor.toFloats());
+    }
+
     private static io.github.inference4j.processing.Preprocessor<String, Map<String, Tensor>> createPreprocessor(
             Tokenizer tokenizer, int maxLength, Set<String> expectedInputs) {
         return text -> {
@@ -150,6 +197,8 @@ public class SentenceTransformerEmbedder
         private Tokenizer tokenizer;
         private PoolingStrategy poolingStrategy = PoolingStrategy.MEAN;
         private int maxLength = 512;
+        private int maxBatchSize = 32;
+        private int[] lengthBuckets = LengthBucketedBatcher.DEFAULT_BUCKETS;
 
         Builder session(InferenceSession session) {
             this.session = session;
@@ -186,6 +235,30 @@ public class SentenceTransformerEmbedder
             return this;
         }
 
+        /**
+         * Sets the largest number of texts {@link SentenceTransformerEmbedder#encodeBatch(List)}
+         * feeds to the model in one run. Larger batches use the CPU's vector units better
+         * but need memory proportional to {@code maxBatchSize * maxLength}. Defaults to 32.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1, got " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the sequence lengths {@link SentenceTransformerEmbedder#encodeBatch(List)}
+         * pads batches to. Each text goes into the smallest bucket that fits it, so short
+         * and long texts are never padded together. Pass no lengths to pad each batch to
+         * its longest text instead. Defaults to 32, 64, 128, 256 and 512 tokens.
+         */
+        public Builder lengthBuckets(int... lengthBuckets) {
+            this.lengthBuckets = LengthBucketedBatcher.validateBuckets(lengthBuckets);
+            return this;
+        }
+
         public SentenceTransformerEmbedder build() {
             if (session == null) {
                 if (modelId == null) {
@@ -200,7 +273,8 @@ public class SentenceTransformerEmbedder
             if (tokenizer == null) {
                 throw new IllegalStateException("Tokenizer is required");
             }
-            return new SentenceTransformerEmbedder(session, tokenizer, poolingStrategy, maxLength);
+            return new SentenceTransformerEmbedder(session, tokenizer, poolingStrategy, maxLength,
+                    maxBatchSize, lengthBuckets);
         }
 
         private void loadFromDirectory(Path dir) {
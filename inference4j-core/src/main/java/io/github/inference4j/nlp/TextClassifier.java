@@ -18,6 +18,7 @@ package io.github.inference4j.nlp;
 
 import io.github.inference4j.Classifier;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,6 +33,21 @@ public interface TextClassifier extends Classifier<String, TextClassification> {
 
     List<TextClassification> classify(String text, int topK);
 
+    /**
+     * Classifies several texts, returning the {@code topK} classifications of each in
+     * the order of {@code texts}.
+     *
+     * <p>The default implementation calls {@link #classify(String, int)} once per text;
+     * implementations that can run the model on a padded batch override it.
+     */
+    default List<List<TextClassification>> classifyBatch(List<String> texts, int topK) {
+        List<List<TextClassification>> results = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            results.add(classify(text, topK));
+        }
+        return results;
+    }
+
     @Override
     void close();
 }
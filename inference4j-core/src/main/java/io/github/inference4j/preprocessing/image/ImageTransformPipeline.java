@@ -18,10 +18,15 @@ package io.github.inference4j.preprocessing.image;
 
 import io.github.inference4j.processing.Preprocessor;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
 
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Composes image transforms and produces a normalized float tensor.
@@ -86,10 +91,51 @@ public class ImageTransformPipeline implements Preprocessor<BufferedImage, Tenso
      * @return Tensor with shape [1, 3, H, W] (NCHW) or [1, H, W, 3] (NHWC)
      */
     public Tensor transform(BufferedImage image) {
-        for (ImageTransform t : transforms) {
-            image = t.apply(image);
+        BufferedImage transformed = applyTransforms(image);
+        int w = transformed.getWidth();
+        int h = transformed.getHeight();
+        float[] data = new float[3 * h * w];
+        writePixels(transformed, FloatBuffer.wrap(data), 0);
+        return Tensor.fromFloats(data, shape(1, h, w));
+    }
+
+    /**
+     * Transforms several images into one batched tensor.
+     *
+     * <p>Images are transformed in parallel on the common fork-join pool and written
+     * straight into a single direct buffer sized for the whole batch, so no per-image
+     * tensor is ever allocated and ONNX Runtime reads the batch without a copy.
+     *
+     * @return Tensor with shape [N, 3, H, W] (NCHW) or [N, H, W, 3] (NHWC)
+     * @throws IllegalArgumentException if {@code images} is empty, or if the transforms
+     *                                  leave images of different sizes
+     */
+    public Tensor transformBatch(List<BufferedImage> images) {
+        if (images.isEmpty()) {
+            throw new IllegalArgumentException("images must not be empty");
         }
-        return toTensor(image);
+        BufferedImage[] transformed = new BufferedImage[images.size()];
+        IntStream.range(0, transformed.length).parallel()
+                .forEach(i -> transformed[i] = applyTransforms(images.get(i)));
+
+        int w = transformed[0].getWidth();
+        int h = transformed[0].getHeight();
+        for (BufferedImage image : transformed) {
+            if (image.getWidth() != w || image.getHeight() != h) {
+                throw new IllegalArgumentException("Cannot batch images of different sizes after transforms: "
+                        + w + "x" + h + " and " + image.getWidth() + "x" + image.getHeight()
+                        + "; add a resize or center crop to the pipeline");
+            }
+        }
+
+        int imageSize = 3 * h * w;
+        // Absolute puts from each worker touch disjoint slices of the shared buffer
+        ByteBuffer bytes = ByteBuffer.allocateDirect(transformed.length * imageSize * Float.BYTES)
+                .order(ByteOrder.nativeOrder());
+        FloatBuffer data = bytes.asFloatBuffer();
+        IntStream.range(0, transformed.length).parallel()
+                .forEach(i -> writePixels(transformed[i], data, i * imageSize));
+        return Tensor.fromBuffer(bytes, shape(transformed.length, h, w), TensorType.FLOAT);
     }
 
     @Override
@@ -97,14 +143,23 @@ public class ImageTransformPipeline implements Preprocessor<BufferedImage, Tenso
         return transform(input);
     }
 
-    private Tensor toTensor(BufferedImage image) {
+    private BufferedImage applyTransforms(BufferedImage image) {
+        for (ImageTransform t : transforms) {
+            image = t.apply(image);
+        }
+        return image;
+    }
+
+    private void writePixels(BufferedImage image, FloatBuffer data, int offset) {
         int w = image.getWidth();
         int h = image.getHeight();
-        float[] data = new float[3 * h * w];
+        int plane = h * w;
+        int[] row = new int[w];
 
         for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, row, 0, w);
             for (int x = 0; x < w; x++) {
-                int rgb = image.getRGB(x, y);
+                int rgb = row[x];
                 float r = ((rgb >> 16) & 0xFF) / 255f;
                 float g = ((rgb >> 8) & 0xFF) / 255f;
                 float b = (rgb & 0xFF) / 255f;
@@ -114,22 +169,23 @@ public class ImageTransformPipeline implements Preprocessor<BufferedImage, Tenso
                 float nb = (b - mean[2]) / std[2];
 
                 if (layout == ImageLayout.NHWC) {
-                    int idx = (y * w + x) * 3;
-                    data[idx]     = nr;
-                    data[idx + 1] = ng;
-                    data[idx + 2] = nb;
+                    int idx = offset + (y * w + x) * 3;
+                    data.put(idx, nr);
+                    data.put(idx + 1, ng);
+                    data.put(idx + 2, nb);
                 } else {
-                    data[0 * h * w + y * w + x] = nr;
-                    data[1 * h * w + y * w + x] = ng;
-                    data[2 * h * w + y * w + x] = nb;
+                    data.put(offset + y * w + x, nr);
+                    data.put(offset + plane + y * w + x, ng);
+                    data.put(offset + 2 * plane + y * w + x, nb);
                 }
             }
         }
+    }
 
-        long[] shape = layout == ImageLayout.NHWC
-                ? new long[]{1, h, w, 3}
-                : new long[]{1, 3, h, w};
-        return Tensor.fromFloats(data, shape);
+    private long[] shape(int batch, int h, int w) {
+        return layout == ImageLayout.NHWC
+                ? new long[]{batch, h, w, 3}
+                : new long[]{batch, 3, h, w};
     }
 
     public static class Builder {
@@ -16,23 +16,45 @@
 
 package io.github.inference4j.sampling;
 
-import io.github.inference4j.processing.MathOps;
-
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Samples a token from the softmax of the logits.
+ *
+ * <p>One pass computes the maximum and the softmax normalizer together; a second pass
+ * walks the cumulative distribution only as far as the drawn token. No probability
+ * array is allocated.
+ */
 public class CategoricalSampler implements LogitsSampler {
 
     @Override
     public int sample(float[] logits) {
-        var probs = MathOps.softmax(logits);
-        var random = ThreadLocalRandom.current().nextFloat();
-        var sum = 0f;
-        for (int i = 0; i < probs.length; i++) {
-            sum += probs[i];
-            if (sum >= random) {
+        float max = Float.NEGATIVE_INFINITY;
+        double total = 0;
+        for (float logit : logits) {
+            if (logit == Float.NEGATIVE_INFINITY) continue;
+            if (logit > max) {
+                total = total * Math.exp(max - logit) + 1;
+                max = logit;
+            } else {
+                total += Math.exp(logit - max);
+            }
+        }
+        if (max == Float.NEGATIVE_INFINITY) {
+            return logits.length - 1;
+        }
+
+        double target = ThreadLocalRandom.current().nextDouble() * total;
+        double cumulative = 0;
+        int last = logits.length - 1;
+        for (int i = 0; i < logits.length; i++) {
+            if (logits[i] == Float.NEGATIVE_INFINITY) continue;
+            cumulative += Math.exp(logits[i] - max);
+            last = i;
+            if (cumulative >= target) {
                 return i;
             }
         }
-        return probs.length - 1;
+        return last;
     }
 }
@@ -18,17 +18,54 @@ package io.github.inference4j.sampling;
 
 /**
  * Functional interface to apply transformation into logits before sampling.
+ *
+ * <p>{@link #process(float[])} leaves its input untouched. The generation loops call
+ * {@link #processInPlace(float[])} instead, which overwrites the logits they own and
+ * lets the built-in processors run without allocating per token.
  */
 @FunctionalInterface
 public interface LogitsProcessor {
 
     float[] process(float[] logits);
 
+    /**
+     * Applies this processor to {@code logits}, overwriting them.
+     *
+     * <p>The default implementation copies the result of {@link #process(float[])} back.
+     */
+    default void processInPlace(float[] logits) {
+        float[] result = process(logits);
+        if (result != logits) {
+            System.arraycopy(result, 0, logits, 0, logits.length);
+        }
+    }
+
     default LogitsProcessor andThen(LogitsProcessor next) {
-        return logits -> next.process(this.process(logits));
+        LogitsProcessor first = this;
+        return new LogitsProcessor() {
+            @Override
+            public float[] process(float[] logits) {
+                return next.process(first.process(logits));
+            }
+
+            @Override
+            public void processInPlace(float[] logits) {
+                first.processInPlace(logits);
+                next.processInPlace(logits);
+            }
+        };
     }
 
     static LogitsProcessor identity() {
-        return logits -> logits;
+        return new LogitsProcessor() {
+            @Override
+            public float[] process(float[] logits) {
+                return logits;
+            }
+
+            @Override
+            public void processInPlace(float[] logits) {
+            }
+        };
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.sampling;
+
+/**
+ * Selection and sorting over vocabulary-sized logits without per-call allocation.
+ *
+ * <p>Scratch arrays are kept per thread and grow to the largest vocabulary seen, so
+ * processors stay stateless and safe to share while reusing memory across tokens.
+ */
+final class Selection {
+
+    private static final ThreadLocal<float[]> FLOAT_SCRATCH = ThreadLocal.withInitial(() -> new float[0]);
+    private static final ThreadLocal<int[]> INT_SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
+
+    private Selection() {
+    }
+
+    /**
+     * Returns this thread's float scratch array, at least {@code length} long.
+     */
+    static float[] floatScratch(int length) {
+        float[] scratch = FLOAT_SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new float[length];
+            FLOAT_SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * Returns this thread's int scratch array, at least {@code length} long.
+     */
+    static int[] intScratch(int length) {
+        int[] scratch = INT_SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new int[length];
+            INT_SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * Returns the {@code k}-th largest of the first {@code length} values by
+     * quickselect, in expected O(length) time. The values are reordered.
+     */
+    static float kthLargest(float[] values, int length, int k) {
+        int target = k - 1;
+        int low = 0;
+        int high = length - 1;
+        while (low < high) {
+            float pivot = medianOfThree(values[low], values[(low + high) >>> 1], values[high]);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] > pivot) {
+                    i++;
+                }
+                while (values[j] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    float tmp = values[i];
+                    values[i++] = values[j];
+                    values[j--] = tmp;
+                }
+            }
+            if (target <= j) {
+                high = j;
+            } else if (target >= i) {
+                low = i;
+            } else {
+                break;
+            }
+        }
+        return values[target];
+    }
+
+    /**
+     * Reorders the first {@code count} indices so the first {@code m} are those with
+     * the largest keys, in no particular order, by quickselect.
+     */
+    static void selectTop(int[] indices, int count, int m, float[] keys) {
+        int low = 0;
+        int high = count - 1;
+        int target = m - 1;
+        while (low < high) {
+            float pivot = medianOfThree(keys[indices[low]], keys[indices[(low + high) >>> 1]],
+                    keys[indices[high]]);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[indices[i]] > pivot) {
+                    i++;
+                }
+                while (keys[indices[j]] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(indices, i++, j--);
+                }
+            }
+            if (target <= j) {
+                high = j;
+            } else if (target >= i) {
+                low = i;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Sorts the first {@code length} indices by descending key.
+     */
+    static void sortDescending(int[] indices, int length, float[] keys) {
+        sortDescending(indices, 0, length - 1, keys);
+    }
+
+    private static void sortDescending(int[] indices, int low, int high, float[] keys) {
+        while (high - low > 16) {
+            float pivot = medianOfThree(keys[indices[low]], keys[indices[(low + high) >>> 1]],
+                    keys[indices[high]]);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[indices[i]] > pivot) {
+                    i++;
+                }
+                while (keys[indices[j]] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(indices, i++, j--);
+                }
+            }
+            // Recurse into the smaller side to bound the stack depth
+            if (j - low < high - i) {
+                sortDescending(indices, low, j, keys);
+                low = i;
+            } else {
+                sortDescending(indices, i, high, keys);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int index = indices[i];
+            float key = keys[index];
+            int j = i - 1;
+            while (j >= low && keys[indices[j]] < key) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+
+    private static float medianOfThree(float a, float b, float c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(int[] indices, int i, int j) {
+        int tmp = indices[i];
+        indices[i] = indices[j];
+        indices[j] = tmp;
+    }
+}
@@ -27,9 +27,14 @@ public class TemperatureProcessor implements LogitsProcessor {
     @Override
     public float[] process(float[] logits) {
         float[] result = logits.clone();
-        for (int i = 0; i < result.length; i++) {
-            result[i] /= temperature;
-        }
+        processInPlace(result);
         return result;
     }
+
+    @Override
+    public void processInPlace(float[] logits) {
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] /= temperature;
+        }
+    }
 }
@@ -16,8 +16,12 @@
 
 package io.github.inference4j.sampling;
 
-import java.util.Arrays;
-
+/**
+ * Masks every logit below the {@code k}-th largest to negative infinity.
+ *
+ * <p>The threshold is found by quickselect on a per-thread scratch copy, in expected
+ * O(V) time instead of sorting the vocabulary.
+ */
 public class TopKProcessor implements LogitsProcessor {
 
     private final int k;
@@ -30,16 +34,23 @@ public class TopKProcessor implements LogitsProcessor {
     public float[] process(float[] logits) {
         if (k <= 0 || k >= logits.length) return logits;
 
-        float[] sorted = logits.clone();
-        Arrays.sort(sorted);
-        float threshold = sorted[sorted.length - k];
-
         float[] result = logits.clone();
-        for (int i = 0; i < result.length; i++) {
-            if (result[i] < threshold) {
-                result[i] = Float.NEGATIVE_INFINITY;
+        processInPlace(result);
+        return result;
+    }
+
+    @Override
+    public void processInPlace(float[] logits) {
+        if (k <= 0 || k >= logits.length) return;
+
+        float[] scratch = Selection.floatScratch(logits.length);
+        System.arraycopy(logits, 0, scratch, 0, logits.length);
+        float threshold = Selection.kthLargest(scratch, logits.length, k);
+
+        for (int i = 0; i < logits.length; i++) {
+            if (logits[i] < threshold) {
+                logits[i] = Float.NEGATIVE_INFINITY;
             }
         }
-        return result;
     }
 }
@@ -16,12 +16,21 @@
 
 package io.github.inference4j.sampling;
 
-import io.github.inference4j.processing.MathOps;
-
 import java.util.Arrays;
 
+/**
+ * Keeps the most probable tokens whose cumulative probability reaches {@code p}
+ * (nucleus sampling) and masks the rest to negative infinity.
+ *
+ * <p>Only tokens with a finite logit are candidates, so after a {@link TopKProcessor}
+ * the work is bounded by {@code k}. Otherwise the nucleus is found by quickselecting a
+ * growing number of top candidates until they hold enough mass, and only those are
+ * sorted; the vocabulary is never sorted as a whole.
+ */
 public class TopPProcessor implements LogitsProcessor {
 
+    private static final int INITIAL_CANDIDATES = 64;
+
     private final float p;
 
     public TopPProcessor(float p) {
@@ -32,27 +41,57 @@ public class TopPProcessor implements LogitsProcessor {
     public float[] process(float[] logits) {
         if (p >= 1.0f) return logits;
 
-        float[] probs = MathOps.softmax(logits);
+        float[] result = logits.clone();
+        processInPlace(result);
+        return result;
+    }
 
-        int n = logits.length;
-        Integer[] indices = new Integer[n];
-        for (int i = 0; i < n; i++) indices[i] = i;
-        Arrays.sort(indices, (a, b) -> Float.compare(probs[b], probs[a]));
+    @Override
+    public void processInPlace(float[] logits) {
+        if (p >= 1.0f) return;
 
-        float cumulative = 0;
-        boolean[] keep = new boolean[n];
-        for (int i = 0; i < n; i++) {
-            cumulative += probs[indices[i]];
-            keep[indices[i]] = true;
-            if (cumulative >= p) break;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float logit : logits) {
+            max = Math.max(max, logit);
         }
+        if (max == Float.NEGATIVE_INFINITY) return;
 
-        float[] result = logits.clone();
-        for (int i = 0; i < n; i++) {
-            if (!keep[i]) {
-                result[i] = Float.NEGATIVE_INFINITY;
+        int[] indices = Selection.intScratch(logits.length);
+        int count = 0;
+        double total = 0;
+        for (int i = 0; i < logits.length; i++) {
+            if (logits[i] != Float.NEGATIVE_INFINITY) {
+                indices[count++] = i;
+                total += Math.exp(logits[i] - max);
             }
         }
-        return result;
+
+        int candidates = Math.min(count, INITIAL_CANDIDATES);
+        while (true) {
+            Selection.selectTop(indices, count, candidates, logits);
+            double mass = 0;
+            for (int i = 0; i < candidates; i++) {
+                mass += Math.exp(logits[indices[i]] - max);
+            }
+            if (mass >= p * total || candidates == count) break;
+            candidates = Math.min(count, candidates * 4);
+        }
+        Selection.sortDescending(indices, candidates, logits);
+
+        double cumulative = 0;
+        int keep = 0;
+        while (keep < candidates) {
+            cumulative += Math.exp(logits[indices[keep++]] - max) / total;
+            if (cumulative >= p) break;
+        }
+
+        float[] kept = Selection.floatScratch(keep);
+        for (int i = 0; i < keep; i++) {
+            kept[i] = logits[indices[i]];
+        }
+        Arrays.fill(logits, Float.NEGATIVE_INFINITY);
+        for (int i = 0; i < keep; i++) {
+            logits[indices[i]] = kept[i];
+        }
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.inference4j.session;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtLoggingLevel;
+import io.github.inference4j.exception.InferenceException;
+
+import java.util.Optional;
+
+/**
+ * Process-wide ONNX Runtime thread pools shared by all sessions that opt in.
+ *
+ * <p>By default every session owns an intra-op pool (and, in parallel execution
+ * mode, an inter-op pool) sized to all CPUs, so loading several models
+ * oversubscribes the cores. Configuring global pools creates the ONNX Runtime
+ * environment with a single pair of pools; sessions built with
+ * {@link SessionOptions.Builder#useGlobalThreadPools(boolean)} then schedule their
+ * work on those pools instead of creating their own.
+ *
+ * <p>The environment can only be created once per process, so {@link #configure}
+ * must run before the first model is loaded:
+ * <pre>{@code
+ * GlobalThreadPools.configure(8, 1, false);
+ *
+ * ResNetClassifier classifier = ResNetClassifier.builder()
+ *     .sessionOptions(SessionOptions.builder().useGlobalThreadPools(true).build())
+ *     .build();
+ * }</pre>
+ *
+ * @see io.github.inference4j.InferenceSession#threadTopology()
+ */
+public final class GlobalThreadPools {
+
+    private static volatile GlobalThreadPools current;
+
+    private final int intraOpNumThreads;
+    private final int interOpNumThreads;
+    private final boolean spinWait;
+
+    private GlobalThreadPools(int intraOpNumThreads, int interOpNumThreads, boolean spinWait) {
+        this.intraOpNumThreads = intraOpNumThreads;
+        this.interOpNumThreads = interOpNumThreads;
+        this.spinWait = spinWait;
+    }
+
+    /**
+     * Creates the global pools with an intra-op pool sized to all CPUs, a
+     * single-threaded inter-op pool and spin-waiting enabled.
+     *
+     * @return the configured pools
+     * @see #configure(int, int, boolean)
+     */
+    public static GlobalThreadPools configure() {
+        return configure(Runtime.getRuntime().availableProcessors(), 1, true);
+    }
+
+    /**
+     * Creates the ONNX Runtime environment with global thread pools.
+     *
+     * <p>Calling this again with the same settings returns the existing pools.
+     *
+     * @param intraOpNumThreads threads shared by all sessions for work within an operator
+     * @param interOpNumThreads threads shared by all sessions for parallel execution mode
+     * @param spinWait          whether idle pool threads spin before sleeping
+     * @return the configured pools
+     * @throws IllegalStateException if pools were already configured differently, or a
+     *                               session was created before this call
+     * @throws InferenceException    if ONNX Runtime rejects the settings
+     */
+    public static synchronized GlobalThreadPools configure(int intraOpNumThreads,
+                                                           int interOpNumThreads,
+                                                           boolean spinWait) {
+        if (intraOpNumThreads < 1 || interOpNumThreads < 1) {
+            throw new IllegalArgumentException("Thread counts must be >= 1, got intra="
+                    + intraOpNumThreads + ", inter=" + interOpNumThreads);
+        }
+        GlobalThreadPools pools = new GlobalThreadPools(intraOpNumThreads, interOpNumThreads, spinWait);
+        if (current != null) {
+            if (current.sameSettings(pools)) {
+                return current;
+            }
+            throw new IllegalStateException("Global thread pools are already configured as " + current);
+        }
+        try (OrtEnvironment.ThreadingOptions options = new OrtEnvironment.ThreadingOptions()) {
+            options.setGlobalIntraOpNumThreads(intraOpNumThreads);
+            options.setGlobalInterOpNumThreads(interOpNumThreads);
+            options.setGlobalSpinControl(spinWait);
+            OrtEnvironment.getEnvironment(OrtLoggingLevel.ORT_LOGGING_LEVEL_WARNING,
+                    OrtEnvironment.DEFAULT_NAME, options);
+        } catch (OrtException e) {
+            throw new InferenceException("Failed to configure global thread pools: " + e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Global thread pools must be configured before the "
+                    + "first model is loaded: " + e.getMessage(), e);
+        }
+        current = pools;
+        return pools;
+    }
+
+    /**
+     * Returns the global pools, if {@link #configure} has been called.
+     */
+    public static Optional<GlobalThreadPools> current() {
+        return Optional.ofNullable(current);
+    }
+
+    public int intraOpNumThreads() {
+        return intraOpNumThreads;
+    }
+
+    public int interOpNumThreads() {
+        return interOpNumThreads;
+    }
+
+    public boolean spinWait() {
+        return spinWait;
+    }
+
+    private boolean sameSettings(GlobalThreadPools other) {
+        return intraOpNumThreads == other.intraOpNumThreads
+                && interOpNumThreads == other.interOpNumThreads
+                && spinWait == other.spinWait;
+    }
+
+    @Override
+    public String toString() {
+        return "GlobalThreadPools[intraOp=" + intraOpNumThreads + ", interOp=" + interOpNumThreads
+                + ", spinWait=" + spinWait + "]";
+    }
+}
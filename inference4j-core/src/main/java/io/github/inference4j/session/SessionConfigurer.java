@@ -20,6 +20,8 @@ import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import io.github.inference4j.InferenceSession;
 
+import java.util.Optional;
+
 /**
  * Configures ONNX Runtime session options before session creation.
  *
@@ -52,4 +54,43 @@ public interface SessionConfigurer {
      * @throws OrtException if configuration fails (e.g., CUDA not available)
      */
     void configure(OrtSession.SessionOptions options) throws OrtException;
+
+    /**
+     * Returns a configurer that applies this configurer, then {@code after}.
+     *
+     * <p>Useful for combining {@link SessionOptions} with an execution provider:
+     * <pre>{@code
+     * .sessionOptions(SessionOptions.builder().cpuMemoryArena(false).build()
+     *         .andThen(opts -> opts.addCUDA(0)))
+     * }</pre>
+     *
+     * @param after the configurer to apply second
+     * @return the composed configurer
+     */
+    default SessionConfigurer andThen(SessionConfigurer after) {
+        SessionConfigurer first = this;
+        return new SessionConfigurer() {
+            @Override
+            public void configure(OrtSession.SessionOptions options) throws OrtException {
+                first.configure(options);
+                after.configure(options);
+            }
+
+            @Override
+            public Optional<SessionOptions> baseOptions() {
+                return first.baseOptions();
+            }
+        };
+    }
+
+    /**
+     * Returns the {@link SessionOptions} this configurer applies first, kept through
+     * {@link #andThen(SessionConfigurer)} so that their thread settings can be reported
+     * in {@link InferenceSession#threadTopology()}. Empty for plain lambdas.
+     *
+     * @return the leading session options, if any
+     */
+    default Optional<SessionOptions> baseOptions() {
+        return Optional.empty();
+    }
 }
@@ -16,16 +16,62 @@
 
 package io.github.inference4j.session;
 
+import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.OrtSession.SessionOptions.ExecutionMode;
+import ai.onnxruntime.OrtSession.SessionOptions.OptLevel;
+import io.github.inference4j.model.HuggingFaceModelSource;
 
-public class SessionOptions {
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * ONNX Runtime session settings for tuning latency against memory per model.
+ *
+ * <p>Unset options keep ONNX Runtime's own defaults. Because {@code SessionOptions}
+ * is a {@link SessionConfigurer}, it can be passed to any wrapper builder:
+ * <pre>{@code
+ * YoloV8Detector.builder()
+ *     .sessionOptions(SessionOptions.builder()
+ *             .intraOpNumThreads(4)
+ *             .cpuMemoryArena(false)
+ *             .freeDimensionOverride("batch_size", 1)
+ *             .build())
+ *     .build();
+ * }</pre>
+ */
+public class SessionOptions implements SessionConfigurer {
+
+    static final String INTRA_OP_SPINNING_KEY = "session.intra_op.allow_spinning";
+    static final String INTER_OP_SPINNING_KEY = "session.inter_op.allow_spinning";
 
     private final int intraOpNumThreads;
     private final int interOpNumThreads;
+    private final OptLevel optimizationLevel;
+    private final ExecutionMode executionMode;
+    private final Boolean cpuMemoryArena;
+    private final Boolean memoryPatternOptimization;
+    private final Boolean spinWait;
+    private final boolean useGlobalThreadPools;
+    private final Path optimizedModelCacheDir;
+    private final Map<String, Long> freeDimensionOverrides;
 
     private SessionOptions(Builder builder) {
         this.intraOpNumThreads = builder.intraOpNumThreads;
         this.interOpNumThreads = builder.interOpNumThreads;
+        this.optimizationLevel = builder.optimizationLevel;
+        this.executionMode = builder.executionMode;
+        this.cpuMemoryArena = builder.cpuMemoryArena;
+        this.memoryPatternOptimization = builder.memoryPatternOptimization;
+        this.spinWait = builder.spinWait;
+        this.useGlobalThreadPools = builder.useGlobalThreadPools;
+        this.optimizedModelCacheDir = builder.optimizedModelCacheDir;
+        this.freeDimensionOverrides = Collections.unmodifiableMap(
+                new LinkedHashMap<>(builder.freeDimensionOverrides));
     }
 
     public static SessionOptions defaults() {
@@ -36,17 +82,130 @@ public class SessionOptions {
         return new Builder();
     }
 
-    public OrtSession.SessionOptions toOrtOptions() throws ai.onnxruntime.OrtException {
+    public OrtSession.SessionOptions toOrtOptions() throws OrtException {
         OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
-        opts.setIntraOpNumThreads(intraOpNumThreads);
-        opts.setInterOpNumThreads(interOpNumThreads);
-        opts.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+        try {
+            configure(opts);
+        } catch (OrtException | RuntimeException e) {
+            opts.close();
+            throw e;
+        }
         return opts;
     }
 
+    @Override
+    public Optional<SessionOptions> baseOptions() {
+        return Optional.of(this);
+    }
+
+    /**
+     * Applies these settings to the given ONNX Runtime options.
+     *
+     * @param opts the options to configure
+     * @throws OrtException if ONNX Runtime rejects a setting
+     */
+    @Override
+    public void configure(OrtSession.SessionOptions opts) throws OrtException {
+        if (useGlobalThreadPools) {
+            if (GlobalThreadPools.current().isEmpty()) {
+                throw new IllegalStateException(
+                        "useGlobalThreadPools requires GlobalThreadPools.configure() to be called first");
+            }
+            opts.disablePerSessionThreads();
+        } else {
+            opts.setIntraOpNumThreads(intraOpNumThreads);
+            opts.setInterOpNumThreads(interOpNumThreads);
+        }
+        opts.setOptimizationLevel(optimizationLevel);
+        if (executionMode != null) {
+            opts.setExecutionMode(executionMode);
+        }
+        if (cpuMemoryArena != null) {
+            opts.setCPUArenaAllocator(cpuMemoryArena);
+        }
+        if (memoryPatternOptimization != null) {
+            opts.setMemoryPatternOptimization(memoryPatternOptimization);
+        }
+        if (spinWait != null && !useGlobalThreadPools) {
+            String value = spinWait ? "1" : "0";
+            opts.addConfigEntry(INTRA_OP_SPINNING_KEY, value);
+            opts.addConfigEntry(INTER_OP_SPINNING_KEY, value);
+        }
+        for (Map.Entry<String, Long> entry : freeDimensionOverrides.entrySet()) {
+            opts.setSymbolicDimensionValue(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public int intraOpNumThreads() {
+        return intraOpNumThreads;
+    }
+
+    public int interOpNumThreads() {
+        return interOpNumThreads;
+    }
+
+    public OptLevel optimizationLevel() {
+        return optimizationLevel;
+    }
+
+    /** Returns the execution mode, or {@code null} to use ONNX Runtime's default. */
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    /** Returns whether the CPU memory arena is enabled, or {@code null} to use ONNX Runtime's default. */
+    public Boolean cpuMemoryArena() {
+        return cpuMemoryArena;
+    }
+
+    /** Returns whether memory-pattern optimization is enabled, or {@code null} to use ONNX Runtime's default. */
+    public Boolean memoryPatternOptimization() {
+        return memoryPatternOptimization;
+    }
+
+    /** Returns whether idle worker threads spin-wait, or {@code null} to use ONNX Runtime's default. */
+    public Boolean spinWait() {
+        return spinWait;
+    }
+
+    /** Returns whether the session runs on the {@link GlobalThreadPools} instead of its own. */
+    public boolean useGlobalThreadPools() {
+        return useGlobalThreadPools;
+    }
+
+    /** Returns the symbolic dimension overrides, keyed by dimension name. */
+    public Map<String, Long> freeDimensionOverrides() {
+        return freeDimensionOverrides;
+    }
+
+    /** Returns the optimized-model cache directory, or {@code null} if caching is disabled. */
+    public Path optimizedModelCacheDir() {
+        return optimizedModelCacheDir;
+    }
+
+    /**
+     * Returns a string identifying the settings that change the optimized graph
+     * (optimization level and free-dimension overrides). Thread, memory and
+     * execution-mode settings do not affect the graph and are excluded.
+     */
+    public String graphFingerprint() {
+        StringBuilder sb = new StringBuilder("opt=").append(optimizationLevel);
+        new TreeMap<>(freeDimensionOverrides).forEach((name, value) ->
+                sb.append(";dim:").append(name).append('=').append(value));
+        return sb.toString();
+    }
+
     public static class Builder {
         private int intraOpNumThreads = Runtime.getRuntime().availableProcessors();
         private int interOpNumThreads = Runtime.getRuntime().availableProcessors();
+        private OptLevel optimizationLevel = OptLevel.ALL_OPT;
+        private ExecutionMode executionMode;
+        private Boolean cpuMemoryArena;
+        private Boolean memoryPatternOptimization;
+        private Boolean spinWait;
+        private boolean useGlobalThreadPools;
+        private Path optimizedModelCacheDir;
+        private final Map<String, Long> freeDimensionOverrides = new LinkedHashMap<>();
 
         public Builder intraOpNumThreads(int threads) {
             this.intraOpNumThreads = threads;
@@ -58,6 +217,105 @@ public class SessionOptions {
             return this;
         }
 
+        /** Sets the graph optimization level. Defaults to {@link OptLevel#ALL_OPT}. */
+        public Builder optimizationLevel(OptLevel optimizationLevel) {
+            if (optimizationLevel == null) {
+                throw new IllegalArgumentException("optimizationLevel must not be null");
+            }
+            this.optimizationLevel = optimizationLevel;
+            return this;
+        }
+
+        /**
+         * Runs graph nodes sequentially or in parallel. Parallel mode uses the
+         * inter-op thread pool and only pays off for graphs with independent branches.
+         */
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Enables or disables the CPU memory arena. Disabling it returns memory to the
+         * system after each run at the cost of more allocations.
+         */
+        public Builder cpuMemoryArena(boolean enabled) {
+            this.cpuMemoryArena = enabled;
+            return this;
+        }
+
+        /**
+         * Enables or disables memory-pattern optimization, which preallocates memory
+         * based on the first run. Only effective when input shapes do not vary.
+         */
+        public Builder memoryPatternOptimization(boolean enabled) {
+            this.memoryPatternOptimization = enabled;
+            return this;
+        }
+
+        /**
+         * Controls whether idle intra- and inter-op worker threads spin before
+         * sleeping. Spinning lowers latency; disabling it saves CPU between requests.
+         */
+        public Builder spinWait(boolean enabled) {
+            this.spinWait = enabled;
+            return this;
+        }
+
+        /**
+         * Runs the session on the process-wide {@link GlobalThreadPools} instead of
+         * creating its own pools. Thread counts and {@link #spinWait(boolean)} are then
+         * taken from the global pools.
+         */
+        public Builder useGlobalThreadPools(boolean enabled) {
+            this.useGlobalThreadPools = enabled;
+            return this;
+        }
+
+        /**
+         * Pins a named dynamic dimension (e.g., {@code "batch_size"}, {@code "sequence_length"})
+         * to a fixed value, letting ONNX Runtime plan memory and kernels for that shape.
+         */
+        public Builder freeDimensionOverride(String dimensionName, long value) {
+            if (dimensionName == null || dimensionName.isBlank()) {
+                throw new IllegalArgumentException("dimensionName must not be blank");
+            }
+            if (value <= 0) {
+                throw new IllegalArgumentException(
+                        "Dimension override must be positive, got " + value + " for " + dimensionName);
+            }
+            this.freeDimensionOverrides.put(dimensionName, value);
+            return this;
+        }
+
+        /**
+         * Caches the optimized graph in a {@code .optimized} directory under the
+         * {@link HuggingFaceModelSource} cache.
+         *
+         * @see #optimizedModelCache(Path)
+         */
+        public Builder optimizedModelCache() {
+            return optimizedModelCache(
+                    HuggingFaceModelSource.defaultInstance().cacheDir().resolve(".optimized"));
+        }
+
+        /**
+         * Caches the optimized graph in {@code directory}. The first load runs graph
+         * optimizations and saves the result; later loads of the same model with the
+         * same ONNX Runtime version, platform and {@link #graphFingerprint() graph
+         * settings} skip optimization and load the saved graph directly.
+         *
+         * <p>Only used when the session is created from these options alone: execution
+         * providers added through {@link SessionConfigurer#andThen} can rewrite the
+         * graph, so combined configurers bypass the cache. Layout optimizations in
+         * {@code ALL_OPT} are CPU-specific, so do not share a cache directory between
+         * machines with different instruction sets.
+         */
+        public Builder optimizedModelCache(Path directory) {
+            this.optimizedModelCacheDir = directory;
+            return this;
+        }
+
         public SessionOptions build() {
             return new SessionOptions(this);
         }
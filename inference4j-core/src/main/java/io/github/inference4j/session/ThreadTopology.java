@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.inference4j.session;
+
+import ai.onnxruntime.OrtSession.SessionOptions.ExecutionMode;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A snapshot of the ONNX Runtime threads used by the sessions that are currently open.
+ *
+ * <p>Thread counts are the configured pool sizes; ONNX Runtime counts the calling
+ * thread as one of a session's intra-op threads, and only creates an inter-op pool
+ * for sessions in parallel execution mode. Sessions created with a custom
+ * {@link SessionConfigurer} report the thread settings of the {@link SessionOptions}
+ * it {@linkplain SessionConfigurer#baseOptions() starts from}, or of the defaults,
+ * and are marked as customized, since the configurer may have changed them.
+ *
+ * @param availableProcessors    the number of processors available to the JVM
+ * @param globalPools            the global pools, or {@code null} if not configured
+ * @param sessions               the open sessions
+ */
+public record ThreadTopology(
+        int availableProcessors,
+        GlobalThreadPools globalPools,
+        List<SessionThreads> sessions
+) {
+
+    public ThreadTopology {
+        sessions = List.copyOf(sessions);
+    }
+
+    /**
+     * Threads configured for a single session.
+     *
+     * @param model              the model path the session was loaded from
+     * @param globalPools        whether the session runs on the global pools
+     * @param intraOpNumThreads  the session's own intra-op threads (0 when using global pools)
+     * @param interOpNumThreads  the session's own inter-op threads (0 when using global pools
+     *                           or in sequential execution mode)
+     * @param customized         whether a custom configurer ran after these settings and
+     *                           may have changed them
+     */
+    public record SessionThreads(
+            String model,
+            boolean globalPools,
+            int intraOpNumThreads,
+            int interOpNumThreads,
+            boolean customized
+    ) {
+
+        public SessionThreads(String model, boolean globalPools, int intraOpNumThreads,
+                              int interOpNumThreads) {
+            this(model, globalPools, intraOpNumThreads, interOpNumThreads, false);
+        }
+
+        /**
+         * Describes the threads a session created with {@code options} will own.
+         */
+        public static SessionThreads of(String model, SessionOptions options) {
+            if (options.useGlobalThreadPools()) {
+                return new SessionThreads(model, true, 0, 0);
+            }
+            boolean parallel = options.executionMode() == ExecutionMode.PARALLEL;
+            return new SessionThreads(model, false, options.intraOpNumThreads(),
+                    parallel ? options.interOpNumThreads() : 0);
+        }
+
+        /**
+         * Describes a session created with a custom {@code configurer}, from the
+         * settings applied before it runs.
+         */
+        public static SessionThreads of(String model, SessionConfigurer configurer) {
+            if (configurer instanceof SessionOptions options) {
+                return of(model, options);
+            }
+            SessionThreads base = of(model, configurer.baseOptions().orElseGet(SessionOptions::defaults));
+            return new SessionThreads(model, base.globalPools(), base.intraOpNumThreads(),
+                    base.interOpNumThreads(), true);
+        }
+    }
+
+    /**
+     * Returns the total number of ONNX Runtime threads across the global pools and
+     * all per-session pools.
+     */
+    public int totalThreads() {
+        int total = globalPools != null
+                ? globalPools.intraOpNumThreads() + globalPools.interOpNumThreads()
+                : 0;
+        for (SessionThreads session : sessions) {
+            total += session.intraOpNumThreads() + session.interOpNumThreads();
+        }
+        return total;
+    }
+
+    /**
+     * Returns {@link #totalThreads()} divided by the available processors. Values well
+     * above 1 mean concurrent models compete for cores.
+     */
+    public double oversubscription() {
+        return (double) totalThreads() / availableProcessors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "ONNX Runtime threads: %d on %d processors (%.2fx)%n",
+                totalThreads(), availableProcessors, oversubscription()));
+        sb.append("  global pools: ").append(globalPools != null ? globalPools : "disabled")
+                .append(System.lineSeparator());
+        for (SessionThreads session : sessions) {
+            sb.append("  ").append(session.model()).append(": ");
+            if (session.globalPools()) {
+                sb.append("global pools");
+            } else {
+                sb.append("intraOp=").append(session.intraOpNumThreads())
+                        .append(", interOp=").append(session.interOpNumThreads());
+            }
+            if (session.customized()) {
+                sb.append(" (customized)");
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -16,6 +16,9 @@
 
 package io.github.inference4j.tokenizer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Converts raw text into the numerical representation expected by transformer models.
  *
@@ -78,4 +81,26 @@ public interface Tokenizer {
     default EncodedInput encode(String textA, String textB, int maxLength) {
         throw new UnsupportedOperationException("Sentence pair encoding not supported by this tokenizer");
     }
+
+    /**
+     * Encodes {@code textA} paired with each of {@code textsB}, as
+     * {@link #encode(String, String, int)} would for every pair.
+     *
+     * <p>Used by rerankers that score many documents against one query. The default
+     * implementation encodes each pair independently; tokenizers override it to
+     * tokenize {@code textA} only once.
+     *
+     * @param textA     the shared first sentence (e.g., the query)
+     * @param textsB    the second sentences (e.g., candidate documents)
+     * @param maxLength maximum total sequence length of each pair (including special tokens)
+     * @return one encoded pair per element of {@code textsB}, in order
+     * @throws UnsupportedOperationException if this tokenizer does not support sentence pairs
+     */
+    default List<EncodedInput> encodePairs(String textA, List<String> textsB, int maxLength) {
+        List<EncodedInput> encoded = new ArrayList<>(textsB.size());
+        for (String textB : textsB) {
+            encoded.add(encode(textA, textB, maxLength));
+        }
+        return encoded;
+    }
 }
@@ -154,9 +154,20 @@ public class WordPieceTokenizer implements Tokenizer {
 
     @Override
     public EncodedInput encode(String textA, String textB, int maxLength) {
+        return encodePair(tokenizeToIds(textA), tokenizeToIds(textB), maxLength);
+    }
+
+    @Override
+    public List<EncodedInput> encodePairs(String textA, List<String> textsB, int maxLength) {
         List<Integer> idsA = tokenizeToIds(textA);
-        List<Integer> idsB = tokenizeToIds(textB);
+        List<EncodedInput> encoded = new ArrayList<>(textsB.size());
+        for (String textB : textsB) {
+            encoded.add(encodePair(idsA, tokenizeToIds(textB), maxLength));
+        }
+        return encoded;
+    }
 
+    private EncodedInput encodePair(List<Integer> idsA, List<Integer> idsB, int maxLength) {
         // [CLS] textA [SEP] textB [SEP] = idsA.size + idsB.size + 3
         int specialTokens = 3;
         int available = maxLength - specialTokens;
@@ -35,6 +35,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -102,6 +103,46 @@ public abstract class AbstractImageClassifier
         return classify(image, topK);
     }
 
+    /**
+     * Classifies all images with a single session run.
+     *
+     * <p>When the preprocessor is an {@link ImageTransformPipeline}, images are
+     * transformed in parallel directly into one {@code [N, 3, H, W]} (or NHWC) buffer;
+     * other preprocessors run in parallel and their tensors are stacked. The output
+     * operator and top-k are then applied to each row. Models exported with a fixed
+     * batch size of 1 fall back to one run per image.
+     */
+    @Override
+    public List<List<Classification>> classifyBatch(List<BufferedImage> images, int topK) {
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        long[] declaredShape = session.inputShape(inputName);
+        if (declaredShape != null && declaredShape.length > 0 && declaredShape[0] == 1) {
+            return ImageClassifier.super.classifyBatch(images, topK);
+        }
+
+        Tensor batch = imagePreprocessor instanceof ImageTransformPipeline pipeline
+                ? pipeline.transformBatch(images)
+                : Tensor.concat(images.parallelStream().map(imagePreprocessor::process).toList());
+        Map<String, Tensor> outputs = session.run(Map.of(inputName, batch));
+        Tensor output = outputs.values().iterator().next();
+        long[] shape = output.shape();
+        if (shape.length < 2 || shape[0] != images.size()) {
+            throw new InferenceException("Expected logits of shape [" + images.size()
+                    + ", numClasses], got " + Arrays.toString(shape));
+        }
+        float[] logits = output.toFloats();
+
+        int numClasses = (int) shape[1];
+        List<List<Classification>> results = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            float[] row = Arrays.copyOfRange(logits, i * numClasses, (i + 1) * numClasses);
+            results.add(postProcess(row, labels, topK, outputOperator));
+        }
+        return results;
+    }
+
     static Postprocessor<float[], List<Classification>> classificationPostprocessor(
             Labels labels, int topK, OutputOperator outputOperator) {
         return logits -> {
@@ -20,6 +20,7 @@ import io.github.inference4j.Classifier;
 
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,6 +37,21 @@ public interface ImageClassifier extends Classifier<BufferedImage, Classificatio
 
     List<Classification> classify(Path imagePath, int topK);
 
+    /**
+     * Classifies several images, returning the {@code topK} classifications of each in
+     * the order of {@code images}.
+     *
+     * <p>The default implementation calls {@link #classify(BufferedImage, int)} once per
+     * image; implementations that can run the model on a stacked batch override it.
+     */
+    default List<List<Classification>> classifyBatch(List<BufferedImage> images, int topK) {
+        List<List<Classification>> results = new ArrayList<>(images.size());
+        for (BufferedImage image : images) {
+            results.add(classify(image, topK));
+        }
+        return results;
+    }
+
     @Override
     void close();
 }
@@ -20,6 +20,7 @@ import io.github.inference4j.Detector;
 
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,6 +37,34 @@ public interface ObjectDetector extends Detector<BufferedImage, Detection> {
 
     List<Detection> detect(Path imagePath, float confidenceThreshold, float iouThreshold);
 
+    /**
+     * Detects objects in several images with the detector's default thresholds,
+     * returning one detection list per image in the order of {@code images}.
+     *
+     * <p>The default implementation calls {@link #detect(BufferedImage)} once per image;
+     * implementations that can run the model on a stacked batch override it.
+     */
+    default List<List<Detection>> detectBatch(List<BufferedImage> images) {
+        List<List<Detection>> results = new ArrayList<>(images.size());
+        for (BufferedImage image : images) {
+            results.add(detect(image));
+        }
+        return results;
+    }
+
+    /**
+     * Detects objects in several images with the given thresholds, returning one
+     * detection list per image in the order of {@code images}.
+     */
+    default List<List<Detection>> detectBatch(List<BufferedImage> images,
+                                              float confidenceThreshold, float iouThreshold) {
+        List<List<Detection>> results = new ArrayList<>(images.size());
+        for (BufferedImage image : images) {
+            results.add(detect(image, confidenceThreshold, iouThreshold));
+        }
+        return results;
+    }
+
     @Override
     void close();
 }
@@ -23,6 +23,7 @@ import io.github.inference4j.processing.MathOps;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
 import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.preprocessing.image.ImageLayout;
@@ -32,11 +33,16 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * YOLO26 object detector.
@@ -151,6 +157,59 @@ public class Yolo26Detector
         return detect(imagePath, defaultConfidenceThreshold, 0f);
     }
 
+    @Override
+    public List<List<Detection>> detectBatch(List<BufferedImage> images) {
+        return detectBatch(images, defaultConfidenceThreshold, 0f);
+    }
+
+    /**
+     * Detects objects in all images with a single session run.
+     *
+     * <p>Images are resized in parallel straight into one shared
+     * {@code [N, 3, inputSize, inputSize]} direct buffer, which ONNX Runtime reads
+     * without a copy, and each slice of the outputs is decoded in parallel against its
+     * own image's dimensions. Models exported with a
+     * fixed batch size of 1 fall back to one run per image. The {@code iouThreshold}
+     * parameter is ignored, as in {@link #detect(BufferedImage, float, float)}.
+     */
+    @Override
+    public List<List<Detection>> detectBatch(List<BufferedImage> images,
+                                             float confidenceThreshold, float iouThreshold) {
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        long[] declaredShape = session.inputShape(inputName);
+        if (declaredShape != null && declaredShape.length > 0 && declaredShape[0] == 1) {
+            return ObjectDetector.super.detectBatch(images, confidenceThreshold, iouThreshold);
+        }
+
+        int count = images.size();
+        int imageSize = 3 * inputSize * inputSize;
+        // Absolute puts from each worker touch disjoint slices of the shared buffer
+        ByteBuffer bytes = ByteBuffer.allocateDirect(count * imageSize * Float.BYTES)
+                .order(ByteOrder.nativeOrder());
+        FloatBuffer data = bytes.asFloatBuffer();
+        IntStream.range(0, count).parallel()
+                .forEach(i -> writePixels(resize(images.get(i), inputSize), data, i * imageSize));
+
+        Tensor input = Tensor.fromBuffer(bytes, new long[]{count, 3, inputSize, inputSize}, TensorType.FLOAT);
+        DetectionOutputs outputs = DetectionOutputs.of(session.run(Map.of(inputName, input)));
+        outputs.checkBatch(count);
+
+        float[] logitsData = outputs.logits().toFloats();
+        float[] boxesData = outputs.boxes().toFloats();
+        long[] logitsShape = outputs.logits().shape();
+        long[] boxesShape = outputs.boxes().shape();
+        int logitsSlice = (int) (logitsShape[1] * logitsShape[2]);
+        int boxesSlice = (int) (boxesShape[1] * boxesShape[2]);
+
+        return IntStream.range(0, count).parallel()
+                .mapToObj(i -> postProcess(logitsData, i * logitsSlice, logitsShape,
+                        boxesData, i * boxesSlice, labels, confidenceThreshold,
+                        images.get(i).getWidth(), images.get(i).getHeight()))
+                .toList();
+    }
+
     /**
      * Detects objects in the given image file.
      *
@@ -186,22 +245,29 @@ public class Yolo26Detector
         int w = image.getWidth();
         int h = image.getHeight();
         float[] data = new float[3 * h * w];
+        writePixels(image, FloatBuffer.wrap(data), 0);
+        return Tensor.fromFloats(data, new long[]{1, 3, h, w});
+    }
+
+    private static void writePixels(BufferedImage image, FloatBuffer data, int offset) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int[] row = new int[w];
 
         for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, row, 0, w);
             for (int x = 0; x < w; x++) {
-                int rgb = image.getRGB(x, y);
+                int rgb = row[x];
                 float r = ((rgb >> 16) & 0xFF) / 255f;
                 float g = ((rgb >> 8) & 0xFF) / 255f;
                 float b = (rgb & 0xFF) / 255f;
 
                 // NCHW layout, no mean/std normalization (just /255)
-                data[0 * h * w + y * w + x] = r;
-                data[1 * h * w + y * w + x] = g;
-                data[2 * h * w + y * w + x] = b;
+                data.put(offset + 0 * h * w + y * w + x, r);
+                data.put(offset + 1 * h * w + y * w + x, g);
+                data.put(offset + 2 * h * w + y * w + x, b);
             }
         }
-
-        return Tensor.fromFloats(data, new long[]{1, 3, h, w});
     }
 
     // --- Post-processing ---
@@ -209,35 +275,66 @@ public class Yolo26Detector
     private static List<Detection> decodeDetections(Map<String, Tensor> outputs,
                                                      Labels labels, float confThreshold,
                                                      int origWidth, int origHeight) {
-        float[] logitsData = null;
-        long[] logitsShape = null;
-        float[] boxesData = null;
-        long[] boxesShape = null;
-
-        for (Tensor tensor : outputs.values()) {
-            long[] shape = tensor.shape();
-            if (shape.length >= 2 && shape[shape.length - 1] == 4) {
-                boxesData = tensor.toFloats();
-                boxesShape = shape;
-            } else {
-                logitsData = tensor.toFloats();
-                logitsShape = shape;
+        DetectionOutputs identified = DetectionOutputs.of(outputs);
+        return postProcess(identified.logits().toFloats(), identified.logits().shape(),
+                identified.boxes().toFloats(), identified.boxes().shape(),
+                labels, confThreshold, origWidth, origHeight);
+    }
+
+    /**
+     * The model's two outputs, told apart by shape: boxes end in an axis of 4
+     * coordinates, and the other tensor holds the class logits.
+     */
+    private record DetectionOutputs(Tensor logits, Tensor boxes) {
+
+        static DetectionOutputs of(Map<String, Tensor> outputs) {
+            Tensor logits = null;
+            Tensor boxes = null;
+            for (Tensor tensor : outputs.values()) {
+                long[] shape = tensor.shape();
+                if (shape.length >= 2 && shape[shape.length - 1] == 4) {
+                    boxes = tensor;
+                } else {
+                    logits = tensor;
+                }
+            }
+            if (logits == null || boxes == null) {
+                throw new InferenceException(
+                        "Expected two output tensors (logits and boxes), got: " + outputs.size());
             }
+            return new DetectionOutputs(logits, boxes);
         }
 
-        if (logitsData == null || boxesData == null) {
-            throw new InferenceException(
-                    "Expected two output tensors (logits and boxes), got: " + outputs.size());
+        void checkBatch(int count) {
+            long[] logitsShape = logits.shape();
+            long[] boxesShape = boxes.shape();
+            if (logitsShape.length != 3 || logitsShape[0] != count) {
+                throw new InferenceException("Expected logits of shape [" + count
+                        + ", numQueries, numClasses], got " + Arrays.toString(logitsShape));
+            }
+            if (boxesShape.length != 3 || boxesShape[0] != count) {
+                throw new InferenceException("Expected boxes of shape [" + count
+                        + ", numQueries, 4], got " + Arrays.toString(boxesShape));
+            }
         }
-
-        return postProcess(logitsData, logitsShape, boxesData, boxesShape,
-                labels, confThreshold, origWidth, origHeight);
     }
 
     static List<Detection> postProcess(float[] logitsData, long[] logitsShape,
                                        float[] boxesData, long[] boxesShape,
                                        Labels labels, float confThreshold,
                                        int origWidth, int origHeight) {
+        return postProcess(logitsData, 0, logitsShape, boxesData, 0,
+                labels, confThreshold, origWidth, origHeight);
+    }
+
+    /**
+     * Decodes the batch slices of {@code logitsData} and {@code boxesData} that start at
+     * {@code logitsOffset} and {@code boxesOffset}.
+     */
+    static List<Detection> postProcess(float[] logitsData, int logitsOffset, long[] logitsShape,
+                                       float[] boxesData, int boxesOffset,
+                                       Labels labels, float confThreshold,
+                                       int origWidth, int origHeight) {
         int numProposals = (int) logitsShape[1];
         int numClasses = (int) logitsShape[2];
 
@@ -247,7 +344,7 @@ public class Yolo26Detector
             int bestClass = -1;
             float bestScore = -1f;
             for (int cls = 0; cls < numClasses; cls++) {
-                float logit = logitsData[p * numClasses + cls];
+                float logit = logitsData[logitsOffset + p * numClasses + cls];
                 float score = (float) (1.0 / (1.0 + Math.exp(-logit)));
                 if (score > bestScore) {
                     bestScore = score;
@@ -259,10 +356,10 @@ public class Yolo26Detector
                 continue;
             }
 
-            float cx = boxesData[p * 4];
-            float cy = boxesData[p * 4 + 1];
-            float bw = boxesData[p * 4 + 2];
-            float bh = boxesData[p * 4 + 3];
+            float cx = boxesData[boxesOffset + p * 4];
+            float cy = boxesData[boxesOffset + p * 4 + 1];
+            float bw = boxesData[boxesOffset + p * 4 + 2];
+            float bh = boxesData[boxesOffset + p * 4 + 3];
 
             float[] xyxy = MathOps.cxcywh2xyxy(new float[]{cx, cy, bw, bh});
 
@@ -23,6 +23,7 @@ import io.github.inference4j.processing.MathOps;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.session.SessionConfigurer;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
 import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.preprocessing.image.ImageLayout;
@@ -32,11 +33,16 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * YOLOv8 object detector.
@@ -153,6 +159,62 @@ public class YoloV8Detector
         return detect(imagePath, defaultConfidenceThreshold, defaultIouThreshold);
     }
 
+    @Override
+    public List<List<Detection>> detectBatch(List<BufferedImage> images) {
+        return detectBatch(images, defaultConfidenceThreshold, defaultIouThreshold);
+    }
+
+    /**
+     * Detects objects in all images with a single session run.
+     *
+     * <p>Images are letterboxed in parallel straight into one shared
+     * {@code [N, 3, inputSize, inputSize]} direct buffer, which ONNX Runtime reads
+     * without a copy. Each slice of the output is then
+     * decoded with its own image's scale and padding, and NMS runs for the slices in
+     * parallel. Models exported with a fixed batch size of 1 fall back to one run per
+     * image.
+     */
+    @Override
+    public List<List<Detection>> detectBatch(List<BufferedImage> images,
+                                             float confidenceThreshold, float iouThreshold) {
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        long[] declaredShape = session.inputShape(inputName);
+        if (declaredShape != null && declaredShape.length > 0 && declaredShape[0] == 1) {
+            return ObjectDetector.super.detectBatch(images, confidenceThreshold, iouThreshold);
+        }
+
+        int count = images.size();
+        int imageSize = 3 * inputSize * inputSize;
+        // Absolute puts from each worker touch disjoint slices of the shared buffer
+        ByteBuffer bytes = ByteBuffer.allocateDirect(count * imageSize * Float.BYTES)
+                .order(ByteOrder.nativeOrder());
+        FloatBuffer data = bytes.asFloatBuffer();
+        LetterboxResult[] letterboxes = new LetterboxResult[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            letterboxes[i] = letterbox(images.get(i), inputSize);
+            writePixels(letterboxes[i].image(), data, i * imageSize);
+        });
+
+        Tensor input = Tensor.fromBuffer(bytes, new long[]{count, 3, inputSize, inputSize}, TensorType.FLOAT);
+        Tensor outputTensor = session.run(Map.of(inputName, input)).values().iterator().next();
+        long[] shape = outputTensor.shape();
+        if (shape.length != 3 || shape[0] != count) {
+            throw new InferenceException("Expected output of shape [" + count
+                    + ", 4 + numClasses, numCandidates], got " + Arrays.toString(shape));
+        }
+        float[] rawOutput = outputTensor.toFloats();
+        int sliceSize = (int) (shape[1] * shape[2]);
+
+        return IntStream.range(0, count).parallel()
+                .mapToObj(i -> postProcess(rawOutput, i * sliceSize, shape, labels,
+                        confidenceThreshold, iouThreshold,
+                        letterboxes[i].scale(), letterboxes[i].padX(), letterboxes[i].padY(),
+                        images.get(i).getWidth(), images.get(i).getHeight()))
+                .toList();
+    }
+
     @Override
     public List<Detection> detect(Path imagePath, float confidenceThreshold, float iouThreshold) {
         return detect(loadImage(imagePath), confidenceThreshold, iouThreshold);
@@ -202,22 +264,29 @@ public class YoloV8Detector
         int w = image.getWidth();
         int h = image.getHeight();
         float[] data = new float[3 * h * w];
+        writePixels(image, FloatBuffer.wrap(data), 0);
+        return Tensor.fromFloats(data, new long[]{1, 3, h, w});
+    }
+
+    private static void writePixels(BufferedImage image, FloatBuffer data, int offset) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int[] row = new int[w];
 
         for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, row, 0, w);
             for (int x = 0; x < w; x++) {
-                int rgb = image.getRGB(x, y);
+                int rgb = row[x];
                 float r = ((rgb >> 16) & 0xFF) / 255f;
                 float g = ((rgb >> 8) & 0xFF) / 255f;
                 float b = (rgb & 0xFF) / 255f;
 
                 // NCHW layout, no mean/std normalization (just /255)
-                data[0 * h * w + y * w + x] = r;
-                data[1 * h * w + y * w + x] = g;
-                data[2 * h * w + y * w + x] = b;
+                data.put(offset + 0 * h * w + y * w + x, r);
+                data.put(offset + 1 * h * w + y * w + x, g);
+                data.put(offset + 2 * h * w + y * w + x, b);
             }
         }
-
-        return Tensor.fromFloats(data, new long[]{1, 3, h, w});
     }
 
     // --- Post-processing ---
@@ -245,6 +314,18 @@ public class YoloV8Detector
                                        float confThreshold, float iouThreshold,
                                        float scale, float padX, float padY,
                                        int origWidth, int origHeight) {
+        return postProcess(rawOutput, 0, outputShape, labels, confThreshold, iouThreshold,
+                scale, padX, padY, origWidth, origHeight);
+    }
+
+    /**
+     * Decodes the batch slice of {@code rawOutput} that starts at {@code offset}.
+     */
+    static List<Detection> postProcess(float[] rawOutput, int offset, long[] outputShape,
+                                       Labels labels,
+                                       float confThreshold, float iouThreshold,
+                                       float scale, float padX, float padY,
+                                       int origWidth, int origHeight) {
         int numOutputs = (int) outputShape[1];
         int numCandidates = (int) outputShape[2];
         int numClasses = numOutputs - 4;
@@ -257,7 +338,7 @@ public class YoloV8Detector
             int bestClass = -1;
             float bestScore = -1f;
             for (int cls = 0; cls < numClasses; cls++) {
-                float score = rawOutput[(4 + cls) * numCandidates + c];
+                float score = rawOutput[offset + (4 + cls) * numCandidates + c];
                 if (score > bestScore) {
                     bestScore = score;
                     bestClass = cls;
@@ -268,10 +349,10 @@ public class YoloV8Detector
                 continue;
             }
 
-            float cx = rawOutput[0 * numCandidates + c];
-            float cy = rawOutput[1 * numCandidates + c];
-            float bw = rawOutput[2 * numCandidates + c];
-            float bh = rawOutput[3 * numCandidates + c];
+            float cx = rawOutput[offset + 0 * numCandidates + c];
+            float cy = rawOutput[offset + 1 * numCandidates + c];
+            float bw = rawOutput[offset + 2 * numCandidates + c];
+            float bh = rawOutput[offset + 3 * numCandidates + c];
 
             float[] xyxy = MathOps.cxcywh2xyxy(new float[]{cx, cy, bw, bh});
 
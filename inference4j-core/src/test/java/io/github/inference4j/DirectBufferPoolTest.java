@@ -20,6 +20,13 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -83,27 +90,105 @@ class DirectBufferPoolTest {
     }
 
     @Test
-    void returnBuffer_evictsSmallest_whenAtCapacity() {
+    void returnBuffer_evictsSmallest_whenOverByteBudget() {
+        var pool = new DirectBufferPool(1024, 1);
+        ByteBuffer small = pool.lease(128);
+        ByteBuffer medium = pool.lease(256);
+        ByteBuffer large = pool.lease(512);
+        pool.returnBuffer(small);
+        pool.returnBuffer(medium);
+        pool.returnBuffer(large);
+        assertThat(pool.pooledBytes()).isEqualTo(896);
+
+        // 896 + 256 exceeds the budget, so the smallest (128 bytes) is evicted
+        pool.returnBuffer(ByteBuffer.allocateDirect(256));
+        assertThat(pool.size()).isEqualTo(3);
+        assertThat(pool.pooledBytes()).isEqualTo(1024);
+
+        ByteBuffer result = pool.lease(64);
+        assertThat(result).isNotSameAs(small);
+        assertThat(result.capacity()).isEqualTo(256);
+    }
+
+    @Test
+    void returnBuffer_dropsBuffer_largerThanByteBudget() {
+        var pool = new DirectBufferPool(1024, 1);
+        pool.returnBuffer(pool.lease(2048));
+
+        assertThat(pool.size()).isEqualTo(0);
+        assertThat(pool.pooledBytes()).isEqualTo(0);
+    }
+
+    @Test
+    void pooledBytes_tracksRetainedCapacity() {
         var pool = new DirectBufferPool();
+        pool.returnBuffer(pool.lease(64));
+        pool.returnBuffer(pool.lease(128));
+        assertThat(pool.pooledBytes()).isEqualTo(192);
 
-        // Fill pool to capacity
-        ByteBuffer[] buffers = new ByteBuffer[DirectBufferPool.MAX_POOLED_BUFFERS];
-        for (int i = 0; i < buffers.length; i++) {
-            buffers[i] = pool.lease((i + 1) * 16);
+        pool.lease(100);
+        assertThat(pool.pooledBytes()).isEqualTo(64);
+
+        pool.clear();
+        assertThat(pool.pooledBytes()).isEqualTo(0);
+    }
+
+    @Test
+    void concurrentLeaseAndReturn_staysWithinByteBudget() throws Exception {
+        var pool = new DirectBufferPool(64 * 1024, 4);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    ByteBuffer buffer = pool.lease(64 * (1 + (seed + i) % 32));
+                    buffer.putInt(0, i);
+                    assertThat(buffer.getInt(0)).isEqualTo(i);
+                    pool.returnBuffer(buffer);
+                }
+                return null;
+            }));
         }
-        for (ByteBuffer buf : buffers) {
-            pool.returnBuffer(buf);
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
         }
-        assertThat(pool.size()).isEqualTo(DirectBufferPool.MAX_POOLED_BUFFERS);
+        executor.shutdown();
 
-        // Return one more - should evict the smallest (16 bytes)
-        ByteBuffer extra = pool.lease(1024);
-        pool.returnBuffer(extra);
-        assertThat(pool.size()).isEqualTo(DirectBufferPool.MAX_POOLED_BUFFERS);
+        assertThat(pool.pooledBytes()).isBetween(0L, 64L * 1024);
+        pool.clear();
+        assertThat(pool.size()).isEqualTo(0);
+        assertThat(pool.pooledBytes()).isEqualTo(0);
+    }
 
-        // The smallest (16 bytes) was evicted, so requesting 16 should give a new buffer
-        ByteBuffer small = pool.lease(16);
-        assertThat(small).isNotSameAs(buffers[0]);
+    @Test
+    void concurrentReturnsToDifferentStripes_neverExceedByteBudget() throws Exception {
+        var pool = new DirectBufferPool(1024, 8);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long peak = 0;
+                for (int i = 0; i < 2_000; i++) {
+                    pool.returnBuffer(ByteBuffer.allocateDirect(512));
+                    peak = Math.max(peak, pool.pooledBytes());
+                    pool.lease(512);
+                }
+                return peak;
+            }));
+        }
+        start.countDown();
+        for (Future<Long> future : futures) {
+            assertThat(future.get(30, TimeUnit.SECONDS)).isLessThanOrEqualTo(1024L);
+        }
+        executor.shutdown();
     }
 
     @Test
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import io.github.inference4j.exception.InferenceException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class MicroBatcherTest {
+
+    @Test
+    void run_singleRequest_matchesDirectTask() {
+        InferenceSession session = doublingSession();
+
+        try (MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(session)).build()) {
+            assertThat(batcher.run(new long[]{1, 2, 3})).containsExactly(2, 4, 6);
+        }
+    }
+
+    @Test
+    void run_concurrentRequests_areBatchedAndSplitInOrder() throws Exception {
+        InferenceSession session = doublingSession();
+        int requests = 8;
+        MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(session))
+                .maxBatchSize(requests)
+                .maxWait(Duration.ofSeconds(2))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long value = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return batcher.run(new long[]{value, value});
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < requests; i++) {
+            assertThat(futures.get(i).get(10, TimeUnit.SECONDS)).containsExactly(2L * i, 2L * i);
+        }
+        verify(session, times(1)).run(anyMap());
+        executor.shutdown();
+        batcher.close();
+    }
+
+    @Test
+    void run_withPadding_batchesDifferentLengthsAndTrimsOutputs() throws Exception {
+        InferenceSession session = doublingSession();
+        MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(session))
+                .maxBatchSize(2)
+                .maxWait(Duration.ofSeconds(2))
+                .padSequences("input_ids")
+                .trimSequences("hidden")
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<long[]> shorter = executor.submit(() -> batcher.run(new long[]{1}));
+        Future<long[]> longer = executor.submit(() -> batcher.run(new long[]{1, 2, 3}));
+
+        assertThat(shorter.get(10, TimeUnit.SECONDS)).containsExactly(2);
+        assertThat(longer.get(10, TimeUnit.SECONDS)).containsExactly(2, 4, 6);
+        verify(session, times(1)).run(anyMap());
+        executor.shutdown();
+        batcher.close();
+    }
+
+    @Test
+    void run_withPadding_trimsOnlyNamedOutputs() throws Exception {
+        InferenceSession session = doublingSession();
+        MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(session))
+                .maxBatchSize(2)
+                .maxWait(Duration.ofSeconds(2))
+                .padSequences("input_ids")
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<long[]> shorter = executor.submit(() -> batcher.run(new long[]{1}));
+        Future<long[]> longer = executor.submit(() -> batcher.run(new long[]{1, 2, 3}));
+
+        // "hidden" is not named, so the shorter request sees the padded positions
+        assertThat(shorter.get(10, TimeUnit.SECONDS)).containsExactly(2, 0, 0);
+        assertThat(longer.get(10, TimeUnit.SECONDS)).containsExactly(2, 4, 6);
+        verify(session, times(1)).run(anyMap());
+        executor.shutdown();
+        batcher.close();
+    }
+
+    @Test
+    void run_propagatesSessionFailure() {
+        InferenceSession session = mock(InferenceSession.class);
+        when(session.run(anyMap())).thenThrow(new InferenceException("boom"));
+
+        try (MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(session)).build()) {
+            assertThatThrownBy(() -> batcher.run(new long[]{1}))
+                    .isInstanceOf(InferenceException.class)
+                    .hasMessage("boom");
+        }
+    }
+
+    @Test
+    void run_afterClose_throws() {
+        MicroBatcher<long[], long[]> batcher = MicroBatcher.builder(new EchoTask(doublingSession())).build();
+        batcher.close();
+
+        assertThatThrownBy(() -> batcher.run(new long[]{1}))
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("closed");
+    }
+
+    @Test
+    void close_closesWrappedTask() {
+        InferenceSession session = doublingSession();
+        MicroBatcher.builder(new EchoTask(session)).build().close();
+
+        verify(session).close();
+    }
+
+    @Test
+    void builder_rejectsInvalidSettings() {
+        var builder = MicroBatcher.builder(new EchoTask(doublingSession()));
+
+        assertThatThrownBy(() -> builder.maxBatchSize(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.maxWait(Duration.ofMillis(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.trimSequences("hidden").build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * A session whose output "hidden" has shape [N, L, 1] and holds each input id doubled.
+     */
+    private static InferenceSession doublingSession() {
+        InferenceSession session = mock(InferenceSession.class);
+        when(session.run(anyMap())).thenAnswer(invocation -> {
+            Map<String, Tensor> inputs = invocation.getArgument(0);
+            Tensor ids = inputs.get("input_ids");
+            long[] values = ids.toLongs();
+            float[] doubled = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                doubled[i] = values[i] * 2;
+            }
+            long[] shape = ids.shape();
+            return Map.of("hidden", Tensor.fromFloats(doubled, new long[]{shape[0], shape[1], 1}));
+        });
+        return session;
+    }
+
+    private static final class EchoTask extends AbstractInferenceTask<long[], long[]> {
+
+        EchoTask(InferenceSession session) {
+            super(session,
+                    ids -> Map.of("input_ids", Tensor.fromLongs(ids, new long[]{1, ids.length})),
+                    ctx -> {
+                        float[] hidden = ctx.outputs().get("hidden").toFloats();
+                        long[] result = new long[hidden.length];
+                        for (int i = 0; i < hidden.length; i++) {
+                            result[i] = (long) hidden[i];
+                        }
+                        return result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.exception.InferenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NativeOutputsTest {
+
+    private final OrtEnvironment environment = OrtEnvironment.getEnvironment();
+    private OnnxTensor onnxTensor;
+    private OrtSession.Result result;
+
+    @BeforeEach
+    void setUp() throws OrtException {
+        onnxTensor = OnnxTensor.createTensor(environment,
+                FloatBuffer.wrap(new float[]{1f, 2f, 3f, 4f, 5f, 6f}), new long[]{1, 2, 3});
+        result = mock(OrtSession.Result.class);
+        when(result.iterator()).thenReturn(
+                List.<Map.Entry<String, OnnxValue>>of(Map.entry("logits", onnxTensor)).iterator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        onnxTensor.close();
+    }
+
+    @Test
+    void get_exposesShapeAndTypeWithoutCopying() {
+        NativeOutputs outputs = new NativeOutputs(result);
+
+        NativeTensor logits = outputs.get("logits");
+
+        assertThat(outputs.names()).containsExactly("logits");
+        assertThat(logits.shape()).containsExactly(1, 2, 3);
+        assertThat(logits.type()).isEqualTo(TensorType.FLOAT);
+        assertThat(logits.onnxTensor()).isSameAs(onnxTensor);
+    }
+
+    @Test
+    void toTensor_copiesToHeap() {
+        NativeOutputs outputs = new NativeOutputs(result);
+
+        Tensor copy = outputs.get("logits").toTensor();
+
+        assertThat(copy.shape()).containsExactly(1, 2, 3);
+        assertThat(copy.toFloats()).containsExactly(1f, 2f, 3f, 4f, 5f, 6f);
+    }
+
+    @Test
+    void get_unknownName_throws() {
+        NativeOutputs outputs = new NativeOutputs(result);
+
+        assertThatThrownBy(() -> outputs.get("missing"))
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("missing");
+    }
+
+    @Test
+    void close_releasesResultOnce() {
+        NativeOutputs outputs = new NativeOutputs(result);
+
+        outputs.close();
+        outputs.close();
+
+        verify(result, times(1)).close();
+        assertThatThrownBy(() -> outputs.get("logits"))
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("closed");
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.exception.ModelLoadException;
+import io.github.inference4j.session.SessionOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OptimizedModelCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void key_isStableForSameModelAndSettings() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        SessionOptions options = SessionOptions.defaults();
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", options))
+                .isEqualTo(OptimizedModelCache.key(model, "1.23.0", options))
+                .startsWith("model.onnx-");
+    }
+
+    @Test
+    void key_changesWithOrtVersion() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        SessionOptions options = SessionOptions.defaults();
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", options))
+                .isNotEqualTo(OptimizedModelCache.key(model, "1.22.0", options));
+    }
+
+    @Test
+    void key_changesWithGraphSettings() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+
+        String allOpt = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+        String basicOpt = OptimizedModelCache.key(model, "1.23.0", SessionOptions.builder()
+                .optimizationLevel(OrtSession.SessionOptions.OptLevel.BASIC_OPT)
+                .build());
+        String pinnedBatch = OptimizedModelCache.key(model, "1.23.0", SessionOptions.builder()
+                .freeDimensionOverride("batch_size", 1)
+                .build());
+
+        assertThat(allOpt).isNotEqualTo(basicOpt).isNotEqualTo(pinnedBatch);
+    }
+
+    @Test
+    void key_ignoresThreadAndMemorySettings() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+
+        String defaults = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+        String tuned = OptimizedModelCache.key(model, "1.23.0", SessionOptions.builder()
+                .intraOpNumThreads(1)
+                .cpuMemoryArena(false)
+                .spinWait(false)
+                .build());
+
+        assertThat(tuned).isEqualTo(defaults);
+    }
+
+    @Test
+    void key_changesWhenModelContentChanges() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        FileTime mtime = Files.getLastModifiedTime(model);
+        String before = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+
+        byte[] bytes = Files.readAllBytes(model);
+        bytes[0] ^= 1;
+        Files.write(model, bytes);
+        Files.setLastModifiedTime(model, mtime);
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults()))
+                .isNotEqualTo(before);
+    }
+
+    @Test
+    void key_changesWhenModelIsTouched() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        String before = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+
+        Files.setLastModifiedTime(model, FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults()))
+                .isNotEqualTo(before);
+    }
+
+    @Test
+    void key_changesWhenExternalDataChanges() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        Path data = writeModel("model.onnx_data", 20);
+        FileTime mtime = Files.getLastModifiedTime(data);
+        String before = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+
+        byte[] bytes = Files.readAllBytes(data);
+        bytes[0] ^= 1;
+        Files.write(data, bytes);
+        Files.setLastModifiedTime(data, mtime);
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults()))
+                .isNotEqualTo(before);
+    }
+
+    @Test
+    void key_ignoresUnrelatedSiblingFiles() throws IOException {
+        Path model = writeModel("model.onnx", 10);
+        String before = OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults());
+
+        writeModel("tokenizer.json", 5);
+        writeModel("decoder.onnx", 5);
+
+        assertThat(OptimizedModelCache.key(model, "1.23.0", SessionOptions.defaults()))
+                .isEqualTo(before);
+    }
+
+    @Test
+    void key_throwsForMissingModel() {
+        assertThatThrownBy(() -> OptimizedModelCache.key(
+                tempDir.resolve("missing.onnx"), "1.23.0", SessionOptions.defaults()))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void create_withOptimizedModelCache_throwsModelLoadExceptionForMissingModel() {
+        SessionOptions options = SessionOptions.builder()
+                .optimizedModelCache(tempDir.resolve("cache"))
+                .build();
+
+        assertThatThrownBy(() -> InferenceSession.create(tempDir.resolve("missing.onnx"), options))
+                .isInstanceOf(ModelLoadException.class)
+                .hasMessageContaining("missing.onnx");
+    }
+
+    private Path writeModel(String name, int kilobytes) throws IOException {
+        byte[] bytes = new byte[kilobytes * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return Files.write(tempDir.resolve(name), bytes);
+    }
+}
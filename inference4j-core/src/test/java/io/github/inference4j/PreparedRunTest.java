@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j;
+
+import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtSession;
+import io.github.inference4j.exception.InferenceException;
+import io.github.inference4j.exception.TensorConversionException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PreparedRunTest {
+
+    private final OrtEnvironment environment = OrtEnvironment.getEnvironment();
+
+    @Test
+    void inputFloats_writesAreVisibleThroughNewViews() {
+        try (PreparedRun run = prepare(mock(OrtSession.class))) {
+            FloatBuffer input = run.inputFloats("input");
+            input.put(new float[]{1f, 2f, 3f, 4f, 5f, 6f});
+
+            FloatBuffer again = run.inputFloats("input");
+
+            assertThat(again.isDirect()).isTrue();
+            assertThat(again.position()).isZero();
+            assertThat(again.get(5)).isEqualTo(6f);
+        }
+    }
+
+    @Test
+    void setInput_rejectsWrongLength() {
+        try (PreparedRun run = prepare(mock(OrtSession.class))) {
+            assertThatThrownBy(() -> run.setInput("input", new float[]{1f, 2f}))
+                    .isInstanceOf(TensorConversionException.class)
+                    .hasMessageContaining("expects 6 elements");
+        }
+    }
+
+    @Test
+    void inputLongs_rejectsFloatInput() {
+        try (PreparedRun run = prepare(mock(OrtSession.class))) {
+            assertThatThrownBy(() -> run.inputLongs("input"))
+                    .isInstanceOf(TensorConversionException.class);
+        }
+    }
+
+    @Test
+    void inputFloats_rejectsUnboundName() {
+        try (PreparedRun run = prepare(mock(OrtSession.class))) {
+            assertThatThrownBy(() -> run.inputFloats("missing"))
+                    .isInstanceOf(InferenceException.class)
+                    .hasMessageContaining("missing");
+        }
+    }
+
+    @Test
+    void run_passesPinnedOutputs_andReturnsSameTensors() throws Exception {
+        OrtSession session = mock(OrtSession.class);
+        when(session.run(anyMap(), anyMap())).thenReturn(mock(OrtSession.Result.class));
+
+        try (PreparedRun run = prepare(session)) {
+            Map<String, Tensor> first = run.run();
+            Map<String, Tensor> second = run.run();
+
+            assertThat(second.get("output")).isSameAs(first.get("output"));
+            assertThat(first.get("output").shape()).containsExactly(1, 4);
+            assertThat(first.get("output").isDirect()).isTrue();
+            verify(session, times(2)).run(anyMap(), anyMap());
+        }
+    }
+
+    @Test
+    void run_afterClose_throws() {
+        PreparedRun run = prepare(mock(OrtSession.class));
+        run.close();
+
+        assertThatThrownBy(run::run)
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("closed");
+    }
+
+    @Test
+    void create_rejectsDynamicShape() {
+        assertThatThrownBy(() -> PreparedRun.create(environment, mock(OrtSession.class),
+                Map.of("input", new long[]{-1, 3}), Map.of("input", OnnxJavaType.FLOAT),
+                Map.of(), Map.of()))
+                .isInstanceOf(TensorConversionException.class)
+                .hasMessageContaining("fixed shape");
+    }
+
+    @Test
+    void create_rejectsUnsupportedType() {
+        assertThatThrownBy(() -> PreparedRun.create(environment, mock(OrtSession.class),
+                Map.of("input", new long[]{1}), Map.of("input", OnnxJavaType.STRING),
+                Map.of(), Map.of()))
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    private PreparedRun prepare(OrtSession session) {
+        return PreparedRun.create(environment, session,
+                Map.of("input", new long[]{1, 2, 3}), Map.of("input", OnnxJavaType.FLOAT),
+                Map.of("output", new long[]{1, 4}), Map.of("output", OnnxJavaType.FLOAT));
+    }
+}
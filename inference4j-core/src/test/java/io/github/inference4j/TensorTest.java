@@ -19,6 +19,13 @@ package io.github.inference4j;
 import io.github.inference4j.exception.TensorConversionException;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.ShortBuffer;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 class TensorTest {
@@ -169,4 +176,151 @@ class TensorTest {
         data[0] = "modified";
         assertThat(tensor.toStrings()).isEqualTo(new String[]{"hello", "world"});
     }
+
+    @Test
+    void fromBuffer_materializesFloatsOnRequest() {
+        Tensor tensor = Tensor.fromBuffer(floatBytes(1f, 2f, 3f, 4f), new long[]{2, 2}, TensorType.FLOAT);
+
+        assertThat(tensor.toFloats()).isEqualTo(new float[]{1f, 2f, 3f, 4f});
+        assertThat(tensor.toFloats2D()).isEqualTo(new float[][]{{1f, 2f}, {3f, 4f}});
+    }
+
+    @Test
+    void fromBuffer_directBuffer_isDirect() {
+        ByteBuffer direct = ByteBuffer.allocateDirect(2 * Float.BYTES).order(ByteOrder.nativeOrder());
+        direct.putFloat(1f).putFloat(2f).flip();
+
+        Tensor tensor = Tensor.fromBuffer(direct, new long[]{2}, TensorType.FLOAT);
+
+        assertThat(tensor.isDirect()).isTrue();
+        assertThat(Tensor.fromFloats(new float[]{1f}, new long[]{1}).isDirect()).isFalse();
+    }
+
+    @Test
+    void fromBuffer_throwsOnShapeMismatch() {
+        assertThatThrownBy(() ->
+                Tensor.fromBuffer(floatBytes(1f, 2f), new long[]{3}, TensorType.FLOAT))
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    @Test
+    void fromBuffer_throwsOnUnsupportedType() {
+        assertThatThrownBy(() ->
+                Tensor.fromBuffer(ByteBuffer.allocate(8), new long[]{2}, TensorType.STRING))
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    @Test
+    void floatBuffer_isReadOnlyView() {
+        Tensor tensor = Tensor.fromFloats(new float[]{1f, 2f, 3f}, new long[]{3});
+        FloatBuffer view = tensor.floatBuffer();
+
+        assertThat(view.get(2)).isEqualTo(3f);
+        assertThatThrownBy(() -> view.put(0, 9f)).isInstanceOf(ReadOnlyBufferException.class);
+    }
+
+    @Test
+    void float16Buffer_viewsRawBits() {
+        Tensor tensor = Tensor.fromFloats(new float[]{1f, -2f}, new long[]{2}).castToFloat16();
+        ShortBuffer view = tensor.float16Buffer();
+
+        assertThat(view.get(0)).isEqualTo((short) 0x3C00);
+        assertThat(view.get(1)).isEqualTo((short) 0xC000);
+        assertThatThrownBy(() -> view.put(0, (short) 0)).isInstanceOf(ReadOnlyBufferException.class);
+        assertThatThrownBy(() -> Tensor.fromFloats(new float[]{1f}, new long[]{1}).float16Buffer())
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    @Test
+    void slice_bufferBacked_matchesArrayBacked() {
+        float[] data = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f};
+        long[] shape = {2, 3, 2};
+        Tensor fromArray = Tensor.fromFloats(data, shape);
+        Tensor fromBuffer = Tensor.fromBuffer(floatBytes(data), shape, TensorType.FLOAT);
+
+        assertThat(fromBuffer.slice(0, 1).toFloats()).isEqualTo(fromArray.slice(0, 1).toFloats());
+        assertThat(fromBuffer.slice(1, -1).toFloats()).isEqualTo(fromArray.slice(1, -1).toFloats());
+        assertThat(fromBuffer.slice(0, 0).slice(0, -1).toFloats()).isEqualTo(new float[]{5f, 6f});
+    }
+
+    @Test
+    void castToFloat16_bufferBacked_roundTrips() {
+        Tensor tensor = Tensor.fromBuffer(floatBytes(0.5f, -2f), new long[]{2}, TensorType.FLOAT);
+
+        assertThat(tensor.castToFloat16().toFloats()).isEqualTo(new float[]{0.5f, -2f});
+    }
+
+    @Test
+    void narrow_innerAxis_keepsRank() {
+        float[] data = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f};
+        Tensor tensor = Tensor.fromFloats(data, new long[]{2, 3, 2});
+
+        Tensor narrowed = tensor.narrow(1, 1, 2);
+
+        assertThat(narrowed.shape()).containsExactly(2, 2, 2);
+        assertThat(narrowed.toFloats()).containsExactly(3f, 4f, 5f, 6f, 9f, 10f, 11f, 12f);
+    }
+
+    @Test
+    void narrow_bufferBacked_matchesArrayBacked() {
+        float[] data = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f};
+        long[] shape = {3, 2, 2};
+        Tensor fromArray = Tensor.fromFloats(data, shape);
+        Tensor fromBuffer = Tensor.fromBuffer(floatBytes(data), shape, TensorType.FLOAT);
+
+        assertThat(fromBuffer.narrow(0, 1, 2).toFloats()).isEqualTo(fromArray.narrow(0, 1, 2).toFloats());
+        assertThat(fromBuffer.narrow(1, 0, 1).toFloats()).isEqualTo(fromArray.narrow(1, 0, 1).toFloats());
+    }
+
+    @Test
+    void narrow_longTensor() {
+        Tensor tensor = Tensor.fromLongs(new long[]{1, 2, 3, 4, 5, 6}, new long[]{3, 2});
+
+        assertThat(tensor.narrow(0, 2, 1).toLongs()).containsExactly(5L, 6L);
+    }
+
+    @Test
+    void narrow_throwsForOutOfBoundsRange() {
+        Tensor tensor = Tensor.fromFloats(new float[]{1f, 2f, 3f}, new long[]{3});
+
+        assertThatThrownBy(() -> tensor.narrow(0, 2, 2))
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    @Test
+    void concat_stacksAlongFirstAxis() {
+        Tensor a = Tensor.fromFloats(new float[]{1f, 2f}, new long[]{1, 2});
+        Tensor b = Tensor.fromBuffer(floatBytes(3f, 4f, 5f, 6f), new long[]{2, 2}, TensorType.FLOAT);
+
+        Tensor stacked = Tensor.concat(List.of(a, b));
+
+        assertThat(stacked.shape()).containsExactly(3, 2);
+        assertThat(stacked.toFloats()).containsExactly(1f, 2f, 3f, 4f, 5f, 6f);
+    }
+
+    @Test
+    void concat_longTensors() {
+        Tensor stacked = Tensor.concat(List.of(
+                Tensor.fromLongs(new long[]{1, 2}, new long[]{1, 2}),
+                Tensor.fromLongs(new long[]{3, 4}, new long[]{1, 2})));
+
+        assertThat(stacked.toLongs()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void concat_throwsForMismatchedTrailingShape() {
+        Tensor a = Tensor.fromFloats(new float[]{1f, 2f}, new long[]{1, 2});
+        Tensor b = Tensor.fromFloats(new float[]{1f, 2f, 3f}, new long[]{1, 3});
+
+        assertThatThrownBy(() -> Tensor.concat(List.of(a, b)))
+                .isInstanceOf(TensorConversionException.class);
+    }
+
+    private static ByteBuffer floatBytes(float... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.nativeOrder());
+        for (float v : values) {
+            buffer.putFloat(v);
+        }
+        return buffer.flip();
+    }
 }
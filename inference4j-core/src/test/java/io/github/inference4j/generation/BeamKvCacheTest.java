@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BeamKvCacheTest {
+
+    @Test
+    void start_copiesSingleSequenceCacheIntoEveryBeam() {
+        BeamKvCache cache = new BeamKvCache(1, 3, 1, 2, 4, TensorType.FLOAT);
+
+        cache.start(cache(1, new float[]{1f, 2f}), "past_key_values.");
+        Map<String, Tensor> past = cache.reorder(new int[]{0, 1, 2});
+
+        assertThat(cache.length()).isEqualTo(1);
+        Tensor key = past.get("past_key_values.0.decoder.key");
+        assertThat(key.shape()).containsExactly(3, 1, 1, 2);
+        assertThat(key.isDirect()).isTrue();
+        assertThat(key.toFloats()).containsExactly(1f, 2f, 1f, 2f, 1f, 2f);
+    }
+
+    @Test
+    void reorder_gathersEachBeamFromItsParent() {
+        BeamKvCache cache = new BeamKvCache(1, 3, 1, 2, 4, TensorType.FLOAT);
+        // Two positions per beam holding beam * 10 + position
+        cache.start(cache(3, new float[]{0, 0, 1, 1, 10, 10, 11, 11, 20, 20, 21, 21}), "past_key_values.");
+
+        Tensor key = cache.reorder(new int[]{2, 2, 0}).get("past_key_values.0.decoder.key");
+
+        assertThat(key.shape()).containsExactly(3, 1, 2, 2);
+        assertThat(key.toFloats()).containsExactly(
+                20f, 20f, 21f, 21f, 20f, 20f, 21f, 21f, 0f, 0f, 1f, 1f);
+    }
+
+    @Test
+    void reorder_identitySwapsBuffersAndKeepsLaterReordersCorrect() {
+        BeamKvCache cache = new BeamKvCache(1, 2, 1, 2, 4, TensorType.FLOAT);
+        cache.start(cache(2, new float[]{0, 0, 10, 10}), "past_key_values.");
+
+        float[] continued = cache.reorder(new int[]{0, 1}).get("past_key_values.0.decoder.key").toFloats();
+        float[] again = cache.reorder(new int[]{0, 1}).get("past_key_values.0.decoder.key").toFloats();
+        float[] reordered = cache.reorder(new int[]{1, 0}).get("past_key_values.0.decoder.key").toFloats();
+
+        assertThat(continued).containsExactly(0f, 0f, 10f, 10f);
+        assertThat(again).containsExactly(0f, 0f, 10f, 10f);
+        assertThat(reordered).containsExactly(10f, 10f, 0f, 0f);
+    }
+
+    @Test
+    void presentOutputs_coverOneMorePosition() {
+        BeamKvCache cache = new BeamKvCache(1, 2, 1, 2, 4, TensorType.FLOAT);
+        cache.start(cache(1, new float[]{1f, 2f}), "past_key_values.");
+
+        Tensor present = cache.presentOutputs().get("present.0.decoder.value");
+        cache.advance();
+
+        assertThat(present.shape()).containsExactly(2, 1, 2, 2);
+        assertThat(present.isDirect()).isTrue();
+        assertThat(cache.length()).isEqualTo(2);
+    }
+
+    @Test
+    void presentOutputs_beyondCapacity_throws() {
+        BeamKvCache cache = new BeamKvCache(1, 2, 1, 2, 1, TensorType.FLOAT);
+        cache.start(cache(1, new float[]{1f, 2f}), "past_key_values.");
+
+        assertThatThrownBy(cache::presentOutputs)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("holds 1 of 1");
+    }
+
+    @Test
+    void expand_repeatsBatchOfOne() {
+        Tensor mask = Tensor.fromLongs(new long[]{1, 1, 0}, new long[]{1, 3});
+
+        Tensor expanded = BeamKvCache.expand(mask, 2);
+
+        assertThat(expanded.shape()).containsExactly(2, 3);
+        assertThat(expanded.isDirect()).isTrue();
+        assertThat(expanded.toLongs()).containsExactly(1, 1, 0, 1, 1, 0);
+    }
+
+    // Self-attention cache of one layer with one head of dim 2
+    private static Map<String, Tensor> cache(int batch, float[] keys) {
+        Tensor key = Tensor.fromFloats(keys, new long[]{batch, 1, keys.length / (2 * batch), 2});
+        return Map.of("past_key_values.0.decoder.key", key, "past_key_values.0.decoder.value", key);
+    }
+}
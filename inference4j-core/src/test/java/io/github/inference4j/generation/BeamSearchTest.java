@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class BeamSearchTest {
+
+    private static final int EOS = 0;
+
+    @Test
+    void search_findsSequenceGreedyDecodingMisses() {
+        // Greedy picks 1 (p=0.5) and then ends at p=0.3; 2 (p=0.4) leads to a confident 3
+        EncoderDecoderSession session = scriptedSession();
+
+        int[] tokens = new BeamSearch(2, 1f, false, Set.of(EOS), 10).search(session, new long[]{7});
+
+        assertThat(tokens).containsExactly(2, 3);
+    }
+
+    @Test
+    void search_singleBeamIsGreedy() {
+        EncoderDecoderSession session = scriptedSession();
+
+        int[] tokens = new BeamSearch(1, 1f, false, Set.of(EOS), 10).search(session, new long[]{7});
+
+        assertThat(tokens).containsExactly(1);
+    }
+
+    @Test
+    void search_stopsAtMaxNewTokens() {
+        EncoderDecoderSession session = scriptedSession();
+
+        int[] tokens = new BeamSearch(2, 1f, false, Set.of(EOS), 1).search(session, new long[]{7});
+
+        assertThat(tokens).hasSize(1);
+        verify(session, never()).decodeBeams(any(), any());
+    }
+
+    @Test
+    void search_decodesAllBeamsInOneBatchPerStep() {
+        EncoderDecoderSession session = scriptedSession();
+
+        new BeamSearch(3, 1f, true, Set.of(EOS), 10).search(session, new long[]{7});
+
+        verify(session).prefillBeams(new long[]{7}, 3, 10);
+        verify(session, atLeastOnce()).decodeBeams(argThat(tokens -> tokens.length == 3),
+                argThat(parents -> parents.length == 3));
+    }
+
+    /**
+     * Vocabulary {EOS, 1, 2, 3}. The first step prefers 1 over 2. After 1 every token is
+     * about equally likely, EOS slightly ahead; after 2 the model is sure of 3; after 3
+     * it is sure of EOS.
+     */
+    private static EncoderDecoderSession scriptedSession() {
+        EncoderDecoderSession session = mock(EncoderDecoderSession.class);
+        when(session.prefillBeams(any(), anyInt(), anyInt()))
+                .thenReturn(new ForwardResult(logProbabilities(0.05f, 0.5f, 0.4f, 0.05f)));
+        when(session.decodeBeams(any(), any())).thenAnswer(invocation -> {
+            long[] tokens = invocation.getArgument(0);
+            float[][] logits = new float[tokens.length][];
+            for (int beam = 0; beam < tokens.length; beam++) {
+                logits[beam] = switch ((int) tokens[beam]) {
+                    case 1 -> logProbabilities(0.3f, 0.25f, 0.2f, 0.25f);
+                    case 2 -> logProbabilities(0.02f, 0.02f, 0.02f, 0.94f);
+                    default -> logProbabilities(0.94f, 0.02f, 0.02f, 0.02f);
+                };
+            }
+            return logits;
+        });
+        return session;
+    }
+
+    private static float[] logProbabilities(float... probabilities) {
+        float[] logits = new float[probabilities.length];
+        for (int i = 0; i < probabilities.length; i++) {
+            logits[i] = (float) Math.log(probabilities[i]);
+        }
+        return logits;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.tokenizer.EncodedInput;
+import io.github.inference4j.tokenizer.TokenDecoder;
+import io.github.inference4j.tokenizer.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatSessionTest {
+
+    private static final int EOS = 0;
+    private static final ChatTemplate TEMPLATE = ChatTemplate.of(msg -> "[" + msg + ">", msg -> "|" + msg + ">");
+
+    private final EchoSession session = new EchoSession();
+
+    @Test
+    void send_prefillsOnlyTheNewTurnAndKeepsReplies() {
+        ChatSession chat = engine(16).chat().build();
+
+        GenerationResult first = chat.send("hi");
+        GenerationResult second = chat.send("yo");
+
+        assertThat(first.text()).isEqualTo("ab");
+        assertThat(second.text()).isEqualTo("ab");
+        assertThat(session.passes).containsExactly("prefill [hi>", "decode a", "decode b",
+                "extend |yo>", "decode a", "decode b");
+        assertThat(text(chat.history().tokens())).isEqualTo("[hi>ab|yo>ab");
+        assertThat(chat.history().turnStarts()).containsExactly(0, 6);
+        assertThat(second.promptTokens()).isEqualTo(10);
+    }
+
+    @Test
+    void send_afterCacheWasTakenOver_prefillsTheWholeHistory() {
+        GenerationEngine engine = engine(16);
+        ChatSession chat = engine.chat().build();
+        chat.send("hi");
+
+        engine.generate("x");
+        session.passes.clear();
+        chat.send("yo");
+
+        assertThat(session.passes.get(0)).isEqualTo("prefill [hi>ab|yo>");
+    }
+
+    @Test
+    void send_afterCacheWasTakenOver_restoresItFromTheCacheStore() {
+        GenerationEngine engine = engine(16);
+        try (var store = new KvCacheStore(1024, KvCacheCompression.NONE)) {
+            ChatSession chat = engine.chat().cacheStore(store).build();
+            ChatSession other = engine.chat().cacheStore(store).build();
+            chat.send("hi");
+
+            other.send("yo");
+            session.passes.clear();
+            chat.send("ok");
+
+            assertThat(session.passes.get(0)).isEqualTo("restore 6");
+            assertThat(session.passes.get(1)).isEqualTo("extend |ok>");
+            assertThat(text(chat.history().tokens())).isEqualTo("[hi>ab|ok>ab");
+            // The chat that was displaced in turn is saved
+            assertThat(store.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void send_beyondContextWindow_dropsOldestTurnsAndKeepsTheFirst() {
+        ChatSession chat = engine(2).chat().contextWindow(20).build();
+        chat.send("one");
+        chat.send("two");
+        session.passes.clear();
+
+        chat.send("three");
+
+        // [one>ab|two>ab|three> (22 tokens) + 2 new tokens > 20: turn "two" is dropped
+        assertThat(text(chat.history().tokens())).isEqualTo("[one>ab|three>ab");
+        assertThat(chat.history().turnStarts()).containsExactly(0, 7);
+        // The cache is kept up to the first differing token, past "|t" of "|two"
+        assertThat(session.passes.get(0)).isEqualTo("truncate 9");
+        assertThat(session.passes.get(1)).isEqualTo("extend hree>");
+    }
+
+    @Test
+    void send_withSlidingWindow_evictsDroppedTokensFromTheCache() {
+        ChatSession chat = engine(2).chat().contextWindow(20).contextPolicy(ContextPolicy.slidingWindow(1)).build();
+        chat.send("one");
+        chat.send("two");
+        session.passes.clear();
+
+        chat.send("three");
+
+        // 21 tokens + 2 new tokens > 20: "one" goes after the "[" sink
+        assertThat(text(chat.history().tokens())).isEqualTo("[>ab|two>ab|three>ab");
+        assertThat(chat.history().turnStarts()).containsExactly(0, 4, 11);
+        // Only the new turn is prefilled; the cache after the dropped tokens is kept
+        assertThat(session.passes.get(0)).isEqualTo("evict 1 3");
+        assertThat(session.passes.get(1)).isEqualTo("extend |three>");
+    }
+
+    @Test
+    void send_turnThatCannotFit_throws() {
+        ChatSession chat = engine(2).chat().contextWindow(8).build();
+
+        assertThatThrownBy(() -> chat.send("a long message"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not fit");
+    }
+
+    @Test
+    void reset_startsANewConversation() {
+        ChatSession chat = engine(16).chat().build();
+        chat.send("hi");
+
+        chat.reset();
+        chat.send("yo");
+
+        assertThat(text(chat.history().tokens())).isEqualTo("[yo>ab");
+    }
+
+    @Test
+    void build_rejectsContextWindowNotAboveMaxNewTokens() {
+        GenerationEngine engine = engine(16);
+
+        assertThatThrownBy(() -> engine.chat().contextWindow(16).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("maxNewTokens");
+    }
+
+    @Test
+    void contextWindow_rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> engine(16).chat().contextWindow(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("contextWindow");
+    }
+
+    private GenerationEngine engine(int maxNewTokens) {
+        return GenerationEngine.builder()
+                .session(session)
+                .tokenizer(new CharTokenizer())
+                .decoder(new CharDecoder())
+                .chatTemplate(TEMPLATE)
+                .eosTokenId(EOS)
+                .maxNewTokens(maxNewTokens)
+                .build();
+    }
+
+    private static String text(long[] tokens) {
+        StringBuilder text = new StringBuilder();
+        for (long token : tokens) {
+            text.append((char) token);
+        }
+        return text.toString();
+    }
+
+    // Replies "ab" to every prompt ending in '>', then stops with EOS
+    private static class EchoSession implements GenerativeSession {
+
+        private final List<Long> cache = new ArrayList<>();
+        private final List<String> passes = new ArrayList<>();
+
+        @Override
+        public ForwardResult prefill(long[] tokenIds) {
+            cache.clear();
+            passes.add("prefill " + text(tokenIds));
+            return run(tokenIds);
+        }
+
+        @Override
+        public ForwardResult decode(long tokenId) {
+            passes.add("decode " + (char) tokenId);
+            return run(new long[]{tokenId});
+        }
+
+        @Override
+        public ForwardResult extend(long[] tokenIds) {
+            passes.add("extend " + text(tokenIds));
+            return run(tokenIds);
+        }
+
+        @Override
+        public void truncate(int length) {
+            passes.add("truncate " + length);
+            cache.subList(length, cache.size()).clear();
+        }
+
+        @Override
+        public void evict(int from, int count) {
+            passes.add("evict " + from + " " + count);
+            cache.subList(from, from + count).clear();
+        }
+
+        @Override
+        public int cacheSequenceLength() {
+            return cache.size();
+        }
+
+        @Override
+        public void resetCache() {
+            cache.clear();
+        }
+
+        @Override
+        public KvCacheSnapshot snapshot() {
+            float[] tokens = new float[cache.size()];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = cache.get(i);
+            }
+            return new KvCacheSnapshot(tokens.length, Map.of("past_key_values.0.key",
+                    Tensor.fromFloats(tokens, new long[]{1, 1, tokens.length, 1})));
+        }
+
+        @Override
+        public void restore(KvCacheSnapshot snapshot) {
+            passes.add("restore " + snapshot.length());
+            cache.clear();
+            for (float token : snapshot.tensors().get("past_key_values.0.key").toFloats()) {
+                cache.add((long) token);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private ForwardResult run(long[] tokenIds) {
+            for (long tokenId : tokenIds) {
+                cache.add(tokenId);
+            }
+            long last = tokenIds[tokenIds.length - 1];
+            int next = last == '>' ? 'a' : last == 'a' ? 'b' : EOS;
+            float[] logits = new float[128];
+            Arrays.fill(logits, -10f);
+            logits[next] = 10f;
+            return new ForwardResult(logits);
+        }
+    }
+
+    private static class CharTokenizer implements Tokenizer {
+
+        @Override
+        public EncodedInput encode(String text) {
+            long[] ids = text.chars().asLongStream().toArray();
+            return new EncodedInput(ids, new long[ids.length], new long[ids.length]);
+        }
+
+        @Override
+        public EncodedInput encode(String text, int maxLength) {
+            return encode(text);
+        }
+    }
+
+    private static class CharDecoder implements TokenDecoder {
+
+        @Override
+        public String decode(int[] tokenIds) {
+            StringBuilder text = new StringBuilder();
+            for (int tokenId : tokenIds) {
+                text.append(decode(tokenId));
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String decode(int tokenId) {
+            return String.valueOf((char) tokenId);
+        }
+    }
+}
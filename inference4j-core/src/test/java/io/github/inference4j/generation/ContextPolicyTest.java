@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.tokenizer.EncodedInput;
+import io.github.inference4j.tokenizer.TokenDecoder;
+import io.github.inference4j.tokenizer.Tokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextPolicyTest {
+
+    // Four turns of 3, 2, 2 and 1 tokens
+    private final ChatHistory history = new ChatHistory(
+            new long[]{1, 2, 3, 4, 5, 6, 7, 8}, new int[]{0, 3, 5, 7});
+
+    @Test
+    void dropOldestTurns_fittingHistory_isUnchanged() {
+        assertThat(ContextPolicy.dropOldestTurns().fit(history, 8)).isSameAs(history);
+    }
+
+    @Test
+    void dropOldestTurns_dropsTurnsAfterTheFirstOldestFirst() {
+        ChatHistory fitted = ContextPolicy.dropOldestTurns().fit(history, 6);
+
+        assertThat(fitted.tokens()).containsExactly(1, 2, 3, 6, 7, 8);
+        assertThat(fitted.turnStarts()).containsExactly(0, 3, 5);
+    }
+
+    @Test
+    void dropOldestTurns_keepsFirstAndLatestTurns() {
+        ChatHistory fitted = ContextPolicy.dropOldestTurns().fit(history, 4);
+
+        assertThat(fitted.tokens()).containsExactly(1, 2, 3, 8);
+        assertThat(fitted.turnStarts()).containsExactly(0, 3);
+    }
+
+    @Test
+    void dropOldestTurns_throwsWhenFirstAndLatestTurnsDoNotFit() {
+        assertThatThrownBy(() -> ContextPolicy.dropOldestTurns().fit(history, 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not fit");
+    }
+
+    @Test
+    void chatHistory_rejectsFirstTurnNotAtZero() {
+        assertThatThrownBy(() -> new ChatHistory(new long[]{1, 2}, new int[]{1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void slidingWindow_keepsSinkTokensAndMostRecentTokens() {
+        ContextPolicy policy = ContextPolicy.slidingWindow(2);
+
+        ChatHistory fitted = policy.fit(history, 5);
+
+        assertThat(fitted.tokens()).containsExactly(1, 2, 6, 7, 8);
+        // Turn 0 lost its last token and turn 1 is gone; turns 2 and 3 are intact
+        assertThat(fitted.turnStarts()).containsExactly(0, 2, 4);
+        assertThat(policy.evictsFromCache()).isTrue();
+        assertThat(policy.fit(history, 8)).isSameAs(history);
+    }
+
+    @Test
+    void slidingWindow_throwsWhenBudgetLeavesNoRoomAfterSinks() {
+        assertThatThrownBy(() -> ContextPolicy.slidingWindow(4).fit(history, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sink");
+        assertThatThrownBy(() -> ContextPolicy.slidingWindow(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void summarizeAndTruncate_replacesTokensBetweenFirstTurnAndRecentOnesWithSummary() {
+        List<String> summarized = new ArrayList<>();
+        ContextPolicy policy = ContextPolicy.summarizeAndTruncate(2, new DigitTokenizer(), new DigitDecoder(),
+                text -> {
+                    summarized.add(text);
+                    return "9";
+                });
+
+        ChatHistory fitted = policy.fit(history, 6);
+
+        assertThat(summarized).containsExactly("456");
+        assertThat(fitted.tokens()).containsExactly(1, 2, 3, 9, 7, 8);
+        assertThat(fitted.turnStarts()).containsExactly(0, 3, 4, 5);
+        assertThat(policy.evictsFromCache()).isFalse();
+    }
+
+    @Test
+    void summarizeAndTruncate_throwsWhenSummaryDoesNotFit() {
+        ContextPolicy policy = ContextPolicy.summarizeAndTruncate(2, new DigitTokenizer(), new DigitDecoder(),
+                text -> "99999");
+
+        assertThatThrownBy(() -> policy.fit(history, 6))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not fit");
+    }
+
+    @Test
+    void chatHistory_replaceTokens_startsATurnAtTheReplacement() {
+        ChatHistory replaced = history.replaceTokens(1, 4, new long[]{9});
+
+        assertThat(replaced.tokens()).containsExactly(1, 9, 5, 6, 7, 8);
+        // The replacement begins a turn; turn 1, which began inside the range, resumes after it
+        assertThat(replaced.turnStarts()).containsExactly(0, 1, 2, 3, 5);
+        assertThat(history.withoutTokens(2, 2)).isSameAs(history);
+    }
+
+    // Encodes each digit as a token of that value
+    private static class DigitTokenizer implements Tokenizer {
+
+        @Override
+        public EncodedInput encode(String text) {
+            long[] ids = text.chars().mapToLong(c -> c - '0').toArray();
+            return new EncodedInput(ids, new long[ids.length], new long[ids.length]);
+        }
+
+        @Override
+        public EncodedInput encode(String text, int maxLength) {
+            return encode(text);
+        }
+    }
+
+    private static class DigitDecoder implements TokenDecoder {
+
+        @Override
+        public String decode(int[] tokenIds) {
+            StringBuilder text = new StringBuilder();
+            for (int tokenId : tokenIds) {
+                text.append(tokenId);
+            }
+            return text.toString();
+        }
+
+        @Override
+        public String decode(int tokenId) {
+            return String.valueOf(tokenId);
+        }
+    }
+}
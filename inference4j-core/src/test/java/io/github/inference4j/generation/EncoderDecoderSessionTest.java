@@ -17,12 +17,15 @@
 package io.github.inference4j.generation;
 
 import io.github.inference4j.InferenceSession;
+import io.github.inference4j.NativeOutputs;
+import io.github.inference4j.NativeTensor;
 import io.github.inference4j.Tensor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -126,7 +129,7 @@ class EncoderDecoderSessionTest {
         session.prefill(new long[]{10, 20, 30});
 
         // Now do a decode step — cross-attention cache should be passed
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(42L);
 
         ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
@@ -150,7 +153,7 @@ class EncoderDecoderSessionTest {
         stubDecoderRun(srcLen);
         session.prefill(new long[]{10, 20});
 
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(42L);
 
         ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
@@ -178,7 +181,7 @@ class EncoderDecoderSessionTest {
         stubDecoderRun(srcLen);
         session.prefill(new long[]{10, 20, 30});
 
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(42L);
 
         ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
@@ -201,7 +204,7 @@ class EncoderDecoderSessionTest {
         session.prefill(new long[]{10, 20});
 
         // First decode
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(42L);
 
         ArgumentCaptor<Map<String, Tensor>> captor1 = ArgumentCaptor.forClass(Map.class);
@@ -210,7 +213,7 @@ class EncoderDecoderSessionTest {
         Tensor crossKey0First = firstDecodeInputs.get("past_key_values.0.encoder.key");
 
         // Second decode
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(43L);
 
         ArgumentCaptor<Map<String, Tensor>> captor2 = ArgumentCaptor.forClass(Map.class);
@@ -233,11 +236,11 @@ class EncoderDecoderSessionTest {
 
         assertThat(session.cacheSequenceLength()).as("After prefill, sequence length should be 1").isEqualTo(1);
 
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(42L);
         assertThat(session.cacheSequenceLength()).as("After first decode, sequence length should be 2").isEqualTo(2);
 
-        stubDecoderWithPastRun(srcLen);
+        stubDecoderWithPastRun(1);
         session.decode(43L);
         assertThat(session.cacheSequenceLength()).as("After second decode, sequence length should be 3").isEqualTo(3);
     }
@@ -256,6 +259,109 @@ class EncoderDecoderSessionTest {
         assertThat(session.cacheSequenceLength()).isEqualTo(0);
     }
 
+    @Test
+    void extendAll_runsAllTokensInOneDecoderPass() {
+        int srcLen = 2;
+        stubEncoderRun(srcLen);
+        stubDecoderRun(srcLen);
+        session.prefill(new long[]{10, 20});
+
+        stubDecoderWithPastRun(3);
+        List<ForwardResult> results = session.extendAll(new long[]{5, 6, 7});
+
+        verify(decoderWithPastSession, times(1)).run(anyMap());
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).logits()).containsExactly(2f, 3f, 4f, 5f, 6f);
+        assertThat(results.get(2).logits()).containsExactly(22f, 23f, 24f, 25f, 26f);
+        assertThat(session.cacheSequenceLength()).isEqualTo(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void truncate_dropsSelfAttentionPositionsAndKeepsCrossAttention() {
+        int srcLen = 2;
+        stubEncoderRun(srcLen);
+        stubDecoderRun(srcLen);
+        session.prefill(new long[]{10, 20});
+        stubDecoderWithPastRun(3);
+        session.extendAll(new long[]{5, 6, 7});
+
+        session.truncate(2);
+
+        assertThat(session.cacheSequenceLength()).isEqualTo(2);
+        clearInvocations(decoderWithPastSession);
+        stubDecoderWithPastRun(1);
+        session.decode(8L);
+
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(decoderWithPastSession).run(captor.capture());
+        Map<String, Tensor> inputs = captor.getValue();
+        assertThat(inputs.get("past_key_values.0.decoder.key").shape())
+                .isEqualTo(new long[]{1, NUM_HEADS, 2, HEAD_DIM});
+        assertThat(inputs.get("past_key_values.1.encoder.value").shape())
+                .isEqualTo(new long[]{1, NUM_HEADS, srcLen, HEAD_DIM});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void decodeBeams_runsAllBeamsAsOneBatch() {
+        int srcLen = 3;
+        stubEncoderRun(srcLen);
+        stubDecoderRun(srcLen);
+        session.prefillBeams(new long[]{10, 20, 30}, 2, 5);
+
+        NativeOutputs outputs = mock(NativeOutputs.class);
+        NativeTensor logits = mock(NativeTensor.class);
+        when(logits.toTensor()).thenReturn(Tensor.fromFloats(
+                new float[]{1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f}, new long[]{2, 1, VOCAB_SIZE}));
+        when(outputs.get("logits")).thenReturn(logits);
+        when(decoderWithPastSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+
+        float[][] result = session.decodeBeams(new long[]{4, 3}, new int[]{0, 0});
+
+        ArgumentCaptor<Map<String, Tensor>> inputs = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, Tensor>> pinned = ArgumentCaptor.forClass(Map.class);
+        verify(decoderWithPastSession).runNative(inputs.capture(), anyMap(), pinned.capture());
+        assertThat(inputs.getValue().get("input_ids").shape()).isEqualTo(new long[]{2, 1});
+        assertThat(inputs.getValue().get("encoder_attention_mask").shape()).isEqualTo(new long[]{2, srcLen});
+        assertThat(inputs.getValue().get("past_key_values.1.decoder.key").shape())
+                .isEqualTo(new long[]{2, NUM_HEADS, 1, HEAD_DIM});
+        assertThat(inputs.getValue().get("past_key_values.1.encoder.key").shape())
+                .isEqualTo(new long[]{2, NUM_HEADS, srcLen, HEAD_DIM});
+        assertThat(pinned.getValue().get("present.0.decoder.value").shape())
+                .isEqualTo(new long[]{2, NUM_HEADS, 2, HEAD_DIM});
+        assertThat(pinned.getValue().get("present.0.decoder.value").isDirect()).isTrue();
+        assertThat(result[1]).containsExactly(6f, 7f, 8f, 9f, 10f);
+        verify(outputs).close();
+    }
+
+    @Test
+    void releaseBatch_leavesSequenceLengthAsForked() {
+        int srcLen = 2;
+        stubEncoderRun(srcLen);
+        stubDecoderRun(srcLen);
+        session.prefill(new long[]{10, 20});
+        session.fork(2, 5);
+
+        NativeOutputs outputs = mock(NativeOutputs.class);
+        NativeTensor logits = mock(NativeTensor.class);
+        when(logits.toTensor()).thenReturn(Tensor.fromFloats(
+                new float[2 * VOCAB_SIZE], new long[]{2, 1, VOCAB_SIZE}));
+        when(outputs.get("logits")).thenReturn(logits);
+        when(decoderWithPastSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+
+        session.decodeBatch(new long[]{4, 3});
+        session.decodeBatch(new long[]{5, 6});
+        assertThat(session.cacheSequenceLength()).isEqualTo(1);
+
+        session.releaseBatch();
+        assertThat(session.cacheSequenceLength()).isEqualTo(1);
+
+        stubDecoderWithPastRun(1);
+        session.decode(42L);
+        assertThat(session.cacheSequenceLength()).isEqualTo(2);
+    }
+
     @Test
     void close_closesAllSessions() throws Exception {
         session.close();
@@ -317,20 +423,21 @@ class EncoderDecoderSessionTest {
     }
 
     /**
-     * Stubs the decoder-with-past session to return logits and updated self-attention cache.
+     * Stubs the decoder-with-past session to return logits for {@code tokens} new
+     * positions and the updated self-attention cache.
      * Cross-attention cache is NOT returned by decoder_with_past (it's frozen).
      */
-    private void stubDecoderWithPastRun(int srcLen) {
+    private void stubDecoderWithPastRun(int tokens) {
         Map<String, Tensor> outputs = new LinkedHashMap<>();
-        // logits: [1, 1, VOCAB_SIZE]
-        float[] logits = new float[VOCAB_SIZE];
+        // logits: [1, tokens, VOCAB_SIZE], position p holding 2 + 10 * p + i
+        float[] logits = new float[tokens * VOCAB_SIZE];
         for (int i = 0; i < logits.length; i++) {
-            logits[i] = 2.0f + i;
+            logits[i] = 2.0f + (i / VOCAB_SIZE) * 10 + i % VOCAB_SIZE;
         }
-        outputs.put("logits", Tensor.fromFloats(logits, new long[]{1, 1, VOCAB_SIZE}));
+        outputs.put("logits", Tensor.fromFloats(logits, new long[]{1, tokens, VOCAB_SIZE}));
 
-        // Updated self-attention cache (grows by 1 position each step)
-        int selfSeqLen = session.cacheSequenceLength() + 1;
+        // Updated self-attention cache (grows by one position per token)
+        int selfSeqLen = session.cacheSequenceLength() + tokens;
         for (int layer = 0; layer < NUM_LAYERS; layer++) {
             float[] selfCache = new float[NUM_HEADS * selfSeqLen * HEAD_DIM];
             outputs.put("present." + layer + ".decoder.key",
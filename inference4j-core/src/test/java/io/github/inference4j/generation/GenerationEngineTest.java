@@ -16,18 +16,22 @@
 
 package io.github.inference4j.generation;
 
+import io.github.inference4j.Tensor;
 import io.github.inference4j.tokenizer.EncodedInput;
 import io.github.inference4j.tokenizer.TokenDecoder;
 import io.github.inference4j.tokenizer.Tokenizer;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -380,6 +384,293 @@ class GenerationEngineTest {
         }
     }
 
+    @Test
+    void generate_withPrefixCache_prefillsOnlyUnsharedSuffix() throws Exception {
+        GenerativeSession session = mock(GenerativeSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+        PrefixCache prefixCache = new PrefixCache(1 << 20);
+
+        when(tokenizer.encode("first")).thenReturn(
+                new EncodedInput(new long[]{1, 2, 3, 4}, new long[4], new long[4]));
+        when(tokenizer.encode("second")).thenReturn(
+                new EncodedInput(new long[]{1, 2, 3, 9, 8}, new long[5], new long[5]));
+        when(session.prefill(any())).thenReturn(new ForwardResult(logitsForToken(0, 10)));
+        when(session.extend(any())).thenReturn(new ForwardResult(logitsForToken(0, 10)));
+        when(session.snapshot()).thenReturn(snapshot(4), snapshot(5));
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .prefixCache(prefixCache)
+                .build()) {
+
+            engine.generate("first");
+            engine.generate("second");
+        }
+
+        verify(session).prefill(new long[]{1, 2, 3, 4});
+        verify(session).restore(argThat(snapshot -> snapshot.length() == 3));
+        verify(session).extend(new long[]{9, 8});
+        assertThat(prefixCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void generate_withDraftSession_commitsVerifiedTokens() throws Exception {
+        GenerativeSession session = mock(GenerativeSession.class);
+        GenerativeSession draft = mock(GenerativeSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+
+        when(tokenizer.encode("x")).thenReturn(new EncodedInput(new long[]{1}, new long[1], new long[1]));
+        when(session.prefill(any())).thenReturn(new ForwardResult(logitsForToken(2, 10)));
+        when(session.cacheSequenceLength()).thenReturn(1);
+        // Target agrees with the first proposal (3), then predicts EOS instead of 4
+        when(session.extendAll(new long[]{2, 3, 4})).thenReturn(List.of(
+                new ForwardResult(logitsForToken(3, 10)),
+                new ForwardResult(logitsForToken(0, 10)),
+                new ForwardResult(logitsForToken(5, 10))));
+        when(draft.extend(any())).thenReturn(new ForwardResult(logitsForToken(3, 10)));
+        when(draft.decode(3L)).thenReturn(new ForwardResult(logitsForToken(4, 10)));
+        when(decoder.decode(anyInt())).thenAnswer(invocation -> "t" + invocation.getArgument(0));
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .draftSession(draft)
+                .draftTokens(2)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .build()) {
+
+            GenerationResult result = engine.generate("x");
+
+            assertThat(result.text()).isEqualTo("t2t3");
+            assertThat(result.generatedTokens()).isEqualTo(2);
+        }
+
+        verify(session).truncate(3);
+        verify(session, never()).decode(anyLong());
+        verify(draft).prefill(new long[]{1});
+        verify(draft).close();
+    }
+
+    @Test
+    void builder_rejectsNonPositiveDraftTokens() {
+        assertThatThrownBy(() -> GenerationEngine.builder().draftTokens(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("draftTokens");
+    }
+
+    @Test
+    void builder_rejectsDraftSessionCombinedWithPromptLookup() {
+        var builder = GenerationEngine.builder()
+                .session(mock(GenerativeSession.class))
+                .draftSession(mock(GenerativeSession.class))
+                .promptLookup(3)
+                .tokenizer(mock(Tokenizer.class))
+                .decoder(mock(TokenDecoder.class))
+                .eosTokenId(0);
+
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void builder_beamSearchRequiresEncoderDecoderSession() {
+        var builder = GenerationEngine.builder()
+                .session(mock(GenerativeSession.class))
+                .numBeams(4)
+                .tokenizer(mock(Tokenizer.class))
+                .decoder(mock(TokenDecoder.class))
+                .eosTokenId(0);
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("EncoderDecoderSession");
+    }
+
+    @Test
+    void generate_withBeams_streamsBestHypothesis() throws Exception {
+        EncoderDecoderSession session = mock(EncoderDecoderSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+        when(tokenizer.encode("x")).thenReturn(new EncodedInput(new long[]{5}, new long[1], new long[1]));
+        when(session.prefillBeams(any(), anyInt(), anyInt())).thenReturn(new ForwardResult(logitsForToken(3, 10)));
+        when(session.decodeBeams(any(), any())).thenAnswer(invocation -> {
+            long[] tokens = invocation.getArgument(0);
+            float[][] logits = new float[tokens.length][];
+            Arrays.fill(logits, logitsForToken(0, 10));
+            return logits;
+        });
+        when(decoder.decode(anyInt())).thenAnswer(invocation -> "t" + invocation.getArgument(0));
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .numBeams(2)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .build()) {
+
+            GenerationResult result = engine.generate("x");
+
+            assertThat(result.text()).isEqualTo("t3");
+            assertThat(result.generatedTokens()).isEqualTo(1);
+        }
+
+        verify(session, never()).prefill(any());
+    }
+
+    @Test
+    void generate_withContextWindow_slidesCachePastTheWindow() throws Exception {
+        CountingSession session = new CountingSession();
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+
+        when(tokenizer.encode("x")).thenReturn(
+                new EncodedInput(new long[]{1, 2, 3}, new long[3], new long[3]));
+        when(decoder.decode(anyInt())).thenReturn("t");
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .maxNewTokens(6)
+                .contextWindow(5)
+                .contextPolicy(ContextPolicy.slidingWindow(1))
+                .build()) {
+
+            GenerationResult result = engine.generate("x");
+
+            assertThat(result.generatedTokens()).isEqualTo(6);
+        }
+
+        // Once the window is full, the cache is fitted one position below it, so only
+        // every other step evicts
+        assertThat(session.passes).containsExactly("prefill [1, 2, 3]", "decode 4", "decode 5",
+                "evict 1 2", "extend [6]", "decode 7",
+                "evict 1 2", "extend [8]", "decode 9");
+        assertThat(session.cache).containsExactly(1L, 6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    void generate_withContextWindow_keepsPositionsBelowTheModelLimit() throws Exception {
+        CountingSession session = new CountingSession();
+        session.maxPositions = 12;
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+
+        when(tokenizer.encode("x")).thenReturn(
+                new EncodedInput(new long[]{1, 2, 3}, new long[3], new long[3]));
+        when(decoder.decode(anyInt())).thenReturn("t");
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .maxNewTokens(40)
+                .contextWindow(8)
+                .contextPolicy(ContextPolicy.slidingWindow(1))
+                .build()) {
+
+            GenerationResult result = engine.generate("x");
+
+            assertThat(result.generatedTokens()).isEqualTo(40);
+        }
+
+        // The window slides past itself several times; evicting while the positions
+        // fit and prefilling the window again once they would not
+        assertThat(session.passes).filteredOn(pass -> pass.startsWith("evict")).hasSizeGreaterThan(2);
+        assertThat(session.passes).filteredOn(pass -> pass.startsWith("prefill")).hasSizeGreaterThan(2);
+        assertThat(session.positions).allSatisfy(position -> assertThat(position).isLessThan(12));
+        assertThat(session.cache).hasSizeLessThanOrEqualTo(8).startsWith(1L);
+    }
+
+    @Test
+    void builder_rejectsContextWindowBeyondMaxPositions() {
+        CountingSession session = new CountingSession();
+        session.maxPositions = 16;
+        var builder = GenerationEngine.builder()
+                .session(session)
+                .contextWindow(32)
+                .tokenizer(mock(Tokenizer.class))
+                .decoder(mock(TokenDecoder.class))
+                .eosTokenId(0);
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("16 positions");
+    }
+
+    @Test
+    void generateN_prefillsOnceAndDecodesSamplesAsOneBatch() throws Exception {
+        CountingSession session = new CountingSession();
+        Tokenizer tokenizer = mock(Tokenizer.class);
+        TokenDecoder decoder = mock(TokenDecoder.class);
+
+        when(tokenizer.encode("x")).thenReturn(
+                new EncodedInput(new long[]{1, 2, 3}, new long[3], new long[3]));
+        when(decoder.decode(anyInt())).thenAnswer(invocation -> String.valueOf((int) invocation.getArgument(0)));
+
+        try (var engine = GenerationEngine.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .decoder(decoder)
+                .eosTokenId(0)
+                .maxNewTokens(3)
+                .build()) {
+
+            List<GenerationResult> results = engine.generate("x", 2);
+
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).text()).isEqualTo("456");
+            assertThat(results.get(1).text()).isEqualTo("456");
+            assertThat(results.get(1).promptTokens()).isEqualTo(3);
+        }
+
+        // No pass after the last token, which is never fed
+        assertThat(session.passes).containsExactly("prefill [1, 2, 3]", "fork 2 3",
+                "batch [4, 4]", "batch [5, 5]", "release");
+    }
+
+    @Test
+    void generateN_rejectsNonPositiveCount() {
+        var engine = GenerationEngine.builder()
+                .session(mock(GenerativeSession.class))
+                .tokenizer(mock(Tokenizer.class))
+                .decoder(mock(TokenDecoder.class))
+                .eosTokenId(0)
+                .build();
+
+        assertThatThrownBy(() -> engine.generate("x", 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("n must be >= 1");
+    }
+
+    @Test
+    void builder_rejectsContextWindowCombinedWithSpeculativeDecoding() {
+        var builder = GenerationEngine.builder()
+                .session(mock(GenerativeSession.class))
+                .promptLookup(3)
+                .contextWindow(1024)
+                .tokenizer(mock(Tokenizer.class))
+                .decoder(mock(TokenDecoder.class))
+                .eosTokenId(0);
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("contextWindow");
+    }
+
+    private static KvCacheSnapshot snapshot(int length) {
+        return new KvCacheSnapshot(length, Map.of("past_key_values.0.key",
+                Tensor.fromFloats(new float[length * 2], new long[]{1, 1, length, 2})));
+    }
+
     /**
      * Creates a logits array where the given tokenId has the highest value.
      */
@@ -391,4 +682,94 @@ class GenerationEngineTest {
         logits[tokenId] = 10.0f;
         return logits;
     }
+
+    // Predicts the token after the last one fed, and records every pass and the
+    // position each token is fed at
+    private static class CountingSession implements GenerativeSession {
+
+        private final List<Long> cache = new ArrayList<>();
+        private final List<String> passes = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private int positionOffset;
+        private int maxPositions;
+
+        @Override
+        public ForwardResult prefill(long[] tokenIds) {
+            resetCache();
+            passes.add("prefill " + Arrays.toString(tokenIds));
+            return run(tokenIds);
+        }
+
+        @Override
+        public ForwardResult decode(long tokenId) {
+            passes.add("decode " + tokenId);
+            return run(new long[]{tokenId});
+        }
+
+        @Override
+        public ForwardResult extend(long[] tokenIds) {
+            passes.add("extend " + Arrays.toString(tokenIds));
+            return run(tokenIds);
+        }
+
+        @Override
+        public void evict(int from, int count) {
+            passes.add("evict " + from + " " + count);
+            cache.subList(from, from + count).clear();
+            positionOffset += count;
+        }
+
+        @Override
+        public int positionOffset() {
+            return positionOffset;
+        }
+
+        @Override
+        public int maxPositions() {
+            return maxPositions;
+        }
+
+        @Override
+        public void fork(int count, int maxSteps) {
+            passes.add("fork " + count + " " + maxSteps);
+        }
+
+        @Override
+        public float[][] decodeBatch(long[] tokenIds) {
+            passes.add("batch " + Arrays.toString(tokenIds));
+            float[][] logits = new float[tokenIds.length][];
+            for (int i = 0; i < tokenIds.length; i++) {
+                logits[i] = logitsForToken((int) tokenIds[i] + 1, 64);
+            }
+            return logits;
+        }
+
+        @Override
+        public void releaseBatch() {
+            passes.add("release");
+        }
+
+        @Override
+        public int cacheSequenceLength() {
+            return cache.size();
+        }
+
+        @Override
+        public void resetCache() {
+            cache.clear();
+            positionOffset = 0;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private ForwardResult run(long[] tokenIds) {
+            for (long tokenId : tokenIds) {
+                positions.add(positionOffset + cache.size());
+                cache.add(tokenId);
+            }
+            return new ForwardResult(logitsForToken((int) tokenIds[tokenIds.length - 1] + 1, 64));
+        }
+    }
 }
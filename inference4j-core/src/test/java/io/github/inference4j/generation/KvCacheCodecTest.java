@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class KvCacheCodecTest {
+
+    // [1, heads=2, length=3, dim=4]
+    private static final float[] VALUES = {
+            0.5f, -1.25f, 3f, 0f, 2f, 2f, -2f, 0.125f, 7f, -7f, 1f, 0.25f,
+            -0.5f, 1.5f, 0.75f, -3f, 4f, 0f, 0f, 0f, 1f, 2f, 3f, 4f};
+
+    private final KvCacheSnapshot snapshot = snapshot(Tensor.fromFloats(VALUES, new long[]{1, 2, 3, 4}));
+
+    @Test
+    void none_roundTripsExactly() {
+        KvCacheSnapshot decoded = KvCacheCodec.decode(KvCacheCodec.encode(snapshot, KvCacheCompression.NONE));
+
+        assertThat(decoded.length()).isEqualTo(3);
+        assertThat(decoded.tensors().keySet()).containsExactly("past_key_values.0.key", "past_key_values.0.value");
+        assertThat(decoded.tensors().get("past_key_values.0.key").shape()).containsExactly(1, 2, 3, 4);
+        assertThat(decoded.tensors().get("past_key_values.0.value").toFloats()).isEqualTo(VALUES);
+    }
+
+    @Test
+    void float16_halvesFloatCacheAndKeepsValuesRepresentableInHalfPrecision() {
+        ByteBuffer none = KvCacheCodec.encode(snapshot, KvCacheCompression.NONE);
+        ByteBuffer half = KvCacheCodec.encode(snapshot, KvCacheCompression.FLOAT16);
+
+        KvCacheSnapshot decoded = KvCacheCodec.decode(half);
+
+        assertThat(half.remaining()).isLessThan(none.remaining());
+        assertThat(decoded.tensors().get("past_key_values.0.key").type()).isEqualTo(TensorType.FLOAT);
+        assertThat(decoded.tensors().get("past_key_values.0.key").toFloats()).isEqualTo(VALUES);
+    }
+
+    @Test
+    void int8_quantizesEachVectorWithinItsScale() {
+        ByteBuffer bytes = KvCacheCodec.encode(snapshot, KvCacheCompression.INT8);
+
+        float[] decoded = KvCacheCodec.decode(bytes).tensors().get("past_key_values.0.key").toFloats();
+
+        assertThat(bytes.remaining()).isEqualTo(
+                KvCacheCodec.encodedSize(snapshot, KvCacheCompression.INT8));
+        for (int row = 0; row < VALUES.length; row += 4) {
+            float max = 0f;
+            for (int i = row; i < row + 4; i++) {
+                max = Math.max(max, Math.abs(VALUES[i]));
+            }
+            for (int i = row; i < row + 4; i++) {
+                assertThat(decoded[i]).isCloseTo(VALUES[i], within(max / 254f + 1e-6f));
+            }
+        }
+    }
+
+    @Test
+    void int8_restoresFloat16Tensors() {
+        KvCacheSnapshot half = snapshot(Tensor.fromFloats(VALUES, new long[]{1, 2, 3, 4}).castToFloat16());
+
+        KvCacheSnapshot decoded = KvCacheCodec.decode(KvCacheCodec.encode(half, KvCacheCompression.INT8));
+
+        assertThat(decoded.tensors().get("past_key_values.0.value").type()).isEqualTo(TensorType.FLOAT16);
+    }
+
+    @Test
+    void decode_rejectsOtherBytes() {
+        assertThatThrownBy(() -> KvCacheCodec.decode(ByteBuffer.allocate(32)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not a serialized KV cache snapshot");
+    }
+
+    @Test
+    void decode_rejectsUnknownCompression() {
+        ByteBuffer bytes = KvCacheCodec.encode(snapshot, KvCacheCompression.NONE);
+        // The compression follows the magic number and the version
+        bytes.put(bytes.position() + 5, (byte) 42);
+
+        assertThatThrownBy(() -> KvCacheCodec.decode(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown KV cache compression 42");
+    }
+
+    private static KvCacheSnapshot snapshot(Tensor tensor) {
+        Map<String, Tensor> tensors = new LinkedHashMap<>();
+        tensors.put("past_key_values.0.key", tensor);
+        tensors.put("past_key_values.0.value", tensor);
+        return new KvCacheSnapshot(3, tensors);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KvCacheSnapshotTest {
+
+    @Test
+    void constructor_rejectsTensorOfOtherLength() {
+        Tensor tensor = Tensor.fromFloats(new float[8], new long[]{1, 2, 2, 2});
+
+        assertThatThrownBy(() -> new KvCacheSnapshot(3, Map.of("past_key_values.0.key", tensor)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("past_key_values.0.key");
+    }
+
+    @Test
+    void sizeInBytes_sumsAllTensors() {
+        KvCacheSnapshot snapshot = new KvCacheSnapshot(2, Map.of(
+                "past_key_values.0.key", Tensor.fromFloats(new float[8], new long[]{1, 2, 2, 2}),
+                "past_key_values.0.value", Tensor.fromFloat16(new short[8], new long[]{1, 2, 2, 2})));
+
+        assertThat(snapshot.sizeInBytes()).isEqualTo(8 * 4 + 8 * 2);
+    }
+
+    @Test
+    void prefix_keepsFirstPositionsOfEveryHead() {
+        // [1, heads=2, length=3, dim=1]
+        Tensor tensor = Tensor.fromFloats(new float[]{0f, 1f, 2f, 10f, 11f, 12f}, new long[]{1, 2, 3, 1});
+        KvCacheSnapshot snapshot = new KvCacheSnapshot(3, Map.of("past_key_values.0.key", tensor));
+
+        KvCacheSnapshot prefix = snapshot.prefix(2);
+
+        assertThat(prefix.length()).isEqualTo(2);
+        assertThat(prefix.tensors().get("past_key_values.0.key").toFloats())
+                .containsExactly(0f, 1f, 10f, 11f);
+        assertThat(snapshot.prefix(3)).isSameAs(snapshot);
+        assertThatThrownBy(() -> snapshot.prefix(4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void without_removesPositionsFromEveryHead() {
+        // [1, heads=2, length=4, dim=1]
+        Tensor keys = Tensor.fromFloats(new float[]{0f, 1f, 2f, 3f, 10f, 11f, 12f, 13f}, new long[]{1, 2, 4, 1});
+        Tensor values = Tensor.fromFloat16(new short[]{0, 1, 2, 3, 10, 11, 12, 13}, new long[]{1, 2, 4, 1});
+        KvCacheSnapshot snapshot = new KvCacheSnapshot(4, Map.of(
+                "past_key_values.0.key", keys, "past_key_values.0.value", values));
+
+        KvCacheSnapshot kept = snapshot.without(1, 2);
+
+        assertThat(kept.length()).isEqualTo(2);
+        assertThat(kept.tensors().get("past_key_values.0.key").toFloats())
+                .containsExactly(0f, 3f, 10f, 13f);
+        assertThat(kept.tensors().get("past_key_values.0.value").shape()).containsExactly(1, 2, 2, 1);
+        assertThat(snapshot.without(2, 0)).isSameAs(snapshot);
+        assertThatThrownBy(() -> snapshot.without(3, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KvCacheStoreTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void put_beyondBudget_spillsLeastRecentlyUsedToDisk() throws Exception {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.NONE);
+        try (var store = new KvCacheStore(2 * size, KvCacheCompression.NONE, spillDirectory)) {
+            store.put("a", snapshot(1f));
+            store.put("b", snapshot(2f));
+            store.get("a");
+            store.put("c", snapshot(3f));
+
+            // "b" was least recently used
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.memoryBytes()).isEqualTo(2 * size);
+            assertThat(store.diskBytes()).isEqualTo(size);
+            try (var files = Files.list(spillDirectory)) {
+                assertThat(files.count()).isEqualTo(1L);
+            }
+            assertThat(store.get("b").orElseThrow().tensors().get("past_key_values.0.key").toFloats())
+                    .containsExactly(2f, 2f);
+        }
+    }
+
+    @Test
+    void remove_returnsSpilledSnapshotAndDeletesItsFile() throws Exception {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.NONE);
+        try (var store = new KvCacheStore(size, KvCacheCompression.NONE, spillDirectory)) {
+            store.put("a", snapshot(1f));
+            store.put("b", snapshot(2f));
+
+            KvCacheSnapshot restored = store.remove("a").orElseThrow();
+
+            assertThat(restored.tensors().get("past_key_values.0.key").toFloats()).containsExactly(1f, 1f);
+            assertThat(store.contains("a")).isFalse();
+            assertThat(store.diskBytes()).isZero();
+            try (var files = Files.list(spillDirectory)) {
+                assertThat(files.count()).isEqualTo(0L);
+            }
+        }
+    }
+
+    @Test
+    void stores_sharingSpillDirectory_spillToDistinctFiles() throws Exception {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.NONE);
+        try (var first = new KvCacheStore(size, KvCacheCompression.NONE, spillDirectory);
+             var second = new KvCacheStore(size, KvCacheCompression.NONE, spillDirectory)) {
+            first.put("a", snapshot(1f));
+            first.put("b", snapshot(2f));
+            second.put("a", snapshot(3f));
+            second.put("b", snapshot(4f));
+
+            try (var files = Files.list(spillDirectory)) {
+                assertThat(files.count()).isEqualTo(2L);
+            }
+            assertThat(first.get("a").orElseThrow().tensors().get("past_key_values.0.key").toFloats())
+                    .containsExactly(1f, 1f);
+            assertThat(second.get("a").orElseThrow().tensors().get("past_key_values.0.key").toFloats())
+                    .containsExactly(3f, 3f);
+        }
+    }
+
+    @Test
+    void put_whenSpillFails_keepsEntryCountedInMemory() throws Exception {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.NONE);
+        Path missing = spillDirectory.resolve("spill");
+        try (var store = new KvCacheStore(size, KvCacheCompression.NONE, missing)) {
+            store.put("a", snapshot(1f));
+            Files.delete(missing);
+
+            assertThatThrownBy(() -> store.put("b", snapshot(2f)))
+                    .isInstanceOf(UncheckedIOException.class);
+
+            assertThat(store.memoryBytes()).isEqualTo(2 * size);
+            assertThat(store.diskBytes()).isZero();
+            assertThat(store.get("a")).isPresent();
+        }
+    }
+
+    @Test
+    void put_withoutSpillDirectory_dropsLeastRecentlyUsed() {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.INT8);
+        try (var store = new KvCacheStore(size, KvCacheCompression.INT8)) {
+            store.put("a", snapshot(1f));
+            store.put("b", snapshot(2f));
+
+            assertThat(store.contains("a")).isFalse();
+            assertThat(store.get("b")).isPresent();
+        }
+    }
+
+    @Test
+    void close_deletesSpillFiles() throws Exception {
+        long size = KvCacheCodec.encodedSize(snapshot(1f), KvCacheCompression.FLOAT16);
+        var store = new KvCacheStore(size, KvCacheCompression.FLOAT16, spillDirectory);
+        store.put("a", snapshot(1f));
+        store.put("b", snapshot(2f));
+
+        store.close();
+
+        try (var files = Files.list(spillDirectory)) {
+            assertThat(files.count()).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveBudget() {
+        assertThatThrownBy(() -> new KvCacheStore(0, KvCacheCompression.NONE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("memoryBudget");
+    }
+
+    private static KvCacheSnapshot snapshot(float value) {
+        return new KvCacheSnapshot(2, Map.of("past_key_values.0.key",
+                Tensor.fromFloats(new float[]{value, value}, new long[]{1, 1, 2, 1})));
+    }
+}
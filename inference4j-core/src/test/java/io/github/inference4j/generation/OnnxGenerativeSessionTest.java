@@ -17,16 +17,25 @@
 package io.github.inference4j.generation;
 
 import io.github.inference4j.InferenceSession;
+import io.github.inference4j.NativeOutputs;
+import io.github.inference4j.NativeTensor;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OnnxGenerativeSessionTest {
@@ -82,14 +91,450 @@ class OnnxGenerativeSessionTest {
         verify(inferenceSession).close();
     }
 
-    private void stubRunForPrefill() {
-        Map<String, Tensor> outputs = new LinkedHashMap<>();
+    @Test
+    void prefill_returnsLastPositionLogits() {
+        NativeOutputs outputs = nativeOutputs(Tensor.fromFloats(
+                new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{1, 2, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+
+        ForwardResult result = session.prefill(new long[]{1, 2});
+
+        assertThat(result.logits()).containsExactly(4f, 5f, 6f);
+    }
+
+    @Test
+    void decode_feedsPresentOutputsBackWithoutCopying() {
+        NativeOutputs prefillOutputs = stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+        NativeOutputs decodeOutputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{0f, 1f, 0f}, new long[]{1, 1, 3}));
+        Map<String, NativeTensor> cache = new HashMap<>();
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            cache.putAll(invocation.getArgument(1));
+            return decodeOutputs;
+        });
+
+        ForwardResult result = session.decode(7L);
+
+        assertThat(cache).hasSize(4);
+        assertThat(cache.get("past_key_values.1.value"))
+                .isSameAs(prefillOutputs.get("present.1.value"));
+        assertThat(result.logits()).containsExactly(0f, 1f, 0f);
+        assertThat(session.cacheSequenceLength()).isEqualTo(4);
+    }
+
+    @Test
+    void decode_releasesPreviousStepOutputs() {
+        NativeOutputs prefillOutputs = stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+        NativeOutputs decodeOutputs = stubRunForPrefill();
+
+        session.decode(7L);
+
+        verify(prefillOutputs).close();
+        verify(decodeOutputs, never()).close();
+    }
+
+    @Test
+    void resetCache_releasesNativeCache() {
+        NativeOutputs outputs = stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+
+        session.resetCache();
+
+        verify(outputs).close();
+    }
+
+    @Test
+    void decode_pinsLogitsWhenVocabSizeIsStatic() {
+        when(inferenceSession.outputShape("logits")).thenReturn(new long[]{-1, -1, 3});
+        when(inferenceSession.outputType("logits")).thenReturn(TensorType.FLOAT);
+        session = new OnnxGenerativeSession(inferenceSession);
+        stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+
+        session.decode(7L);
+
+        verify(inferenceSession).runNative(anyMap(), anyMap(),
+                argThat((Map<String, Tensor> pinned) -> pinned.containsKey("logits")
+                        && pinned.get("logits").isDirect()
+                        && Arrays.equals(pinned.get("logits").shape(), new long[]{1, 3, 3})));
+        verify(inferenceSession).runNative(anyMap(), anyMap(),
+                argThat((Map<String, Tensor> pinned) -> pinned.containsKey("logits")
+                        && pinned.get("logits").isDirect()
+                        && Arrays.equals(pinned.get("logits").shape(), new long[]{1, 1, 3})));
+    }
+
+    @Test
+    void prefill_longPrompt_extendsCacheChunkByChunk() {
+        session.setPrefillChunkSize(2);
+        List<Map<String, Tensor>> runs = new ArrayList<>();
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{1, 2, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            runs.add(new HashMap<>(invocation.getArgument(0)));
+            return outputs;
+        });
+
+        ForwardResult result = session.prefill(new long[]{1, 2, 3, 4, 5});
+
+        assertThat(runs).hasSize(3);
+        assertThat(runs.get(0).get("input_ids").toLongs()).containsExactly(1, 2);
+        assertThat(runs.get(1).get("position_ids").toLongs()).containsExactly(2, 3);
+        assertThat(runs.get(2).get("input_ids").toLongs()).containsExactly(5);
+        assertThat(runs.get(2).get("attention_mask").shape()).containsExactly(1, 5);
+        assertThat(result.logits()).containsExactly(4f, 5f, 6f);
+        assertThat(session.cacheSequenceLength()).isEqualTo(5);
+    }
+
+    @Test
+    void prefill_pinsChunkLogitsAndCopiesOnlyTheLastPosition() {
+        when(inferenceSession.outputShape("logits")).thenReturn(new long[]{-1, -1, 3});
+        when(inferenceSession.outputType("logits")).thenReturn(TensorType.FLOAT);
+        session = new OnnxGenerativeSession(inferenceSession);
+        NativeOutputs outputs = stubRunForPrefill();
+
+        ForwardResult result = session.prefill(new long[]{1, 2});
+
+        verify(inferenceSession).runNative(anyMap(), anyMap(),
+                argThat((Map<String, Tensor> pinned) -> pinned.get("logits").isDirect()
+                        && Arrays.equals(pinned.get("logits").shape(), new long[]{1, 2, 3})));
+        verify(outputs, never()).get("logits");
+        assertThat(result.logits()).hasSize(3);
+    }
+
+    @Test
+    void extendAll_longerThanAChunk_leavesLogitsToTheRuntime() {
+        when(inferenceSession.outputShape("logits")).thenReturn(new long[]{-1, -1, 3});
+        when(inferenceSession.outputType("logits")).thenReturn(TensorType.FLOAT);
+        session = new OnnxGenerativeSession(inferenceSession);
+        session.setPrefillChunkSize(1);
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{1, 2, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+
+        List<ForwardResult> results = session.extendAll(new long[]{1, 2});
+
+        verify(inferenceSession).runNative(anyMap(), anyMap(),
+                argThat((Map<String, Tensor> pinned) -> !pinned.containsKey("logits")));
+        assertThat(results.get(1).logits()).containsExactly(4f, 5f, 6f);
+    }
+
+    @Test
+    void setPrefillChunkSize_rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> session.setPrefillChunkSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("prefillChunkSize");
+    }
+
+    @Test
+    void extend_continuesFromCachedPositions() {
+        stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+        Map<String, Tensor> inputs = new HashMap<>();
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{1, 2, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            inputs.putAll(invocation.getArgument(0));
+            return outputs;
+        });
+
+        ForwardResult result = session.extend(new long[]{4, 5});
+
+        assertThat(inputs.get("attention_mask").shape()).containsExactly(1, 5);
+        assertThat(inputs.get("position_ids").toLongs()).containsExactly(3, 4);
+        assertThat(result.logits()).containsExactly(4f, 5f, 6f);
+        assertThat(session.cacheSequenceLength()).isEqualTo(5);
+    }
+
+    @Test
+    void extendAll_returnsLogitsForEveryPosition() {
+        stubRunForPrefill();
+        session.prefill(new long[]{1, 2, 3});
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{1, 2, 3})));
+
+        List<ForwardResult> results = session.extendAll(new long[]{4, 5});
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).logits()).containsExactly(1f, 2f, 3f);
+        assertThat(results.get(1).logits()).containsExactly(4f, 5f, 6f);
+    }
+
+    @Test
+    void truncate_dropsTrailingPositions() {
+        NativeOutputs outputs = stubRunForPrefill();
+        float[] data = new float[4 * 3 * 8];
+        Arrays.fill(data, 7f);
+        Tensor cached = Tensor.fromFloats(data, new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+
+        session.truncate(2);
+
+        assertThat(session.cacheSequenceLength()).isEqualTo(2);
+        Map<String, Tensor> inputs = new HashMap<>();
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            inputs.putAll(invocation.getArgument(0));
+            return outputs;
+        });
+        session.decode(4L);
+
+        assertThat(inputs.get("past_key_values.0.key").shape()).containsExactly(1, 4, 2, 8);
+        assertThat(inputs.get("attention_mask").shape()).containsExactly(1, 3);
+        assertThat(inputs.get("position_ids").toLongs()).containsExactly(2);
+        assertThatThrownBy(() -> session.truncate(4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evict_removesPositionsAndKeepsFeedingPositionsPastTheLastOne() {
+        NativeOutputs outputs = stubRunForPrefill();
+        float[] data = new float[4 * 3 * 8];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (i / 8) % 3;
+        }
+        Tensor cached = Tensor.fromFloats(data, new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+
+        session.evict(1, 1);
+
+        assertThat(session.cacheSequenceLength()).isEqualTo(2);
+        Map<String, Tensor> inputs = new HashMap<>();
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            inputs.putAll(invocation.getArgument(0));
+            return outputs;
+        });
+        session.decode(4L);
+
+        // Every head keeps positions 0 and 2
+        float[] past = inputs.get("past_key_values.0.key").toFloats();
+        assertThat(past[0]).isEqualTo(0f);
+        assertThat(past[8]).isEqualTo(2f);
+        assertThat(past[16]).isEqualTo(0f);
+        assertThat(inputs.get("attention_mask").shape()).containsExactly(1, 3);
+        // The retained key at position 2 was encoded there; the new token follows it
+        assertThat(inputs.get("position_ids").toLongs()).containsExactly(3);
+        assertThatThrownBy(() -> session.evict(2, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evict_decodingPastTheWindow_feedsStrictlyIncreasingPositions() {
+        NativeOutputs outputs = stubRunForPrefill();
+        Tensor cached = Tensor.fromFloats(new float[4 * 3 * 8], new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+        List<Long> positions = new ArrayList<>();
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Tensor> inputs = invocation.getArgument(0);
+            positions.add(inputs.get("position_ids").toLongs()[0]);
+            return outputs;
+        });
+
+        // A window of 3 with one sink token: evict the oldest non-sink position per step
+        for (long token = 4; token < 9; token++) {
+            session.evict(1, 1);
+            session.decode(token);
+            assertThat(session.cacheSequenceLength()).isEqualTo(3);
+        }
+
+        assertThat(positions).containsExactly(3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void evict_decodingPastMaxPositions_throwsUntilPrefilledAgain() {
+        NativeOutputs outputs = stubRunForPrefill();
+        Tensor cached = Tensor.fromFloats(new float[4 * 3 * 8], new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.setMaxPositions(4);
+        session.prefill(new long[]{1, 2, 3});
+
+        session.evict(1, 1);
+        session.decode(4L);
+        assertThat(session.positionOffset()).isEqualTo(1);
+        session.evict(1, 1);
+
+        assertThatThrownBy(() -> session.decode(5L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Position 4");
+        session.prefill(new long[]{1, 4, 5});
+        assertThat(session.positionOffset()).isEqualTo(0);
+    }
+
+    @Test
+    void setMaxPositions_rejectsNonPositiveCount() {
+        assertThatThrownBy(() -> session.setMaxPositions(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxPositions");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fork_decodeBatch_runsForkedSequencesAsOneBatch() {
+        NativeOutputs prefillOutputs = stubRunForPrefill();
+        Tensor cached = Tensor.fromFloats(new float[4 * 3 * 8], new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(prefillOutputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+        session.fork(2, 4);
+
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, new long[]{2, 1, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+        float[][] logits = session.decodeBatch(new long[]{7, 9});
+
+        ArgumentCaptor<Map<String, Tensor>> inputs = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, Tensor>> pinned = ArgumentCaptor.forClass(Map.class);
+        verify(inferenceSession, times(2)).runNative(inputs.capture(), anyMap(), pinned.capture());
+        Map<String, Tensor> batch = inputs.getValue();
+        assertThat(batch.get("input_ids").toLongs()).containsExactly(7, 9);
+        assertThat(batch.get("attention_mask").shape()).containsExactly(2, 4);
+        assertThat(batch.get("position_ids").toLongs()).containsExactly(3, 3);
+        assertThat(batch.get("past_key_values.1.value").shape()).containsExactly(2, 4, 3, 8);
+        assertThat(pinned.getValue().get("present.0.key").shape()).containsExactly(2, 4, 4, 8);
+        assertThat(logits[1]).containsExactly(4f, 5f, 6f);
+        // The single-sequence cache is left as it was
+        assertThat(session.cacheSequenceLength()).isEqualTo(3);
+        verify(outputs).close();
+    }
+
+    @Test
+    void decodeBatch_withoutFork_throws() {
+        assertThatThrownBy(() -> session.decodeBatch(new long[]{1}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fork");
+        assertThatThrownBy(() -> session.fork(2, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("prefill");
+    }
+
+    @Test
+    void releaseBatch_dropsForkedSequencesAndKeepsTheSessionCache() {
+        NativeOutputs outputs = stubRunForPrefill();
+        Tensor cached = Tensor.fromFloats(new float[4 * 3 * 8], new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+        session.fork(2, 4);
+
+        session.releaseBatch();
+
+        assertThatThrownBy(() -> session.decodeBatch(new long[]{7, 9}))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(session.cacheSequenceLength()).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotAndRestore_roundTripCache() {
+        NativeOutputs outputs = stubRunForPrefill();
+        Tensor cached = Tensor.fromFloats(new float[4 * 3 * 8], new long[]{1, 4, 3, 8});
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name).toTensor()).thenReturn(cached);
+        }
+        session.prefill(new long[]{1, 2, 3});
+
+        KvCacheSnapshot snapshot = session.snapshot();
+        session.resetCache();
+        session.restore(snapshot);
+
+        assertThat(snapshot.length()).isEqualTo(3);
+        assertThat(snapshot.tensors()).containsOnlyKeys(
+                "past_key_values.0.key", "past_key_values.0.value",
+                "past_key_values.1.key", "past_key_values.1.value");
+        assertThat(session.cacheSequenceLength()).isEqualTo(3);
+
+        Map<String, Tensor> inputs = new HashMap<>();
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            inputs.putAll(invocation.getArgument(0));
+            return outputs;
+        });
+        session.decode(4L);
+
+        // the restored cache is fed from the heap for the first step
+        assertThat(inputs.get("past_key_values.1.value")).isSameAs(cached);
+    }
+
+    @Test
+    void staticCache_feedsFixedShapeCacheAndTracksLength() {
+        session = new OnnxGenerativeSession(inferenceSession, 16);
+        Map<String, Tensor> inputs = new HashMap<>();
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1f, 2f, 3f}, new long[]{1, 1, 3}));
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            NativeTensor present = mock(NativeTensor.class);
+            when(present.toTensor()).thenReturn(Tensor.fromFloats(new float[4 * 19 * 8], new long[]{1, 4, 19, 8}));
+            when(outputs.get(name)).thenReturn(present);
+        }
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenAnswer(invocation -> {
+            inputs.putAll(invocation.getArgument(0));
+            return outputs;
+        });
+
+        session.prefill(new long[]{1, 2, 3});
+
+        assertThat(inputs.get("past_key_values.0.key").shape()).containsExactly(1, 4, 16, 8);
+        assertThat(inputs.get("attention_mask").shape()).containsExactly(1, 19);
+        assertThat(inputs.get("position_ids").toLongs()).containsExactly(0, 1, 2);
+        assertThat(session.cacheSequenceLength()).isEqualTo(3);
+        verify(outputs).close();
+
+        session.resetCache();
+
+        assertThat(session.cacheSequenceLength()).isZero();
+    }
+
+    @Test
+    void staticCache_promptBeyondCapacity_throws() {
+        session = new OnnxGenerativeSession(inferenceSession, 2);
+
+        assertThatThrownBy(() -> session.prefill(new long[]{1, 2, 3}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void staticCache_rejectsNonPositiveLength() {
+        assertThatThrownBy(() -> new OnnxGenerativeSession(inferenceSession, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxCacheLength");
+    }
+
+    private NativeOutputs stubRunForPrefill() {
         // logits tensor: [1, seqLen, vocabSize] — slice(0,0) → [seqLen, vocabSize], slice(0,-1) → [vocabSize]
-        outputs.put("logits", Tensor.fromFloats(new float[]{1.0f, 2.0f, 3.0f}, new long[]{1, 1, 3}));
-        outputs.put("present.0.key", Tensor.fromFloats(new float[0], new long[]{1, 4, 0, 8}));
-        outputs.put("present.0.value", Tensor.fromFloats(new float[0], new long[]{1, 4, 0, 8}));
-        outputs.put("present.1.key", Tensor.fromFloats(new float[0], new long[]{1, 4, 0, 8}));
-        outputs.put("present.1.value", Tensor.fromFloats(new float[0], new long[]{1, 4, 0, 8}));
-        when(inferenceSession.run(anyMap())).thenReturn(outputs);
+        NativeOutputs outputs = nativeOutputs(
+                Tensor.fromFloats(new float[]{1.0f, 2.0f, 3.0f}, new long[]{1, 1, 3}));
+        when(inferenceSession.runNative(anyMap(), anyMap(), anyMap())).thenReturn(outputs);
+        return outputs;
+    }
+
+    private NativeOutputs nativeOutputs(Tensor logits) {
+        NativeOutputs outputs = mock(NativeOutputs.class);
+        NativeTensor nativeLogits = mock(NativeTensor.class);
+        when(nativeLogits.toTensor()).thenReturn(logits);
+        when(outputs.get("logits")).thenReturn(nativeLogits);
+        for (String name : new String[]{"present.0.key", "present.0.value",
+                "present.1.key", "present.1.value"}) {
+            when(outputs.get(name)).thenReturn(mock(NativeTensor.class));
+        }
+        return outputs;
     }
 }
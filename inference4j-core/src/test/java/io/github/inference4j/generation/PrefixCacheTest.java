@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrefixCacheTest {
+
+    @Test
+    void lookup_emptyCache_misses() {
+        PrefixCache cache = new PrefixCache(1 << 20);
+
+        assertThat(cache.lookup(new long[]{1, 2, 3})).isEmpty();
+    }
+
+    @Test
+    void lookup_returnsLongestSharedPrefix() {
+        PrefixCache cache = new PrefixCache(1 << 20);
+        cache.put(new long[]{1, 2, 3, 4, 5}, snapshot(5));
+
+        Optional<KvCacheSnapshot> hit = cache.lookup(new long[]{1, 2, 3, 7});
+
+        assertThat(hit).isPresent();
+        assertThat(hit.get().length()).isEqualTo(3);
+        // positions are the first three of the stored cache
+        assertThat(hit.get().tensors().get("past_key_values.0.key").toFloats())
+                .containsExactly(0f, 1f, 2f);
+    }
+
+    @Test
+    void lookup_leavesAtLeastOneTokenToPrefill() {
+        PrefixCache cache = new PrefixCache(1 << 20);
+        cache.put(new long[]{1, 2, 3}, snapshot(3));
+
+        assertThat(cache.lookup(new long[]{1, 2, 3})).get()
+                .extracting(KvCacheSnapshot::length).isEqualTo(2);
+        assertThat(cache.lookup(new long[]{1})).isEmpty();
+    }
+
+    @Test
+    void put_splitsEdgesForDivergingSequences() {
+        PrefixCache cache = new PrefixCache(1 << 20);
+        cache.put(new long[]{1, 2, 3, 4}, snapshot(4));
+        cache.put(new long[]{1, 2, 5, 6}, snapshot(4));
+        cache.put(new long[]{1, 2}, snapshot(2));
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.contains(new long[]{1, 2, 3, 4})).isTrue();
+        assertThat(cache.contains(new long[]{1, 2, 5, 6})).isTrue();
+        assertThat(cache.contains(new long[]{1, 2})).isTrue();
+        assertThat(cache.contains(new long[]{1, 2, 5})).isFalse();
+        assertThat(cache.lookup(new long[]{1, 2, 5, 6, 7}).get().length()).isEqualTo(4);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondBudget() {
+        long size = snapshot(4).sizeInBytes();
+        PrefixCache cache = new PrefixCache(2 * size);
+        cache.put(new long[]{1, 2, 3, 4}, snapshot(4));
+        cache.put(new long[]{5, 6, 7, 8}, snapshot(4));
+        cache.lookup(new long[]{1, 2, 3, 4, 9});
+
+        cache.put(new long[]{9, 9, 9, 9}, snapshot(4));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.sizeInBytes()).isEqualTo(2 * size);
+        assertThat(cache.contains(new long[]{1, 2, 3, 4})).isTrue();
+        assertThat(cache.contains(new long[]{5, 6, 7, 8})).isFalse();
+        assertThat(cache.lookup(new long[]{5, 6, 7, 8, 1})).isEmpty();
+    }
+
+    @Test
+    void evict_mergesRemainingNodes() {
+        long size = snapshot(4).sizeInBytes();
+        PrefixCache cache = new PrefixCache(size + snapshot(3).sizeInBytes());
+        cache.put(new long[]{1, 2, 3, 4}, snapshot(4));
+        cache.put(new long[]{1, 2, 5}, snapshot(3));
+
+        cache.put(new long[]{1, 2, 6}, snapshot(3));
+
+        assertThat(cache.contains(new long[]{1, 2, 3, 4})).isFalse();
+        assertThat(cache.lookup(new long[]{1, 2, 5, 0}).get().length()).isEqualTo(3);
+        assertThat(cache.lookup(new long[]{1, 2, 6, 0}).get().length()).isEqualTo(3);
+    }
+
+    @Test
+    void put_skipsSnapshotLargerThanBudget() {
+        PrefixCache cache = new PrefixCache(8);
+
+        cache.put(new long[]{1, 2, 3, 4}, snapshot(4));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.sizeInBytes()).isZero();
+    }
+
+    @Test
+    void put_rejectsLengthMismatch() {
+        PrefixCache cache = new PrefixCache(1 << 20);
+
+        assertThatThrownBy(() -> cache.put(new long[]{1, 2}, snapshot(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveBudget() {
+        assertThatThrownBy(() -> new PrefixCache(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxBytes");
+    }
+
+    // One layer, one head, head dim 1: position i holds the value i
+    private static KvCacheSnapshot snapshot(int length) {
+        float[] data = new float[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = i;
+        }
+        Tensor tensor = Tensor.fromFloats(data, new long[]{1, 1, length, 1});
+        return new KvCacheSnapshot(length, Map.of("past_key_values.0.key", tensor));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptLookupDrafterTest {
+
+    @Test
+    void propose_copiesTokensFollowingTheLongestMatch() {
+        PromptLookupDrafter drafter = new PromptLookupDrafter(2);
+        drafter.start(new long[]{7, 1, 2, 3, 4, 9, 2, 5, 6});
+
+        // "6 2" does not occur earlier, so the unigram "2" matches its latest earlier occurrence
+        assertThat(drafter.propose(2, 3).tokens()).containsExactly(5, 6, 2);
+    }
+
+    @Test
+    void propose_prefersLongerNgrams() {
+        PromptLookupDrafter drafter = new PromptLookupDrafter(2);
+        drafter.start(new long[]{1, 2, 3, 4, 8, 2, 5, 1});
+
+        assertThat(drafter.propose(2, 2).tokens()).containsExactly(3, 4);
+    }
+
+    @Test
+    void propose_withoutMatch_proposesNothing() {
+        PromptLookupDrafter drafter = new PromptLookupDrafter(3);
+        drafter.start(new long[]{1, 2, 3});
+
+        assertThat(drafter.propose(4, 5).tokens()).isEmpty();
+    }
+
+    @Test
+    void commit_extendsSearchedSequenceWithAcceptedTokens() {
+        PromptLookupDrafter drafter = new PromptLookupDrafter(1);
+        drafter.start(new long[]{1, 2});
+        SpeculativeDecoder.Draft draft = drafter.propose(9, 4);
+        assertThat(draft.tokens()).isEmpty();
+
+        drafter.commit(9, new SpeculativeDecoder.Draft(new long[]{8, 7}, null), 2);
+
+        assertThat(drafter.propose(9, 4).tokens()).containsExactly(8, 7, 9);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.sampling.CategoricalSampler;
+import io.github.inference4j.sampling.GreedySampler;
+import io.github.inference4j.sampling.LogitsProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpeculativeDecoderTest {
+
+    private static final int VOCAB = 16;
+    private static final IntUnaryOperator TARGET_RULE = last -> (last * 3 + 1) % VOCAB;
+
+    @Test
+    void greedy_matchesPlainDecodingWhenDraftIsOftenWrong() {
+        ScriptedSession target = new ScriptedSession(TARGET_RULE, 0);
+        // Draft disagrees with the target on every third position
+        ScriptedSession draft = new ScriptedSession(TARGET_RULE, 3);
+
+        List<Integer> tokens = generate(target, draft, new long[]{1, 2}, 20, true);
+
+        assertThat(tokens).isEqualTo(plainGreedy(new long[]{1, 2}, 20));
+        // Rejected proposals are rolled back: the cache holds the prompt and all but the last token
+        List<Long> expected = new ArrayList<>(List.of(1L, 2L));
+        tokens.subList(0, 19).forEach(token -> expected.add((long) token));
+        assertThat(target.history).isEqualTo(expected);
+    }
+
+    @Test
+    void greedy_perfectDraftVerifiesSeveralTokensPerPass() {
+        ScriptedSession target = new ScriptedSession(TARGET_RULE, 0);
+        ScriptedSession draft = new ScriptedSession(TARGET_RULE, 0);
+
+        List<Integer> tokens = generate(target, draft, new long[]{5}, 16, true);
+
+        assertThat(tokens).isEqualTo(plainGreedy(new long[]{5}, 16));
+        // First token from the prefill, then 5 tokens (4 drafts + 1) per pass
+        assertThat(target.forwardPasses).isEqualTo(1 + 3);
+    }
+
+    @Test
+    void sampling_acceptsConfidentDraftsAndKeepsTargetDistribution() {
+        ScriptedSession target = new ScriptedSession(TARGET_RULE, 0);
+        ScriptedSession draft = new ScriptedSession(TARGET_RULE, 2);
+
+        List<Integer> tokens = generate(target, draft, new long[]{7}, 12, false);
+
+        // Logits are near one-hot, so sampling follows the target's rule
+        assertThat(tokens).isEqualTo(plainGreedy(new long[]{7}, 12));
+    }
+
+    @Test
+    void promptLookup_acceptsSpansCopiedFromPrompt() {
+        ScriptedSession target = new ScriptedSession(TARGET_RULE, 0);
+        // The rule cycles through these eight tokens, so the output repeats the prompt
+        long[] prompt = {1, 4, 13, 8, 9, 12, 5, 0};
+
+        List<Integer> tokens = generate(target, new PromptLookupDrafter(3), prompt, 16, true);
+
+        assertThat(tokens).isEqualTo(plainGreedy(prompt, 16));
+        assertThat(target.forwardPasses).isLessThan(8);
+    }
+
+    private static List<Integer> generate(ScriptedSession target, ScriptedSession draft,
+                                          long[] prompt, int maxTokens, boolean greedy) {
+        return generate(target, new DraftModelDrafter(draft, LogitsProcessor.identity(), greedy),
+                prompt, maxTokens, greedy);
+    }
+
+    private static List<Integer> generate(ScriptedSession target, SpeculativeDecoder.Drafter drafter,
+                                          long[] prompt, int maxTokens, boolean greedy) {
+        var decoder = new SpeculativeDecoder(target, drafter, LogitsProcessor.identity(),
+                greedy ? new GreedySampler() : new CategoricalSampler(), greedy, 4);
+        List<Integer> tokens = new ArrayList<>();
+        decoder.generate(prompt, target.prefill(prompt), token -> {
+            tokens.add(token);
+            return tokens.size() < maxTokens;
+        });
+        return tokens;
+    }
+
+    private static List<Integer> plainGreedy(long[] prompt, int count) {
+        List<Integer> tokens = new ArrayList<>();
+        int last = (int) prompt[prompt.length - 1];
+        for (int i = 0; i < count; i++) {
+            last = TARGET_RULE.applyAsInt(last);
+            tokens.add(last);
+        }
+        return tokens;
+    }
+
+    /**
+     * Session whose next token is a function of the last token in its cache. With a
+     * non-zero {@code wrongEvery}, positions divisible by it predict a different token.
+     */
+    private static final class ScriptedSession implements GenerativeSession {
+
+        private final IntUnaryOperator rule;
+        private final int wrongEvery;
+        private final List<Long> history = new ArrayList<>();
+        private int forwardPasses;
+
+        ScriptedSession(IntUnaryOperator rule, int wrongEvery) {
+            this.rule = rule;
+            this.wrongEvery = wrongEvery;
+        }
+
+        @Override
+        public ForwardResult prefill(long[] tokenIds) {
+            resetCache();
+            return extend(tokenIds);
+        }
+
+        @Override
+        public ForwardResult decode(long tokenId) {
+            return extend(new long[]{tokenId});
+        }
+
+        @Override
+        public ForwardResult extend(long[] tokenIds) {
+            List<ForwardResult> results = extendAll(tokenIds);
+            return results.get(results.size() - 1);
+        }
+
+        @Override
+        public List<ForwardResult> extendAll(long[] tokenIds) {
+            forwardPasses++;
+            List<ForwardResult> results = new ArrayList<>();
+            for (long tokenId : tokenIds) {
+                history.add(tokenId);
+                int next = rule.applyAsInt((int) tokenId);
+                if (wrongEvery > 0 && history.size() % wrongEvery == 0) {
+                    next = (next + 1) % VOCAB;
+                }
+                float[] logits = new float[VOCAB];
+                Arrays.fill(logits, -20f);
+                logits[next] = 20f;
+                results.add(new ForwardResult(logits));
+            }
+            return results;
+        }
+
+        @Override
+        public void truncate(int length) {
+            history.subList(length, history.size()).clear();
+        }
+
+        @Override
+        public int cacheSequenceLength() {
+            return history.size();
+        }
+
+        @Override
+        public void resetCache() {
+            history.clear();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.generation;
+
+import io.github.inference4j.Tensor;
+import io.github.inference4j.TensorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaticKvCacheTest {
+
+    @Test
+    void constructor_allocatesFixedShapeBuffers() {
+        StaticKvCache cache = new StaticKvCache(2, 2, 4, 8, TensorType.FLOAT16);
+
+        assertThat(cache.pastInputs()).containsOnlyKeys(
+                "past_key_values.0.key", "past_key_values.0.value",
+                "past_key_values.1.key", "past_key_values.1.value");
+        Tensor past = cache.pastInputs().get("past_key_values.1.value");
+        assertThat(past.shape()).containsExactly(1, 2, 8, 4);
+        assertThat(past.type()).isEqualTo(TensorType.FLOAT16);
+        assertThat(past.isDirect()).isTrue();
+        assertThat(cache.decodeOutputs().get("present.0.key").shape()).containsExactly(1, 2, 9, 4);
+        assertThat(cache.length()).isZero();
+    }
+
+    @Test
+    void attentionMask_masksEmptyPastSlots() {
+        StaticKvCache cache = new StaticKvCache(1, 1, 2, 3, TensorType.FLOAT);
+
+        assertThat(cache.attentionMask(2).toLongs()).containsExactly(0, 0, 0, 1, 1);
+        assertThat(cache.attentionMask(1).toLongs()).containsExactly(0, 0, 0, 1);
+    }
+
+    @Test
+    void append_copiesNewPositionsIntoNextSlots() {
+        StaticKvCache cache = new StaticKvCache(1, 2, 2, 3, TensorType.FLOAT);
+
+        cache.append(presents(2, 5), "present.", 2);
+
+        // Each head keeps its last two present positions (3 and 4) in slots 0 and 1
+        assertThat(cache.pastInputs().get("past_key_values.0.key").toFloats())
+                .containsExactly(30f, 31f, 40f, 41f, 0f, 0f, 130f, 131f, 140f, 141f, 0f, 0f);
+        assertThat(cache.attentionMask(1).toLongs()).containsExactly(1, 1, 0, 1);
+        assertThat(cache.length()).isEqualTo(2);
+    }
+
+    @Test
+    void append_beyondCapacity_throws() {
+        StaticKvCache cache = new StaticKvCache(1, 2, 2, 3, TensorType.FLOAT);
+        cache.append(presents(2, 5), "present.", 2);
+
+        assertThatThrownBy(() -> cache.append(presents(2, 5), "present.", 2))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("holds 2 of 3");
+        assertThatThrownBy(() -> cache.attentionMask(2))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reset_emptiesMask() {
+        StaticKvCache cache = new StaticKvCache(1, 2, 2, 3, TensorType.FLOAT);
+        cache.append(presents(2, 5), "present.", 2);
+
+        cache.reset();
+
+        assertThat(cache.length()).isZero();
+        assertThat(cache.attentionMask(1).toLongs()).containsExactly(0, 0, 0, 1);
+    }
+
+    @Test
+    void truncate_masksDroppedSlotsAndReusesThem() {
+        StaticKvCache cache = new StaticKvCache(1, 2, 2, 3, TensorType.FLOAT);
+        cache.append(presents(2, 5), "present.", 2);
+
+        cache.truncate(1);
+
+        assertThat(cache.length()).isEqualTo(1);
+        assertThat(cache.attentionMask(1).toLongs()).containsExactly(1, 0, 0, 1);
+        cache.append(presents(2, 5), "present.", 2);
+        assertThat(cache.length()).isEqualTo(3);
+    }
+
+    @Test
+    void evict_movesLaterPositionsDownInPlace() {
+        StaticKvCache cache = new StaticKvCache(1, 2, 2, 4, TensorType.FLOAT);
+        cache.append(presents(2, 4), "present.", 4);
+
+        cache.evict(1, 2);
+
+        // Each head keeps slots 0 and 3, now in slots 0 and 1
+        assertThat(cache.pastInputs().get("past_key_values.0.value").toFloats())
+                .containsExactly(0f, 1f, 30f, 31f, 20f, 21f, 30f, 31f,
+                        100f, 101f, 130f, 131f, 120f, 121f, 130f, 131f);
+        assertThat(cache.length()).isEqualTo(2);
+        assertThat(cache.attentionMask(1).toLongs()).containsExactly(1, 1, 0, 0, 1);
+    }
+
+    // present tensors of shape [1, heads, length, 2] holding head * 100 + slot * 10 + dim
+    private static Map<String, Tensor> presents(int heads, int length) {
+        float[] data = new float[heads * length * 2];
+        for (int h = 0; h < heads; h++) {
+            for (int s = 0; s < length; s++) {
+                for (int d = 0; d < 2; d++) {
+                    data[(h * length + s) * 2 + d] = h * 100 + s * 10 + d;
+                }
+            }
+        }
+        Tensor present = Tensor.fromFloats(data, new long[]{1, heads, length, 2});
+        return Map.of("present.0.key", present, "present.0.value", present);
+    }
+}
@@ -20,6 +20,7 @@ import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.processing.OutputOperator;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.tokenizer.EncodedInput;
 import io.github.inference4j.preprocessing.text.ModelConfig;
@@ -244,6 +245,88 @@ class DistilBertTextClassifierTest {
         assertThat(results.get(0).confidence()).isGreaterThan(0.9f);
     }
 
+    @Test
+    void classifyBatch_runsOncePerCallAndAppliesTopKPerRow() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encode(anyString(), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 2023, 102}, new long[]{1, 1, 1}, new long[]{0, 0, 0}));
+        // Row 0 favours POSITIVE, row 1 favours NEGATIVE; the second call is a batch of one
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{-2.0f, 2.0f, 3.0f, -1.0f}, new long[]{2, 2})),
+                Map.of("logits", Tensor.fromFloats(new float[]{-2.0f, 2.0f}, new long[]{1, 2})));
+
+        DistilBertTextClassifier model = DistilBertTextClassifier.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .config(SENTIMENT_CONFIG)
+                .build();
+
+        List<List<TextClassification>> results = model.classifyBatch(List.of("great", "awful"), 1);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).singleElement().extracting(TextClassification::label).isEqualTo("POSITIVE");
+        assertThat(results.get(1)).singleElement().extracting(TextClassification::label).isEqualTo("NEGATIVE");
+        // Softmax is applied per row, so each row's probabilities sum to 1 on their own
+        float rowSum = model.classifyBatch(List.of("great"), 2).get(0).stream()
+                .map(TextClassification::confidence)
+                .reduce(0f, Float::sum);
+        assertThat(rowSum).isCloseTo(1.0f, within(0.001f));
+        verify(session, times(2)).run(any());
+    }
+
+    @Test
+    void classifyBatch_padsBatchToSharedLength() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encode(eq("short"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 0}));
+        when(tokenizer.encode(eq("longer"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 7, 8, 102}, new long[]{1, 1, 1, 1}, new long[]{0, 0, 0, 0}));
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{1f, 0f, 0f, 1f}, new long[]{2, 2})));
+
+        DistilBertTextClassifier model = DistilBertTextClassifier.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .config(SENTIMENT_CONFIG)
+                .lengthBuckets()
+                .build();
+
+        model.classifyBatch(List.of("short", "longer"), 2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(session).run(captor.capture());
+        assertThat(captor.getValue().get("input_ids").toLongs()).containsExactly(101, 102, 0, 0, 101, 7, 8, 102);
+        assertThat(captor.getValue().get("attention_mask").toLongs()).containsExactly(1, 1, 0, 0, 1, 1, 1, 1);
+    }
+
+    @Test
+    void classifyBatch_logitsForWrongBatchSize_throws() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encode(anyString(), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 2023, 102}, new long[]{1, 1, 1}, new long[]{0, 0, 0}));
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{-2.0f, 2.0f, 3.0f, -1.0f}, new long[]{1, 4})));
+
+        DistilBertTextClassifier model = DistilBertTextClassifier.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .config(SENTIMENT_CONFIG)
+                .build();
+
+        assertThatThrownBy(() -> model.classifyBatch(List.of("great", "awful"), 1))
+                .isInstanceOf(InferenceException.class);
+    }
+
     @Test
     void builder_modelIdAndModelSource_accepted() {
         InferenceSession session = mock(InferenceSession.class);
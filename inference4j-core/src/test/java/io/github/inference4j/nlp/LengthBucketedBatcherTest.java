@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.nlp;
+
+import io.github.inference4j.tokenizer.EncodedInput;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LengthBucketedBatcherTest {
+
+    @Test
+    void run_groupsByBucketAndRestoresOriginalOrder() {
+        LengthBucketedBatcher batcher = new LengthBucketedBatcher(new int[]{4, 8}, 16, 8, false);
+        List<int[]> shapes = new ArrayList<>();
+
+        List<String> results = batcher.run(
+                List.of(input(6), input(2), input(3), input(7), input(12)),
+                batch -> {
+                    shapes.add(new int[]{batch.size(), batch.seqLen()});
+                    List<String> rows = new ArrayList<>();
+                    long[] ids = batch.inputs().get("input_ids").toLongs();
+                    for (int row = 0; row < batch.size(); row++) {
+                        rows.add(ids[row * batch.seqLen()] + "@" + batch.seqLen());
+                    }
+                    return rows;
+                });
+
+        assertThat(results).containsExactly("6@8", "2@4", "3@4", "7@8", "12@16");
+        assertThat(shapes).containsExactly(new int[]{2, 4}, new int[]{2, 8}, new int[]{1, 16});
+    }
+
+    @Test
+    void run_splitsBucketsIntoBatchesOfMaxBatchSize() {
+        LengthBucketedBatcher batcher = new LengthBucketedBatcher(new int[]{8}, 8, 2, false);
+        List<Integer> sizes = new ArrayList<>();
+
+        List<Integer> results = batcher.run(
+                List.of(input(1), input(2), input(3), input(4), input(5)),
+                batch -> {
+                    sizes.add(batch.size());
+                    return new ArrayList<>(Collections.nCopies(batch.size(), batch.seqLen()));
+                });
+
+        assertThat(results).containsOnly(8);
+        assertThat(sizes).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void run_withoutBuckets_padsToLongestInBatch() {
+        LengthBucketedBatcher batcher = new LengthBucketedBatcher(new int[0], 512, 2, false);
+        List<Integer> seqLens = new ArrayList<>();
+
+        batcher.run(List.of(input(9), input(2), input(3), input(10)), batch -> {
+            seqLens.add(batch.seqLen());
+            return new ArrayList<>(Collections.nCopies(batch.size(), 0));
+        });
+
+        assertThat(seqLens).containsExactly(3, 10);
+    }
+
+    @Test
+    void run_padsIdsMaskAndTokenTypesWithZeros() {
+        LengthBucketedBatcher batcher = new LengthBucketedBatcher(new int[]{4}, 4, 8, true);
+
+        batcher.run(List.of(input(2)), batch -> {
+            assertThat(batch.inputs().get("input_ids").toLongs()).containsExactly(2, 2, 0, 0);
+            assertThat(batch.inputs().get("attention_mask").toLongs()).containsExactly(1, 1, 0, 0);
+            assertThat(batch.inputs().get("token_type_ids").toLongs()).containsExactly(1, 1, 0, 0);
+            assertThat(batch.attentionMask()).containsExactly(1, 1, 0, 0);
+            return List.of(0);
+        });
+    }
+
+    @Test
+    void bucketFor_clipsBucketsToMaxLength() {
+        LengthBucketedBatcher batcher = new LengthBucketedBatcher(
+                LengthBucketedBatcher.DEFAULT_BUCKETS, 100, 8, false);
+
+        assertThat(batcher.bucketFor(20)).isEqualTo(32);
+        assertThat(batcher.bucketFor(90)).isEqualTo(100);
+    }
+
+    @Test
+    void validateBuckets_rejectsNonIncreasingLengths() {
+        assertThatThrownBy(() -> LengthBucketedBatcher.validateBuckets(new int[]{32, 32}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LengthBucketedBatcher.validateBuckets(new int[]{0, 32}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * An input of {@code length} tokens whose ids all equal the length.
+     */
+    private static EncodedInput input(int length) {
+        long[] ids = new long[length];
+        long[] mask = new long[length];
+        long[] types = new long[length];
+        Arrays.fill(ids, length);
+        Arrays.fill(mask, 1);
+        Arrays.fill(types, 1);
+        return new EncodedInput(ids, mask, types);
+    }
+}
@@ -19,6 +19,7 @@ package io.github.inference4j.nlp;
 import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.tokenizer.EncodedInput;
 import io.github.inference4j.tokenizer.Tokenizer;
@@ -27,6 +28,7 @@ import org.mockito.ArgumentCaptor;
 
 import java.nio.file.Path;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -230,14 +232,14 @@ class MiniLMSearchRerankerTest {
         Tokenizer tokenizer = mock(Tokenizer.class);
 
         when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenCallRealMethod();
         when(tokenizer.encode(anyString(), anyString(), anyInt())).thenReturn(
                 new EncodedInput(
                         new long[]{101, 2023, 102, 2003, 102},
                         new long[]{1, 1, 1, 1, 1},
                         new long[]{0, 0, 0, 1, 1}));
-        when(session.run(any()))
-                .thenReturn(Map.of("logits", Tensor.fromFloats(new float[]{2.5f}, new long[]{1, 1})))
-                .thenReturn(Map.of("logits", Tensor.fromFloats(new float[]{-1.0f}, new long[]{1, 1})));
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{2.5f, -1.0f}, new long[]{2, 1})));
 
         MiniLMSearchReranker model = MiniLMSearchReranker.builder()
                 .session(session)
@@ -249,6 +251,135 @@ class MiniLMSearchRerankerTest {
         assertThat(scores).hasSize(2);
         assertThat(scores[0]).isGreaterThan(0.5f);
         assertThat(scores[1]).isLessThan(0.5f);
+        verify(session, times(1)).run(any());
+    }
+
+    @Test
+    void scoreBatch_bucketsPairsByLengthAndRestoresOrder() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenCallRealMethod();
+        when(tokenizer.encode(eq("query"), eq("short"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 1, 102}, new long[]{1, 1, 1}, new long[]{0, 0, 0}));
+        when(tokenizer.encode(eq("query"), eq("long"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 1, 102, 2, 2, 2, 102},
+                        new long[]{1, 1, 1, 1, 1, 1, 1}, new long[]{0, 0, 0, 1, 1, 1, 1}));
+        // Logit = padded sequence length, so each score reveals which bucket scored it
+        when(session.run(any())).thenAnswer(invocation -> {
+            Map<String, Tensor> inputs = invocation.getArgument(0);
+            long[] shape = inputs.get("input_ids").shape();
+            float[] logits = new float[(int) shape[0]];
+            Arrays.fill(logits, shape[1]);
+            return Map.of("logits", Tensor.fromFloats(logits, new long[]{shape[0], 1}));
+        });
+
+        MiniLMSearchReranker model = MiniLMSearchReranker.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .lengthBuckets(4, 8)
+                .build();
+
+        float[] scores = model.scoreBatch("query", List.of("long", "short", "long"));
+
+        assertThat(scores).containsExactly(
+                MiniLMSearchReranker.toScore(8), MiniLMSearchReranker.toScore(4), MiniLMSearchReranker.toScore(8));
+        verify(session, times(2)).run(any());
+    }
+
+    @Test
+    void scoreBatch_logitsForWrongBatchSize_throws() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenReturn(List.of(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1}),
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1})));
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{0f, 0f}, new long[]{1, 2})));
+
+        MiniLMSearchReranker model = MiniLMSearchReranker.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .build();
+
+        assertThatThrownBy(() -> model.scoreBatch("query", List.of("doc1", "doc2")))
+                .isInstanceOf(InferenceException.class);
+    }
+
+    @Test
+    void scoreBatch_tokenizesQueryPairsInOneCall() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenReturn(List.of(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1}),
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1})));
+        when(session.run(any())).thenReturn(
+                Map.of("logits", Tensor.fromFloats(new float[]{0f, 0f}, new long[]{2, 1})));
+
+        MiniLMSearchReranker model = MiniLMSearchReranker.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .maxLength(128)
+                .build();
+
+        model.scoreBatch("query", List.of("doc1", "doc2"));
+
+        verify(tokenizer).encodePairs("query", List.of("doc1", "doc2"), 128);
+        verify(tokenizer, never()).encode(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void rerank_returnsTopKSortedByScore() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenCallRealMethod();
+        when(tokenizer.encode(anyString(), anyString(), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1}));
+        when(session.run(any())).thenReturn(Map.of("logits",
+                Tensor.fromFloats(new float[]{-1f, 3f, 0.5f, 3f}, new long[]{4, 1})));
+
+        MiniLMSearchReranker model = MiniLMSearchReranker.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .build();
+
+        List<RankedDocument> top = model.rerank("query", List.of("a", "b", "c", "d"), 3);
+
+        // Tied scores keep the earlier document first
+        assertThat(top).extracting(RankedDocument::index).containsExactly(1, 3, 2);
+        assertThat(top).extracting(RankedDocument::document).containsExactly("b", "d", "c");
+        assertThat(top.get(0).score()).isCloseTo(MiniLMSearchReranker.toScore(3f), within(1e-6f));
+        verify(session, times(1)).run(any());
+    }
+
+    @Test
+    void rerank_topKLargerThanDocuments_returnsAllSorted() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encodePairs(anyString(), anyList(), anyInt())).thenCallRealMethod();
+        when(tokenizer.encode(anyString(), anyString(), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 1}));
+        when(session.run(any())).thenReturn(Map.of("logits",
+                Tensor.fromFloats(new float[]{-2f, 2f}, new long[]{2, 1})));
+
+        MiniLMSearchReranker model = MiniLMSearchReranker.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .build();
+
+        assertThat(model.rerank("query", List.of("low", "high"), 10))
+                .extracting(RankedDocument::document)
+                .containsExactly("high", "low");
+        assertThat(model.rerank("query", List.of("low", "high"), 0)).isEmpty();
     }
 
     // --- Close delegation ---
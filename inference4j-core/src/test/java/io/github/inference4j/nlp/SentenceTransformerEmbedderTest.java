@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -94,6 +95,22 @@ class SentenceTransformerEmbedderTest {
         assertThat(result).isEqualTo(new float[]{0f, 0f, 0f, 0f});
     }
 
+    @Test
+    void meanPooling_readsBufferBackedOutputWithoutCopy() {
+        float[] flatOutput = {
+                1f, 2f, 3f, 4f,    // token 0
+                5f, 6f, 7f, 8f,    // token 1
+                9f, 10f, 11f, 12f  // token 2
+        };
+        long[] shape = {1, 3, 4};
+        Tensor output = Tensor.fromFloats(flatOutput, shape);
+
+        float[] result = SentenceTransformerEmbedder.applyPooling(
+                output.floatBuffer(), shape, new long[]{1, 1, 0}, PoolingStrategy.MEAN);
+
+        assertThat(result).containsExactly(new float[]{3f, 4f, 5f, 6f}, within(0.001f));
+    }
+
     // --- Builder validation ---
 
     @Test
@@ -179,7 +196,7 @@ class SentenceTransformerEmbedderTest {
     }
 
     @Test
-    void encodeBatch_returnsEmbeddingsForAllTexts() {
+    void encodeBatch_runsOncePerChunkAndPoolsEachRow() {
         InferenceSession session = mock(InferenceSession.class);
         Tokenizer tokenizer = mock(Tokenizer.class);
 
@@ -187,24 +204,135 @@ class SentenceTransformerEmbedderTest {
         when(tokenizer.encode(anyString(), anyInt())).thenReturn(
                 new EncodedInput(new long[]{101, 2023, 102}, new long[]{1, 1, 1}, new long[]{0, 0, 0}));
 
-        float[] output1 = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f};
-        float[] output2 = {12f, 11f, 10f, 9f, 8f, 7f, 6f, 5f, 4f, 3f, 2f, 1f};
-        when(session.run(any()))
-                .thenReturn(Map.of("output", Tensor.fromFloats(output1, new long[]{1, 3, 4})))
-                .thenReturn(Map.of("output", Tensor.fromFloats(output2, new long[]{1, 3, 4})));
+        // Shape [2, 3, 4]: row 0 then row 1
+        float[] output = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f,
+                12f, 11f, 10f, 9f, 8f, 7f, 6f, 5f, 4f, 3f, 2f, 1f};
+        when(session.run(any())).thenReturn(
+                Map.of("output", Tensor.fromFloats(output, new long[]{2, 3, 4})));
 
         SentenceTransformerEmbedder model = SentenceTransformerEmbedder.builder()
                 .session(session)
                 .tokenizer(tokenizer)
+                .lengthBuckets()
                 .build();
 
         List<float[]> results = model.encodeBatch(List.of("text1", "text2"));
 
         assertThat(results).hasSize(2);
-        assertThat(results.get(0)).hasSize(4);
-        assertThat(results.get(1)).hasSize(4);
-        // First result: MEAN of [1,5,9],[2,6,10],[3,7,11],[4,8,12] → [5,6,7,8]
-        assertThat(results.get(0)[0]).isCloseTo(5f, within(0.001f));
+        // Row 0: MEAN of [1,5,9],[2,6,10],[3,7,11],[4,8,12] → [5,6,7,8]
+        assertThat(results.get(0)).containsExactly(new float[]{5f, 6f, 7f, 8f}, within(0.001f));
+        // Row 1: MEAN of [12,8,4],[11,7,3],[10,6,2],[9,5,1] → [8,7,6,5]
+        assertThat(results.get(1)).containsExactly(new float[]{8f, 7f, 6f, 5f}, within(0.001f));
+        verify(session, times(1)).run(any());
+    }
+
+    @Test
+    void encodeBatch_padsToLongestAndIgnoresPaddingInPooling() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask", "token_type_ids"));
+        when(tokenizer.encode(eq("long"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 7, 102}, new long[]{1, 1, 1}, new long[]{0, 0, 0}));
+        when(tokenizer.encode(eq("short"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 0}));
+
+        // Shape [2, 3, 2]; the padded position of row 1 holds a large value that must be ignored
+        float[] output = {1f, 1f, 2f, 2f, 3f, 3f,
+                4f, 4f, 6f, 6f, 100f, 100f};
+        when(session.run(any())).thenReturn(
+                Map.of("output", Tensor.fromFloats(output, new long[]{2, 3, 2})));
+
+        SentenceTransformerEmbedder model = SentenceTransformerEmbedder.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .lengthBuckets()
+                .build();
+
+        List<float[]> results = model.encodeBatch(List.of("long", "short"));
+
+        assertThat(results.get(0)).containsExactly(new float[]{2f, 2f}, within(0.001f));
+        assertThat(results.get(1)).containsExactly(new float[]{5f, 5f}, within(0.001f));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(session).run(captor.capture());
+        Map<String, Tensor> inputs = captor.getValue();
+        assertThat(inputs.get("input_ids").shape()).containsExactly(2, 3);
+        assertThat(inputs.get("input_ids").toLongs()).containsExactly(101, 7, 102, 101, 102, 0);
+        assertThat(inputs.get("attention_mask").toLongs()).containsExactly(1, 1, 1, 1, 1, 0);
+        assertThat(inputs.get("token_type_ids").toLongs()).containsExactly(0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void encodeBatch_splitsInputIntoChunksOfMaxBatchSize() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encode(anyString(), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 0}));
+        when(session.run(any())).thenAnswer(invocation -> {
+            Map<String, Tensor> inputs = invocation.getArgument(0);
+            long[] shape = inputs.get("input_ids").shape();
+            return Map.of("output", Tensor.fromFloats(new float[(int) (shape[0] * shape[1] * 3)],
+                    new long[]{shape[0], shape[1], 3}));
+        });
+
+        SentenceTransformerEmbedder model = SentenceTransformerEmbedder.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .maxBatchSize(2)
+                .build();
+
+        List<float[]> results = model.encodeBatch(List.of("a", "b", "c", "d", "e"));
+
+        assertThat(results).hasSize(5);
+        verify(session, times(3)).run(any());
+    }
+
+    @Test
+    void encodeBatch_padsEachBucketToItsLengthAndRestoresOrder() {
+        InferenceSession session = mock(InferenceSession.class);
+        Tokenizer tokenizer = mock(Tokenizer.class);
+
+        when(session.inputNames()).thenReturn(Set.of("input_ids", "attention_mask"));
+        when(tokenizer.encode(eq("short"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 102}, new long[]{1, 1}, new long[]{0, 0}));
+        when(tokenizer.encode(eq("long"), anyInt())).thenReturn(
+                new EncodedInput(new long[]{101, 1, 2, 3, 4, 102}, new long[]{1, 1, 1, 1, 1, 1},
+                        new long[]{0, 0, 0, 0, 0, 0}));
+        // Every hidden state equals the padded sequence length of its batch
+        when(session.run(any())).thenAnswer(invocation -> {
+            Map<String, Tensor> inputs = invocation.getArgument(0);
+            long[] shape = inputs.get("input_ids").shape();
+            float[] hidden = new float[(int) (shape[0] * shape[1])];
+            Arrays.fill(hidden, shape[1]);
+            return Map.of("output", Tensor.fromFloats(hidden, new long[]{shape[0], shape[1], 1}));
+        });
+
+        SentenceTransformerEmbedder model = SentenceTransformerEmbedder.builder()
+                .session(session)
+                .tokenizer(tokenizer)
+                .lengthBuckets(4, 8)
+                .build();
+
+        List<float[]> results = model.encodeBatch(List.of("long", "short", "long", "short"));
+
+        assertThat(results).extracting(r -> r[0]).containsExactly(8f, 4f, 8f, 4f);
+        verify(session, times(2)).run(any());
+    }
+
+    @Test
+    void builder_lengthBuckets_rejectsUnsortedLengths() {
+        assertThatThrownBy(() -> SentenceTransformerEmbedder.builder().lengthBuckets(64, 32))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void builder_maxBatchSize_rejectsNonPositive() {
+        assertThatThrownBy(() -> SentenceTransformerEmbedder.builder().maxBatchSize(0))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     // --- Builder setters ---
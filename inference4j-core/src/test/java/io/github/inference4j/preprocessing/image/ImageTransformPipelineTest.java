@@ -22,8 +22,11 @@ import io.github.inference4j.preprocessing.image.ImageLayout;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 
 class ImageTransformPipelineTest {
@@ -224,6 +227,45 @@ class ImageTransformPipelineTest {
         assertThat(data[0]).isCloseTo(expected, within(0.01f));
     }
 
+    @Test
+    void transformBatch_matchesPerImageTransform() {
+        ImageTransformPipeline pipeline = ImageTransformPipeline.builder()
+                .resize(16, 16)
+                .build();
+        List<BufferedImage> images = List.of(createTestImage(40, 30), createTestImage(20, 50), createTestImage(16, 16));
+
+        Tensor batch = pipeline.transformBatch(images);
+
+        assertThat(batch.shape()).containsExactly(3, 3, 16, 16);
+        float[] data = batch.toFloats();
+        int imageSize = 3 * 16 * 16;
+        for (int i = 0; i < images.size(); i++) {
+            float[] single = pipeline.transform(images.get(i)).toFloats();
+            assertThat(Arrays.copyOfRange(data, i * imageSize, (i + 1) * imageSize)).containsExactly(single);
+        }
+    }
+
+    @Test
+    void transformBatch_nhwc_producesBatchedShape() {
+        ImageTransformPipeline pipeline = ImageTransformPipeline.builder()
+                .resize(8, 4)
+                .layout(ImageLayout.NHWC)
+                .build();
+
+        Tensor batch = pipeline.transformBatch(List.of(createTestImage(10, 10), createTestImage(12, 9)));
+
+        assertThat(batch.shape()).containsExactly(2, 4, 8, 3);
+    }
+
+    @Test
+    void transformBatch_differentSizesWithoutResize_throws() {
+        ImageTransformPipeline pipeline = ImageTransformPipeline.builder().build();
+
+        assertThatThrownBy(() -> pipeline.transformBatch(List.of(createTestImage(4, 4), createTestImage(5, 4))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different sizes");
+    }
+
     private static BufferedImage createTestImage(int width, int height) {
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         for (int y = 0; y < height; y++) {
@@ -61,4 +61,22 @@ class CategoricalSamplerTest {
 
         assertThat(observed).containsExactlyInAnyOrder(0, 1, 2);
     }
+
+    @Test
+    void sample_neverPicksMaskedTokens() {
+        float[] logits = {Float.NEGATIVE_INFINITY, 0.0f, Float.NEGATIVE_INFINITY, 0.0f};
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(sampler.sample(logits)).isIn(1, 3);
+        }
+    }
+
+    @Test
+    void sample_doesNotModifyInput() {
+        float[] logits = {1.0f, 2.0f, 3.0f};
+
+        sampler.sample(logits);
+
+        assertThat(logits).containsExactly(1.0f, 2.0f, 3.0f);
+    }
 }
@@ -87,4 +87,28 @@ class LogitsProcessorTest {
         // (5+1)*2 - 3 = 9
         assertThat(result[0]).isCloseTo(9.0f, within(1e-6f));
     }
+
+    @Test
+    void processInPlace_defaultCopiesProcessResultBack() {
+        LogitsProcessor addOne = logits -> {
+            float[] result = logits.clone();
+            for (int i = 0; i < result.length; i++) result[i] += 1;
+            return result;
+        };
+        float[] logits = {1.0f, 2.0f};
+
+        addOne.processInPlace(logits);
+
+        assertThat(logits).containsExactly(2.0f, 3.0f);
+    }
+
+    @Test
+    void andThen_processInPlace_appliesEachStageToTheSameArray() {
+        LogitsProcessor composed = new TemperatureProcessor(2.0f).andThen(new TopKProcessor(1));
+        float[] logits = {2.0f, 8.0f, 4.0f};
+
+        composed.processInPlace(logits);
+
+        assertThat(logits).containsExactly(Float.NEGATIVE_INFINITY, 4.0f, Float.NEGATIVE_INFINITY);
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SelectionTest {
+
+    @Test
+    void kthLargest_matchesSortedOrder() {
+        Random random = new Random(3);
+        float[] values = new float[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(100);
+        }
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (int k : new int[]{1, 2, 50, 999, 1000}) {
+            assertThat(Selection.kthLargest(values.clone(), values.length, k))
+                    .isEqualTo(sorted[sorted.length - k]);
+        }
+    }
+
+    @Test
+    void selectTop_movesLargestKeysToTheFront() {
+        float[] keys = {0.1f, 0.9f, 0.5f, 0.7f, 0.3f};
+        int[] indices = {0, 1, 2, 3, 4};
+
+        Selection.selectTop(indices, indices.length, 2, keys);
+
+        assertThat(new int[]{indices[0], indices[1]}).containsExactlyInAnyOrder(1, 3);
+    }
+
+    @Test
+    void sortDescending_ordersIndicesByKey() {
+        Random random = new Random(5);
+        float[] keys = new float[500];
+        int[] indices = new int[500];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextFloat();
+            indices[i] = i;
+        }
+
+        Selection.sortDescending(indices, indices.length, keys);
+
+        for (int i = 1; i < indices.length; i++) {
+            assertThat(keys[indices[i - 1]]).isGreaterThanOrEqualTo(keys[indices[i]]);
+        }
+    }
+
+    @Test
+    void scratch_growsAndIsReused() {
+        float[] first = Selection.floatScratch(10);
+        float[] second = Selection.floatScratch(5);
+        float[] larger = Selection.floatScratch(20);
+
+        assertThat(second).isSameAs(first);
+        assertThat(larger.length).isGreaterThanOrEqualTo(20);
+    }
+}
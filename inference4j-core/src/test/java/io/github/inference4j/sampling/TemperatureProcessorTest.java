@@ -89,4 +89,14 @@ class TemperatureProcessorTest {
 
         assertThat(logits).containsExactly(originalCopy);
     }
+
+    @Test
+    void processInPlace_dividesTheGivenArray() {
+        var processor = new TemperatureProcessor(2.0f);
+        float[] logits = {2.0f, 4.0f, 6.0f};
+
+        processor.processInPlace(logits);
+
+        assertThat(logits).containsExactly(1.0f, 2.0f, 3.0f);
+    }
 }
@@ -18,6 +18,9 @@ package io.github.inference4j.sampling;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.*;
 
 class TopKProcessorTest {
@@ -81,4 +84,35 @@ class TopKProcessorTest {
         assertThat(result[1]).isEqualTo(Float.NEGATIVE_INFINITY);
         assertThat(result[4]).isEqualTo(Float.NEGATIVE_INFINITY);
     }
+
+    @Test
+    void processInPlace_masksInTheGivenArray() {
+        var processor = new TopKProcessor(2);
+        float[] logits = {1.0f, 5.0f, 3.0f, 2.0f};
+
+        processor.processInPlace(logits);
+
+        assertThat(logits).containsExactly(
+                Float.NEGATIVE_INFINITY, 5.0f, 3.0f, Float.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    void process_largeVocabulary_matchesSortedThreshold() {
+        var processor = new TopKProcessor(50);
+        float[] logits = new float[10_000];
+        Random random = new Random(7);
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] = (float) random.nextGaussian();
+        }
+        float[] sorted = logits.clone();
+        Arrays.sort(sorted);
+        float threshold = sorted[sorted.length - 50];
+
+        float[] result = processor.process(logits);
+
+        for (int i = 0; i < logits.length; i++) {
+            float expected = logits[i] < threshold ? Float.NEGATIVE_INFINITY : logits[i];
+            assertThat(result[i]).isEqualTo(expected);
+        }
+    }
 }
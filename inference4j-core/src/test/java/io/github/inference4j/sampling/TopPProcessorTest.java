@@ -19,6 +19,9 @@ package io.github.inference4j.sampling;
 import io.github.inference4j.processing.MathOps;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.*;
 
 class TopPProcessorTest {
@@ -105,4 +108,70 @@ class TopPProcessorTest {
         }
         assertThat(maskedCount).isGreaterThan(0);
     }
+
+    @Test
+    void processInPlace_masksInTheGivenArray() {
+        var processor = new TopPProcessor(0.01f);
+        float[] logits = {-10.0f, -10.0f, 10.0f, -10.0f};
+
+        processor.processInPlace(logits);
+
+        assertThat(logits).containsExactly(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                10.0f, Float.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    void process_doesNotModifyInput() {
+        var processor = new TopPProcessor(0.5f);
+        float[] logits = {10.0f, 1.0f, 0.0f, -1.0f, -5.0f};
+
+        processor.process(logits);
+
+        assertThat(logits).containsExactly(10.0f, 1.0f, 0.0f, -1.0f, -5.0f);
+    }
+
+    @Test
+    void process_largeVocabulary_keepsSmallestPrefixReachingP() {
+        var processor = new TopPProcessor(0.9f);
+        float[] logits = new float[20_000];
+        Random random = new Random(11);
+        for (int i = 0; i < logits.length; i++) {
+            logits[i] = (float) random.nextGaussian() * 3;
+        }
+
+        float[] result = processor.process(logits);
+
+        // Reference: sort all probabilities and count the prefix reaching p
+        float[] probs = MathOps.softmax(logits);
+        float[] sorted = probs.clone();
+        Arrays.sort(sorted);
+        double cumulative = 0;
+        int expectedKept = 0;
+        for (int i = sorted.length - 1; i >= 0 && cumulative < 0.9; i--) {
+            cumulative += sorted[i];
+            expectedKept++;
+        }
+        float smallestKept = sorted[sorted.length - expectedKept];
+
+        int kept = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != Float.NEGATIVE_INFINITY) {
+                assertThat(result[i]).isEqualTo(logits[i]);
+                assertThat(probs[i]).isGreaterThanOrEqualTo(smallestKept);
+                kept++;
+            }
+        }
+        assertThat(kept).isCloseTo(expectedKept, within(1));
+    }
+
+    @Test
+    void process_afterTopK_onlyConsidersSurvivingTokens() {
+        var processor = new TopKProcessor(2).andThen(new TopPProcessor(0.99f));
+        float[] logits = {3.0f, 2.9f, 0.0f, 0.0f, 0.0f};
+
+        float[] result = processor.process(logits);
+
+        assertThat(result).containsExactly(3.0f, 2.9f, Float.NEGATIVE_INFINITY,
+                Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+    }
 }
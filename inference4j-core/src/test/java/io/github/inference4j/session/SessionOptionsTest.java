@@ -21,6 +21,14 @@ import ai.onnxruntime.OrtSession;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class SessionOptionsTest {
 
@@ -81,4 +89,99 @@ class SessionOptionsTest {
             assertThat(ortOptions).isNotNull();
         }
     }
+
+    @Test
+    void defaults_leaveOrtDefaultsUnset() {
+        SessionOptions options = SessionOptions.defaults();
+
+        assertThat(options.optimizationLevel()).isEqualTo(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+        assertThat(options.executionMode()).isNull();
+        assertThat(options.cpuMemoryArena()).isNull();
+        assertThat(options.memoryPatternOptimization()).isNull();
+        assertThat(options.spinWait()).isNull();
+        assertThat(options.freeDimensionOverrides()).isEmpty();
+    }
+
+    @Test
+    void configure_appliesAllSettings() throws OrtException {
+        SessionOptions options = SessionOptions.builder()
+                .intraOpNumThreads(2)
+                .interOpNumThreads(1)
+                .optimizationLevel(OrtSession.SessionOptions.OptLevel.BASIC_OPT)
+                .executionMode(OrtSession.SessionOptions.ExecutionMode.PARALLEL)
+                .cpuMemoryArena(false)
+                .memoryPatternOptimization(false)
+                .spinWait(false)
+                .freeDimensionOverride("batch_size", 1)
+                .build();
+        OrtSession.SessionOptions ortOptions = mock(OrtSession.SessionOptions.class);
+
+        options.configure(ortOptions);
+
+        verify(ortOptions).setIntraOpNumThreads(2);
+        verify(ortOptions).setInterOpNumThreads(1);
+        verify(ortOptions).setOptimizationLevel(OrtSession.SessionOptions.OptLevel.BASIC_OPT);
+        verify(ortOptions).setExecutionMode(OrtSession.SessionOptions.ExecutionMode.PARALLEL);
+        verify(ortOptions).setCPUArenaAllocator(false);
+        verify(ortOptions).setMemoryPatternOptimization(false);
+        verify(ortOptions).addConfigEntry(SessionOptions.INTRA_OP_SPINNING_KEY, "0");
+        verify(ortOptions).addConfigEntry(SessionOptions.INTER_OP_SPINNING_KEY, "0");
+        verify(ortOptions).setSymbolicDimensionValue("batch_size", 1L);
+    }
+
+    @Test
+    void configure_skipsUnsetSettings() throws OrtException {
+        OrtSession.SessionOptions ortOptions = mock(OrtSession.SessionOptions.class);
+
+        SessionOptions.defaults().configure(ortOptions);
+
+        verify(ortOptions, never()).setExecutionMode(any());
+        verify(ortOptions, never()).setCPUArenaAllocator(anyBoolean());
+        verify(ortOptions, never()).setMemoryPatternOptimization(anyBoolean());
+        verify(ortOptions, never()).addConfigEntry(anyString(), anyString());
+    }
+
+    @Test
+    void andThen_appliesBothConfigurersInOrder() throws OrtException {
+        OrtSession.SessionOptions ortOptions = mock(OrtSession.SessionOptions.class);
+        SessionConfigurer combined = SessionOptions.builder().intraOpNumThreads(2).build()
+                .andThen(opts -> opts.setIntraOpNumThreads(3));
+
+        combined.configure(ortOptions);
+
+        var inOrder = inOrder(ortOptions);
+        inOrder.verify(ortOptions).setIntraOpNumThreads(2);
+        inOrder.verify(ortOptions).setIntraOpNumThreads(3);
+    }
+
+    @Test
+    void freeDimensionOverride_rejectsNonPositiveValue() {
+        assertThatThrownBy(() -> SessionOptions.builder().freeDimensionOverride("batch_size", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toOrtOptions_withMemoryAndExecutionSettings() throws OrtException {
+        SessionOptions options = SessionOptions.builder()
+                .cpuMemoryArena(false)
+                .memoryPatternOptimization(true)
+                .executionMode(OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL)
+                .spinWait(true)
+                .freeDimensionOverride("batch_size", 1)
+                .build();
+        try (OrtSession.SessionOptions ortOptions = options.toOrtOptions()) {
+            assertThat(ortOptions).isNotNull();
+        }
+    }
+
+    @Test
+    void configure_withGlobalThreadPools_requiresConfiguredPools() {
+        assumeTrue(GlobalThreadPools.current().isEmpty());
+        OrtSession.SessionOptions ortOptions = mock(OrtSession.SessionOptions.class);
+        SessionOptions options = SessionOptions.builder().useGlobalThreadPools(true).build();
+
+        assertThatThrownBy(() -> options.configure(ortOptions))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("GlobalThreadPools.configure");
+    }
 }
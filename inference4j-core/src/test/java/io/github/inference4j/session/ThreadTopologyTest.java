@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.session;
+
+import ai.onnxruntime.OrtSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ThreadTopologyTest {
+
+    @Test
+    void sessionThreads_sequentialSessionOwnsNoInterOpPool() {
+        SessionOptions options = SessionOptions.builder()
+                .intraOpNumThreads(4)
+                .interOpNumThreads(4)
+                .build();
+
+        ThreadTopology.SessionThreads threads = ThreadTopology.SessionThreads.of("model.onnx", options);
+
+        assertThat(threads.globalPools()).isFalse();
+        assertThat(threads.intraOpNumThreads()).isEqualTo(4);
+        assertThat(threads.interOpNumThreads()).isZero();
+    }
+
+    @Test
+    void sessionThreads_parallelSessionOwnsInterOpPool() {
+        SessionOptions options = SessionOptions.builder()
+                .intraOpNumThreads(4)
+                .interOpNumThreads(2)
+                .executionMode(OrtSession.SessionOptions.ExecutionMode.PARALLEL)
+                .build();
+
+        ThreadTopology.SessionThreads threads = ThreadTopology.SessionThreads.of("model.onnx", options);
+
+        assertThat(threads.interOpNumThreads()).isEqualTo(2);
+    }
+
+    @Test
+    void sessionThreads_globalPoolSessionOwnsNoThreads() {
+        SessionOptions options = SessionOptions.builder().useGlobalThreadPools(true).build();
+
+        ThreadTopology.SessionThreads threads = ThreadTopology.SessionThreads.of("model.onnx", options);
+
+        assertThat(threads.globalPools()).isTrue();
+        assertThat(threads.intraOpNumThreads()).isZero();
+        assertThat(threads.interOpNumThreads()).isZero();
+    }
+
+    @Test
+    void sessionThreads_composedConfigurerReportsItsSessionOptionsAsCustomized() {
+        SessionConfigurer configurer = SessionOptions.builder().useGlobalThreadPools(true).build()
+                .andThen(opts -> opts.addCUDA(0));
+
+        ThreadTopology.SessionThreads threads = ThreadTopology.SessionThreads.of("model.onnx", configurer);
+
+        assertThat(threads.globalPools()).isTrue();
+        assertThat(threads.intraOpNumThreads()).isZero();
+        assertThat(threads.customized()).isTrue();
+    }
+
+    @Test
+    void sessionThreads_lambdaConfigurerReportsDefaultsAsCustomized() {
+        SessionConfigurer configurer = opts -> opts.addCUDA(0);
+
+        ThreadTopology.SessionThreads threads = ThreadTopology.SessionThreads.of("model.onnx", configurer);
+
+        assertThat(threads.intraOpNumThreads()).isEqualTo(SessionOptions.defaults().intraOpNumThreads());
+        assertThat(threads.customized()).isTrue();
+        assertThat(ThreadTopology.SessionThreads.of("model.onnx", (SessionConfigurer) SessionOptions.defaults())
+                .customized()).isFalse();
+    }
+
+    @Test
+    void totalThreads_sumsPerSessionPools() {
+        ThreadTopology topology = new ThreadTopology(8, null, List.of(
+                new ThreadTopology.SessionThreads("a.onnx", false, 8, 0),
+                new ThreadTopology.SessionThreads("b.onnx", false, 8, 8)));
+
+        assertThat(topology.totalThreads()).isEqualTo(24);
+        assertThat(topology.oversubscription()).isEqualTo(3.0);
+    }
+
+    @Test
+    void toString_listsEachSession() {
+        ThreadTopology topology = new ThreadTopology(4, null, List.of(
+                new ThreadTopology.SessionThreads("a.onnx", false, 4, 0),
+                new ThreadTopology.SessionThreads("b.onnx", true, 0, 0),
+                new ThreadTopology.SessionThreads("c.onnx", false, 4, 0, true)));
+
+        assertThat(topology.toString())
+                .contains("4 on 4 processors")
+                .contains("global pools: disabled")
+                .contains("a.onnx: intraOp=4, interOp=0")
+                .contains("b.onnx: global pools")
+                .contains("c.onnx: intraOp=4, interOp=0 (customized)");
+    }
+
+    @Test
+    void globalThreadPools_rejectsNonPositiveThreadCounts() {
+        assertThatThrownBy(() -> GlobalThreadPools.configure(0, 1, true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
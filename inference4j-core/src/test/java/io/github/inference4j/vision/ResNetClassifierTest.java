@@ -21,9 +21,12 @@ import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.processing.OutputOperator;
 import io.github.inference4j.processing.Preprocessor;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
+import io.github.inference4j.preprocessing.image.ImageTransformPipeline;
 import io.github.inference4j.preprocessing.image.Labels;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.nio.file.Path;
 
@@ -186,6 +189,127 @@ class ResNetClassifierTest {
         assertThat(results.get(0).index()).isEqualTo(1);
     }
 
+    @Test
+    void classifyBatch_runsOnceAndAppliesTopKPerRow() {
+        InferenceSession session = mock(InferenceSession.class);
+        when(session.inputShape("input")).thenReturn(new long[]{-1, 3, 2, 2});
+
+        // Row 0 favours "dog", row 1 favours "fish"
+        Tensor outputTensor = Tensor.fromFloats(new float[]{
+                1.0f, 5.0f, 3.0f, 0.5f, 4.0f,
+                0.0f, 0.0f, 0.0f, 9.0f, 1.0f}, new long[]{2, 5});
+        when(session.run(any())).thenReturn(Map.of("output", outputTensor));
+
+        ResNetClassifier model = ResNetClassifier.builder()
+                .session(session)
+                .preprocessor(ImageTransformPipeline.builder()
+                        .resize(2, 2)
+                        .build())
+                .labels(TEST_LABELS)
+                .inputName("input")
+                .build();
+
+        List<BufferedImage> images = List.of(
+                new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB),
+                new BufferedImage(4, 6, BufferedImage.TYPE_INT_RGB));
+        List<List<Classification>> results = model.classifyBatch(images, 2);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).extracting(Classification::label).containsExactly("dog", "horse");
+        assertThat(results.get(1)).extracting(Classification::label).containsExactly("fish", "horse");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(session, times(1)).run(captor.capture());
+        assertThat(captor.getValue().get("input").shape()).containsExactly(2, 3, 2, 2);
+    }
+
+    @Test
+    void classifyBatch_customPreprocessor_stacksTensors() {
+        InferenceSession session = mock(InferenceSession.class);
+        @SuppressWarnings("unchecked")
+        Preprocessor<BufferedImage, Tensor> preprocessor = mock(Preprocessor.class);
+        when(preprocessor.process(any(BufferedImage.class)))
+                .thenReturn(Tensor.fromFloats(new float[]{0.5f, 0.5f}, new long[]{1, 2}));
+        when(session.run(any())).thenReturn(Map.of("output",
+                Tensor.fromFloats(new float[10], new long[]{2, 5})));
+
+        ResNetClassifier model = ResNetClassifier.builder()
+                .session(session)
+                .preprocessor(preprocessor)
+                .labels(TEST_LABELS)
+                .inputName("input")
+                .build();
+
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        assertThat(model.classifyBatch(List.of(image, image), 1)).hasSize(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(session, times(1)).run(captor.capture());
+        assertThat(captor.getValue().get("input").shape()).containsExactly(2, 2);
+    }
+
+    @Test
+    void classifyBatch_fixedBatchSizeOne_runsPerImage() {
+        InferenceSession session = mock(InferenceSession.class);
+        when(session.inputShape("input")).thenReturn(new long[]{1, 3, 2, 2});
+        @SuppressWarnings("unchecked")
+        Preprocessor<BufferedImage, Tensor> preprocessor = mock(Preprocessor.class);
+        when(preprocessor.process(any(BufferedImage.class)))
+                .thenReturn(Tensor.fromFloats(new float[]{0.5f}, new long[]{1}));
+        when(session.run(any())).thenReturn(Map.of("output",
+                Tensor.fromFloats(new float[]{1.0f, 5.0f, 3.0f, 0.5f, 4.0f}, new long[]{1, 5})));
+
+        ResNetClassifier model = ResNetClassifier.builder()
+                .session(session)
+                .preprocessor(preprocessor)
+                .labels(TEST_LABELS)
+                .inputName("input")
+                .build();
+
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        List<List<Classification>> results = model.classifyBatch(List.of(image, image, image), 1);
+
+        assertThat(results).hasSize(3).allSatisfy(r -> assertThat(r.get(0).label()).isEqualTo("dog"));
+        verify(session, times(3)).run(any());
+    }
+
+    @Test
+    void classifyBatch_logitsForWrongBatchSize_throws() {
+        InferenceSession session = mock(InferenceSession.class);
+        @SuppressWarnings("unchecked")
+        Preprocessor<BufferedImage, Tensor> preprocessor = mock(Preprocessor.class);
+        when(preprocessor.process(any(BufferedImage.class)))
+                .thenReturn(Tensor.fromFloats(new float[]{0.5f, 0.5f}, new long[]{1, 2}));
+        when(session.run(any())).thenReturn(Map.of("output",
+                Tensor.fromFloats(new float[10], new long[]{1, 10})));
+
+        ResNetClassifier model = ResNetClassifier.builder()
+                .session(session)
+                .preprocessor(preprocessor)
+                .labels(TEST_LABELS)
+                .inputName("input")
+                .build();
+
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        assertThatThrownBy(() -> model.classifyBatch(List.of(image, image), 1))
+                .isInstanceOf(InferenceException.class);
+    }
+
+    @Test
+    void classifyBatch_emptyList_returnsEmpty() {
+        InferenceSession session = mock(InferenceSession.class);
+
+        ResNetClassifier model = ResNetClassifier.builder()
+                .session(session)
+                .inputName("input")
+                .build();
+
+        assertThat(model.classifyBatch(List.of(), 5)).isEmpty();
+        verify(session, never()).run(any());
+    }
+
     // --- Close delegation ---
 
     @Test
@@ -19,6 +19,7 @@ package io.github.inference4j.vision;
 import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.preprocessing.image.Labels;
 import org.junit.jupiter.api.Test;
@@ -289,6 +290,68 @@ class Yolo26DetectorTest {
         assertThat(results.get(0).confidence()).isGreaterThan(0.9f);
     }
 
+    @Test
+    void detectBatch_runsOnceAndDecodesEachSliceAgainstItsImage() {
+        InferenceSession session = mock(InferenceSession.class);
+
+        // Image 0: person; image 1: car. Both boxes centered, a quarter of the image wide
+        float[] logits = {3.0f, -5f, -5f, -5f, -5f,
+                -5f, -5f, 3.0f, -5f, -5f};
+        float[] boxes = {0.5f, 0.5f, 0.25f, 0.25f,
+                0.5f, 0.5f, 0.25f, 0.25f};
+
+        Map<String, Tensor> outputs = new LinkedHashMap<>();
+        outputs.put("logits", Tensor.fromFloats(logits, new long[]{2, 1, NUM_CLASSES}));
+        outputs.put("pred_boxes", Tensor.fromFloats(boxes, new long[]{2, 1, 4}));
+        when(session.run(any())).thenReturn(outputs);
+
+        Yolo26Detector model = Yolo26Detector.builder()
+                .session(session)
+                .labels(TEST_LABELS)
+                .inputName("images")
+                .inputSize(32)
+                .confidenceThreshold(0.5f)
+                .build();
+
+        List<List<Detection>> results = model.detectBatch(List.of(
+                new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB),
+                new BufferedImage(200, 40, BufferedImage.TYPE_INT_RGB)));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).singleElement().satisfies(d -> {
+            assertThat(d.label()).isEqualTo("person");
+            assertThat(d.box().x1()).isCloseTo(37.5f, within(1e-3f));
+        });
+        assertThat(results.get(1)).singleElement().satisfies(d -> {
+            assertThat(d.label()).isEqualTo("car");
+            assertThat(d.box().x1()).isCloseTo(75f, within(1e-3f));
+            assertThat(d.box().y1()).isCloseTo(15f, within(1e-3f));
+        });
+        verify(session, times(1)).run(any());
+    }
+
+    @Test
+    void detectBatch_outputBatchMismatch_throws() {
+        InferenceSession session = mock(InferenceSession.class);
+
+        Map<String, Tensor> outputs = new LinkedHashMap<>();
+        outputs.put("logits", Tensor.fromFloats(new float[NUM_CLASSES], new long[]{1, 1, NUM_CLASSES}));
+        outputs.put("pred_boxes", Tensor.fromFloats(new float[4], new long[]{1, 1, 4}));
+        when(session.run(any())).thenReturn(outputs);
+
+        Yolo26Detector model = Yolo26Detector.builder()
+                .session(session)
+                .labels(TEST_LABELS)
+                .inputName("images")
+                .inputSize(32)
+                .build();
+
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        assertThatThrownBy(() -> model.detectBatch(List.of(image, image)))
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("[1, 1, " + NUM_CLASSES + "]");
+    }
+
     // --- Close delegation ---
 
     @Test
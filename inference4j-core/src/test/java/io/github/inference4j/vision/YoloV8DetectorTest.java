@@ -19,9 +19,11 @@ package io.github.inference4j.vision;
 import io.github.inference4j.InferenceSession;
 import io.github.inference4j.model.ModelSource;
 import io.github.inference4j.Tensor;
+import io.github.inference4j.exception.InferenceException;
 import io.github.inference4j.exception.ModelSourceException;
 import io.github.inference4j.preprocessing.image.Labels;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.awt.image.BufferedImage;
 import java.nio.file.Path;
@@ -279,6 +281,90 @@ class YoloV8DetectorTest {
         assertThat(results.get(0).confidence()).isCloseTo(0.9f, within(1e-5f));
     }
 
+    @Test
+    void detectBatch_runsOnceAndUnletterboxesEachSlice() {
+        InferenceSession session = mock(InferenceSession.class);
+
+        // Image 0 (32x32, no letterbox): person; image 1 (64x32, scale 0.5, padY 8): car
+        float[] first = createOutput(new float[]{16, 16, 20, 20, 0.9f, 0.1f, 0.0f, 0.0f, 0.0f});
+        float[] second = createOutput(new float[]{16, 16, 8, 8, 0.0f, 0.0f, 0.8f, 0.0f, 0.0f});
+        float[] output = new float[first.length + second.length];
+        System.arraycopy(first, 0, output, 0, first.length);
+        System.arraycopy(second, 0, output, first.length, second.length);
+        when(session.run(any())).thenReturn(
+                Map.of("output", Tensor.fromFloats(output, new long[]{2, NUM_OUTPUTS, 1})));
+
+        YoloV8Detector model = YoloV8Detector.builder()
+                .session(session)
+                .labels(TEST_LABELS)
+                .inputName("images")
+                .inputSize(32)
+                .build();
+
+        List<List<Detection>> results = model.detectBatch(List.of(
+                new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB),
+                new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB)));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0)).singleElement().satisfies(d -> {
+            assertThat(d.label()).isEqualTo("person");
+            assertThat(d.box().x1()).isCloseTo(6f, within(1e-4f));
+            assertThat(d.box().y2()).isCloseTo(26f, within(1e-4f));
+        });
+        assertThat(results.get(1)).singleElement().satisfies(d -> {
+            assertThat(d.label()).isEqualTo("car");
+            assertThat(d.box().x1()).isCloseTo(24f, within(1e-4f));
+            assertThat(d.box().y1()).isCloseTo(8f, within(1e-4f));
+            assertThat(d.box().x2()).isCloseTo(40f, within(1e-4f));
+            assertThat(d.box().y2()).isCloseTo(24f, within(1e-4f));
+        });
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Tensor>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(session, times(1)).run(captor.capture());
+        assertThat(captor.getValue().get("images").shape()).containsExactly(2, 3, 32, 32);
+    }
+
+    @Test
+    void detectBatch_fixedBatchSizeOne_runsPerImage() {
+        InferenceSession session = mock(InferenceSession.class);
+        when(session.inputShape("images")).thenReturn(new long[]{1, 3, 32, 32});
+        float[] output = createOutput(new float[]{16, 16, 20, 20, 0.9f, 0.1f, 0.0f, 0.0f, 0.0f});
+        when(session.run(any())).thenReturn(Map.of("output", Tensor.fromFloats(output, shape(1))));
+
+        YoloV8Detector model = YoloV8Detector.builder()
+                .session(session)
+                .labels(TEST_LABELS)
+                .inputName("images")
+                .inputSize(32)
+                .build();
+
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        List<List<Detection>> results = model.detectBatch(List.of(image, image));
+
+        assertThat(results).hasSize(2).allSatisfy(r -> assertThat(r).hasSize(1));
+        verify(session, times(2)).run(any());
+    }
+
+    @Test
+    void detectBatch_outputBatchMismatch_throws() {
+        InferenceSession session = mock(InferenceSession.class);
+        float[] output = createOutput(new float[]{16, 16, 20, 20, 0.9f, 0.1f, 0.0f, 0.0f, 0.0f});
+        when(session.run(any())).thenReturn(Map.of("output", Tensor.fromFloats(output, shape(1))));
+
+        YoloV8Detector model = YoloV8Detector.builder()
+                .session(session)
+                .labels(TEST_LABELS)
+                .inputName("images")
+                .inputSize(32)
+                .build();
+
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        assertThatThrownBy(() -> model.detectBatch(List.of(image, image)))
+                .isInstanceOf(InferenceException.class)
+                .hasMessageContaining("[1, " + NUM_OUTPUTS + ", 1]");
+    }
+
     // --- Close delegation ---
 
     @Test
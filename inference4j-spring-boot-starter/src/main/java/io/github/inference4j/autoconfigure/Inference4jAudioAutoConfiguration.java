@@ -19,7 +19,9 @@ import io.github.inference4j.audio.SileroVadDetector;
 import io.github.inference4j.audio.SpeechRecognizer;
 import io.github.inference4j.audio.VoiceActivityDetector;
 import io.github.inference4j.audio.Wav2Vec2Recognizer;
+import io.github.inference4j.session.GlobalThreadPools;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -40,9 +42,12 @@ public class Inference4jAudioAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(SpeechRecognizer.class)
 	@ConditionalOnProperty(prefix = "inference4j.audio.speech-recognizer", name = "enabled", havingValue = "true")
-	public SpeechRecognizer speechRecognizer(Inference4jProperties properties) {
+	public SpeechRecognizer speechRecognizer(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getAudio().getSpeechRecognizer();
 		return Wav2Vec2Recognizer.builder()
-			.modelId(properties.getAudio().getSpeechRecognizer().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
@@ -50,9 +55,12 @@ public class Inference4jAudioAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(VoiceActivityDetector.class)
 	@ConditionalOnProperty(prefix = "inference4j.audio.vad", name = "enabled", havingValue = "true")
-	public VoiceActivityDetector voiceActivityDetector(Inference4jProperties properties) {
+	public VoiceActivityDetector voiceActivityDetector(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getAudio().getVad();
 		return SileroVadDetector.builder()
-			.modelId(properties.getAudio().getVad().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
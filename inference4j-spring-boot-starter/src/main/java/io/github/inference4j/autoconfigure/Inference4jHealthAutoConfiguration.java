@@ -17,7 +17,9 @@ package io.github.inference4j.autoconfigure;
 
 import java.util.List;
 
+import io.github.inference4j.InferenceSession;
 import io.github.inference4j.InferenceTask;
+import io.github.inference4j.session.ThreadTopology;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.Health;
@@ -44,7 +46,13 @@ public class Inference4jHealthAutoConfiguration {
 			if (activeTasks.isEmpty()) {
 				return Health.unknown().withDetail("reason", "No inference4j tasks configured").build();
 			}
-			return Health.up().withDetail("tasks", activeTasks.size()).build();
+			ThreadTopology topology = InferenceSession.threadTopology();
+			return Health.up()
+				.withDetail("tasks", activeTasks.size())
+				.withDetail("onnxRuntimeThreads", topology.totalThreads())
+				.withDetail("availableProcessors", topology.availableProcessors())
+				.withDetail("globalThreadPools", topology.globalPools() != null)
+				.build();
 		};
 	}
 
@@ -21,7 +21,9 @@ import io.github.inference4j.nlp.SearchReranker;
 import io.github.inference4j.nlp.SentenceTransformerEmbedder;
 import io.github.inference4j.nlp.TextClassifier;
 import io.github.inference4j.nlp.TextEmbedder;
+import io.github.inference4j.session.GlobalThreadPools;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -42,9 +44,12 @@ public class Inference4jNlpAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(TextClassifier.class)
 	@ConditionalOnProperty(prefix = "inference4j.nlp.text-classifier", name = "enabled", havingValue = "true")
-	public TextClassifier textClassifier(Inference4jProperties properties) {
+	public TextClassifier textClassifier(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getNlp().getTextClassifier();
 		return DistilBertTextClassifier.builder()
-			.modelId(properties.getNlp().getTextClassifier().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
@@ -52,9 +57,12 @@ public class Inference4jNlpAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(TextEmbedder.class)
 	@ConditionalOnProperty(prefix = "inference4j.nlp.text-embedder", name = "enabled", havingValue = "true")
-	public TextEmbedder textEmbedder(Inference4jProperties properties) {
+	public TextEmbedder textEmbedder(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getNlp().getTextEmbedder();
 		return SentenceTransformerEmbedder.builder()
-			.modelId(properties.getNlp().getTextEmbedder().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
@@ -62,9 +70,12 @@ public class Inference4jNlpAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(SearchReranker.class)
 	@ConditionalOnProperty(prefix = "inference4j.nlp.search-reranker", name = "enabled", havingValue = "true")
-	public SearchReranker searchReranker(Inference4jProperties properties) {
+	public SearchReranker searchReranker(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getNlp().getSearchReranker();
 		return MiniLMSearchReranker.builder()
-			.modelId(properties.getNlp().getSearchReranker().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
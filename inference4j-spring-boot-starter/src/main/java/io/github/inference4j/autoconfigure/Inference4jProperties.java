@@ -15,6 +15,15 @@
  */
 package io.github.inference4j.autoconfigure;
 
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ai.onnxruntime.OrtSession.SessionOptions.ExecutionMode;
+import ai.onnxruntime.OrtSession.SessionOptions.OptLevel;
+import io.github.inference4j.session.GlobalThreadPools;
+import io.github.inference4j.session.SessionOptions;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -22,6 +31,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  *
  * <p>Each task is opt-in: set {@code inference4j.<domain>.<task>.enabled=true}
  * in your application properties to create the corresponding bean.
+ *
+ * <p>ONNX Runtime session settings can be set for all tasks under
+ * {@code inference4j.session.*} and overridden per task under
+ * {@code inference4j.<domain>.<task>.session.*}.
  */
 @ConfigurationProperties(prefix = "inference4j")
 public class Inference4jProperties {
@@ -32,6 +45,10 @@ public class Inference4jProperties {
 
 	private AudioProperties audio = new AudioProperties();
 
+	private SessionProperties session = new SessionProperties();
+
+	private ThreadingProperties threading = new ThreadingProperties();
+
 	public NlpProperties getNlp() {
 		return nlp;
 	}
@@ -56,6 +73,39 @@ public class Inference4jProperties {
 		this.audio = audio;
 	}
 
+	public SessionProperties getSession() {
+		return session;
+	}
+
+	public void setSession(SessionProperties session) {
+		this.session = session;
+	}
+
+	public ThreadingProperties getThreading() {
+		return threading;
+	}
+
+	public void setThreading(ThreadingProperties threading) {
+		this.threading = threading;
+	}
+
+	/**
+	 * Resolves the session options for a task, applying its overrides on top of the
+	 * global {@code inference4j.session.*} settings.
+	 */
+	public SessionOptions sessionOptions(TaskProperties task) {
+		return sessionOptions(task, null);
+	}
+
+	/**
+	 * Resolves the session options for a task. When {@code globalThreadPools} is
+	 * non-null, the task runs on them unless {@code use-global-thread-pools} is set
+	 * to {@code false}.
+	 */
+	public SessionOptions sessionOptions(TaskProperties task, GlobalThreadPools globalThreadPools) {
+		return task.getSession().toSessionOptions(session, globalThreadPools != null);
+	}
+
 	public static class NlpProperties {
 
 		private TaskProperties textClassifier = new TaskProperties(
@@ -155,6 +205,8 @@ public class Inference4jProperties {
 
 		private String modelId;
 
+		private SessionProperties session = new SessionProperties();
+
 		public TaskProperties() {
 		}
 
@@ -178,6 +230,220 @@ public class Inference4jProperties {
 			this.modelId = modelId;
 		}
 
+		public SessionProperties getSession() {
+			return session;
+		}
+
+		public void setSession(SessionProperties session) {
+			this.session = session;
+		}
+
+	}
+
+	/**
+	 * ONNX Runtime session settings. Unset values fall back to the global settings,
+	 * then to the {@link SessionOptions} defaults.
+	 */
+	public static class SessionProperties {
+
+		private Integer intraOpNumThreads;
+
+		private Integer interOpNumThreads;
+
+		private OptLevel optimizationLevel;
+
+		private ExecutionMode executionMode;
+
+		private Boolean cpuMemoryArena;
+
+		private Boolean memoryPatternOptimization;
+
+		private Boolean spinWait;
+
+		private Boolean useGlobalThreadPools;
+
+		private Path optimizedModelCacheDir;
+
+		private Map<String, Long> freeDimensionOverrides = new LinkedHashMap<>();
+
+		public Integer getIntraOpNumThreads() {
+			return intraOpNumThreads;
+		}
+
+		public void setIntraOpNumThreads(Integer intraOpNumThreads) {
+			this.intraOpNumThreads = intraOpNumThreads;
+		}
+
+		public Integer getInterOpNumThreads() {
+			return interOpNumThreads;
+		}
+
+		public void setInterOpNumThreads(Integer interOpNumThreads) {
+			this.interOpNumThreads = interOpNumThreads;
+		}
+
+		public OptLevel getOptimizationLevel() {
+			return optimizationLevel;
+		}
+
+		public void setOptimizationLevel(OptLevel optimizationLevel) {
+			this.optimizationLevel = optimizationLevel;
+		}
+
+		public ExecutionMode getExecutionMode() {
+			return executionMode;
+		}
+
+		public void setExecutionMode(ExecutionMode executionMode) {
+			this.executionMode = executionMode;
+		}
+
+		public Boolean getCpuMemoryArena() {
+			return cpuMemoryArena;
+		}
+
+		public void setCpuMemoryArena(Boolean cpuMemoryArena) {
+			this.cpuMemoryArena = cpuMemoryArena;
+		}
+
+		public Boolean getMemoryPatternOptimization() {
+			return memoryPatternOptimization;
+		}
+
+		public void setMemoryPatternOptimization(Boolean memoryPatternOptimization) {
+			this.memoryPatternOptimization = memoryPatternOptimization;
+		}
+
+		public Boolean getSpinWait() {
+			return spinWait;
+		}
+
+		public void setSpinWait(Boolean spinWait) {
+			this.spinWait = spinWait;
+		}
+
+		public Boolean getUseGlobalThreadPools() {
+			return useGlobalThreadPools;
+		}
+
+		public void setUseGlobalThreadPools(Boolean useGlobalThreadPools) {
+			this.useGlobalThreadPools = useGlobalThreadPools;
+		}
+
+		public Path getOptimizedModelCacheDir() {
+			return optimizedModelCacheDir;
+		}
+
+		public void setOptimizedModelCacheDir(Path optimizedModelCacheDir) {
+			this.optimizedModelCacheDir = optimizedModelCacheDir;
+		}
+
+		public Map<String, Long> getFreeDimensionOverrides() {
+			return freeDimensionOverrides;
+		}
+
+		public void setFreeDimensionOverrides(Map<String, Long> freeDimensionOverrides) {
+			this.freeDimensionOverrides = freeDimensionOverrides;
+		}
+
+		/**
+		 * Builds session options from these settings, using {@code defaults} for any
+		 * value left unset.
+		 */
+		public SessionOptions toSessionOptions(SessionProperties defaults) {
+			return toSessionOptions(defaults, false);
+		}
+
+		SessionOptions toSessionOptions(SessionProperties defaults, boolean globalThreadPoolsAvailable) {
+			SessionOptions.Builder builder = SessionOptions.builder();
+			Boolean globalPools = pick(useGlobalThreadPools, defaults.useGlobalThreadPools);
+			builder.useGlobalThreadPools(globalPools != null ? globalPools : globalThreadPoolsAvailable);
+			Integer intraOp = pick(intraOpNumThreads, defaults.intraOpNumThreads);
+			if (intraOp != null) {
+				builder.intraOpNumThreads(intraOp);
+			}
+			Integer interOp = pick(interOpNumThreads, defaults.interOpNumThreads);
+			if (interOp != null) {
+				builder.interOpNumThreads(interOp);
+			}
+			OptLevel level = pick(optimizationLevel, defaults.optimizationLevel);
+			if (level != null) {
+				builder.optimizationLevel(level);
+			}
+			builder.executionMode(pick(executionMode, defaults.executionMode));
+			Boolean arena = pick(cpuMemoryArena, defaults.cpuMemoryArena);
+			if (arena != null) {
+				builder.cpuMemoryArena(arena);
+			}
+			Boolean memoryPattern = pick(memoryPatternOptimization, defaults.memoryPatternOptimization);
+			if (memoryPattern != null) {
+				builder.memoryPatternOptimization(memoryPattern);
+			}
+			Boolean spin = pick(spinWait, defaults.spinWait);
+			if (spin != null) {
+				builder.spinWait(spin);
+			}
+			Path cacheDir = pick(optimizedModelCacheDir, defaults.optimizedModelCacheDir);
+			if (cacheDir != null) {
+				builder.optimizedModelCache(cacheDir);
+			}
+			Map<String, Long> overrides = new LinkedHashMap<>(defaults.freeDimensionOverrides);
+			overrides.putAll(freeDimensionOverrides);
+			overrides.forEach(builder::freeDimensionOverride);
+			return builder.build();
+		}
+
+		private static <T> T pick(T value, T fallback) {
+			return value != null ? value : fallback;
+		}
+
+	}
+
+	/**
+	 * Process-wide ONNX Runtime thread pools shared by all auto-configured tasks.
+	 */
+	public static class ThreadingProperties {
+
+		private boolean globalPools = false;
+
+		private Integer intraOpNumThreads;
+
+		private Integer interOpNumThreads;
+
+		private boolean spinWait = true;
+
+		public boolean isGlobalPools() {
+			return globalPools;
+		}
+
+		public void setGlobalPools(boolean globalPools) {
+			this.globalPools = globalPools;
+		}
+
+		public Integer getIntraOpNumThreads() {
+			return intraOpNumThreads;
+		}
+
+		public void setIntraOpNumThreads(Integer intraOpNumThreads) {
+			this.intraOpNumThreads = intraOpNumThreads;
+		}
+
+		public Integer getInterOpNumThreads() {
+			return interOpNumThreads;
+		}
+
+		public void setInterOpNumThreads(Integer interOpNumThreads) {
+			this.interOpNumThreads = interOpNumThreads;
+		}
+
+		public boolean isSpinWait() {
+			return spinWait;
+		}
+
+		public void setSpinWait(boolean spinWait) {
+			this.spinWait = spinWait;
+		}
+
 	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.autoconfigure;
+
+import io.github.inference4j.session.GlobalThreadPools;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for process-wide ONNX Runtime thread pools.
+ *
+ * <p>When {@code inference4j.threading.global-pools=true}, the ONNX Runtime
+ * environment is created with global intra- and inter-op pools, and every
+ * auto-configured task runs on them instead of creating its own.
+ */
+@AutoConfiguration(before = { Inference4jNlpAutoConfiguration.class, Inference4jVisionAutoConfiguration.class,
+		Inference4jAudioAutoConfiguration.class })
+@ConditionalOnClass(GlobalThreadPools.class)
+@ConditionalOnProperty(prefix = "inference4j.threading", name = "global-pools", havingValue = "true")
+@EnableConfigurationProperties(Inference4jProperties.class)
+public class Inference4jThreadingAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GlobalThreadPools inference4jGlobalThreadPools(Inference4jProperties properties) {
+		Inference4jProperties.ThreadingProperties threading = properties.getThreading();
+		int intraOp = threading.getIntraOpNumThreads() != null ? threading.getIntraOpNumThreads()
+				: Runtime.getRuntime().availableProcessors();
+		int interOp = threading.getInterOpNumThreads() != null ? threading.getInterOpNumThreads() : 1;
+		return GlobalThreadPools.configure(intraOp, interOp, threading.isSpinWait());
+	}
+
+}
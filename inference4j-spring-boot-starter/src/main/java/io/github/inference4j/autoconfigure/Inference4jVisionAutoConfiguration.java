@@ -21,7 +21,9 @@ import io.github.inference4j.vision.ObjectDetector;
 import io.github.inference4j.vision.ResNetClassifier;
 import io.github.inference4j.vision.TextDetector;
 import io.github.inference4j.vision.YoloV8Detector;
+import io.github.inference4j.session.GlobalThreadPools;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -42,9 +44,12 @@ public class Inference4jVisionAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(ImageClassifier.class)
 	@ConditionalOnProperty(prefix = "inference4j.vision.image-classifier", name = "enabled", havingValue = "true")
-	public ImageClassifier imageClassifier(Inference4jProperties properties) {
+	public ImageClassifier imageClassifier(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getVision().getImageClassifier();
 		return ResNetClassifier.builder()
-			.modelId(properties.getVision().getImageClassifier().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
@@ -52,9 +57,12 @@ public class Inference4jVisionAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(ObjectDetector.class)
 	@ConditionalOnProperty(prefix = "inference4j.vision.object-detector", name = "enabled", havingValue = "true")
-	public ObjectDetector objectDetector(Inference4jProperties properties) {
+	public ObjectDetector objectDetector(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getVision().getObjectDetector();
 		return YoloV8Detector.builder()
-			.modelId(properties.getVision().getObjectDetector().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
@@ -62,9 +70,12 @@ public class Inference4jVisionAutoConfiguration {
 	@Lazy
 	@ConditionalOnMissingBean(TextDetector.class)
 	@ConditionalOnProperty(prefix = "inference4j.vision.text-detector", name = "enabled", havingValue = "true")
-	public TextDetector textDetector(Inference4jProperties properties) {
+	public TextDetector textDetector(Inference4jProperties properties,
+			ObjectProvider<GlobalThreadPools> globalThreadPools) {
+		Inference4jProperties.TaskProperties task = properties.getVision().getTextDetector();
 		return CraftTextDetector.builder()
-			.modelId(properties.getVision().getTextDetector().getModelId())
+			.modelId(task.getModelId())
+			.sessionOptions(properties.sessionOptions(task, globalThreadPools.getIfAvailable()))
 			.build();
 	}
 
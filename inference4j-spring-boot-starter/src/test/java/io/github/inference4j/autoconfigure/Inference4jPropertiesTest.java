@@ -16,6 +16,9 @@
 
 package io.github.inference4j.autoconfigure;
 
+import ai.onnxruntime.OrtSession.SessionOptions.ExecutionMode;
+import ai.onnxruntime.OrtSession.SessionOptions.OptLevel;
+import io.github.inference4j.session.SessionOptions;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.*;
@@ -99,4 +102,57 @@ class Inference4jPropertiesTest {
         assertThat(properties.getAudio().getSpeechRecognizer()).isNotNull();
         assertThat(properties.getAudio().getVad()).isNotNull();
     }
+
+    @Test
+    void sessionOptions_taskOverridesGlobalSettings() {
+        Inference4jProperties properties = new Inference4jProperties();
+        properties.getSession().setIntraOpNumThreads(4);
+        properties.getSession().setCpuMemoryArena(false);
+        properties.getSession().getFreeDimensionOverrides().put("batch_size", 1L);
+        Inference4jProperties.TaskProperties task = properties.getVision().getObjectDetector();
+        task.getSession().setIntraOpNumThreads(2);
+        task.getSession().setExecutionMode(ExecutionMode.PARALLEL);
+        task.getSession().getFreeDimensionOverrides().put("sequence_length", 128L);
+
+        SessionOptions options = properties.sessionOptions(task);
+
+        assertThat(options.intraOpNumThreads()).isEqualTo(2);
+        assertThat(options.cpuMemoryArena()).isFalse();
+        assertThat(options.executionMode()).isEqualTo(ExecutionMode.PARALLEL);
+        assertThat(options.freeDimensionOverrides())
+                .containsEntry("batch_size", 1L)
+                .containsEntry("sequence_length", 128L);
+    }
+
+    @Test
+    void sessionOptions_unsetValuesUseSessionOptionsDefaults() {
+        Inference4jProperties properties = new Inference4jProperties();
+
+        SessionOptions options = properties.sessionOptions(properties.getNlp().getTextEmbedder());
+
+        assertThat(options.intraOpNumThreads()).isEqualTo(SessionOptions.defaults().intraOpNumThreads());
+        assertThat(options.optimizationLevel()).isEqualTo(OptLevel.ALL_OPT);
+        assertThat(options.spinWait()).isNull();
+        assertThat(options.freeDimensionOverrides()).isEmpty();
+    }
+
+    @Test
+    void sessionOptions_usesGlobalThreadPoolsWhenAvailable() {
+        Inference4jProperties properties = new Inference4jProperties();
+        Inference4jProperties.TaskProperties task = properties.getNlp().getTextClassifier();
+
+        assertThat(task.getSession().toSessionOptions(properties.getSession(), true).useGlobalThreadPools())
+                .isTrue();
+        assertThat(properties.sessionOptions(task).useGlobalThreadPools()).isFalse();
+    }
+
+    @Test
+    void sessionOptions_taskCanOptOutOfGlobalThreadPools() {
+        Inference4jProperties properties = new Inference4jProperties();
+        Inference4jProperties.TaskProperties task = properties.getNlp().getTextClassifier();
+        task.getSession().setUseGlobalThreadPools(false);
+
+        assertThat(task.getSession().toSessionOptions(properties.getSession(), true).useGlobalThreadPools())
+                .isFalse();
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.inference4j.autoconfigure;
+
+import io.github.inference4j.session.GlobalThreadPools;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Inference4jThreadingAutoConfigurationTest {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+		.withConfiguration(AutoConfigurations.of(Inference4jThreadingAutoConfiguration.class));
+
+	@Test
+	void noGlobalPoolsByDefault() {
+		runner.run(ctx -> assertThat(ctx).doesNotHaveBean(GlobalThreadPools.class));
+	}
+
+	@Test
+	void noGlobalPoolsWhenDisabled() {
+		runner.withPropertyValues("inference4j.threading.global-pools=false")
+			.run(ctx -> assertThat(ctx).doesNotHaveBean(GlobalThreadPools.class));
+	}
+
+}